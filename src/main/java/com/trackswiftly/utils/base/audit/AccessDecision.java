@@ -0,0 +1,24 @@
+package com.trackswiftly.utils.base.audit;
+
+import com.trackswiftly.utils.enums.Resource;
+
+
+
+/**
+ * Access decision read back from the audit log.
+ *
+ * @param timestamp the decision time, in epoch milliseconds
+ * @param tenantId  the tenant, or {@code null} when none was set
+ * @param resource  the resource, or {@code null} if the URI was not a known resource
+ * @param method    the method name, or {@code null} if it was unknown
+ * @param allowed   whether access was granted
+ * @param idHash    hash of the accessed item IDs (see {@link AuditLog#idHash}), {@code 0} if none
+ */
+public record AccessDecision(
+    long timestamp,
+    String tenantId,
+    Resource resource,
+    String method,
+    boolean allowed,
+    long idHash
+) {}
@@ -0,0 +1,405 @@
+package com.trackswiftly.utils.base.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import com.trackswiftly.utils.base.utils.MethodMask;
+import com.trackswiftly.utils.enums.Resource;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Append-only audit log of access decisions.
+ * <p>
+ * {@link #record} packs a decision into three longs and publishes it to a
+ * preallocated lock-free ring; it never blocks and never does I/O, and drops
+ * the record (counted in {@link #dropped()}) if the ring is full. A background
+ * thread drains the ring in batches into memory-mapped segment files of fixed
+ * size, rotating to a new segment when one is full and deleting the oldest
+ * beyond the retention limit. Tenants are stored as ordinals, resolved through
+ * a {@value #TENANTS_FILE} dictionary next to the segments. New tenants get
+ * their ordinal from a concurrent map, so {@code record} takes no lock shared
+ * with the writer. After a write failure the writer backs off exponentially,
+ * up to one second, instead of retrying on every idle tick.
+ * <p>
+ * Segment layout: {@code int magic, int format, long recordCount}, then
+ * 24-byte records {@code long timestamp, long idHash, long packed}, where
+ * {@code packed} holds the tenant ordinal (bits 0-31), resource ordinal + 1
+ * (bits 32-39), method bit + 1 (bits 40-47) and the outcome (bit 48).
+ * Use {@link AuditLogReader} to query it.
+ */
+@Log4j2
+public class AuditLog implements AutoCloseable {
+
+
+    /**
+     * Dictionary of tenant IDs, one per line in ordinal order (ordinal 0 is "no tenant").
+     * Backslashes, line feeds and carriage returns are escaped as {@code \\}, {@code \n} and {@code \r}.
+     */
+    public static final String TENANTS_FILE = "tenants.txt";
+
+    static final String SEGMENT_PREFIX = "audit-";
+
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    static final int MAGIC = 0x54534155;
+
+    static final int FORMAT = 1;
+
+    static final int HEADER_SIZE = 16;
+
+    static final int RECORD_SIZE = 24;
+
+    static final long ALLOWED_BIT = 1L << 48;
+
+    private static final int DRAIN_BATCH = 4096;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+
+    private final Path directory;
+
+    private final int segmentRecords;
+
+    private final int maxSegments;
+
+    private final AuditRingBuffer ring;
+
+    private final Map<String, Integer> tenantOrdinals = new ConcurrentHashMap<>();
+
+    /** Tenants by ordinal, filled before an ordinal is handed out; read by the writer in ordinal order. */
+    private final Map<Integer, String> tenantsByOrdinal = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextOrdinal = new AtomicInteger(1);
+
+    private int persistedTenants;
+
+    private final Thread consumer;
+
+    private volatile boolean running = true;
+
+    private MappedByteBuffer segment;
+
+    private long segmentCount;
+
+    private int segmentIndex;
+
+
+
+    /**
+     * Opens an audit log with a ring of 65536 records, segments of 1M records and 64 retained segments.
+     *
+     * @param directory the directory of segment files, created if needed
+     * @throws IOException if the directory or tenant dictionary cannot be read
+     */
+    public AuditLog(Path directory) throws IOException {
+        this(directory, 1 << 16, 1 << 20, 64);
+    }
+
+
+    /**
+     * Opens an audit log.
+     *
+     * @param directory      the directory of segment files, created if needed
+     * @param ringCapacity   the number of decisions buffered in memory
+     * @param segmentRecords the number of decisions per segment file
+     * @param maxSegments    the number of segment files kept; older ones are deleted
+     * @throws IOException if the directory or tenant dictionary cannot be read
+     */
+    public AuditLog(Path directory, int ringCapacity, int segmentRecords, int maxSegments) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentRecords = segmentRecords;
+        this.maxSegments = maxSegments;
+        this.ring = new AuditRingBuffer(ringCapacity);
+
+        Path tenantsFile = directory.resolve(TENANTS_FILE);
+        if (Files.exists(tenantsFile)) {
+            List<String> lines = readTenants(directory);
+            for (int i = 1; i < lines.size(); i++) {
+                tenantOrdinals.put(lines.get(i), i);
+            }
+            nextOrdinal.set(Math.max(1, lines.size()));
+        } else {
+            Files.writeString(tenantsFile, System.lineSeparator(), StandardCharsets.UTF_8);
+        }
+        persistedTenants = nextOrdinal.get();
+
+        this.consumer = new Thread(this::consume, "audit-log-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+
+
+    /**
+     * Records an access decision. Never blocks.
+     *
+     * @param tenantId the tenant, or {@code null}
+     * @param resource the resource, or {@code null} if unknown
+     * @param method   the method name
+     * @param allowed  whether access was granted
+     * @param itemIds  the accessed item IDs
+     * @return {@code false} if the decision was dropped because the buffer was full
+     */
+    public boolean record(String tenantId, Resource resource, String method, boolean allowed, Collection<String> itemIds) {
+        long packed = (tenantOrdinal(tenantId) & 0xFFFFFFFFL)
+            | (long) (resource == null ? 0 : resource.ordinal() + 1) << 32
+            | (long) (MethodMask.bitIndex(method) + 1 & 0xFF) << 40
+            | (allowed ? ALLOWED_BIT : 0L);
+        return ring.offer(System.currentTimeMillis(), idHash(itemIds), packed);
+    }
+
+
+    /**
+     * Returns the number of decisions dropped because the buffer was full.
+     *
+     * @return the drop count
+     */
+    public long dropped() {
+        return ring.dropped();
+    }
+
+
+    /**
+     * Hashes item IDs the way they are stored in audit records, so that
+     * decisions about given IDs can be looked up.
+     *
+     * @param itemIds the item IDs, in request order
+     * @return the hash, {@code 0} if there are no IDs
+     */
+    public static long idHash(Collection<String> itemIds) {
+        if (itemIds == null || itemIds.isEmpty()) {
+            return 0L;
+        }
+        long h = 0xCBF29CE484222325L;
+        for (String id : itemIds) {
+            for (int i = 0; i < id.length(); i++) {
+                h = (h ^ id.charAt(i)) * 0x100000001B3L;
+            }
+            h = (h ^ 0x1F) * 0x100000001B3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+
+
+    private int tenantOrdinal(String tenantId) {
+        if (tenantId == null) {
+            return 0;
+        }
+        Integer ordinal = tenantOrdinals.get(tenantId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        return tenantOrdinals.computeIfAbsent(tenantId, key -> {
+            int assigned = nextOrdinal.getAndIncrement();
+            tenantsByOrdinal.put(assigned, key);
+            return assigned;
+        });
+    }
+
+
+
+    private void consume() {
+        long backoffNanos = 0;
+        while (true) {
+            int drained;
+            try {
+                drained = ring.drain(this::write, DRAIN_BATCH);
+                if (drained > 0) {
+                    persistTenants();
+                    segment.putLong(8, segmentCount);
+                }
+                if (backoffNanos > 0) {
+                    log.info("Audit log writes recovered");
+                    backoffNanos = 0;
+                }
+            } catch (IOException | UncheckedIOException e) {
+                if (backoffNanos == 0) {
+                    log.error("Failed to write audit records", e);
+                } else {
+                    log.debug("Audit log writes still failing", e);
+                }
+                backoffNanos = Math.min(MAX_BACKOFF_NANOS, Math.max(IDLE_PARK_NANOS, backoffNanos * 2));
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(backoffNanos);
+                continue;
+            }
+            if (drained == 0) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+
+    private void write(long timestamp, long idHash, long packed) {
+        try {
+            if (segment == null || segmentCount == segmentRecords) {
+                rotate();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int offset = HEADER_SIZE + (int) segmentCount * RECORD_SIZE;
+        segment.putLong(offset, timestamp);
+        segment.putLong(offset + 8, idHash);
+        segment.putLong(offset + 16, packed);
+        segmentCount++;
+    }
+
+
+    private void rotate() throws IOException {
+        if (segment != null) {
+            segment.putLong(8, segmentCount);
+            segment.force();
+        }
+        Path file;
+        do {
+            file = directory.resolve(String.format("%s%013d-%04d%s", SEGMENT_PREFIX, System.currentTimeMillis(), segmentIndex++ % 10000, SEGMENT_SUFFIX));
+        } while (Files.exists(file));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) segmentRecords * RECORD_SIZE);
+        }
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, FORMAT);
+        segment.putLong(8, 0L);
+        segmentCount = 0;
+        log.debug("Opened audit segment {}", file);
+        deleteExpiredSegments();
+    }
+
+
+    private void deleteExpiredSegments() throws IOException {
+        List<Path> segments = segments(directory);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+
+    /**
+     * Appends the tenants assigned since the last call, stopping at the first
+     * ordinal still being assigned so that lines stay in ordinal order.
+     */
+    private void persistTenants() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        int ordinal = persistedTenants;
+        for (String tenant; (tenant = tenantsByOrdinal.get(ordinal)) != null; ordinal++) {
+            lines.append(escape(tenant)).append(System.lineSeparator());
+        }
+        if (ordinal == persistedTenants) {
+            return;
+        }
+        Files.writeString(directory.resolve(TENANTS_FILE), lines, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        for (int persisted = persistedTenants; persisted < ordinal; persisted++) {
+            tenantsByOrdinal.remove(persisted);
+        }
+        persistedTenants = ordinal;
+    }
+
+
+    /**
+     * Reads the tenant dictionary of a directory, indexed by ordinal.
+     */
+    static List<String> readTenants(Path directory) throws IOException {
+        List<String> lines = Files.readAllLines(directory.resolve(TENANTS_FILE), StandardCharsets.UTF_8);
+        List<String> tenants = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            tenants.add(unescape(line));
+        }
+        return tenants;
+    }
+
+
+    private static String escape(String tenant) {
+        if (tenant.indexOf('\\') < 0 && tenant.indexOf('\n') < 0 && tenant.indexOf('\r') < 0) {
+            return tenant;
+        }
+        StringBuilder escaped = new StringBuilder(tenant.length() + 8);
+        for (int i = 0; i < tenant.length(); i++) {
+            char c = tenant.charAt(i);
+            switch (c) {
+                case '\\': escaped.append("\\\\"); break;
+                case '\n': escaped.append("\\n"); break;
+                case '\r': escaped.append("\\r"); break;
+                default: escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+
+    private static String unescape(String line) {
+        if (line.indexOf('\\') < 0) {
+            return line;
+        }
+        StringBuilder tenant = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                tenant.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                tenant.append(c);
+            }
+        }
+        return tenant.toString();
+    }
+
+
+    /**
+     * Lists the segment files of a directory, oldest first.
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+
+
+
+    /**
+     * Writes the buffered decisions and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (segment != null) {
+            segment.force();
+        }
+    }
+}
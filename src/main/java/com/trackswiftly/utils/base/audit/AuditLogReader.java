@@ -0,0 +1,116 @@
+package com.trackswiftly.utils.base.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.trackswiftly.utils.base.utils.MethodMask;
+import com.trackswiftly.utils.enums.HttpMethod;
+import com.trackswiftly.utils.enums.Resource;
+
+
+
+/**
+ * Reads access decisions written by an {@link AuditLog}, including the segment
+ * being written: only records counted in a segment header are visible.
+ */
+public class AuditLogReader {
+
+
+    private static final Resource[] RESOURCES = Resource.values();
+
+    private static final HttpMethod[] HTTP_METHODS = HttpMethod.values();
+
+
+    private final Path directory;
+
+
+
+    /**
+     * Creates a reader over an audit directory.
+     *
+     * @param directory the directory of an {@link AuditLog}
+     */
+    public AuditLogReader(Path directory) {
+        this.directory = directory;
+    }
+
+
+
+    /**
+     * Returns the decisions in a time range that match a filter, oldest first.
+     *
+     * @param fromMillis the start of the range, inclusive, in epoch milliseconds
+     * @param toMillis   the end of the range, exclusive, in epoch milliseconds
+     * @param filter     the filter applied to each decision in the range
+     * @return the matching decisions
+     * @throws IOException if a segment cannot be read
+     */
+    public List<AccessDecision> query(long fromMillis, long toMillis, Predicate<AccessDecision> filter) throws IOException {
+        List<AccessDecision> result = new ArrayList<>();
+        forEach(decision -> {
+            if (decision.timestamp() >= fromMillis && decision.timestamp() < toMillis && filter.test(decision)) {
+                result.add(decision);
+            }
+        });
+        return result;
+    }
+
+
+    /**
+     * Visits every retained decision, oldest first.
+     *
+     * @param visitor receives each decision
+     * @throws IOException if a segment cannot be read
+     */
+    public void forEach(Consumer<AccessDecision> visitor) throws IOException {
+        List<String> tenants = AuditLog.readTenants(directory);
+        for (Path file : AuditLog.segments(directory)) {
+            MappedByteBuffer segment;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (segment.capacity() < AuditLog.HEADER_SIZE || segment.getInt(0) != AuditLog.MAGIC || segment.getInt(4) != AuditLog.FORMAT) {
+                continue;
+            }
+            long count = segment.getLong(8);
+            for (int i = 0; i < count; i++) {
+                int offset = AuditLog.HEADER_SIZE + i * AuditLog.RECORD_SIZE;
+                visitor.accept(decode(segment.getLong(offset), segment.getLong(offset + 8), segment.getLong(offset + 16), tenants));
+            }
+        }
+    }
+
+
+    private static AccessDecision decode(long timestamp, long idHash, long packed, List<String> tenants) {
+        int tenantOrdinal = (int) packed;
+        int resourceOrdinal = (int) (packed >>> 32 & 0xFF) - 1;
+        int methodBit = (int) (packed >>> 40 & 0xFF) - 1;
+        String tenant = tenantOrdinal == 0 ? null
+            : tenantOrdinal < tenants.size() ? tenants.get(tenantOrdinal) : "#" + tenantOrdinal;
+        return new AccessDecision(
+            timestamp,
+            tenant,
+            resourceOrdinal >= 0 && resourceOrdinal < RESOURCES.length ? RESOURCES[resourceOrdinal] : null,
+            methodName(methodBit),
+            (packed & AuditLog.ALLOWED_BIT) != 0,
+            idHash);
+    }
+
+
+    private static String methodName(int bit) {
+        if (bit >= 0 && bit < HTTP_METHODS.length) {
+            return HTTP_METHODS[bit].name();
+        }
+        if (bit == MethodMask.SUBSCRIBE_BIT) {
+            return MethodMask.SUBSCRIBE;
+        }
+        return bit == MethodMask.PUBLISH_BIT ? MethodMask.PUBLISH : null;
+    }
+}
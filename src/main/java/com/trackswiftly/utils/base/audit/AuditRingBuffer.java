@@ -0,0 +1,126 @@
+package com.trackswiftly.utils.base.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+
+/**
+ * Preallocated, bounded multi-producer / single-consumer ring of fixed-size
+ * records of three longs.
+ * <p>
+ * Each slot carries a sequence number: producers claim a position with one
+ * CAS, write the record and publish it by advancing the slot sequence; the
+ * consumer only reads slots whose sequence says they are published. When the
+ * ring is full, {@link #offer} drops the record instead of waiting.
+ */
+final class AuditRingBuffer {
+
+
+    /**
+     * Receives drained records.
+     */
+    @FunctionalInterface
+    interface Sink {
+
+        void accept(long first, long second, long third);
+    }
+
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final long[] records;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private long head;
+
+
+
+    /**
+     * Creates a ring.
+     *
+     * @param capacity the number of records, rounded up to a power of two
+     */
+    AuditRingBuffer(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.records = new long[this.capacity * 3];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+
+
+    /**
+     * Publishes a record without blocking.
+     *
+     * @return {@code false} if the ring was full and the record was dropped
+     */
+    boolean offer(long first, long second, long third) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long sequence = sequences.get(slot);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    int base = slot * 3;
+                    records[base] = first;
+                    records[base + 1] = second;
+                    records[base + 2] = third;
+                    sequences.lazySet(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (sequence < position) {
+                dropped.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+
+    /**
+     * Hands published records to the sink, oldest first. Must only be called by the consumer thread.
+     *
+     * @param sink the receiver
+     * @param max  the maximum number of records to drain
+     * @return the number of records drained
+     */
+    int drain(Sink sink, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                break;
+            }
+            int base = slot * 3;
+            sink.accept(records[base], records[base + 1], records[base + 2]);
+            sequences.lazySet(slot, head + capacity);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+
+    /**
+     * Returns the number of records dropped because the ring was full.
+     *
+     * @return the drop count
+     */
+    long dropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,117 @@
+package com.trackswiftly.utils.base.capacity;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.trackswiftly.utils.enums.CapacityType;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Registry of {@link CapacityType#CUSTOM} capacity dimensions.
+ * <p>
+ * Each custom dimension (temperature zones, hazmat slots, ...) is declared once
+ * by name and mapped to a dense index, which is its position in
+ * {@code Capacity#getCustom()} and the column after the built-in ones in a
+ * {@link CapacityTable}. Indexes never change once assigned; persisted values are
+ * keyed by name, so they survive a different registration order after restart.
+ * Declare every dimension at startup with {@link #register(String)}; setting a
+ * value on a {@code Capacity} does not declare it.
+ * <p>
+ * Thread-safe.
+ */
+@Log4j2
+public final class CapacityDimensions {
+
+
+    private static final CapacityDimensions GLOBAL = new CapacityDimensions();
+
+    private final Map<String, Integer> indexes = new ConcurrentHashMap<>();
+
+    private volatile String[] names = new String[0];
+
+
+
+    /**
+     * Returns the process-wide registry, used by {@code Capacity} and its JPA converter.
+     *
+     * @return the global registry
+     */
+    public static CapacityDimensions global() {
+        return GLOBAL;
+    }
+
+
+
+    /**
+     * Declares a custom dimension, or returns its index if already declared.
+     *
+     * @param name the dimension name
+     * @return the dense index of the dimension
+     * @throws IllegalArgumentException if the name is blank or contains {@code =} or {@code ;}
+     */
+    public int register(String name) {
+        if (name == null || name.isBlank() || name.indexOf('=') >= 0 || name.indexOf(';') >= 0) {
+            throw new IllegalArgumentException("Invalid custom capacity dimension name: " + name);
+        }
+        Integer existing = indexes.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (this) {
+            existing = indexes.get(name);
+            if (existing != null) {
+                return existing;
+            }
+            int index = names.length;
+            String[] grown = Arrays.copyOf(names, index + 1);
+            grown[index] = name;
+            names = grown;
+            indexes.put(name, index);
+            log.debug("Registered custom capacity dimension '{}' at index {}", name, index);
+            return index;
+        }
+    }
+
+
+    /**
+     * Returns the index of a declared dimension.
+     *
+     * @param name the dimension name
+     * @return the index, or {@code -1} if not declared
+     */
+    public int indexOf(String name) {
+        Integer index = name == null ? null : indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+
+    /**
+     * Returns the name of a dimension.
+     *
+     * @param index the dimension index
+     * @return the name
+     * @throws IllegalArgumentException if no dimension has this index
+     */
+    public String name(int index) {
+        String[] declared = names;
+        if (index < 0 || index >= declared.length) {
+            throw new IllegalArgumentException(
+                "Unknown custom capacity dimension index " + index + "; " + declared.length + " dimensions are declared");
+        }
+        return declared[index];
+    }
+
+
+    /**
+     * Returns the number of declared dimensions.
+     *
+     * @return the dimension count
+     */
+    public int size() {
+        return names.length;
+    }
+}
@@ -0,0 +1,515 @@
+package com.trackswiftly.utils.base.capacity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.trackswiftly.utils.enums.Capacity;
+import com.trackswiftly.utils.enums.CapacityType;
+
+
+
+/**
+ * Structure-of-arrays view of the capacity of a whole fleet.
+ * <p>
+ * Each built-in {@link CapacityType} dimension, followed by each custom dimension
+ * declared in {@link CapacityDimensions} when the table was created, is stored as two primitive
+ * columns (limit and current load) indexed by row, so fit checks and the batch
+ * "which vehicles can take this load" query scan contiguous {@code double[]}
+ * arrays without boxing or null checks. Unset limits are stored as
+ * {@link Double#POSITIVE_INFINITY}.
+ * <p>
+ * Loads are passed as {@code double[]} vectors indexed by {@link #dimension(CapacityType)}
+ * and {@link #customDimension(String)}; see {@link #loadVector(Capacity)}.
+ * <p>
+ * Not thread-safe: guard concurrent updates externally, or build one table per
+ * dispatch snapshot.
+ */
+public class CapacityTable {
+
+
+    /** Built-in dimensions, in column order. */
+    private static final CapacityType[] BUILT_IN = { CapacityType.WEIGHT, CapacityType.VOLUME, CapacityType.BOX_COUNT, CapacityType.PALLETS };
+
+    /** Number of built-in dimensions. */
+    public static final int BUILT_IN_DIMENSIONS = BUILT_IN.length;
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+
+    private final CapacityDimensions customDimensions;
+
+    private final int dimensions;
+
+    private long[] vehicleIds;
+
+    private final double[][] limits;
+
+    private final double[][] used;
+
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+
+    private int size;
+
+
+
+    /**
+     * Creates an empty table.
+     */
+    public CapacityTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Creates an empty table sized for the given number of vehicles, with a column
+     * for every custom dimension currently declared in {@link CapacityDimensions#global()},
+     * the registry {@code Capacity} custom values are indexed by. Dimensions declared
+     * later are not part of this table.
+     *
+     * @param expectedVehicles the expected fleet size
+     */
+    public CapacityTable(int expectedVehicles) {
+        int initial = Math.max(1, expectedVehicles);
+        this.customDimensions = CapacityDimensions.global();
+        this.dimensions = BUILT_IN_DIMENSIONS + customDimensions.size();
+        this.limits = new double[dimensions][];
+        this.used = new double[dimensions][];
+        vehicleIds = new long[initial];
+        for (int d = 0; d < dimensions; d++) {
+            limits[d] = new double[initial];
+            used[d] = new double[initial];
+        }
+    }
+
+
+
+    /**
+     * Returns the column index of a built-in capacity dimension.
+     *
+     * @param type the capacity type
+     * @return the dimension index
+     * @throws IllegalArgumentException for {@link CapacityType#CUSTOM}
+     */
+    public static int dimension(CapacityType type) {
+        if (type == CapacityType.CUSTOM) {
+            throw new IllegalArgumentException("CUSTOM is not a built-in capacity dimension");
+        }
+        return type.ordinal();
+    }
+
+
+    /**
+     * Returns the column index of a custom dimension.
+     *
+     * @param name the custom dimension name
+     * @return the dimension index
+     * @throws IllegalArgumentException if the dimension is not part of this table
+     */
+    public int customDimension(String name) {
+        int index = customDimensions.indexOf(name);
+        if (index < 0 || BUILT_IN_DIMENSIONS + index >= dimensions) {
+            throw new IllegalArgumentException("Custom capacity dimension not part of this table: " + name);
+        }
+        return BUILT_IN_DIMENSIONS + index;
+    }
+
+
+    /**
+     * Converts a capacity limit into a vector for this table; unset dimensions become unlimited.
+     *
+     * @param capacity the capacity
+     * @return the limit vector
+     */
+    public double[] limitVector(Capacity capacity) {
+        double[] vector = new double[dimensions];
+        for (int d = 0; d < BUILT_IN_DIMENSIONS; d++) {
+            Double value = capacity == null ? null : capacity.getValue(BUILT_IN[d]);
+            vector[d] = value == null ? Double.POSITIVE_INFINITY : value;
+        }
+        for (int d = BUILT_IN_DIMENSIONS; d < dimensions; d++) {
+            double value = capacity == null ? Double.NaN : capacity.getCustom(d - BUILT_IN_DIMENSIONS);
+            vector[d] = Double.isNaN(value) ? Double.POSITIVE_INFINITY : value;
+        }
+        return vector;
+    }
+
+
+    /**
+     * Converts a load, expressed as a {@link Capacity}, into a vector for this table; unset dimensions become zero.
+     *
+     * @param load the load
+     * @return the load vector
+     * @throws IllegalArgumentException if the load uses a custom dimension that is not part of this table
+     */
+    public double[] loadVector(Capacity load) {
+        double[] vector = new double[dimensions];
+        for (int d = 0; d < BUILT_IN_DIMENSIONS; d++) {
+            Double value = load == null ? null : load.getValue(BUILT_IN[d]);
+            vector[d] = value == null ? 0d : value;
+        }
+        double[] custom = load == null ? null : load.getCustom();
+        if (custom != null) {
+            for (int i = 0; i < custom.length; i++) {
+                if (Double.isNaN(custom[i])) {
+                    continue;
+                }
+                if (BUILT_IN_DIMENSIONS + i >= dimensions) {
+                    throw new IllegalArgumentException("Load uses custom capacity dimension not part of this table: " + customDimensions.name(i));
+                }
+                vector[BUILT_IN_DIMENSIONS + i] = custom[i];
+            }
+        }
+        return vector;
+    }
+
+
+
+    /**
+     * Adds a vehicle, or replaces the limit of an existing one while keeping its current load.
+     *
+     * @param vehicleId the vehicle ID
+     * @param capacity  the vehicle's capacity
+     * @return the vehicle's row
+     */
+    public int put(long vehicleId, Capacity capacity) {
+        double[] limit = limitVector(capacity);
+        Integer existing = rowsById.get(vehicleId);
+        int row = existing == null ? appendRow(vehicleId) : existing;
+        for (int d = 0; d < dimensions; d++) {
+            limits[d][row] = limit[d];
+        }
+        return row;
+    }
+
+
+    private int appendRow(long vehicleId) {
+        if (size == vehicleIds.length) {
+            int grown = size * 2;
+            vehicleIds = Arrays.copyOf(vehicleIds, grown);
+            for (int d = 0; d < dimensions; d++) {
+                limits[d] = Arrays.copyOf(limits[d], grown);
+                used[d] = Arrays.copyOf(used[d], grown);
+            }
+        }
+        int row = size++;
+        vehicleIds[row] = vehicleId;
+        for (int d = 0; d < dimensions; d++) {
+            used[d][row] = 0d;
+        }
+        rowsById.put(vehicleId, row);
+        return row;
+    }
+
+
+
+    /**
+     * Returns the number of vehicles.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns the row of a vehicle.
+     *
+     * @param vehicleId the vehicle ID
+     * @return the row, or {@code -1} if unknown
+     */
+    public int rowOf(long vehicleId) {
+        Integer row = rowsById.get(vehicleId);
+        return row == null ? -1 : row;
+    }
+
+
+    /**
+     * Returns the vehicle ID of a row.
+     *
+     * @param row the row
+     * @return the vehicle ID
+     */
+    public long vehicleId(int row) {
+        checkRow(row);
+        return vehicleIds[row];
+    }
+
+
+    /**
+     * Returns the limit of a vehicle in one dimension.
+     *
+     * @param row  the row
+     * @param type the dimension
+     * @return the limit, {@link Double#POSITIVE_INFINITY} if unlimited
+     */
+    public double limit(int row, CapacityType type) {
+        checkRow(row);
+        return limits[dimension(type)][row];
+    }
+
+
+    /**
+     * Returns the current load of a vehicle in one dimension.
+     *
+     * @param row  the row
+     * @param type the dimension
+     * @return the current load
+     */
+    public double used(int row, CapacityType type) {
+        checkRow(row);
+        return used[dimension(type)][row];
+    }
+
+
+    /**
+     * Returns the limit of a vehicle in a dimension given by column index, including custom dimensions.
+     *
+     * @param row       the row
+     * @param dimension the dimension index
+     * @return the limit, {@link Double#POSITIVE_INFINITY} if unlimited
+     */
+    public double limit(int row, int dimension) {
+        checkRow(row);
+        return limits[dimension][row];
+    }
+
+
+    /**
+     * Returns the current load of a vehicle in a dimension given by column index, including custom dimensions.
+     *
+     * @param row       the row
+     * @param dimension the dimension index
+     * @return the current load
+     */
+    public double used(int row, int dimension) {
+        checkRow(row);
+        return used[dimension][row];
+    }
+
+
+    /**
+     * Returns the total current load of the fleet in one dimension.
+     *
+     * @param dimension the dimension index
+     * @return the sum of current loads
+     */
+    public double totalUsed(int dimension) {
+        double[] column = used[dimension];
+        double total = 0d;
+        for (int i = 0; i < size; i++) {
+            total += column[i];
+        }
+        return total;
+    }
+
+
+    /**
+     * Returns the total capacity left in the fleet in one dimension.
+     *
+     * @param dimension the dimension index
+     * @return the sum of remaining capacities, {@link Double#POSITIVE_INFINITY} if any vehicle is unlimited
+     */
+    public double totalRemaining(int dimension) {
+        double[] limit = limits[dimension];
+        double[] column = used[dimension];
+        double total = 0d;
+        for (int i = 0; i < size; i++) {
+            total += limit[i] - column[i];
+        }
+        return total;
+    }
+
+
+    /**
+     * Returns the capacity left on a vehicle in one dimension.
+     *
+     * @param row  the row
+     * @param type the dimension
+     * @return the remaining capacity
+     */
+    public double remaining(int row, CapacityType type) {
+        return limit(row, type) - used(row, type);
+    }
+
+
+
+    /**
+     * Checks whether a load fits on a vehicle given its current load. A
+     * dimension the load does not use never blocks it, even if the vehicle is
+     * already over its limit there, e.g. after {@link #put} lowered the limit.
+     *
+     * @param row  the row
+     * @param load the load vector
+     * @return {@code true} if the load fits in every dimension
+     */
+    public boolean fits(int row, double[] load) {
+        checkRow(row);
+        for (int d = 0; d < dimensions; d++) {
+            if (load[d] != 0d && used[d][row] + load[d] > limits[d][row]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Adds a load to a vehicle without checking that it fits.
+     *
+     * @param row  the row
+     * @param load the load vector
+     */
+    public void addLoad(int row, double[] load) {
+        checkRow(row);
+        for (int d = 0; d < dimensions; d++) {
+            used[d][row] += load[d];
+        }
+    }
+
+
+    /**
+     * Adds a load to a vehicle if it fits.
+     *
+     * @param row  the row
+     * @param load the load vector
+     * @return {@code true} if the load was added
+     */
+    public boolean tryAddLoad(int row, double[] load) {
+        if (!fits(row, load)) {
+            return false;
+        }
+        addLoad(row, load);
+        return true;
+    }
+
+
+    /**
+     * Removes a load from a vehicle, e.g. when an order is unassigned or delivered.
+     *
+     * @param row  the row
+     * @param load the load vector
+     */
+    public void subtractLoad(int row, double[] load) {
+        checkRow(row);
+        for (int d = 0; d < dimensions; d++) {
+            used[d][row] = Math.max(0d, used[d][row] - load[d]);
+        }
+    }
+
+
+    /**
+     * Clears the current load of every vehicle.
+     */
+    public void resetLoads() {
+        for (int d = 0; d < dimensions; d++) {
+            Arrays.fill(used[d], 0, size, 0d);
+        }
+    }
+
+
+
+    /**
+     * Finds every vehicle that can take the given load on top of its current load,
+     * with the same rule as {@link #fits(int, double[])}.
+     * <p>
+     * Scans one dimension at a time over contiguous columns, which lets the JIT
+     * unroll and vectorize the inner loop.
+     *
+     * @param load the load vector
+     * @param out  receives the matching rows in ascending order; must hold at least {@link #size()} entries
+     * @return the number of matching rows written to {@code out}
+     */
+    public int fittingRows(double[] load, int[] out) {
+        boolean[] ok = new boolean[size];
+        Arrays.fill(ok, true);
+        for (int d = 0; d < dimensions; d++) {
+            double value = load[d];
+            if (value == 0d) {
+                continue;
+            }
+            double[] limit = limits[d];
+            double[] current = used[d];
+            for (int i = 0; i < size; i++) {
+                ok[i] &= current[i] + value <= limit[i];
+            }
+        }
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (ok[i]) {
+                out[count++] = i;
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Finds the IDs of every vehicle that can take the given load.
+     *
+     * @param load the load vector
+     * @return the matching vehicle IDs, in row order
+     */
+    public long[] fittingVehicleIds(double[] load) {
+        int[] rows = new int[size];
+        int count = fittingRows(load, rows);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = vehicleIds[rows[i]];
+        }
+        return ids;
+    }
+
+
+    /**
+     * Finds the IDs of every vehicle that can take the given load.
+     *
+     * @param load the load, expressed as a {@link Capacity}
+     * @return the matching vehicle IDs, in row order
+     */
+    public long[] fittingVehicleIds(Capacity load) {
+        return fittingVehicleIds(loadVector(load));
+    }
+
+
+
+    /**
+     * Returns the number of capacity dimensions stored per vehicle.
+     *
+     * @return the dimension count
+     */
+    public int dimensions() {
+        return dimensions;
+    }
+
+
+    /**
+     * Returns the limit columns, one {@code double[]} per dimension, for in-package solvers.
+     * Only the first {@link #size()} entries of each column are meaningful.
+     *
+     * @return the live limit columns
+     */
+    double[][] limitColumns() {
+        return limits;
+    }
+
+
+    /**
+     * Returns the current-load columns, one {@code double[]} per dimension, for in-package solvers.
+     * Only the first {@link #size()} entries of each column are meaningful.
+     *
+     * @return the live load columns
+     */
+    double[][] usedColumns() {
+        return used;
+    }
+
+
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.trackswiftly.utils.base.capacity;
+
+import java.util.Arrays;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+
+
+/**
+ * JPA converter storing custom capacity values as a compact
+ * {@code name=value;name=value} string.
+ * <p>
+ * Values are keyed by dimension name rather than index so that stored rows stay
+ * valid whatever order dimensions are registered in; unknown names found in the
+ * database are registered on load. Unset dimensions ({@code NaN}) are not written;
+ * a set value at an index no dimension was declared for is rejected.
+ */
+@Converter
+public class CustomCapacityConverter implements AttributeConverter<double[], String> {
+
+
+    /**
+     * Writes the set values keyed by dimension name.
+     *
+     * @throws IllegalArgumentException if a set value has no declared dimension
+     */
+    @Override
+    public String convertToDatabaseColumn(double[] values) {
+        if (values == null) {
+            return null;
+        }
+        CapacityDimensions dimensions = CapacityDimensions.global();
+        StringBuilder column = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (Double.isNaN(values[i])) {
+                continue;
+            }
+            if (column.length() > 0) {
+                column.append(';');
+            }
+            column.append(dimensions.name(i)).append('=');
+            double value = values[i];
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                column.append((long) value);
+            } else {
+                column.append(value);
+            }
+        }
+        return column.length() == 0 ? null : column.toString();
+    }
+
+
+    @Override
+    public double[] convertToEntityAttribute(String column) {
+        if (column == null || column.isEmpty()) {
+            return null;
+        }
+        CapacityDimensions dimensions = CapacityDimensions.global();
+        double[] values = new double[0];
+        for (String entry : column.split(";")) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Malformed custom capacity entry: " + entry);
+            }
+            int index = dimensions.register(entry.substring(0, separator));
+            if (index >= values.length) {
+                int previous = values.length;
+                values = Arrays.copyOf(values, index + 1);
+                Arrays.fill(values, previous, values.length, Double.NaN);
+            }
+            values[index] = Double.parseDouble(entry.substring(separator + 1));
+        }
+        return values;
+    }
+}
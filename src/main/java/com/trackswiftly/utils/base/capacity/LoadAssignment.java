@@ -0,0 +1,60 @@
+package com.trackswiftly.utils.base.capacity;
+
+
+
+/**
+ * Result of a {@link LoadAssignmentSolver} run.
+ *
+ * @param vehicleRows     for each order (by input index), the assigned {@link CapacityTable} row, or {@code -1}
+ * @param vehicleIds      for each order (by input index), the assigned vehicle ID; meaningless when unassigned
+ * @param assignedCount   number of assigned orders
+ * @param vehiclesUsed    number of vehicles receiving at least one order
+ * @param restarts        number of constructions evaluated
+ */
+public record LoadAssignment(
+    int[] vehicleRows,
+    long[] vehicleIds,
+    int assignedCount,
+    int vehiclesUsed,
+    long restarts
+) {
+
+
+    /**
+     * Returns whether an order was assigned.
+     *
+     * @param order the order index
+     * @return {@code true} if assigned
+     */
+    public boolean isAssigned(int order) {
+        return vehicleRows[order] >= 0;
+    }
+
+
+    /**
+     * Returns the number of orders that could not be placed.
+     *
+     * @return the unassigned count
+     */
+    public int unassignedCount() {
+        return vehicleRows.length - assignedCount;
+    }
+
+
+    /**
+     * Returns whether this solution is strictly better than another: more orders
+     * placed, then fewer vehicles used.
+     *
+     * @param other the other solution, may be {@code null}
+     * @return {@code true} if better
+     */
+    public boolean isBetterThan(LoadAssignment other) {
+        if (other == null) {
+            return true;
+        }
+        if (assignedCount != other.assignedCount) {
+            return assignedCount > other.assignedCount;
+        }
+        return vehiclesUsed < other.vehiclesUsed;
+    }
+}
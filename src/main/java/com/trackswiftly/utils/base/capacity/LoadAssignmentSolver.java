@@ -0,0 +1,381 @@
+package com.trackswiftly.utils.base.capacity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.trackswiftly.utils.base.capacity.SolverOptions.Strategy;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Multi-dimensional load-to-vehicle assignment solver over a {@link CapacityTable}.
+ * <p>
+ * Every capacity dimension of the table must fit for an order to be placed on a
+ * vehicle, on top of the vehicle's current load. The solver first builds a
+ * solution with first-fit-decreasing or best-fit-decreasing, then, within the
+ * time budget, runs randomized restarts with a relocation-based improvement step
+ * in parallel on a fork/join pool. The best solution so far is always kept, so
+ * the result is available whenever the budget runs out (anytime behaviour).
+ * <p>
+ * The fleet table is only read; solutions are returned, not applied.
+ */
+@Log4j2
+public class LoadAssignmentSolver {
+
+
+    /** Restarts without improvement after which a worker stops once every order is placed. */
+    private static final int MAX_STALL_RESTARTS = 256;
+
+    /** Relative noise applied to order sizes in randomized restarts. */
+    private static final double SIZE_NOISE = 0.3;
+
+
+
+    /**
+     * Solves with the default options.
+     *
+     * @param fleet the fleet capacities and current loads
+     * @param loads the order loads, one vector of {@link CapacityTable#dimensions()} values per order
+     * @return the best assignment found
+     */
+    public LoadAssignment solve(CapacityTable fleet, double[][] loads) {
+        return solve(fleet, loads, SolverOptions.defaults());
+    }
+
+
+    /**
+     * Solves the assignment of orders to vehicles.
+     *
+     * @param fleet   the fleet capacities and current loads
+     * @param loads   the order loads, one vector of {@link CapacityTable#dimensions()} values per order
+     * @param options the solver options
+     * @return the best assignment found within the time budget
+     * @throws IllegalArgumentException if a load vector has the wrong number of dimensions
+     */
+    public LoadAssignment solve(CapacityTable fleet, double[][] loads, SolverOptions options) {
+
+        long deadline = System.nanoTime() + options.getTimeBudget().toNanos();
+        Problem problem = new Problem(fleet, loads);
+
+        int[] initialOrder = problem.sortedBySize(null);
+        LoadAssignment initial = problem.toResult(problem.construct(initialOrder, options.getStrategy()), 1);
+        AtomicReference<LoadAssignment> best = new AtomicReference<>(initial);
+        notifyImprovement(options, initial);
+
+        if (!options.isImprove() || problem.orders == 0 || problem.vehicles == 0) {
+            return initial;
+        }
+
+        AtomicLong restarts = new AtomicLong(1);
+        int workers = Math.max(1, options.getParallelism());
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            long seed = options.getSeed() + w;
+            Strategy strategy = w % 2 == 0 ? options.getStrategy() : other(options.getStrategy());
+            tasks.add(options.getPool().submit(() -> runWorker(problem, strategy, seed, deadline, best, restarts, options)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+
+        LoadAssignment result = best.get();
+        log.debug("Assigned {}/{} orders on {} vehicles after {} restarts",
+            result.assignedCount(), problem.orders, result.vehiclesUsed(), restarts.get());
+        return new LoadAssignment(result.vehicleRows(), result.vehicleIds(), result.assignedCount(), result.vehiclesUsed(), restarts.get());
+    }
+
+
+
+    private static Strategy other(Strategy strategy) {
+        return strategy == Strategy.FIRST_FIT_DECREASING ? Strategy.BEST_FIT_DECREASING : Strategy.FIRST_FIT_DECREASING;
+    }
+
+
+    private void runWorker(Problem problem, Strategy strategy, long seed, long deadline,
+                           AtomicReference<LoadAssignment> best, AtomicLong restarts, SolverOptions options) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int stall = 0;
+        while (System.nanoTime() < deadline) {
+            Packing packing = problem.construct(problem.sortedBySize(random), strategy);
+            problem.improve(packing, deadline);
+            LoadAssignment candidate = problem.toResult(packing, restarts.incrementAndGet());
+            if (offer(best, candidate)) {
+                notifyImprovement(options, candidate);
+                stall = 0;
+            } else if (best.get().unassignedCount() == 0 && ++stall >= MAX_STALL_RESTARTS) {
+                return;
+            }
+        }
+    }
+
+
+    private static boolean offer(AtomicReference<LoadAssignment> best, LoadAssignment candidate) {
+        while (true) {
+            LoadAssignment current = best.get();
+            if (!candidate.isBetterThan(current)) {
+                return false;
+            }
+            if (best.compareAndSet(current, candidate)) {
+                return true;
+            }
+        }
+    }
+
+
+    private static void notifyImprovement(SolverOptions options, LoadAssignment assignment) {
+        if (options.getOnImprovement() != null) {
+            options.getOnImprovement().accept(assignment);
+        }
+    }
+
+
+
+    /**
+     * Immutable snapshot of the fleet and orders shared by all workers.
+     */
+    private static final class Problem {
+
+        final int vehicles;
+        final int orders;
+        final int dimensions;
+        final long[] vehicleIds;
+        final double[][] limits;
+        final double[][] baseUsed;
+        final double[][] loads;
+        final double[] scale;
+        final double[] sizes;
+
+
+        Problem(CapacityTable fleet, double[][] loads) {
+            this.vehicles = fleet.size();
+            this.orders = loads.length;
+            this.dimensions = fleet.dimensions();
+            this.vehicleIds = new long[vehicles];
+            this.limits = new double[dimensions][];
+            this.baseUsed = new double[dimensions][];
+            this.loads = loads;
+            this.scale = new double[dimensions];
+            this.sizes = new double[orders];
+
+            for (int v = 0; v < vehicles; v++) {
+                vehicleIds[v] = fleet.vehicleId(v);
+            }
+            for (int d = 0; d < dimensions; d++) {
+                limits[d] = Arrays.copyOf(fleet.limitColumns()[d], vehicles);
+                baseUsed[d] = Arrays.copyOf(fleet.usedColumns()[d], vehicles);
+                double max = 0d;
+                for (int v = 0; v < vehicles; v++) {
+                    if (Double.isFinite(limits[d][v])) {
+                        max = Math.max(max, limits[d][v]);
+                    }
+                }
+                scale[d] = max > 0d ? max : 1d;
+            }
+            for (int o = 0; o < orders; o++) {
+                if (loads[o].length != dimensions) {
+                    throw new IllegalArgumentException("Load " + o + " has " + loads[o].length + " dimensions, expected " + dimensions);
+                }
+                double size = 0d;
+                for (int d = 0; d < dimensions; d++) {
+                    size = Math.max(size, loads[o][d] / scale[d]);
+                }
+                sizes[o] = size;
+            }
+        }
+
+
+        /**
+         * Returns order indexes sorted by decreasing (optionally perturbed) size.
+         * Sorting packs float keys and indexes into longs to avoid boxing.
+         */
+        int[] sortedBySize(SplittableRandom random) {
+            long[] packed = new long[orders];
+            for (int o = 0; o < orders; o++) {
+                double key = sizes[o];
+                if (random != null) {
+                    key *= 1d + SIZE_NOISE * (random.nextDouble() - 0.5d);
+                }
+                packed[o] = ((long) Float.floatToIntBits((float) Math.max(0d, key)) << 32) | o;
+            }
+            Arrays.sort(packed);
+            int[] result = new int[orders];
+            for (int i = 0; i < orders; i++) {
+                result[i] = (int) packed[orders - 1 - i];
+            }
+            return result;
+        }
+
+
+        Packing construct(int[] order, Strategy strategy) {
+            Packing packing = new Packing(this);
+            for (int o : order) {
+                int vehicle = strategy == Strategy.FIRST_FIT_DECREASING ? firstFit(packing, o) : bestFit(packing, o);
+                if (vehicle >= 0) {
+                    packing.place(o, vehicle);
+                }
+            }
+            return packing;
+        }
+
+
+        int firstFit(Packing packing, int order) {
+            for (int v = 0; v < vehicles; v++) {
+                if (packing.fits(order, v)) {
+                    return v;
+                }
+            }
+            return -1;
+        }
+
+
+        int bestFit(Packing packing, int order) {
+            int best = -1;
+            double bestResidual = Double.POSITIVE_INFINITY;
+            for (int v = 0; v < vehicles; v++) {
+                if (!packing.fits(order, v)) {
+                    continue;
+                }
+                double residual = packing.tightestResidual(order, v);
+                if (best < 0 || residual < bestResidual) {
+                    best = v;
+                    bestResidual = residual;
+                }
+            }
+            return best;
+        }
+
+
+        /**
+         * Tries to place each unassigned order by relocating one order already on
+         * a vehicle to another vehicle where it fits.
+         */
+        void improve(Packing packing, long deadline) {
+            for (int u = 0; u < orders; u++) {
+                if (packing.rows[u] >= 0) {
+                    continue;
+                }
+                if (System.nanoTime() >= deadline) {
+                    return;
+                }
+                relocateFor(packing, u);
+            }
+        }
+
+
+        private boolean relocateFor(Packing packing, int unassigned) {
+            for (int o = 0; o < orders; o++) {
+                int from = packing.rows[o];
+                if (from < 0) {
+                    continue;
+                }
+                packing.remove(o);
+                if (packing.fits(unassigned, from)) {
+                    for (int to = 0; to < vehicles; to++) {
+                        if (to != from && packing.fits(o, to)) {
+                            packing.place(o, to);
+                            packing.place(unassigned, from);
+                            return true;
+                        }
+                    }
+                }
+                packing.place(o, from);
+            }
+            return false;
+        }
+
+
+        LoadAssignment toResult(Packing packing, long restarts) {
+            long[] ids = new long[orders];
+            int assigned = 0;
+            boolean[] used = new boolean[vehicles];
+            int vehiclesUsed = 0;
+            for (int o = 0; o < orders; o++) {
+                int row = packing.rows[o];
+                if (row >= 0) {
+                    ids[o] = vehicleIds[row];
+                    assigned++;
+                    if (!used[row]) {
+                        used[row] = true;
+                        vehiclesUsed++;
+                    }
+                }
+            }
+            return new LoadAssignment(packing.rows.clone(), ids, assigned, vehiclesUsed, restarts);
+        }
+    }
+
+
+
+    /**
+     * Mutable working solution owned by a single worker.
+     */
+    private static final class Packing {
+
+        final Problem problem;
+        final double[][] used;
+        final int[] rows;
+
+
+        Packing(Problem problem) {
+            this.problem = problem;
+            this.used = new double[problem.dimensions][];
+            for (int d = 0; d < problem.dimensions; d++) {
+                used[d] = problem.baseUsed[d].clone();
+            }
+            this.rows = new int[problem.orders];
+            Arrays.fill(rows, -1);
+        }
+
+
+        /** Same rule as {@link CapacityTable#fits}: dimensions the order does not use never block it. */
+        boolean fits(int order, int vehicle) {
+            double[] load = problem.loads[order];
+            for (int d = 0; d < problem.dimensions; d++) {
+                if (load[d] != 0d && used[d][vehicle] + load[d] > problem.limits[d][vehicle]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+
+        double tightestResidual(int order, int vehicle) {
+            double[] load = problem.loads[order];
+            double tightest = Double.POSITIVE_INFINITY;
+            for (int d = 0; d < problem.dimensions; d++) {
+                if (load[d] == 0d) {
+                    continue;
+                }
+                double residual = (problem.limits[d][vehicle] - used[d][vehicle] - load[d]) / problem.scale[d];
+                tightest = Math.min(tightest, residual);
+            }
+            return tightest;
+        }
+
+
+        void place(int order, int vehicle) {
+            double[] load = problem.loads[order];
+            for (int d = 0; d < problem.dimensions; d++) {
+                used[d][vehicle] += load[d];
+            }
+            rows[order] = vehicle;
+        }
+
+
+        void remove(int order) {
+            int vehicle = rows[order];
+            double[] load = problem.loads[order];
+            for (int d = 0; d < problem.dimensions; d++) {
+                used[d][vehicle] -= load[d];
+            }
+            rows[order] = -1;
+        }
+    }
+}
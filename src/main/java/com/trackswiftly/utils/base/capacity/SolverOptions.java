@@ -0,0 +1,86 @@
+package com.trackswiftly.utils.base.capacity;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Consumer;
+
+import lombok.Builder;
+import lombok.Getter;
+
+
+
+/**
+ * Options for {@link LoadAssignmentSolver}.
+ */
+@Getter
+@Builder
+public class SolverOptions {
+
+
+    /** Default number of improvement workers: half the processors, so other work keeps running. */
+    static final int DEFAULT_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Pool shared by solvers using the default options. Dedicated, so solving
+     * never occupies the common pool used by parallel streams and
+     * {@code CompletableFuture}, and bounded to {@link #DEFAULT_PARALLELISM} threads.
+     */
+    private static final ForkJoinPool DEFAULT_POOL = new ForkJoinPool(DEFAULT_PARALLELISM, pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("load-solver-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }, null, false);
+
+
+    /**
+     * Construction heuristic used for the first solution.
+     */
+    public enum Strategy {
+
+        /** Place each order, largest first, on the first vehicle where it fits. */
+        FIRST_FIT_DECREASING,
+
+        /** Place each order, largest first, on the vehicle it fills the most. */
+        BEST_FIT_DECREASING
+    }
+
+
+    /** Construction heuristic for the first solution. */
+    @Builder.Default
+    private final Strategy strategy = Strategy.BEST_FIT_DECREASING;
+
+    /** Total time budget; the best solution found so far is returned when it runs out. */
+    @Builder.Default
+    private final Duration timeBudget = Duration.ofMillis(200);
+
+    /** Whether to run the parallel improvement phase after construction. */
+    @Builder.Default
+    private final boolean improve = true;
+
+    /** Number of concurrent improvement workers; each stays busy for the whole time budget. */
+    @Builder.Default
+    private final int parallelism = DEFAULT_PARALLELISM;
+
+    /** Pool running the improvement workers; a dedicated pool shared by all default solvers. */
+    @Builder.Default
+    private final ForkJoinPool pool = DEFAULT_POOL;
+
+    /** Seed for the randomized restarts, for reproducible runs. */
+    @Builder.Default
+    private final long seed = 42L;
+
+    /** Called with every strictly better solution as soon as it is found; may be {@code null}. */
+    private final Consumer<LoadAssignment> onImprovement;
+
+
+    /**
+     * Returns the default options.
+     *
+     * @return default options
+     */
+    public static SolverOptions defaults() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.trackswiftly.utils.base.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+
+
+/**
+ * Reader of bytes written by a {@link CodecOutput}. Not thread-safe.
+ */
+public final class CodecInput {
+
+
+    private final ByteBuffer buffer;
+
+
+
+    /**
+     * Creates an input over the remaining bytes of a buffer; the buffer's own
+     * position is not changed.
+     *
+     * @param buffer the encoded bytes
+     */
+    public CodecInput(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+    }
+
+
+    /**
+     * Creates an input over a byte array.
+     *
+     * @param bytes the encoded bytes
+     */
+    public CodecInput(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+
+
+    /**
+     * Returns the read position.
+     *
+     * @return the number of bytes read
+     */
+    public int position() {
+        return buffer.position();
+    }
+
+
+    /**
+     * Moves the read position.
+     *
+     * @param position the new position
+     */
+    public void position(int position) {
+        buffer.position(position);
+    }
+
+
+    /**
+     * Reads an unsigned varint.
+     *
+     * @return the value
+     * @throws IllegalArgumentException if the varint is longer than ten bytes
+     */
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint at " + buffer.position());
+    }
+
+
+    /**
+     * Reads an unsigned varint that fits an int.
+     *
+     * @return the value
+     */
+    public int readVarInt() {
+        return (int) readVarLong();
+    }
+
+
+    /**
+     * Reads a zigzag varint.
+     *
+     * @return the value
+     */
+    public long readSignedVarLong() {
+        long raw = readVarLong();
+        return raw >>> 1 ^ -(raw & 1);
+    }
+
+
+    /**
+     * Reads one byte.
+     *
+     * @return the byte, unsigned
+     */
+    public int readByte() {
+        return buffer.get() & 0xFF;
+    }
+
+
+    /**
+     * Reads a fixed eight-byte value.
+     *
+     * @return the value
+     */
+    public long readLong() {
+        return buffer.getLong();
+    }
+
+
+    /**
+     * Reads a nullable string.
+     *
+     * @return the string, or {@code null}
+     */
+    public String readString() {
+        int length = readVarInt();
+        if (length == 0) {
+            return null;
+        }
+        length--;
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+
+    /**
+     * Returns an independent input over the same bytes, at position zero.
+     */
+    CodecInput duplicate() {
+        return new CodecInput(buffer.duplicate().position(0));
+    }
+
+
+    /**
+     * Skips bytes.
+     *
+     * @param length the number of bytes
+     */
+    public void skip(int length) {
+        buffer.position(buffer.position() + length);
+    }
+}
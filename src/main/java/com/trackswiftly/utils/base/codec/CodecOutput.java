@@ -0,0 +1,199 @@
+package com.trackswiftly.utils.base.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+
+
+/**
+ * Growable, reusable output buffer of the DTO codecs.
+ * <p>
+ * Integers are written as LEB128 varints (signed values zigzag-encoded), so
+ * small page numbers, counts and IDs take one or two bytes; strings are
+ * written as their UTF-8 length followed by the bytes. Call {@link #reset()}
+ * to reuse the buffer for the next value. Not thread-safe.
+ */
+public final class CodecOutput {
+
+
+    private ByteBuffer buffer;
+
+
+
+    /**
+     * Creates an output with an initial capacity of 256 bytes.
+     */
+    public CodecOutput() {
+        this(256);
+    }
+
+
+    /**
+     * Creates an output.
+     *
+     * @param capacity the initial capacity in bytes
+     */
+    public CodecOutput(int capacity) {
+        this.buffer = ByteBuffer.allocate(Math.max(16, capacity));
+    }
+
+
+
+    /**
+     * Discards the written bytes, keeping the allocated buffer.
+     *
+     * @return this output
+     */
+    public CodecOutput reset() {
+        buffer.clear();
+        return this;
+    }
+
+
+    /**
+     * Returns the number of bytes written since the last reset.
+     *
+     * @return the length
+     */
+    public int length() {
+        return buffer.position();
+    }
+
+
+    /**
+     * Returns a read-only view of the written bytes, valid until the next write or reset.
+     *
+     * @return the written bytes, positioned at zero
+     */
+    public ByteBuffer view() {
+        return buffer.asReadOnlyBuffer().flip();
+    }
+
+
+    /**
+     * Copies the written bytes.
+     *
+     * @return the written bytes
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[buffer.position()];
+        System.arraycopy(buffer.array(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+
+
+    /**
+     * Writes an unsigned varint.
+     *
+     * @param value the value, treated as unsigned
+     * @return this output
+     */
+    public CodecOutput writeVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+        return this;
+    }
+
+
+    /**
+     * Writes an unsigned varint.
+     *
+     * @param value the value, treated as unsigned
+     * @return this output
+     */
+    public CodecOutput writeVarInt(int value) {
+        return writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+
+    /**
+     * Writes a signed value as a zigzag varint.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public CodecOutput writeSignedVarLong(long value) {
+        return writeVarLong(value << 1 ^ value >> 63);
+    }
+
+
+    /**
+     * Writes one byte.
+     *
+     * @param value the byte
+     * @return this output
+     */
+    public CodecOutput writeByte(int value) {
+        ensure(1);
+        buffer.put((byte) value);
+        return this;
+    }
+
+
+    /**
+     * Writes a fixed eight-byte value, e.g. the bits of a double.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public CodecOutput writeLong(long value) {
+        ensure(8);
+        buffer.putLong(value);
+        return this;
+    }
+
+
+    /**
+     * Writes a nullable string.
+     *
+     * @param value the string, or {@code null}
+     * @return this output
+     */
+    public CodecOutput writeString(String value) {
+        if (value == null) {
+            return writeVarInt(0);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        return writeBytes(bytes, 0, bytes.length);
+    }
+
+
+    /**
+     * Writes raw bytes.
+     *
+     * @param bytes  the source
+     * @param offset the first byte to write
+     * @param length the number of bytes
+     * @return this output
+     */
+    public CodecOutput writeBytes(byte[] bytes, int offset, int length) {
+        ensure(length);
+        buffer.put(bytes, offset, length);
+        return this;
+    }
+
+
+
+    /**
+     * Returns the backing array; valid up to {@link #length()} until the next write.
+     */
+    byte[] array() {
+        return buffer.array();
+    }
+
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+    }
+}
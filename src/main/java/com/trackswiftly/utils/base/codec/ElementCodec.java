@@ -0,0 +1,89 @@
+package com.trackswiftly.utils.base.codec;
+
+import java.util.function.Function;
+
+
+
+/**
+ * Encodes and decodes one DTO type for the {@link PageCodec}.
+ * <p>
+ * Implementations write the fields in a fixed order without names or type
+ * descriptors; the schema is the code. Change the field order only together
+ * with a new cache namespace.
+ *
+ * @param <T> the type of the encoded values
+ */
+public interface ElementCodec<T> {
+
+
+    /** Codec of {@code Long} values as zigzag varints. */
+    ElementCodec<Long> LONG = of((value, out) -> out.writeSignedVarLong(value), CodecInput::readSignedVarLong);
+
+    /** Codec of {@code Integer} values as zigzag varints. */
+    ElementCodec<Integer> INTEGER = of((value, out) -> out.writeSignedVarLong(value), in -> (int) in.readSignedVarLong());
+
+    /** Codec of {@code String} values as UTF-8. */
+    ElementCodec<String> STRING = of((value, out) -> out.writeString(value), CodecInput::readString);
+
+
+
+    /**
+     * Writes a non-null value.
+     *
+     * @param value the value
+     * @param out   the output
+     */
+    void encode(T value, CodecOutput out);
+
+
+    /**
+     * Reads a value written by {@link #encode}.
+     *
+     * @param in the input, positioned at the value
+     * @return the value
+     */
+    T decode(CodecInput in);
+
+
+
+    /**
+     * Creates a codec from an encoder and a decoder.
+     *
+     * @param <T>     the type of the encoded values
+     * @param encoder writes a value
+     * @param decoder reads a value
+     * @return the codec
+     */
+    static <T> ElementCodec<T> of(Encoder<T> encoder, Function<CodecInput, T> decoder) {
+        return new ElementCodec<>() {
+            @Override
+            public void encode(T value, CodecOutput out) {
+                encoder.encode(value, out);
+            }
+
+            @Override
+            public T decode(CodecInput in) {
+                return decoder.apply(in);
+            }
+        };
+    }
+
+
+
+    /**
+     * Encoding half of an {@link ElementCodec}.
+     *
+     * @param <T> the type of the encoded values
+     */
+    @FunctionalInterface
+    interface Encoder<T> {
+
+        /**
+         * Writes a non-null value.
+         *
+         * @param value the value
+         * @param out   the output
+         */
+        void encode(T value, CodecOutput out);
+    }
+}
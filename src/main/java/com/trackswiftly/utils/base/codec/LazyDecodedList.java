@@ -0,0 +1,82 @@
+package com.trackswiftly.utils.base.codec;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+
+
+/**
+ * Read-only list of encoded elements, each decoded on its first access.
+ * Serializing it decodes every element and writes a plain {@link ArrayList}
+ * instead, so the elements must be serializable. Not thread-safe.
+ *
+ * @param <T> the type of the elements
+ */
+final class LazyDecodedList<T> extends AbstractList<T> implements RandomAccess, Serializable {
+
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Object UNDECODED = new Object();
+
+
+    private final transient CodecInput input;
+
+    private final transient int[] offsets;
+
+    private final transient ElementCodec<T> codec;
+
+    private final transient Object[] decoded;
+
+
+
+    /**
+     * @param input   the input holding the elements
+     * @param offsets the position of each element in the input, {@code -1} for {@code null}
+     * @param codec   the element codec
+     */
+    LazyDecodedList(CodecInput input, int[] offsets, ElementCodec<T> codec) {
+        this.input = input;
+        this.offsets = offsets;
+        this.codec = codec;
+        this.decoded = new Object[offsets.length];
+        Arrays.fill(decoded, UNDECODED);
+    }
+
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Object value = decoded[index];
+        if (value == UNDECODED) {
+            if (offsets[index] < 0) {
+                value = null;
+            } else {
+                input.position(offsets[index]);
+                value = codec.decode(input);
+            }
+            decoded[index] = value;
+        }
+        return (T) value;
+    }
+
+
+    @Override
+    public int size() {
+        return offsets.length;
+    }
+
+
+    /**
+     * Replaces the list with its decoded elements when serialized.
+     *
+     * @return the materialized list
+     */
+    private Object writeReplace() {
+        return new ArrayList<>(this);
+    }
+}
@@ -0,0 +1,119 @@
+package com.trackswiftly.utils.base.codec;
+
+import com.trackswiftly.utils.dtos.ItemErrors;
+import com.trackswiftly.utils.dtos.OperationResult;
+import com.trackswiftly.utils.dtos.OperationStats;
+
+
+
+/**
+ * Compact binary codec of {@link OperationResult}s, including their item
+ * errors and statistics, in the format of the {@link PageCodec}.
+ */
+public final class OperationResultCodec {
+
+
+    /** Private constructor to prevent instantiation. */
+    private OperationResultCodec() {}
+
+
+    static final int MAGIC = 'R';
+
+    static final int FORMAT = 1;
+
+    private static final ThreadLocal<CodecOutput> BUFFER = ThreadLocal.withInitial(CodecOutput::new);
+
+
+
+    /**
+     * Encodes a result into a new byte array, through a reusable per-thread buffer.
+     *
+     * @param result the result
+     * @return the encoded result
+     */
+    public static byte[] toBytes(OperationResult result) {
+        CodecOutput out = BUFFER.get().reset();
+        encode(result, out);
+        return out.toByteArray();
+    }
+
+
+    /**
+     * Appends an encoded result to an output.
+     *
+     * @param result the result
+     * @param out    the output
+     */
+    public static void encode(OperationResult result, CodecOutput out) {
+        out.writeByte(MAGIC).writeByte(FORMAT)
+            .writeSignedVarLong(result.affectedRecords())
+            .writeString(result.message());
+
+        ItemErrors errors = result.errors();
+        out.writeVarInt(errors.size());
+        for (int i = 0; i < errors.size(); i++) {
+            out.writeVarInt(errors.index(i)).writeString(errors.code(i));
+        }
+
+        OperationStats stats = result.stats();
+        if (stats.equals(OperationStats.none())) {
+            out.writeByte(0);
+            return;
+        }
+        out.writeByte(1)
+            .writeString(stats.operation())
+            .writeVarInt(stats.items())
+            .writeSignedVarLong(stats.affectedRecords())
+            .writeVarLong(stats.validationNanos())
+            .writeVarLong(stats.performNanos())
+            .writeVarInt(stats.chunks())
+            .writeVarInt(stats.retries());
+    }
+
+
+
+    /**
+     * Decodes a result.
+     *
+     * @param bytes the encoded result
+     * @return the result
+     * @throws IllegalArgumentException if the bytes are not an encoded result
+     */
+    public static OperationResult decode(byte[] bytes) {
+        return decode(new CodecInput(bytes));
+    }
+
+
+    /**
+     * Decodes a result from an input, which is left after the result.
+     *
+     * @param in the input
+     * @return the result
+     * @throws IllegalArgumentException if the input is not at an encoded result
+     */
+    public static OperationResult decode(CodecInput in) {
+        int magic = in.readByte();
+        int format = in.readByte();
+        if (magic != MAGIC || format != FORMAT) {
+            throw new IllegalArgumentException("Not an encoded operation result: header " + magic + "/" + format);
+        }
+        int affectedRecords = (int) in.readSignedVarLong();
+        String message = in.readString();
+
+        int errorCount = in.readVarInt();
+        ItemErrors errors = ItemErrors.none();
+        if (errorCount > 0) {
+            errors = new ItemErrors();
+            for (int i = 0; i < errorCount; i++) {
+                errors.reject(in.readVarInt(), in.readString());
+            }
+        }
+
+        OperationStats stats = OperationStats.none();
+        if (in.readByte() == 1) {
+            stats = new OperationStats(in.readString(), in.readVarInt(), (int) in.readSignedVarLong(),
+                in.readVarLong(), in.readVarLong(), in.readVarInt(), in.readVarInt());
+        }
+        return new OperationResult(affectedRecords, message, errors, stats);
+    }
+}
@@ -0,0 +1,162 @@
+package com.trackswiftly.utils.base.codec;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import com.trackswiftly.utils.dtos.PageDTO;
+
+
+
+/**
+ * Compact binary codec of {@link PageDTO}s, for caching list results.
+ * <p>
+ * Unlike Java serialization it writes no class descriptors or field names:
+ * a two-byte header, the pagination metadata as varints, then each element
+ * prefixed with its length and written by the {@link ElementCodec}. Decoding
+ * only reads the metadata and element boundaries; the content is a list whose
+ * elements are decoded on first access, so a caller reading a few elements of
+ * a cached page pays for those only. A decoded page can still be Java
+ * serialized; its content is then decoded and written as a plain list.
+ * <p>
+ * Encoding reuses a per-thread buffer. Codecs are thread-safe; decoded pages
+ * are not, until every element has been accessed.
+ *
+ * @param <T> the type of the page elements
+ */
+public final class PageCodec<T> {
+
+
+    static final int MAGIC = 'P';
+
+    static final int FORMAT = 1;
+
+
+    private final ElementCodec<T> elementCodec;
+
+    private final ThreadLocal<CodecOutput[]> buffers = ThreadLocal.withInitial(() -> new CodecOutput[] {
+        new CodecOutput(4096), new CodecOutput()
+    });
+
+
+
+    /**
+     * Creates a codec.
+     *
+     * @param elementCodec the codec of the page elements
+     */
+    public PageCodec(ElementCodec<T> elementCodec) {
+        this.elementCodec = elementCodec;
+    }
+
+
+
+    /**
+     * Encodes a page into a reusable per-thread buffer.
+     *
+     * @param page the page
+     * @return a read-only view of the encoded page, valid until the next encode on this thread
+     */
+    public ByteBuffer encode(PageDTO<T> page) {
+        CodecOutput[] outputs = buffers.get();
+        encode(page, outputs[0].reset(), outputs[1]);
+        return outputs[0].view();
+    }
+
+
+    /**
+     * Encodes a page into a new byte array.
+     *
+     * @param page the page
+     * @return the encoded page
+     */
+    public byte[] toBytes(PageDTO<T> page) {
+        CodecOutput[] outputs = buffers.get();
+        encode(page, outputs[0].reset(), outputs[1]);
+        return outputs[0].toByteArray();
+    }
+
+
+    /**
+     * Appends an encoded page to an output.
+     *
+     * @param page the page
+     * @param out  the output
+     */
+    public void encode(PageDTO<T> page, CodecOutput out) {
+        encode(page, out, buffers.get()[1]);
+    }
+
+
+    private void encode(PageDTO<T> page, CodecOutput out, CodecOutput element) {
+        List<T> content = page.getContent() == null ? List.of() : page.getContent();
+        out.writeByte(MAGIC).writeByte(FORMAT)
+            .writeVarInt(page.getPage())
+            .writeVarInt(page.getSize())
+            .writeVarLong(page.getTotalElements())
+            .writeVarInt(page.getTotalPages())
+            .writeVarInt(content.size());
+        for (T value : content) {
+            if (value == null) {
+                out.writeVarInt(0);
+                continue;
+            }
+            elementCodec.encode(value, element.reset());
+            out.writeVarInt(element.length() + 1);
+            out.writeBytes(element.array(), 0, element.length());
+        }
+    }
+
+
+
+    /**
+     * Decodes a page; its elements are decoded on first access.
+     *
+     * @param bytes the encoded page, not modified afterwards
+     * @return the page
+     * @throws IllegalArgumentException if the bytes are not an encoded page
+     */
+    public PageDTO<T> decode(byte[] bytes) {
+        return decode(new CodecInput(bytes));
+    }
+
+
+    /**
+     * Decodes a page from the remaining bytes of a buffer; its elements are
+     * decoded on first access.
+     *
+     * @param buffer the encoded page, not modified afterwards
+     * @return the page
+     * @throws IllegalArgumentException if the bytes are not an encoded page
+     */
+    public PageDTO<T> decode(ByteBuffer buffer) {
+        return decode(new CodecInput(buffer));
+    }
+
+
+    /**
+     * Decodes a page from an input, which is left after the page. The bytes of
+     * the input keep backing the elements.
+     *
+     * @param in the input
+     * @return the page
+     * @throws IllegalArgumentException if the input is not at an encoded page
+     */
+    public PageDTO<T> decode(CodecInput in) {
+        int magic = in.readByte();
+        int format = in.readByte();
+        if (magic != MAGIC || format != FORMAT) {
+            throw new IllegalArgumentException("Not an encoded page: header " + magic + "/" + format);
+        }
+        int page = in.readVarInt();
+        int size = in.readVarInt();
+        long totalElements = in.readVarLong();
+        int totalPages = in.readVarInt();
+        int[] offsets = new int[in.readVarInt()];
+        for (int i = 0; i < offsets.length; i++) {
+            int length = in.readVarInt();
+            offsets[i] = length == 0 ? -1 : in.position();
+            in.skip(Math.max(0, length - 1));
+        }
+        return new PageDTO<>(new LazyDecodedList<>(in.duplicate(), offsets, elementCodec), page, size, totalElements, totalPages);
+    }
+}
@@ -0,0 +1,85 @@
+package com.trackswiftly.utils.base.invalidation;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+import com.trackswiftly.utils.interfaces.EntityChangeListener;
+
+
+
+/**
+ * Publishes updates and deletions of a service's entities to an
+ * {@link InvalidationBus}, under the tenant of the current {@link TenantContext}.
+ * <p>
+ * Register it with {@code TrackSwiftlyServiceAbstract#addChangeListener} so that
+ * caches of {@code findEntities} / {@code BaseDao#findByIds} results on every
+ * node drop the changed entities.
+ * <p>
+ * Change listeners are notified inside the caller's transaction. Pass an
+ * after-commit hook so that the bus is only called once the change is visible,
+ * e.g. with Spring
+ * {@code task -> TransactionSynchronizationManager.registerSynchronization(
+ * new TransactionSynchronization() { public void afterCommit() { task.run(); } })}.
+ * Without a hook, the bus is called immediately, and a read racing the
+ * transaction may cache the old rows again until their next change.
+ *
+ * @param <T> the type of the entity identifier
+ * @param <O> the output DTO response type
+ */
+public class InvalidatingChangeListener<T, O> implements EntityChangeListener<T, O> {
+
+
+    private final InvalidationBus bus;
+
+    private final String scope;
+
+    private final Consumer<Runnable> afterCommit;
+
+
+
+    /**
+     * Creates a listener publishing to a scope as soon as it is notified.
+     *
+     * @param bus   the invalidation bus
+     * @param scope the scope of the service's entities, e.g. the entity class name
+     */
+    public InvalidatingChangeListener(InvalidationBus bus, String scope) {
+        this(bus, scope, Runnable::run);
+    }
+
+
+    /**
+     * Creates a listener publishing to a scope once the current transaction commits.
+     *
+     * @param bus         the invalidation bus
+     * @param scope       the scope of the service's entities, e.g. the entity class name
+     * @param afterCommit registers a task to run after the current transaction commits
+     */
+    public InvalidatingChangeListener(InvalidationBus bus, String scope, Consumer<Runnable> afterCommit) {
+        this.bus = bus;
+        this.scope = scope;
+        this.afterCommit = afterCommit;
+    }
+
+
+
+    @Override
+    public void onUpdated(List<T> ids) {
+        publish(ids);
+    }
+
+
+    @Override
+    public void onDeleted(List<T> ids) {
+        publish(ids);
+    }
+
+
+    /** Captures the tenant now, since the hook may run on another thread or after the context is cleared. */
+    private void publish(List<T> ids) {
+        String tenantId = TenantContext.getTenantId();
+        List<T> changed = List.copyOf(ids);
+        afterCommit.accept(() -> bus.publish(tenantId, scope, changed));
+    }
+}
@@ -0,0 +1,281 @@
+package com.trackswiftly.utils.base.invalidation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Cross-node invalidation of local caches.
+ * <p>
+ * Changes are applied to this node's handlers immediately, then queued and
+ * coalesced per tenant and scope: repeated IDs collapse, and a whole-scope
+ * invalidation absorbs pending IDs. Pending changes are sent as one versioned
+ * batch through the {@link InvalidationTransport} every flush interval, or as
+ * soon as {@code maxBatchSize} IDs are pending, in which case the background
+ * flusher is woken up immediately. Other nodes apply a received
+ * batch with one handler call per tenant and scope.
+ * <p>
+ * Each bus instance numbers its batches. A receiver that sees a gap in the
+ * sequence of another node assumes batches were lost and calls
+ * {@link InvalidationHandler#invalidateAll()} on every handler. Duplicates and
+ * late batches are simply applied again, since invalidation is idempotent.
+ * <p>
+ * Publish only after the change is durable: invalidating before the
+ * transaction commits lets a concurrent read reload and cache the old rows
+ * again. {@link InvalidatingChangeListener} can defer its calls to an
+ * after-commit hook.
+ * <p>
+ * Thread-safe. Publishing never waits for the transport.
+ */
+@Log4j2
+public class InvalidationBus implements AutoCloseable {
+
+
+    /** Scope used for ACL caches (compiled tokens, ACL tables). */
+    public static final String ACL_SCOPE = "acl";
+
+
+    private final String instanceId;
+
+    private final InvalidationTransport transport;
+
+    private final int maxBatchSize;
+
+    private final ScheduledExecutorService flusher;
+
+    private final Map<String, List<InvalidationHandler>> handlers = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> lastVersions = new ConcurrentHashMap<>();
+
+    private final Map<PendingKey, Set<String>> pending = new LinkedHashMap<>();
+
+    /** Serializes flushes so that batches leave in version order. */
+    private final Object sendLock = new Object();
+
+    private int pendingIds;
+
+    /** Whether an immediate flush is already scheduled for the pending changes. */
+    private boolean flushRequested;
+
+    private long version;
+
+
+
+    private record PendingKey(String tenantId, String scope) {}
+
+
+
+    /**
+     * Creates a bus flushing on a background thread.
+     *
+     * @param nodeId        a readable name of this node, used in batch source IDs
+     * @param transport     the transport to all nodes
+     * @param flushInterval how long changes may wait before being sent
+     * @param maxBatchSize  number of pending IDs that triggers an immediate send
+     * @throws IllegalArgumentException if {@code maxBatchSize} is not positive
+     */
+    public InvalidationBus(String nodeId, InvalidationTransport transport, Duration flushInterval, int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Invalid maximum batch size: " + maxBatchSize);
+        }
+        this.instanceId = nodeId + "/" + UUID.randomUUID();
+        this.transport = transport;
+        this.maxBatchSize = maxBatchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "invalidation-flush-" + nodeId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1L, flushInterval.toMillis());
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        transport.subscribe(this::receive);
+    }
+
+
+
+    /**
+     * Registers a local cache for a scope.
+     *
+     * @param scope   the scope, e.g. an entity type name
+     * @param handler the cache's invalidation handler
+     */
+    public void register(String scope, InvalidationHandler handler) {
+        handlers.computeIfAbsent(scope, key -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+
+    /**
+     * Unregisters a local cache.
+     *
+     * @param scope   the scope
+     * @param handler the handler to remove
+     */
+    public void unregister(String scope, InvalidationHandler handler) {
+        List<InvalidationHandler> scoped = handlers.get(scope);
+        if (scoped != null) {
+            scoped.remove(handler);
+        }
+    }
+
+
+
+    /**
+     * Invalidates IDs of a scope on this node now and on the other nodes at the next flush.
+     * Call it once the change is committed.
+     *
+     * @param tenantId the tenant, or {@code null} for tenant-less data
+     * @param scope    the scope
+     * @param ids      the changed IDs (converted with {@link String#valueOf(Object)}); empty means the whole scope
+     */
+    public void publish(String tenantId, String scope, Collection<?> ids) {
+        List<String> stringIds = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            stringIds.add(String.valueOf(id));
+        }
+        applyLocally(tenantId, scope, stringIds);
+
+        boolean wake;
+        synchronized (pending) {
+            PendingKey key = new PendingKey(tenantId, scope);
+            if (stringIds.isEmpty()) {
+                Set<String> previous = pending.put(key, null);
+                pendingIds -= previous == null ? 0 : previous.size();
+            } else if (!pending.containsKey(key) || pending.get(key) != null) {
+                Set<String> queued = pending.computeIfAbsent(key, k -> new HashSet<>());
+                for (String id : stringIds) {
+                    if (queued.add(id)) {
+                        pendingIds++;
+                    }
+                }
+            }
+            wake = pendingIds >= maxBatchSize && !flushRequested;
+            if (wake) {
+                flushRequested = true;
+            }
+        }
+        if (wake) {
+            wakeFlusher();
+        }
+    }
+
+
+    private void wakeFlusher() {
+        try {
+            flusher.execute(this::flushQuietly);
+        } catch (RejectedExecutionException e) {
+            // Closed: nothing flushes in the background any more.
+            flushQuietly();
+        }
+    }
+
+
+    /**
+     * Invalidates a whole scope of a tenant on all nodes.
+     *
+     * @param tenantId the tenant, or {@code null} for tenant-less data
+     * @param scope    the scope
+     */
+    public void publishAll(String tenantId, String scope) {
+        publish(tenantId, scope, List.of());
+    }
+
+
+
+    /**
+     * Sends all pending changes as one batch.
+     */
+    public void flush() {
+        List<InvalidationEvent> batch;
+        synchronized (sendLock) {
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                long batchVersion = ++version;
+                batch = new ArrayList<>(pending.size());
+                for (Map.Entry<PendingKey, Set<String>> entry : pending.entrySet()) {
+                    Collection<String> ids = entry.getValue() == null ? List.of() : entry.getValue();
+                    batch.add(new InvalidationEvent(instanceId, batchVersion, entry.getKey().tenantId(), entry.getKey().scope(), List.copyOf(ids)));
+                }
+                pending.clear();
+                pendingIds = 0;
+                flushRequested = false;
+            }
+            // Publishers only need the pending lock, so a slow transport does not block them.
+            transport.send(batch);
+        }
+        log.debug("Sent invalidation batch with {} events", batch.size());
+    }
+
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to send invalidation batch", e);
+        }
+    }
+
+
+
+    private void receive(List<InvalidationEvent> batch) {
+        if (batch.isEmpty() || instanceId.equals(batch.get(0).sourceNode())) {
+            return;
+        }
+        String source = batch.get(0).sourceNode();
+        long batchVersion = batch.get(0).version();
+        boolean[] gap = new boolean[1];
+        lastVersions.compute(source, (key, last) -> {
+            gap[0] = last != null && batchVersion > last + 1;
+            return last == null ? batchVersion : Math.max(last, batchVersion);
+        });
+        if (gap[0]) {
+            log.warn("Missed invalidation batches from {}, evicting all local caches", source);
+            for (List<InvalidationHandler> scoped : handlers.values()) {
+                for (InvalidationHandler handler : scoped) {
+                    handler.invalidateAll();
+                }
+            }
+        }
+        for (InvalidationEvent event : batch) {
+            applyLocally(event.tenantId(), event.scope(), event.ids());
+        }
+    }
+
+
+    private void applyLocally(String tenantId, String scope, Collection<String> ids) {
+        List<InvalidationHandler> scoped = handlers.get(scope);
+        if (scoped == null) {
+            return;
+        }
+        for (InvalidationHandler handler : scoped) {
+            handler.invalidate(tenantId, ids);
+        }
+    }
+
+
+    /**
+     * Sends pending changes and stops the background flush. The transport is not closed.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        flushQuietly();
+    }
+}
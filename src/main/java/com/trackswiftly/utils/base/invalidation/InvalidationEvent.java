@@ -0,0 +1,42 @@
+package com.trackswiftly.utils.base.invalidation;
+
+import java.util.List;
+
+
+
+/**
+ * Versioned invalidation of cached data, exchanged between nodes by an
+ * {@link InvalidationTransport}.
+ *
+ * @param sourceNode the ID of the publishing node
+ * @param version    the publishing node's sequence number, increasing with every batch
+ * @param tenantId   the tenant whose data changed, or {@code null} for tenant-less data
+ * @param scope      what changed: an entity type, a resource path or {@link InvalidationBus#ACL_SCOPE}
+ * @param ids        the changed IDs; empty means everything in the scope
+ */
+public record InvalidationEvent(
+    String sourceNode,
+    long version,
+    String tenantId,
+    String scope,
+    List<String> ids
+) {
+
+
+    /**
+     * Canonical constructor; IDs are copied into an immutable list.
+     */
+    public InvalidationEvent {
+        ids = ids == null ? List.of() : List.copyOf(ids);
+    }
+
+
+    /**
+     * Checks whether the event invalidates the whole scope.
+     *
+     * @return {@code true} if no specific IDs are listed
+     */
+    public boolean isWholeScope() {
+        return ids.isEmpty();
+    }
+}
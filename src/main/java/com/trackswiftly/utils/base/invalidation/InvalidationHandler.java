@@ -0,0 +1,27 @@
+package com.trackswiftly.utils.base.invalidation;
+
+import java.util.Collection;
+
+
+
+/**
+ * Local cache registered with an {@link InvalidationBus} for one scope.
+ */
+public interface InvalidationHandler {
+
+
+    /**
+     * Evicts changed entries, called once per tenant and scope for each received batch.
+     *
+     * @param tenantId the tenant, or {@code null} for tenant-less data
+     * @param ids      the changed IDs, coalesced; empty means evict the whole scope
+     */
+    void invalidate(String tenantId, Collection<String> ids);
+
+
+    /**
+     * Evicts every entry of the scope for all tenants. Called when the bus detects
+     * that batches from another node were lost, so the cache cannot tell what is stale.
+     */
+    void invalidateAll();
+}
@@ -0,0 +1,39 @@
+package com.trackswiftly.utils.base.invalidation;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+
+
+/**
+ * Transport SPI of the {@link InvalidationBus}: carries batches of events to
+ * every node, typically over a message broker or Redis pub/sub.
+ * <p>
+ * Implementations may deliver a batch more than once, and batches from
+ * different nodes in any order; the bus drops batches it has already seen.
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+
+    /**
+     * Sends a batch of events to all nodes, possibly including the sender.
+     *
+     * @param batch the events, all from the same node and version
+     */
+    void send(List<InvalidationEvent> batch);
+
+
+    /**
+     * Registers the receiver of batches sent by any node.
+     *
+     * @param receiver called with each received batch
+     */
+    void subscribe(Consumer<List<InvalidationEvent>> receiver);
+
+
+    /**
+     * Releases transport resources. Does nothing by default.
+     */
+    @Override
+    default void close() {}
+}
@@ -0,0 +1,35 @@
+package com.trackswiftly.utils.base.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+
+
+/**
+ * In-memory {@link InvalidationTransport} delivering every batch synchronously
+ * to all subscribers of the same instance.
+ * <p>
+ * Share one instance between several buses to simulate nodes in tests, or
+ * use it for single-node deployments.
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+
+    private final List<Consumer<List<InvalidationEvent>>> receivers = new CopyOnWriteArrayList<>();
+
+
+
+    @Override
+    public void send(List<InvalidationEvent> batch) {
+        for (Consumer<List<InvalidationEvent>> receiver : receivers) {
+            receiver.accept(batch);
+        }
+    }
+
+
+    @Override
+    public void subscribe(Consumer<List<InvalidationEvent>> receiver) {
+        receivers.add(receiver);
+    }
+}
@@ -0,0 +1,135 @@
+package com.trackswiftly.utils.base.mqtt;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.trackswiftly.utils.base.services.LiveAcl;
+import com.trackswiftly.utils.dtos.TokenInfo;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * MQTT-native authorization for a broker plugin.
+ * <p>
+ * One {@link TopicTrie} of topic-filter rules is shared by every connection;
+ * each connection only contributes its {@link MqttSession}, created on
+ * connect from the token ACL and dropped on disconnect. Requests from unknown
+ * connections are denied.
+ * <p>
+ * Thread-safe.
+ */
+@Log4j2
+public class MqttAuthorizer {
+
+
+    private final TopicTrie rules;
+
+    private final Map<String, MqttSession> sessions = new ConcurrentHashMap<>();
+
+
+
+    /**
+     * Creates an authorizer over the given rules.
+     *
+     * @param rules the topic-filter rules
+     */
+    public MqttAuthorizer(TopicTrie rules) {
+        this.rules = rules;
+    }
+
+
+
+    /**
+     * Registers a connection with a fixed token ACL.
+     *
+     * @param connectionId the broker connection (client) ID
+     * @param tokenInfo    the token ACL
+     * @return the connection's session
+     */
+    public MqttSession connect(String connectionId, TokenInfo tokenInfo) {
+        return connect(connectionId, new LiveAcl(tokenInfo));
+    }
+
+
+    /**
+     * Registers a connection whose ACL may change while it is open.
+     *
+     * @param connectionId the broker connection (client) ID
+     * @param acl          the live ACL
+     * @return the connection's session
+     */
+    public MqttSession connect(String connectionId, LiveAcl acl) {
+        MqttSession session = new MqttSession(rules, acl);
+        sessions.put(connectionId, session);
+        log.debug("Registered MQTT connection {}", connectionId);
+        return session;
+    }
+
+
+    /**
+     * Forgets a connection.
+     *
+     * @param connectionId the broker connection (client) ID
+     */
+    public void disconnect(String connectionId) {
+        sessions.remove(connectionId);
+    }
+
+
+    /**
+     * Returns the session of a connection.
+     *
+     * @param connectionId the broker connection (client) ID
+     * @return the session, or {@code null} if the connection is unknown
+     */
+    public MqttSession session(String connectionId) {
+        return sessions.get(connectionId);
+    }
+
+
+    /**
+     * Returns the number of registered connections.
+     *
+     * @return the connection count
+     */
+    public int connectionCount() {
+        return sessions.size();
+    }
+
+
+
+    /**
+     * Checks whether a connection may publish to a topic.
+     *
+     * @param connectionId the broker connection (client) ID
+     * @param topic        the topic name
+     * @return {@code true} if allowed
+     */
+    public boolean canPublish(String connectionId, String topic) {
+        MqttSession session = sessions.get(connectionId);
+        if (session == null) {
+            log.warn("Publish from unknown MQTT connection: {}", connectionId);
+            return false;
+        }
+        return session.canPublish(topic);
+    }
+
+
+    /**
+     * Checks whether a connection may subscribe to a topic filter.
+     *
+     * @param connectionId the broker connection (client) ID
+     * @param filter       the topic filter
+     * @return {@code true} if allowed
+     */
+    public boolean canSubscribe(String connectionId, String filter) {
+        MqttSession session = sessions.get(connectionId);
+        if (session == null) {
+            log.warn("Subscribe from unknown MQTT connection: {}", connectionId);
+            return false;
+        }
+        return session.canSubscribe(filter);
+    }
+}
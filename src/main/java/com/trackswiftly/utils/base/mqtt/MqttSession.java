@@ -0,0 +1,115 @@
+package com.trackswiftly.utils.base.mqtt;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.trackswiftly.utils.base.services.LiveAcl;
+import com.trackswiftly.utils.dtos.IdSet;
+import com.trackswiftly.utils.dtos.ResourcePermission;
+import com.trackswiftly.utils.enums.Resource;
+
+
+
+/**
+ * Authorization state of one MQTT connection.
+ * <p>
+ * Holds the connection's {@link Resource#MQTT} permission, compiled once from
+ * its {@link LiveAcl} and recompiled only when the ACL version changes, plus a
+ * bounded cache of subscribe decisions keyed by topic filter. Publish checks
+ * go straight to the shared {@link TopicTrie}.
+ */
+public final class MqttSession {
+
+
+    /** Maximum number of cached subscribe decisions per connection. */
+    static final int MAX_CACHED_FILTERS = 256;
+
+
+    private final TopicTrie rules;
+
+    private final LiveAcl acl;
+
+    private volatile Compiled compiled;
+
+
+
+    /**
+     * Connection state compiled for one ACL version.
+     */
+    private static final class Compiled {
+
+        final long version;
+        final int methodMask;
+        final IdSet ids;
+        final Map<String, Boolean> subscribeDecisions = new ConcurrentHashMap<>();
+
+
+        Compiled(long version, ResourcePermission permission) {
+            this.version = version;
+            this.methodMask = permission == null ? 0 : permission.methodMask();
+            this.ids = permission == null ? IdSet.EMPTY : permission.ids();
+        }
+    }
+
+
+
+    MqttSession(TopicTrie rules, LiveAcl acl) {
+        this.rules = rules;
+        this.acl = acl;
+    }
+
+
+
+    /**
+     * Returns the live ACL of this connection; diffs applied to it are picked up
+     * on the next check.
+     *
+     * @return the live ACL
+     */
+    public LiveAcl acl() {
+        return acl;
+    }
+
+
+    /**
+     * Checks whether the connection may publish to a topic.
+     *
+     * @param topic the topic name
+     * @return {@code true} if allowed
+     */
+    public boolean canPublish(String topic) {
+        Compiled current = compiled();
+        return rules.canPublish(topic, current.methodMask, current.ids);
+    }
+
+
+    /**
+     * Checks whether the connection may subscribe to a topic filter.
+     *
+     * @param filter the topic filter
+     * @return {@code true} if allowed
+     */
+    public boolean canSubscribe(String filter) {
+        Compiled current = compiled();
+        Boolean cached = current.subscribeDecisions.get(filter);
+        if (cached != null) {
+            return cached;
+        }
+        boolean allowed = rules.canSubscribe(filter, current.methodMask, current.ids);
+        if (current.subscribeDecisions.size() < MAX_CACHED_FILTERS) {
+            current.subscribeDecisions.put(filter, allowed);
+        }
+        return allowed;
+    }
+
+
+    private Compiled compiled() {
+        Compiled current = compiled;
+        LiveAcl.Snapshot snapshot = acl.snapshot();
+        if (current == null || current.version != snapshot.version()) {
+            current = new Compiled(snapshot.version(), snapshot.tokenInfo().permission(Resource.MQTT));
+            compiled = current;
+        }
+        return current;
+    }
+}
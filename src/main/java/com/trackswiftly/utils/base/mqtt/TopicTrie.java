@@ -0,0 +1,290 @@
+package com.trackswiftly.utils.base.mqtt;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.trackswiftly.utils.base.utils.MethodMask;
+import com.trackswiftly.utils.dtos.IdSet;
+
+
+
+/**
+ * Immutable trie of MQTT topic-filter rules, matched level by level.
+ * <p>
+ * Each rule is a topic filter with the usual {@code +} (one level) and
+ * {@code #} (any remaining levels, including none) wildcards, plus the
+ * {@value #ID_LEVEL} placeholder: a single level that only matches the item
+ * IDs of the connection's MQTT permission, which scopes a device to its own
+ * topics. When the permission enforces no IDs, the placeholder behaves like
+ * {@code +}. As in MQTT, wildcards at the first level never match topics
+ * starting with {@code $}.
+ * <p>
+ * A lookup visits at most the trie nodes reachable from the request, so its
+ * cost depends on the topic depth rather than on the number of rules. The trie
+ * holds no per-connection state and is shared by all connections.
+ */
+public final class TopicTrie {
+
+
+    /** Placeholder level replaced by the connection's ACL item IDs. */
+    public static final String ID_LEVEL = "{id}";
+
+    /** Single-level wildcard. */
+    public static final String SINGLE_LEVEL = "+";
+
+    /** Multi-level wildcard. */
+    public static final String MULTI_LEVEL = "#";
+
+
+    private final Node root;
+
+
+
+    private TopicTrie(Node root) {
+        this.root = root;
+    }
+
+
+
+    /**
+     * Creates an empty builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+
+    /**
+     * Checks whether a topic name may be published to.
+     *
+     * @param topic      the topic name, without wildcards
+     * @param methodMask the methods granted by the connection's MQTT permission
+     * @param ids        the connection's MQTT item IDs; empty means no scoping
+     * @return {@code true} if a rule grants {@code publish} on the topic
+     */
+    public boolean canPublish(String topic, int methodMask, IdSet ids) {
+        int bit = 1 << MethodMask.PUBLISH_BIT;
+        if ((methodMask & bit) == 0 || !isValidTopic(topic)) {
+            return false;
+        }
+        return matches(root, topic, 0, bit, ids);
+    }
+
+
+    /**
+     * Checks whether a topic filter may be subscribed to, i.e. whether every topic
+     * it can match is covered by a rule granting {@code subscribe}.
+     *
+     * @param filter     the topic filter, possibly with wildcards
+     * @param methodMask the methods granted by the connection's MQTT permission
+     * @param ids        the connection's MQTT item IDs; empty means no scoping
+     * @return {@code true} if the subscription is covered
+     */
+    public boolean canSubscribe(String filter, int methodMask, IdSet ids) {
+        int bit = 1 << MethodMask.SUBSCRIBE_BIT;
+        if ((methodMask & bit) == 0 || !isValidFilter(filter)) {
+            return false;
+        }
+        return covers(root, filter.split("/", -1), 0, bit, ids);
+    }
+
+
+
+    private static boolean matches(Node node, String topic, int start, int bit, IdSet ids) {
+        if ((node.multiLevelMask & bit) != 0 && !(start == 0 && topic.startsWith("$"))) {
+            return true;
+        }
+        if (start > topic.length()) {
+            return (node.exactMask & bit) != 0;
+        }
+        int end = topic.indexOf('/', start);
+        if (end < 0) {
+            end = topic.length();
+        }
+        String level = topic.substring(start, end);
+
+        Node literal = node.literals.get(level);
+        if (literal != null && matches(literal, topic, end + 1, bit, ids)) {
+            return true;
+        }
+        if (start == 0 && level.startsWith("$")) {
+            return false;
+        }
+        if (node.singleLevel != null && matches(node.singleLevel, topic, end + 1, bit, ids)) {
+            return true;
+        }
+        return node.idLevel != null && (ids.isEmpty() || ids.contains(level))
+            && matches(node.idLevel, topic, end + 1, bit, ids);
+    }
+
+
+    private static boolean covers(Node node, String[] levels, int index, int bit, IdSet ids) {
+        boolean reserved = index == 0 && levels[0].startsWith("$");
+        if ((node.multiLevelMask & bit) != 0 && !reserved) {
+            return true;
+        }
+        if (index == levels.length) {
+            return (node.exactMask & bit) != 0;
+        }
+        String level = levels[index];
+        if (MULTI_LEVEL.equals(level)) {
+            return false;
+        }
+        if (SINGLE_LEVEL.equals(level)) {
+            return node.singleLevel != null && covers(node.singleLevel, levels, index + 1, bit, ids)
+                || node.idLevel != null && ids.isEmpty() && covers(node.idLevel, levels, index + 1, bit, ids);
+        }
+
+        Node literal = node.literals.get(level);
+        if (literal != null && covers(literal, levels, index + 1, bit, ids)) {
+            return true;
+        }
+        if (reserved) {
+            return false;
+        }
+        if (node.singleLevel != null && covers(node.singleLevel, levels, index + 1, bit, ids)) {
+            return true;
+        }
+        return node.idLevel != null && (ids.isEmpty() || ids.contains(level))
+            && covers(node.idLevel, levels, index + 1, bit, ids);
+    }
+
+
+
+    /**
+     * Checks whether a string is a valid topic name: non-empty and without wildcards.
+     *
+     * @param topic the topic name
+     * @return {@code true} if valid
+     */
+    public static boolean isValidTopic(String topic) {
+        return topic != null && !topic.isEmpty() && topic.indexOf('+') < 0 && topic.indexOf('#') < 0;
+    }
+
+
+    /**
+     * Checks whether a string is a valid topic filter: non-empty, {@code +} only as a
+     * whole level and {@code #} only as the whole last level.
+     *
+     * @param filter the topic filter
+     * @return {@code true} if valid
+     */
+    public static boolean isValidFilter(String filter) {
+        if (filter == null || filter.isEmpty()) {
+            return false;
+        }
+        String[] levels = filter.split("/", -1);
+        for (int i = 0; i < levels.length; i++) {
+            String level = levels[i];
+            if (MULTI_LEVEL.equals(level)) {
+                if (i != levels.length - 1) {
+                    return false;
+                }
+            } else if (!SINGLE_LEVEL.equals(level) && (level.indexOf('+') >= 0 || level.indexOf('#') >= 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+    /**
+     * Trie node. Children are keyed by literal level; wildcard and placeholder
+     * children are kept apart so lookups never scan the literals.
+     */
+    private static final class Node {
+
+        final Map<String, Node> literals = new HashMap<>();
+        Node singleLevel;
+        Node idLevel;
+        int exactMask;
+        int multiLevelMask;
+
+
+        Node child(String level) {
+            switch (level) {
+                case SINGLE_LEVEL:
+                    if (singleLevel == null) {
+                        singleLevel = new Node();
+                    }
+                    return singleLevel;
+                case ID_LEVEL:
+                    if (idLevel == null) {
+                        idLevel = new Node();
+                    }
+                    return idLevel;
+                default:
+                    return literals.computeIfAbsent(level, key -> new Node());
+            }
+        }
+    }
+
+
+
+    /**
+     * Builder of {@link TopicTrie} rules. Not thread-safe; the built trie is.
+     */
+    public static final class Builder {
+
+        private Node root = new Node();
+
+
+        private Builder() {}
+
+
+        /**
+         * Grants methods on a topic filter.
+         *
+         * @param filter     the topic filter; {@value TopicTrie#ID_LEVEL} may be used as a whole level
+         * @param methodMask the granted methods (see {@link MethodMask})
+         * @return this builder
+         * @throws IllegalArgumentException if the filter is invalid
+         */
+        public Builder allow(String filter, int methodMask) {
+            if (!isValidFilter(filter)) {
+                throw new IllegalArgumentException("Invalid MQTT topic filter: " + filter);
+            }
+            Node node = root;
+            String[] levels = filter.split("/", -1);
+            for (String level : levels) {
+                if (MULTI_LEVEL.equals(level)) {
+                    node.multiLevelMask |= methodMask;
+                    return this;
+                }
+                node = node.child(level);
+            }
+            node.exactMask |= methodMask;
+            return this;
+        }
+
+
+        /**
+         * Grants methods on a topic filter.
+         *
+         * @param filter  the topic filter
+         * @param methods the granted method names, e.g. {@code "subscribe"}, {@code "publish"}
+         * @return this builder
+         * @throws IllegalArgumentException if the filter or a method is invalid
+         */
+        public Builder allow(String filter, String... methods) {
+            return allow(filter, MethodMask.parse(List.of(methods)));
+        }
+
+
+        /**
+         * Builds the trie. The builder must not be used afterwards.
+         *
+         * @return the immutable trie
+         */
+        public TopicTrie build() {
+            TopicTrie trie = new TopicTrie(root);
+            root = null;
+            return trie;
+        }
+    }
+}
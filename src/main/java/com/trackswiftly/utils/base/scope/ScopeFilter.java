@@ -0,0 +1,192 @@
+package com.trackswiftly.utils.base.scope;
+
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import jakarta.persistence.Query;
+
+
+
+/**
+ * Scope of a principal, ready to restrict a DAO query: either as a JPQL
+ * condition with its parameters, or as an in-memory predicate.
+ * <p>
+ * Department scopes carry the precomputed set of visible departments, so the
+ * query needs a plain {@code in} condition instead of a recursive one. Like
+ * {@link ScopeHierarchy#isWithinScope}, a row with a department is visible if
+ * the department is, and a row without one is visible if the department of
+ * the user it is assigned to is. The query reads that department through the
+ * user rather than binding the user IDs, so its parameters stay as small as
+ * the department subtree. Filters are immutable and cached by their
+ * {@link ScopeHierarchy}.
+ */
+public final class ScopeFilter {
+
+
+    /** Query parameter holding the visible departments. */
+    public static final String DEPARTMENTS_PARAMETER = "scopeDepartments";
+
+    /** Query parameter holding the visible user. */
+    public static final String USER_PARAMETER = "scopeUser";
+
+    private static final ScopeFilter TENANT = new ScopeFilter(ScopeLevel.TENANT, Set.of(), null, user -> null);
+
+    private static final ScopeFilter NONE = new ScopeFilter(ScopeLevel.USER, Set.of(), null, user -> null);
+
+
+    private final ScopeLevel level;
+
+    private final Set<String> departmentIds;
+
+    private final String userId;
+
+    private final Function<String, String> userDepartment;
+
+
+
+    /**
+     * @param level          the level of the principal
+     * @param departmentIds  the visible departments at {@link ScopeLevel#DEPARTMENT} level, otherwise empty
+     * @param userId         the visible user at {@link ScopeLevel#USER} level, otherwise {@code null}
+     * @param userDepartment the department of a user, {@code null} if unknown or directly under the tenant
+     */
+    ScopeFilter(ScopeLevel level, Set<String> departmentIds, String userId, Function<String, String> userDepartment) {
+        this.level = level;
+        this.departmentIds = departmentIds;
+        this.userId = userId;
+        this.userDepartment = userDepartment;
+    }
+
+
+
+    /**
+     * Returns the unrestricted filter of tenant-wide principals.
+     *
+     * @return the tenant-wide filter
+     */
+    public static ScopeFilter tenant() {
+        return TENANT;
+    }
+
+
+    /**
+     * Returns the filter denying every row, for callers without a scope.
+     *
+     * @return the empty filter
+     */
+    public static ScopeFilter none() {
+        return NONE;
+    }
+
+
+    /**
+     * Returns the level of the principal.
+     *
+     * @return the scope level
+     */
+    public ScopeLevel level() {
+        return level;
+    }
+
+
+    /**
+     * Returns the visible departments.
+     *
+     * @return the departments at {@link ScopeLevel#DEPARTMENT} level, otherwise empty
+     */
+    public Set<String> departmentIds() {
+        return departmentIds;
+    }
+
+
+    /**
+     * Returns the visible user.
+     *
+     * @return the user at {@link ScopeLevel#USER} level, otherwise {@code null}
+     */
+    public String userId() {
+        return userId;
+    }
+
+
+    /**
+     * Returns whether the filter lets every row of the tenant through.
+     *
+     * @return {@code true} at tenant level
+     */
+    public boolean unrestricted() {
+        return level == ScopeLevel.TENANT;
+    }
+
+
+
+    /**
+     * Returns the JPQL condition of the scope, to be combined with {@code and}.
+     * <p>
+     * Pass the department of the row's user through a left join, e.g.
+     * {@code u.departmentId} for a query containing {@code left join e.user u}:
+     * an implicit path such as {@code e.user.departmentId} inner-joins the user
+     * and drops rows that have a department but no user.
+     *
+     * @param alias               the entity alias of the query
+     * @param departmentAttribute the attribute holding the department of a row
+     * @param userAttribute       the attribute holding the user a row is assigned to
+     * @param userDepartmentPath  the JPQL path of the department of the row's user, including its alias
+     * @return the condition
+     */
+    public String jpql(String alias, String departmentAttribute, String userAttribute, String userDepartmentPath) {
+        return switch (level) {
+            case TENANT -> "1 = 1";
+            case DEPARTMENT -> departmentIds.isEmpty() ? "1 = 0"
+                : "(" + alias + "." + departmentAttribute + " in :" + DEPARTMENTS_PARAMETER
+                    + " or (" + alias + "." + departmentAttribute + " is null and "
+                    + userDepartmentPath + " in :" + DEPARTMENTS_PARAMETER + "))";
+            case USER -> userId == null ? "1 = 0" : alias + "." + userAttribute + " = :" + USER_PARAMETER;
+        };
+    }
+
+
+    /**
+     * Sets the parameters of the condition returned by {@link #jpql}.
+     *
+     * @param query the query using the condition
+     */
+    public void bind(Query query) {
+        if (level == ScopeLevel.DEPARTMENT && !departmentIds.isEmpty()) {
+            query.setParameter(DEPARTMENTS_PARAMETER, departmentIds);
+        } else if (level == ScopeLevel.USER && userId != null) {
+            query.setParameter(USER_PARAMETER, userId);
+        }
+    }
+
+
+    /**
+     * Returns the scope as an in-memory predicate.
+     *
+     * @param <T>          the type of the filtered rows
+     * @param departmentOf the department of a row
+     * @param userOf       the user a row is assigned to
+     * @return the predicate
+     */
+    public <T> Predicate<T> toPredicate(Function<T, String> departmentOf, Function<T, String> userOf) {
+        return switch (level) {
+            case TENANT -> row -> true;
+            case DEPARTMENT -> row -> {
+                String departmentId = departmentOf.apply(row);
+                if (departmentId == null) {
+                    String rowUserId = userOf.apply(row);
+                    departmentId = rowUserId == null ? null : userDepartment.apply(rowUserId);
+                }
+                return departmentId != null && departmentIds.contains(departmentId);
+            };
+            case USER -> row -> userId != null && userId.equals(userOf.apply(row));
+        };
+    }
+
+
+    @Override
+    public String toString() {
+        return "ScopeFilter[" + level + (userId != null ? " " + userId : "") + (departmentIds.isEmpty() ? "" : " " + departmentIds) + "]";
+    }
+}
@@ -0,0 +1,400 @@
+package com.trackswiftly.utils.base.scope;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+
+/**
+ * Immutable department and user hierarchy of one tenant, with its
+ * ancestor/descendant closure precomputed.
+ * <p>
+ * Instead of materializing every ancestor/descendant pair, departments are
+ * numbered in depth-first order: the subtree of a department is then the
+ * contiguous range {@code [pre, last]} of numbers, so "is A above B" is two
+ * integer comparisons and the departments or users below A are a sublist of
+ * arrays sorted in that order. The closure takes linear memory and answers
+ * {@link #isWithinScope} without any query.
+ * <p>
+ * The query filter of a department is built on first use and cached, so
+ * repeated calls to {@link #filter} for the same department share one
+ * immutable set of visible departments.
+ */
+public final class ScopeHierarchy {
+
+
+    private static final int ROOT = 0;
+
+
+    private final String tenantId;
+
+    private final Map<String, Integer> departments;
+
+    private final int[] parent;
+
+    private final int[] pre;
+
+    private final int[] last;
+
+    private final List<String> departmentsInOrder;
+
+    private final Map<String, Integer> userDepartments;
+
+    private final int[] userPre;
+
+    private final List<String> usersInOrder;
+
+    private final AtomicReferenceArray<ScopeFilter> departmentFilters;
+
+    private final ScopeFilter unknownDepartmentFilter;
+
+
+
+    private ScopeHierarchy(String tenantId, Map<String, Integer> departments, int[] parent, int[] pre, int[] last,
+                           List<String> departmentsInOrder, Map<String, Integer> userDepartments, int[] userPre,
+                           List<String> usersInOrder) {
+        this.tenantId = tenantId;
+        this.departments = departments;
+        this.parent = parent;
+        this.pre = pre;
+        this.last = last;
+        this.departmentsInOrder = departmentsInOrder;
+        this.userDepartments = userDepartments;
+        this.userPre = userPre;
+        this.usersInOrder = usersInOrder;
+        this.departmentFilters = new AtomicReferenceArray<>(parent.length);
+        this.unknownDepartmentFilter = new ScopeFilter(ScopeLevel.DEPARTMENT, Set.of(), null, this::departmentOf);
+    }
+
+
+
+    /**
+     * Returns a builder of the hierarchy of a tenant.
+     *
+     * @param tenantId the tenant
+     * @return a new builder
+     */
+    public static Builder builder(String tenantId) {
+        return new Builder(tenantId);
+    }
+
+
+
+    /**
+     * Returns the tenant of this hierarchy.
+     *
+     * @return the tenant ID
+     */
+    public String tenantId() {
+        return tenantId;
+    }
+
+
+    /**
+     * Returns whether a department exists.
+     *
+     * @param departmentId the department
+     * @return {@code true} if known
+     */
+    public boolean containsDepartment(String departmentId) {
+        return departmentId != null && departments.containsKey(departmentId);
+    }
+
+
+    /**
+     * Returns the department of a user.
+     *
+     * @param userId the user
+     * @return the department, or {@code null} if the user is unknown or directly under the tenant
+     */
+    public String departmentOf(String userId) {
+        Integer department = userId == null ? null : userDepartments.get(userId);
+        return department == null || department == ROOT ? null : departmentsInOrder.get(pre[department] - 1);
+    }
+
+
+    /**
+     * Returns whether a department is the other one or one of its ancestors.
+     *
+     * @param ancestorId   the possible ancestor
+     * @param departmentId the department
+     * @return {@code true} if {@code departmentId} is in the subtree of {@code ancestorId}
+     */
+    public boolean isAncestorOrSelf(String ancestorId, String departmentId) {
+        Integer ancestor = ancestorId == null ? null : departments.get(ancestorId);
+        Integer department = departmentId == null ? null : departments.get(departmentId);
+        return ancestor != null && department != null && contains(ancestor, pre[department]);
+    }
+
+
+    /**
+     * Returns the ancestors of a department, closest first.
+     *
+     * @param departmentId the department
+     * @return the ancestor departments, empty for top-level or unknown departments
+     */
+    public List<String> ancestors(String departmentId) {
+        Integer department = departmentId == null ? null : departments.get(departmentId);
+        if (department == null) {
+            return List.of();
+        }
+        List<String> ancestors = new ArrayList<>();
+        for (int node = parent[department]; node != ROOT; node = parent[node]) {
+            ancestors.add(departmentsInOrder.get(pre[node] - 1));
+        }
+        return ancestors;
+    }
+
+
+    /**
+     * Returns a department and every department below it.
+     *
+     * @param departmentId the department
+     * @return the subtree in depth-first order, empty if unknown
+     */
+    public List<String> departmentsWithin(String departmentId) {
+        Integer department = departmentId == null ? null : departments.get(departmentId);
+        return department == null ? List.of() : departmentsInOrder.subList(pre[department] - 1, last[department]);
+    }
+
+
+    /**
+     * Returns the users of a department and of every department below it.
+     *
+     * @param departmentId the department
+     * @return the users, grouped by department in depth-first order; empty if unknown
+     */
+    public List<String> usersWithin(String departmentId) {
+        Integer department = departmentId == null ? null : departments.get(departmentId);
+        if (department == null) {
+            return List.of();
+        }
+        return usersInOrder.subList(lowerBound(pre[department]), lowerBound(last[department] + 1));
+    }
+
+
+
+    /**
+     * Returns whether a target is visible to a principal: anything of the same
+     * tenant at tenant level; targets in the principal's department subtree at
+     * department level; targets assigned to the principal at user level.
+     *
+     * @param principal          the caller
+     * @param targetDepartmentId the department of the target, or {@code null} to use the one of its user
+     * @param targetUserId       the user the target is assigned to, or {@code null}
+     * @return {@code true} if visible
+     */
+    public boolean isWithinScope(ScopePrincipal principal, String targetDepartmentId, String targetUserId) {
+        if (principal == null || !tenantId.equals(principal.tenantId())) {
+            return false;
+        }
+        return switch (principal.level()) {
+            case TENANT -> true;
+            case DEPARTMENT -> isAncestorOrSelf(principal.departmentId(),
+                targetDepartmentId != null ? targetDepartmentId : departmentOf(targetUserId));
+            case USER -> targetUserId != null && targetUserId.equals(principal.userId());
+        };
+    }
+
+
+    /**
+     * Returns the scope of a principal as a query filter, applying the same rule
+     * as {@link #isWithinScope}: at department level, rows without a department
+     * are matched through the department of their user. Department filters are
+     * cached per department.
+     *
+     * @param principal the caller
+     * @return the filter; denies everything if the principal belongs to another tenant
+     */
+    public ScopeFilter filter(ScopePrincipal principal) {
+        if (principal == null || !tenantId.equals(principal.tenantId())) {
+            return ScopeFilter.none();
+        }
+        return switch (principal.level()) {
+            case TENANT -> ScopeFilter.tenant();
+            case DEPARTMENT -> departmentFilter(principal.departmentId());
+            case USER -> new ScopeFilter(ScopeLevel.USER, Set.of(), principal.userId(), this::departmentOf);
+        };
+    }
+
+
+    private ScopeFilter departmentFilter(String departmentId) {
+        Integer department = departmentId == null ? null : departments.get(departmentId);
+        if (department == null) {
+            return unknownDepartmentFilter;
+        }
+        ScopeFilter cached = departmentFilters.get(department);
+        if (cached == null) {
+            ScopeFilter built = new ScopeFilter(ScopeLevel.DEPARTMENT,
+                Collections.unmodifiableSet(new LinkedHashSet<>(departmentsWithin(departmentId))), null, this::departmentOf);
+            cached = departmentFilters.compareAndExchange(department, null, built);
+            if (cached == null) {
+                cached = built;
+            }
+        }
+        return cached;
+    }
+
+
+
+    private boolean contains(int ancestor, int position) {
+        return pre[ancestor] <= position && position <= last[ancestor];
+    }
+
+
+    private int lowerBound(int position) {
+        int low = 0;
+        int high = userPre.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (userPre[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+
+    /**
+     * Collects departments and users, then compiles the closure.
+     */
+    public static final class Builder {
+
+
+        private final String tenantId;
+
+        private final Map<String, String> departmentParents = new LinkedHashMap<>();
+
+        private final Map<String, String> userDepartments = new LinkedHashMap<>();
+
+
+
+        private Builder(String tenantId) {
+            this.tenantId = tenantId;
+        }
+
+
+
+        /**
+         * Adds a department.
+         *
+         * @param departmentId the department
+         * @param parentId     the parent department, or {@code null} for a top-level department
+         * @return this builder
+         */
+        public Builder department(String departmentId, String parentId) {
+            departmentParents.put(departmentId, parentId);
+            return this;
+        }
+
+
+        /**
+         * Adds a user.
+         *
+         * @param userId       the user
+         * @param departmentId the user's department, or {@code null} if directly under the tenant
+         * @return this builder
+         */
+        public Builder user(String userId, String departmentId) {
+            userDepartments.put(userId, departmentId);
+            return this;
+        }
+
+
+
+        /**
+         * Compiles the hierarchy.
+         *
+         * @return the hierarchy
+         * @throws IllegalArgumentException if a parent or user department is unknown, or departments form a cycle
+         */
+        public ScopeHierarchy build() {
+            int count = departmentParents.size() + 1;
+            Map<String, Integer> index = new HashMap<>(count * 2);
+            String[] ids = new String[count];
+            for (String id : departmentParents.keySet()) {
+                ids[index.size() + 1] = id;
+                index.put(id, index.size() + 1);
+            }
+
+            int[] parent = new int[count];
+            List<List<Integer>> children = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                children.add(new ArrayList<>());
+            }
+            for (Map.Entry<String, String> entry : departmentParents.entrySet()) {
+                int node = index.get(entry.getKey());
+                parent[node] = resolve(index, entry.getValue(), "parent of department " + entry.getKey());
+                children.get(parent[node]).add(node);
+            }
+
+            int[] pre = new int[count];
+            int[] last = new int[count];
+            Arrays.fill(pre, -1);
+            String[] inOrder = new String[count - 1];
+            int next = 0;
+            Deque<int[]> stack = new ArrayDeque<>();
+            stack.push(new int[] { ROOT, 0 });
+            pre[ROOT] = next++;
+            while (!stack.isEmpty()) {
+                int[] frame = stack.peek();
+                List<Integer> below = children.get(frame[0]);
+                if (frame[1] < below.size()) {
+                    int child = below.get(frame[1]++);
+                    pre[child] = next++;
+                    inOrder[pre[child] - 1] = ids[child];
+                    stack.push(new int[] { child, 0 });
+                } else {
+                    last[frame[0]] = next - 1;
+                    stack.pop();
+                }
+            }
+            if (next != count) {
+                throw new IllegalArgumentException("Departments of tenant " + tenantId + " contain a cycle");
+            }
+
+            Map<String, Integer> users = new HashMap<>(userDepartments.size() * 2);
+            String[] userIds = userDepartments.keySet().toArray(String[]::new);
+            long[] keyed = new long[userIds.length];
+            for (int u = 0; u < userIds.length; u++) {
+                int department = resolve(index, userDepartments.get(userIds[u]), "department of user " + userIds[u]);
+                users.put(userIds[u], department);
+                keyed[u] = (long) pre[department] << 32 | u;
+            }
+            Arrays.sort(keyed);
+            int[] userPre = new int[userIds.length];
+            String[] usersInOrder = new String[userIds.length];
+            for (int u = 0; u < keyed.length; u++) {
+                userPre[u] = (int) (keyed[u] >>> 32);
+                usersInOrder[u] = userIds[(int) keyed[u]];
+            }
+
+            return new ScopeHierarchy(tenantId, index, parent, pre, last, List.of(inOrder), users, userPre, List.of(usersInOrder));
+        }
+
+
+        private static int resolve(Map<String, Integer> index, String departmentId, String what) {
+            if (departmentId == null) {
+                return ROOT;
+            }
+            Integer department = index.get(departmentId);
+            if (department == null) {
+                throw new IllegalArgumentException("Unknown " + what + ": " + departmentId);
+            }
+            return department;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.trackswiftly.utils.base.scope;
+
+import com.trackswiftly.utils.enums.TrackSwiftlyRolesEnum;
+
+
+
+/**
+ * Visibility levels of the tenant → department → user hierarchy.
+ */
+public enum ScopeLevel {
+
+
+    /** Sees everything of its tenant. */
+    TENANT,
+
+    /** Sees its department and every department below it, with their users. */
+    DEPARTMENT,
+
+    /** Sees only what is assigned to itself. */
+    USER;
+
+
+
+    /**
+     * Returns the visibility of a role: {@code ADMIN} and {@code DISPATCHER} see
+     * the organization, {@code MANAGER} its department, {@code DRIVER} itself.
+     *
+     * @param role the role
+     * @return the scope level
+     */
+    public static ScopeLevel forRole(TrackSwiftlyRolesEnum role) {
+        return switch (role) {
+            case ADMIN, DISPATCHER -> TENANT;
+            case MANAGER -> DEPARTMENT;
+            case DRIVER -> USER;
+        };
+    }
+}
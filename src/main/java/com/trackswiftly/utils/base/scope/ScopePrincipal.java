@@ -0,0 +1,30 @@
+package com.trackswiftly.utils.base.scope;
+
+import com.trackswiftly.utils.enums.TrackSwiftlyRolesEnum;
+
+
+
+/**
+ * Position of the caller in the scope hierarchy.
+ *
+ * @param tenantId     the tenant
+ * @param departmentId the caller's department, or {@code null}
+ * @param userId       the caller's user ID
+ * @param level        what the caller may see
+ */
+public record ScopePrincipal(String tenantId, String departmentId, String userId, ScopeLevel level) {
+
+
+    /**
+     * Creates a principal whose level follows from its role.
+     *
+     * @param tenantId     the tenant
+     * @param departmentId the caller's department, or {@code null}
+     * @param userId       the caller's user ID
+     * @param role         the caller's role
+     * @return the principal
+     */
+    public static ScopePrincipal of(String tenantId, String departmentId, String userId, TrackSwiftlyRolesEnum role) {
+        return new ScopePrincipal(tenantId, departmentId, userId, ScopeLevel.forRole(role));
+    }
+}
@@ -0,0 +1,109 @@
+package com.trackswiftly.utils.base.scope;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.trackswiftly.utils.base.invalidation.InvalidationBus;
+import com.trackswiftly.utils.base.invalidation.InvalidationHandler;
+import com.trackswiftly.utils.base.utils.TenantContext;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Per-tenant {@link ScopeHierarchy} cache, checked against the
+ * {@link ScopePrincipal} of the {@link TenantContext}.
+ * <p>
+ * A tenant's hierarchy is loaded once, e.g. with one recursive query, and
+ * reused by every request until the tenant's departments or users change.
+ * Register it with an {@link InvalidationBus} to drop hierarchies changed on
+ * any node; the next request reloads them.
+ */
+@Log4j2
+public class TenantScopes implements InvalidationHandler {
+
+
+    private final Function<String, ScopeHierarchy> loader;
+
+    private final Map<String, ScopeHierarchy> hierarchies = new ConcurrentHashMap<>();
+
+
+
+    /**
+     * Creates a cache.
+     *
+     * @param loader builds the hierarchy of a tenant
+     */
+    public TenantScopes(Function<String, ScopeHierarchy> loader) {
+        this.loader = loader;
+    }
+
+
+
+    /**
+     * Returns the hierarchy of a tenant, loading it if needed.
+     *
+     * @param tenantId the tenant
+     * @return the hierarchy
+     */
+    public ScopeHierarchy hierarchy(String tenantId) {
+        ScopeHierarchy hierarchy = hierarchies.get(tenantId);
+        return hierarchy != null ? hierarchy : hierarchies.computeIfAbsent(tenantId, key -> {
+            log.debug("Loading scope hierarchy of tenant {}", key);
+            return loader.apply(key);
+        });
+    }
+
+
+    /**
+     * Returns whether a target is visible to the principal of the {@link TenantContext}.
+     *
+     * @param targetDepartmentId the department of the target, or {@code null} to use the one of its user
+     * @param targetUserId       the user the target is assigned to, or {@code null}
+     * @return {@code true} if visible; {@code false} without a principal
+     */
+    public boolean isWithinScope(String targetDepartmentId, String targetUserId) {
+        ScopePrincipal principal = TenantContext.getScope();
+        return principal != null && hierarchy(principal.tenantId()).isWithinScope(principal, targetDepartmentId, targetUserId);
+    }
+
+
+    /**
+     * Returns the scope of the principal of the {@link TenantContext} as a query filter.
+     *
+     * @return the filter; denies everything without a principal
+     */
+    public ScopeFilter currentFilter() {
+        ScopePrincipal principal = TenantContext.getScope();
+        return principal == null ? ScopeFilter.none()
+            : hierarchy(principal.tenantId()).filter(principal);
+    }
+
+
+    /**
+     * Drops the hierarchy of a tenant, e.g. after its departments changed.
+     *
+     * @param tenantId the tenant
+     */
+    public void dropTenant(String tenantId) {
+        if (tenantId != null) {
+            hierarchies.remove(tenantId);
+        }
+    }
+
+
+
+    @Override
+    public void invalidate(String tenantId, Collection<String> ids) {
+        dropTenant(tenantId);
+    }
+
+
+    @Override
+    public void invalidateAll() {
+        hierarchies.clear();
+    }
+}
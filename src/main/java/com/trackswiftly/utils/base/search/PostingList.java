@@ -0,0 +1,123 @@
+package com.trackswiftly.utils.base.search;
+
+import java.util.Arrays;
+
+
+
+/**
+ * Append-only posting list of ascending document IDs, stored as
+ * delta-encoded varints in a growable {@code byte[]}.
+ * <p>
+ * Document IDs are assigned in increasing order by {@link SearchIndex}, so
+ * appends never need to rewrite the buffer. Not thread-safe; guarded by the
+ * owning index's lock.
+ */
+final class PostingList {
+
+
+    private byte[] buffer = new byte[8];
+
+    private int length;
+
+    private int count;
+
+    private int lastDoc = -1;
+
+
+
+    /**
+     * Appends a document ID; duplicates of the last ID are ignored.
+     *
+     * @param doc the document ID, not lower than the last appended one
+     */
+    void add(int doc) {
+        if (doc == lastDoc) {
+            return;
+        }
+        if (doc < lastDoc) {
+            throw new IllegalArgumentException("Posting lists are append-only: " + doc + " after " + lastDoc);
+        }
+        int delta = doc - lastDoc;
+        if (length + 5 > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        while ((delta & ~0x7F) != 0) {
+            buffer[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        buffer[length++] = (byte) delta;
+        lastDoc = doc;
+        count++;
+    }
+
+
+    /**
+     * Returns the number of document IDs.
+     *
+     * @return the count
+     */
+    int size() {
+        return count;
+    }
+
+
+    /**
+     * Decodes all document IDs.
+     *
+     * @return the ascending document IDs
+     */
+    int[] toArray() {
+        int[] docs = new int[count];
+        int doc = -1;
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            doc += delta;
+            docs[i] = doc;
+        }
+        return docs;
+    }
+
+
+    /**
+     * Keeps only the candidates that are also in this list.
+     *
+     * @param candidates ascending document IDs
+     * @param size       number of valid candidates
+     * @return the number of candidates kept, compacted at the front of {@code candidates}
+     */
+    int retainAll(int[] candidates, int size) {
+        int kept = 0;
+        int doc = -1;
+        int position = 0;
+        int decoded = 0;
+        for (int i = 0; i < size; i++) {
+            int candidate = candidates[i];
+            while (doc < candidate && decoded < count) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = buffer[position++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                doc += delta;
+                decoded++;
+            }
+            if (doc == candidate) {
+                candidates[kept++] = candidate;
+            } else if (doc < candidate) {
+                break;
+            }
+        }
+        return kept;
+    }
+}
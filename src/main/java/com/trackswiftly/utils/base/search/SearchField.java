@@ -0,0 +1,33 @@
+package com.trackswiftly.utils.base.search;
+
+import java.util.function.Function;
+
+
+
+/**
+ * An indexed field of a search document.
+ *
+ * @param <O>       the document (output DTO) type
+ * @param name      the field name, for diagnostics
+ * @param extractor extracts the field text from a document; may return {@code null}
+ * @param weight    relative weight of matches in this field
+ */
+public record SearchField<O>(
+    String name,
+    Function<O, String> extractor,
+    float weight
+) {
+
+
+    /**
+     * Creates a field with weight {@code 1}.
+     *
+     * @param <O>       the document type
+     * @param name      the field name
+     * @param extractor the text extractor
+     * @return the field
+     */
+    public static <O> SearchField<O> of(String name, Function<O, String> extractor) {
+        return new SearchField<>(name, extractor, 1f);
+    }
+}
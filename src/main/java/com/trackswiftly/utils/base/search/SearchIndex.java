@@ -0,0 +1,501 @@
+package com.trackswiftly.utils.base.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import com.trackswiftly.utils.dtos.PageDTO;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * In-memory inverted index over configured fields of output DTOs, for
+ * type-ahead {@code search(keyword)} without database scans.
+ * <p>
+ * Field texts are normalized (lower case, accents stripped) and split into
+ * words. Every word contributes its trigrams and its one- and two-character
+ * prefixes to delta-varint compressed {@link PostingList}s. A query word
+ * matches a document when it is a prefix of one of its words (short queries)
+ * or a substring of one (three characters or more); all query words must
+ * match. Word-prefix matches score twice as much as infix matches, scaled by
+ * the field weight, and results are returned best first.
+ * <p>
+ * Updates re-index the document under a new internal ID and tombstone the
+ * old one; the index compacts itself once tombstones outnumber live
+ * documents. Thread-safe: searches share a read lock, updates take the write lock.
+ *
+ * @param <T> the type of the entity identifier
+ * @param <O> the document (output DTO) type
+ */
+@Log4j2
+public class SearchIndex<T, O> {
+
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final int GRAM = 3;
+
+
+    private final Function<O, T> idExtractor;
+
+    private final List<SearchField<O>> fields;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    private final Map<T, Integer> docsById = new HashMap<>();
+
+    private final BitSet deleted = new BitSet();
+
+    private Object[] documents = new Object[16];
+
+    private String[][] texts = new String[16][];
+
+    private int nextDoc;
+
+
+
+    /**
+     * Creates an empty index.
+     *
+     * @param idExtractor extracts the entity identifier from a document
+     * @param fields      the indexed fields
+     */
+    public SearchIndex(Function<O, T> idExtractor, List<SearchField<O>> fields) {
+        this.idExtractor = idExtractor;
+        this.fields = List.copyOf(fields);
+    }
+
+
+
+    /**
+     * Normalizes text for indexing and querying: lower case, no accents,
+     * words separated by single spaces.
+     *
+     * @param text the raw text
+     * @return the normalized text
+     */
+    static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+
+
+    /**
+     * Adds or replaces documents.
+     *
+     * @param documents the documents to index
+     */
+    public void indexAll(Collection<O> documents) {
+        lock.writeLock().lock();
+        try {
+            for (O document : documents) {
+                indexLocked(document);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Adds or replaces a document.
+     *
+     * @param document the document to index
+     */
+    public void index(O document) {
+        indexAll(List.of(document));
+    }
+
+
+    /**
+     * Removes documents by entity identifier.
+     *
+     * @param ids the identifiers to remove
+     */
+    public void removeAll(Collection<T> ids) {
+        lock.writeLock().lock();
+        try {
+            for (T id : ids) {
+                Integer doc = docsById.remove(id);
+                if (doc != null) {
+                    tombstone(doc);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Removes every document.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docsById.clear();
+            deleted.clear();
+            documents = new Object[16];
+            texts = new String[16][];
+            nextDoc = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Returns the number of live documents.
+     *
+     * @return the document count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+
+    private void indexLocked(O document) {
+        T id = idExtractor.apply(document);
+        Integer previous = docsById.get(id);
+        if (previous != null) {
+            tombstone(previous);
+        }
+        int doc = nextDoc++;
+        if (doc == documents.length) {
+            documents = Arrays.copyOf(documents, doc * 2);
+            texts = Arrays.copyOf(texts, doc * 2);
+        }
+        String[] fieldTexts = new String[fields.size()];
+        for (int f = 0; f < fieldTexts.length; f++) {
+            fieldTexts[f] = normalize(fields.get(f).extractor().apply(document));
+            addTerms(fieldTexts[f], doc);
+        }
+        documents[doc] = document;
+        texts[doc] = fieldTexts;
+        docsById.put(id, doc);
+    }
+
+
+    private void addTerms(String text, int doc) {
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf(' ', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            posting(text.substring(start, start + 1)).add(doc);
+            if (end - start >= 2) {
+                posting(text.substring(start, start + 2)).add(doc);
+            }
+            for (int i = start; i + GRAM <= end; i++) {
+                posting(text.substring(i, i + GRAM)).add(doc);
+            }
+            start = end + 1;
+        }
+    }
+
+
+    /**
+     * Returns the posting list of a term. One- and two-character terms are word
+     * prefixes, three-character terms are trigrams; they never collide.
+     */
+    private PostingList posting(String term) {
+        return postings.computeIfAbsent(term, key -> new PostingList());
+    }
+
+
+    private void tombstone(int doc) {
+        deleted.set(doc);
+        documents[doc] = null;
+        texts[doc] = null;
+    }
+
+
+    private void compactIfNeeded() {
+        int live = docsById.size();
+        if (nextDoc - live <= Math.max(64, live)) {
+            return;
+        }
+        log.debug("Compacting search index: {} live documents out of {}", live, nextDoc);
+        List<O> survivors = new ArrayList<>(live);
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (!deleted.get(doc)) {
+                @SuppressWarnings("unchecked")
+                O document = (O) documents[doc];
+                survivors.add(document);
+            }
+        }
+        postings.clear();
+        docsById.clear();
+        deleted.clear();
+        documents = new Object[Math.max(16, live)];
+        texts = new String[documents.length][];
+        nextDoc = 0;
+        for (O document : survivors) {
+            indexLocked(document);
+        }
+    }
+
+
+
+    /**
+     * Returns the best matching documents.
+     *
+     * @param keyword the search keyword
+     * @param limit   the maximum number of results
+     * @return up to {@code limit} documents, best first
+     */
+    public List<O> search(String keyword, int limit) {
+        lock.readLock().lock();
+        try {
+            return slice(rank(keyword, limit).docs, 0, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Returns one page of matching documents, best first.
+     *
+     * @param keyword  the search keyword
+     * @param page     the page number (0-based)
+     * @param pageSize the page size
+     * @return the page with pagination metadata
+     */
+    public PageDTO<O> page(String keyword, int page, int pageSize) {
+        lock.readLock().lock();
+        try {
+            int from = (int) Math.min(Integer.MAX_VALUE, (long) page * pageSize);
+            Ranking ranking = rank(keyword, (int) Math.min(Integer.MAX_VALUE, (long) from + pageSize));
+            return PageDTO.<O>builder()
+                .content(slice(ranking.docs, from, pageSize))
+                .page(page)
+                .size(pageSize)
+                .totalElements(ranking.matches)
+                .totalPages(pageSize == 0 ? 0 : (ranking.matches + pageSize - 1) / pageSize)
+                .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+
+    private List<O> slice(long[] ranked, int from, int limit) {
+        int to = (int) Math.min(ranked.length, (long) from + limit);
+        List<O> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            @SuppressWarnings("unchecked")
+            O document = (O) documents[(int) ranked[i]];
+            result.add(document);
+        }
+        return result;
+    }
+
+
+    /**
+     * Top-ranked document IDs, best first, and the total number of matches.
+     */
+    private record Ranking(long[] docs, int matches) {}
+
+
+    /**
+     * Ranks matching documents, keeping only the best {@code keep} in a bounded heap.
+     * Heap entries pack the inverted score bits in the high half and the document ID
+     * in the low half, so a smaller value is a better match.
+     */
+    private Ranking rank(String keyword, int keep) {
+        String query = normalize(keyword);
+        if (query.isEmpty() || keep <= 0) {
+            return new Ranking(new long[0], 0);
+        }
+        String[] words = query.split(" ");
+
+        int[] candidates = null;
+        int size = 0;
+        for (String word : words) {
+            List<PostingList> lists = termsOf(word);
+            if (lists == null) {
+                return new Ranking(new long[0], 0);
+            }
+            for (PostingList list : lists) {
+                if (candidates == null) {
+                    candidates = list.toArray();
+                    size = candidates.length;
+                } else {
+                    size = list.retainAll(candidates, size);
+                }
+                if (size == 0) {
+                    return new Ranking(new long[0], 0);
+                }
+            }
+        }
+
+        long[] heap = new long[Math.min(keep, size)];
+        int heapSize = 0;
+        int matches = 0;
+        for (int i = 0; i < size; i++) {
+            int doc = candidates[i];
+            if (deleted.get(doc)) {
+                continue;
+            }
+            float score = score(texts[doc], words);
+            if (score <= 0f) {
+                continue;
+            }
+            matches++;
+            long entry = ((long) (Integer.MAX_VALUE - Float.floatToIntBits(score)) << 32) | doc;
+            if (heapSize < heap.length) {
+                heap[heapSize] = entry;
+                siftUp(heap, heapSize++);
+            } else if (entry < heap[0]) {
+                heap[0] = entry;
+                siftDown(heap, heapSize);
+            }
+        }
+        long[] ranked = Arrays.copyOf(heap, heapSize);
+        Arrays.sort(ranked);
+        for (int i = 0; i < ranked.length; i++) {
+            ranked[i] &= 0xFFFFFFFFL;
+        }
+        return new Ranking(ranked, matches);
+    }
+
+
+    /** Restores the max-heap property upwards from {@code index}. */
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= heap[index]) {
+                return;
+            }
+            long swap = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = swap;
+            index = parent;
+        }
+    }
+
+
+    /** Restores the max-heap property downwards from the root. */
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left] > heap[largest]) {
+                largest = left;
+            }
+            if (right < size && heap[right] > heap[largest]) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            long swap = heap[largest];
+            heap[largest] = heap[index];
+            heap[index] = swap;
+            index = largest;
+        }
+    }
+
+
+    /**
+     * Returns the posting lists a document must appear in to match a query word,
+     * or {@code null} if one of them is missing.
+     */
+    private List<PostingList> termsOf(String word) {
+        List<PostingList> lists = new ArrayList<>();
+        if (word.length() < GRAM) {
+            PostingList prefix = postings.get(word);
+            if (prefix == null) {
+                return null;
+            }
+            lists.add(prefix);
+            return lists;
+        }
+        for (int i = 0; i + GRAM <= word.length(); i++) {
+            PostingList gram = postings.get(word.substring(i, i + GRAM));
+            if (gram == null) {
+                return null;
+            }
+            lists.add(gram);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        return lists;
+    }
+
+
+    /**
+     * Verifies a candidate and scores it; {@code 0} means a query word is not actually present.
+     */
+    private float score(String[] fieldTexts, String[] words) {
+        float total = 0f;
+        for (String word : words) {
+            float best = 0f;
+            for (int f = 0; f < fieldTexts.length; f++) {
+                float weight = fields.get(f).weight();
+                String text = fieldTexts[f];
+                int index = text.indexOf(word);
+                while (index >= 0) {
+                    boolean wordStart = index == 0 || text.charAt(index - 1) == ' ';
+                    if (wordStart || word.length() >= GRAM) {
+                        best = Math.max(best, wordStart ? 2f * weight : weight);
+                    }
+                    if (wordStart) {
+                        break;
+                    }
+                    index = text.indexOf(word, index + 1);
+                }
+            }
+            if (best == 0f) {
+                return 0f;
+            }
+            total += best;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,140 @@
+package com.trackswiftly.utils.base.search;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+import com.trackswiftly.utils.dtos.PageDTO;
+import com.trackswiftly.utils.interfaces.EntityChangeListener;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Per-tenant {@link SearchIndex}es for one entity type, selected through
+ * {@link TenantContext}.
+ * <p>
+ * Register it with {@code TrackSwiftlyServiceAbstract#addChangeListener} to keep
+ * the current tenant's index in sync: created DTOs are indexed directly, updated
+ * IDs are reloaded through the configured loader (typically the service's
+ * {@code findEntities}), and deleted IDs are removed. A service's
+ * {@code search(keyword)} can then answer from {@link #search(String, int)}.
+ *
+ * @param <T> the type of the entity identifier
+ * @param <O> the document (output DTO) type
+ */
+@Log4j2
+public class TenantSearchIndex<T, O> implements EntityChangeListener<T, O> {
+
+
+    /** Key used when no tenant is set in the {@link TenantContext}. */
+    static final String NO_TENANT = "";
+
+
+    private final Function<O, T> idExtractor;
+
+    private final List<SearchField<O>> fields;
+
+    private final Function<List<T>, List<O>> loader;
+
+    private final Map<String, SearchIndex<T, O>> indexes = new ConcurrentHashMap<>();
+
+
+
+    /**
+     * Creates per-tenant indexes.
+     *
+     * @param idExtractor extracts the entity identifier from a document
+     * @param fields      the indexed fields
+     * @param loader      loads current documents by IDs after an update, e.g. {@code service::findEntities}
+     */
+    public TenantSearchIndex(Function<O, T> idExtractor, List<SearchField<O>> fields, Function<List<T>, List<O>> loader) {
+        this.idExtractor = idExtractor;
+        this.fields = List.copyOf(fields);
+        this.loader = loader;
+    }
+
+
+
+    /**
+     * Returns the index of the current tenant, creating it if needed.
+     *
+     * @return the current tenant's index
+     */
+    public SearchIndex<T, O> current() {
+        return forTenant(TenantContext.getTenantId());
+    }
+
+
+    /**
+     * Returns the index of a tenant, creating it if needed.
+     *
+     * @param tenantId the tenant ID, or {@code null} when running without tenant
+     * @return the tenant's index
+     */
+    public SearchIndex<T, O> forTenant(String tenantId) {
+        return indexes.computeIfAbsent(tenantId == null ? NO_TENANT : tenantId, key -> new SearchIndex<>(idExtractor, fields));
+    }
+
+
+    /**
+     * Drops the index of a tenant, e.g. on offboarding.
+     *
+     * @param tenantId the tenant ID
+     */
+    public void dropTenant(String tenantId) {
+        indexes.remove(tenantId == null ? NO_TENANT : tenantId);
+    }
+
+
+
+    /**
+     * Searches the current tenant's index.
+     *
+     * @param keyword the search keyword
+     * @param limit   the maximum number of results
+     * @return up to {@code limit} documents, best first
+     */
+    public List<O> search(String keyword, int limit) {
+        return current().search(keyword, limit);
+    }
+
+
+    /**
+     * Returns one page of results from the current tenant's index.
+     *
+     * @param keyword  the search keyword
+     * @param page     the page number (0-based)
+     * @param pageSize the page size
+     * @return the page with pagination metadata
+     */
+    public PageDTO<O> page(String keyword, int page, int pageSize) {
+        return current().page(keyword, page, pageSize);
+    }
+
+
+
+    @Override
+    public void onCreated(List<O> created) {
+        current().indexAll(created);
+    }
+
+
+    @Override
+    public void onUpdated(List<T> ids) {
+        SearchIndex<T, O> index = current();
+        List<O> reloaded = loader.apply(ids);
+        index.removeAll(ids);
+        index.indexAll(reloaded);
+        log.debug("Re-indexed {} updated documents", reloaded.size());
+    }
+
+
+    @Override
+    public void onDeleted(List<T> ids) {
+        current().removeAll(ids);
+    }
+}
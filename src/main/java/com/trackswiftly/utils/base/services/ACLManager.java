@@ -5,6 +5,15 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
+
+import com.trackswiftly.utils.base.audit.AuditLog;
+import com.trackswiftly.utils.base.utils.TenantContext;
+import com.trackswiftly.utils.dtos.AclPrefilter;
+import com.trackswiftly.utils.dtos.ResourcePermission;
+import com.trackswiftly.utils.dtos.TokenInfo;
+import com.trackswiftly.utils.dtos.UserAcl;
+import com.trackswiftly.utils.enums.Resource;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -25,6 +34,28 @@ public class ACLManager {
     /** Key representing allowed item IDs in the ACL structure. */
     final static String IDS = "ids";
 
+
+    private final AuditLog auditLog;
+
+
+
+    /**
+     * Creates an ACL manager that does not audit decisions.
+     */
+    public ACLManager() {
+        this(null);
+    }
+
+
+    /**
+     * Creates an ACL manager that records every {@code hasAccess} decision.
+     *
+     * @param auditLog the audit log, or {@code null} to disable auditing
+     */
+    public ACLManager(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
     /**
      * Converts a raw ACL map (with list-based permissions) into a more optimized
      * structure using sets for faster lookup.
@@ -67,7 +98,7 @@ public class ACLManager {
         
         if (!aclTable.containsKey(uri)) {
             log.warn("URI not found in ACL table: " , uri);
-            return false; // URI not found
+            return audit(uri, method, itemIds, false); // URI not found
         }
 
         Map<String, Set<String>> permissions = aclTable.get(uri);
@@ -75,7 +106,7 @@ public class ACLManager {
 
         if (!allowedMethods.contains(method)) {
             log.warn("Method not allowed: " , method);
-            return false; // Method not allowed
+            return audit(uri, method, itemIds, false); // Method not allowed
         }
 
         Set<String> allowedIds = permissions.getOrDefault(IDS, Set.of());
@@ -83,12 +114,117 @@ public class ACLManager {
         // If no specific IDs are enforced, allow access
         if (allowedIds.isEmpty()) {
             log.info("No specific IDs enforced, access granted.");
-            return true;
+            return audit(uri, method, itemIds, true);
         }
 
         log.info("Checking if item IDs are allowed: " , itemIds);
         // ✅ More Efficient Check Using `Set.containsAll()`
-        return allowedIds.containsAll(itemIds);
+        return audit(uri, method, itemIds, allowedIds.containsAll(itemIds));
+    }
+
+
+    /**
+     * Checks whether a specific request (URI + method + item IDs) is allowed by a compiled token.
+     * <p>
+     * Unlike {@link #hasAccess(Map, String, String, List)}, no ACL table has to be built first:
+     * the lookup goes straight to the resource ordinal, the method bit and the sorted ID arrays.
+     *
+     * @param tokenInfo The compiled token ACL.
+     * @param uri       The request URI (a {@link Resource} path).
+     * @param method    The HTTP method (e.g., GET, POST).
+     * @param itemIds   The list of item IDs being accessed.
+     * @return {@code true} if access is allowed, {@code false} otherwise.
+     */
+    public boolean hasAccess(TokenInfo tokenInfo, String uri, String method, List<String> itemIds) {
+        return audit(uri, method, itemIds, check(tokenInfo, uri, method, itemIds));
+    }
+
+
+    private boolean check(TokenInfo tokenInfo, String uri, String method, List<String> itemIds) {
+
+        Resource resource = Resource.fromPath(uri);
+        ResourcePermission permission = resource == null ? null : tokenInfo.permission(resource);
+
+        if (permission == null) {
+            log.warn("URI not found in token ACL: {}", uri);
+            return false;
+        }
+
+        if (!permission.allowsMethod(method)) {
+            log.warn("Method not allowed: {}", method);
+            return false;
+        }
+
+        return permission.ids().isEmpty() || permission.ids().containsAll(itemIds);
+    }
+
+
+    /**
+     * Checks whether a specific request (URI + method + item IDs) is allowed by a
+     * template-based user ACL, consulting the shared role template first.
+     *
+     * @param userAcl The user ACL (role template + per-user delta).
+     * @param uri     The request URI (a {@link Resource} path).
+     * @param method  The HTTP method (e.g., GET, POST).
+     * @param itemIds The list of item IDs being accessed.
+     * @return {@code true} if access is allowed, {@code false} otherwise.
+     */
+    public boolean hasAccess(UserAcl userAcl, String uri, String method, List<String> itemIds) {
+
+        Resource resource = Resource.fromPath(uri);
+
+        if (resource == null) {
+            log.warn("URI not found in user ACL: {}", uri);
+            return audit(uri, method, itemIds, false);
+        }
+
+        return audit(uri, method, itemIds, userAcl.allows(resource, method, itemIds));
+    }
+
+
+    /**
+     * Checks a request against a token prefilter first, only loading the exact ACL
+     * when the prefilter cannot decide.
+     * <p>
+     * Requests for unknown resources, ungranted methods or IDs that are definitely
+     * not in the token are denied without calling {@code exactAcl}. Requests with a
+     * granted method on a resource that enforces no IDs are allowed without calling
+     * {@code exactAcl}.
+     *
+     * @param prefilter The token prefilter (see {@link AclPrefilter}).
+     * @param exactAcl  Loads the exact token ACL, e.g. from a remote store.
+     * @param uri       The request URI (a {@link Resource} path).
+     * @param method    The HTTP method (e.g., GET, POST).
+     * @param itemIds   The list of item IDs being accessed.
+     * @return {@code true} if access is allowed, {@code false} otherwise.
+     */
+    public boolean hasAccess(AclPrefilter prefilter, Supplier<TokenInfo> exactAcl, String uri, String method, List<String> itemIds) {
+
+        Resource resource = Resource.fromPath(uri);
+
+        if (resource == null || !prefilter.mightAllow(resource, method, itemIds)) {
+            log.debug("Request denied by ACL prefilter: {} {}", method, uri);
+            return audit(uri, method, itemIds, false);
+        }
+
+        if (!prefilter.enforcesIds(resource)) {
+            return audit(uri, method, itemIds, true);
+        }
+
+        return audit(uri, method, itemIds, check(exactAcl.get(), uri, method, itemIds));
+    }
+
+
+    /**
+     * Records a decision in the audit log, if any, under the current tenant.
+     *
+     * @return the decision
+     */
+    private boolean audit(String uri, String method, List<String> itemIds, boolean allowed) {
+        if (auditLog != null) {
+            auditLog.record(TenantContext.getTenantId(), Resource.fromPath(uri), method, allowed, itemIds);
+        }
+        return allowed;
     }
 
 
@@ -107,6 +243,18 @@ public class ACLManager {
     }
 
 
+    /**
+     * Compiles ACL data from a token payload into an immutable {@link TokenInfo}.
+     *
+     * @param claims The token payload containing ACL rules.
+     * @return the compiled token ACL.
+     * @throws IllegalArgumentException if the payload contains invalid resources or methods.
+     */
+    public TokenInfo getTokenInfo(Map<String, ?> claims) {
+        return TokenInfo.from(claims);
+    }
+
+
     /**
      * Tests compression and decompression of the ACL table using {@link CompressedAclService}.
      *
@@ -0,0 +1,94 @@
+package com.trackswiftly.utils.base.services;
+
+import java.nio.ByteBuffer;
+
+
+
+/**
+ * Layout of the memory-mapped ACL snapshot files shared by
+ * {@link AclSnapshotWriter} and {@link AclSnapshotReader}. All values are big-endian.
+ * <pre>
+ * header   int magic, int format, long version, int entryCount, int resourceCount, long createdAt
+ * index    entryCount x (long keyHash, int entryOffset, int unused), sorted by keyHash
+ * entry    int keyLength, key bytes (UTF-8), padding to 4,
+ *          resourceCount x (int methodMask, int numericCount, int numericOffset, int stringCount, int stringOffset)
+ * numeric  sorted longs, 8-byte aligned
+ * strings  stringCount x int record offset, sorted by unsigned UTF-8 bytes;
+ *          each record is an int length followed by the UTF-8 bytes
+ * </pre>
+ * Offsets are absolute positions in the file.
+ */
+final class AclSnapshotFormat {
+
+
+    /** Private constructor to prevent instantiation. */
+    private AclSnapshotFormat() {}
+
+
+    static final int MAGIC = 0x54534143;
+
+    static final int FORMAT = 1;
+
+    static final int HEADER_SIZE = 32;
+
+    static final int INDEX_ENTRY_SIZE = 16;
+
+    static final int RESOURCE_SLOT_SIZE = 20;
+
+
+    static final int VERSION_OFFSET = 8;
+
+    static final int ENTRY_COUNT_OFFSET = 16;
+
+    static final int RESOURCE_COUNT_OFFSET = 20;
+
+    static final int CREATED_AT_OFFSET = 24;
+
+
+
+    /**
+     * 64-bit FNV-1a hash of a key's UTF-8 bytes.
+     */
+    static long hash(byte[] key) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : key) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+
+    /**
+     * Compares bytes stored in the buffer with the given bytes, unsigned, shorter first on ties.
+     */
+    static int compare(ByteBuffer buffer, int offset, int length, byte[] other) {
+        int common = Math.min(length, other.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(buffer.get(offset + i) & 0xFF, other[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, other.length);
+    }
+
+
+    /**
+     * Compares two byte arrays, unsigned, shorter first on ties.
+     */
+    static int compare(byte[] a, byte[] b) {
+        int common = Math.min(a.length, b.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(a[i] & 0xFF, b[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+
+    static int align(int value, int alignment) {
+        return (value + alignment - 1) & -alignment;
+    }
+}
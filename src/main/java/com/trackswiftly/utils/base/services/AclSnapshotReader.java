@@ -0,0 +1,369 @@
+package com.trackswiftly.utils.base.services;
+
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.CREATED_AT_OFFSET;
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.ENTRY_COUNT_OFFSET;
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.FORMAT;
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.HEADER_SIZE;
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.INDEX_ENTRY_SIZE;
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.MAGIC;
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.RESOURCE_COUNT_OFFSET;
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.RESOURCE_SLOT_SIZE;
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.VERSION_OFFSET;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+import com.trackswiftly.utils.base.utils.MethodMask;
+import com.trackswiftly.utils.dtos.IdSet;
+import com.trackswiftly.utils.dtos.TokenInfo;
+import com.trackswiftly.utils.enums.Resource;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Queries an ACL snapshot written by {@link AclSnapshotWriter} directly in its
+ * read-only memory mapping.
+ * <p>
+ * Access checks binary-search the mapped key index and sorted ID arrays with
+ * absolute reads, so nothing is deserialized and all processes of a host
+ * share the same page-cache pages. {@link #refresh()} maps the file again
+ * and swaps to it atomically when its version is higher; in-flight checks
+ * finish on the mapping they started with.
+ * <p>
+ * Thread-safe.
+ */
+@Log4j2
+public class AclSnapshotReader {
+
+
+    private final Path path;
+
+    private volatile Mapping mapping;
+
+
+
+    /**
+     * Mapped snapshot file, validated once so that queries can use unchecked
+     * absolute reads.
+     */
+    private static final class Mapping {
+
+        final ByteBuffer buffer;
+        final long version;
+        final int entryCount;
+        final int resourceCount;
+
+
+        Mapping(ByteBuffer buffer) {
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+                throw new IllegalArgumentException("Not an ACL snapshot file");
+            }
+            this.buffer = buffer;
+            this.version = buffer.getLong(VERSION_OFFSET);
+            this.entryCount = buffer.getInt(ENTRY_COUNT_OFFSET);
+            this.resourceCount = buffer.getInt(RESOURCE_COUNT_OFFSET);
+            validate();
+        }
+
+
+        /**
+         * Checks that every offset reachable from the index stays inside the file,
+         * so a truncated or corrupt file is rejected here rather than failing
+         * queries with {@link IndexOutOfBoundsException}.
+         */
+        private void validate() {
+            check(entryCount >= 0 && resourceCount >= 0);
+            check(within(HEADER_SIZE, (long) entryCount * INDEX_ENTRY_SIZE));
+            for (int i = 0; i < entryCount; i++) {
+                int entry = buffer.getInt(HEADER_SIZE + i * INDEX_ENTRY_SIZE + 8);
+                check(within(entry, 4));
+                int keyLength = buffer.getInt(entry);
+                check(keyLength >= 0 && within(entry + 4L, keyLength));
+                int slots = AclSnapshotFormat.align(entry + 4 + keyLength, 4);
+                check(within(slots, (long) resourceCount * RESOURCE_SLOT_SIZE));
+                for (int r = 0; r < resourceCount; r++) {
+                    int slot = slots + r * RESOURCE_SLOT_SIZE;
+                    if (buffer.getInt(slot) == MethodMask.NONE) {
+                        continue;
+                    }
+                    int numericCount = buffer.getInt(slot + 4);
+                    check(numericCount >= 0 && within(buffer.getInt(slot + 8), numericCount * 8L));
+                    int stringCount = buffer.getInt(slot + 12);
+                    int table = buffer.getInt(slot + 16);
+                    check(stringCount >= 0 && within(table, stringCount * 4L));
+                    for (int s = 0; s < stringCount; s++) {
+                        int record = buffer.getInt(table + s * 4);
+                        check(within(record, 4));
+                        int length = buffer.getInt(record);
+                        check(length >= 0 && within(record + 4L, length));
+                    }
+                }
+            }
+        }
+
+
+        private boolean within(long offset, long length) {
+            return offset >= 0 && offset + length <= buffer.capacity();
+        }
+
+
+        private static void check(boolean valid) {
+            if (!valid) {
+                throw new IllegalArgumentException("Truncated or corrupt ACL snapshot file");
+            }
+        }
+    }
+
+
+
+    /**
+     * Opens and maps a snapshot file.
+     *
+     * @param path the snapshot file
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if the file is not a complete ACL snapshot
+     */
+    public AclSnapshotReader(Path path) throws IOException {
+        this.path = path;
+        this.mapping = map(path);
+    }
+
+
+    private static Mapping map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Mapping(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+
+
+    /**
+     * Maps the snapshot file again and switches to it if its version is higher.
+     *
+     * @return {@code true} if a newer version is now in use
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if the file is not a complete ACL snapshot;
+     *                                  the snapshot in use is kept
+     */
+    public boolean refresh() throws IOException {
+        if (!Files.exists(path)) {
+            return false;
+        }
+        Mapping next = map(path);
+        synchronized (this) {
+            if (next.version <= mapping.version) {
+                return false;
+            }
+            mapping = next;
+        }
+        log.info("Switched to ACL snapshot version {} ({} entries)", next.version, next.entryCount);
+        return true;
+    }
+
+
+    /**
+     * Returns the version of the snapshot in use.
+     *
+     * @return the snapshot version
+     */
+    public long version() {
+        return mapping.version;
+    }
+
+
+    /**
+     * Returns when the snapshot in use was written.
+     *
+     * @return the creation time in epoch milliseconds
+     */
+    public long createdAt() {
+        return mapping.buffer.getLong(CREATED_AT_OFFSET);
+    }
+
+
+    /**
+     * Returns the number of ACLs in the snapshot in use.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return mapping.entryCount;
+    }
+
+
+    /**
+     * Checks whether the snapshot holds an ACL for a key.
+     *
+     * @param key the ACL key
+     * @return {@code true} if present
+     */
+    public boolean contains(String key) {
+        return entryOffset(mapping, key.getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+
+
+    /**
+     * Checks whether a request (URI + method + item IDs) is allowed by the ACL of a key.
+     *
+     * @param key     the ACL key
+     * @param uri     the request URI (a {@link Resource} path)
+     * @param method  the method (e.g., GET, POST)
+     * @param itemIds the IDs being accessed
+     * @return {@code true} if access is allowed; {@code false} if denied or the key is unknown
+     */
+    public boolean hasAccess(String key, String uri, String method, Collection<String> itemIds) {
+        Resource resource = Resource.fromPath(uri);
+        Mapping current = mapping;
+        int slot = resource == null ? -1 : slotOffset(current, key, resource);
+        if (slot < 0) {
+            return false;
+        }
+        ByteBuffer buffer = current.buffer;
+        int bit = MethodMask.of(method);
+        if (bit == MethodMask.NONE || (buffer.getInt(slot) & bit) == 0) {
+            return false;
+        }
+        int numericCount = buffer.getInt(slot + 4);
+        int stringCount = buffer.getInt(slot + 12);
+        if (numericCount == 0 && stringCount == 0) {
+            return true;
+        }
+        for (String id : itemIds) {
+            boolean found = IdSet.isCanonicalLong(id)
+                ? containsLong(buffer, buffer.getInt(slot + 8), numericCount, Long.parseLong(id))
+                : containsString(buffer, buffer.getInt(slot + 16), stringCount, id.getBytes(StandardCharsets.UTF_8));
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Materializes the ACL of a key as a {@link TokenInfo}, for callers that need
+     * the full object rather than access checks.
+     *
+     * @param key the ACL key
+     * @return the ACL, or {@code null} if the key is unknown
+     */
+    public TokenInfo tokenInfo(String key) {
+        Mapping current = mapping;
+        int entry = entryOffset(current, key.getBytes(StandardCharsets.UTF_8));
+        if (entry < 0) {
+            return null;
+        }
+        ByteBuffer buffer = current.buffer;
+        int slots = AclSnapshotFormat.align(entry + 4 + buffer.getInt(entry), 4);
+        Resource[] resources = Resource.values();
+        TokenInfo.Builder builder = TokenInfo.builder();
+        for (int r = 0; r < Math.min(resources.length, current.resourceCount); r++) {
+            int slot = slots + r * RESOURCE_SLOT_SIZE;
+            int mask = buffer.getInt(slot);
+            if (mask == MethodMask.NONE) {
+                continue;
+            }
+            IdSet.Builder ids = IdSet.builder();
+            int numericOffset = buffer.getInt(slot + 8);
+            for (int i = 0; i < buffer.getInt(slot + 4); i++) {
+                ids.add(buffer.getLong(numericOffset + i * 8));
+            }
+            int table = buffer.getInt(slot + 16);
+            for (int i = 0; i < buffer.getInt(slot + 12); i++) {
+                int record = buffer.getInt(table + i * 4);
+                byte[] bytes = new byte[buffer.getInt(record)];
+                buffer.get(record + 4, bytes);
+                ids.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            builder.grant(resources[r], mask, ids.build());
+        }
+        return builder.build();
+    }
+
+
+
+    private static int slotOffset(Mapping current, String key, Resource resource) {
+        if (resource.ordinal() >= current.resourceCount) {
+            return -1;
+        }
+        int entry = entryOffset(current, key.getBytes(StandardCharsets.UTF_8));
+        if (entry < 0) {
+            return -1;
+        }
+        int slots = AclSnapshotFormat.align(entry + 4 + current.buffer.getInt(entry), 4);
+        return slots + resource.ordinal() * RESOURCE_SLOT_SIZE;
+    }
+
+
+    private static int entryOffset(Mapping current, byte[] key) {
+        ByteBuffer buffer = current.buffer;
+        long hash = AclSnapshotFormat.hash(key);
+        int low = 0;
+        int high = current.entryCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getLong(HEADER_SIZE + mid * INDEX_ENTRY_SIZE) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < current.entryCount; i++) {
+            int index = HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+            if (buffer.getLong(index) != hash) {
+                break;
+            }
+            int entry = buffer.getInt(index + 8);
+            if (AclSnapshotFormat.compare(buffer, entry + 4, buffer.getInt(entry), key) == 0) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+
+    private static boolean containsLong(ByteBuffer buffer, int offset, int count, long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = buffer.getLong(offset + mid * 8);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private static boolean containsString(ByteBuffer buffer, int table, int count, byte[] id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int record = buffer.getInt(table + mid * 4);
+            int cmp = AclSnapshotFormat.compare(buffer, record + 4, buffer.getInt(record), id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,217 @@
+package com.trackswiftly.utils.base.services;
+
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.FORMAT;
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.HEADER_SIZE;
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.INDEX_ENTRY_SIZE;
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.MAGIC;
+import static com.trackswiftly.utils.base.services.AclSnapshotFormat.RESOURCE_SLOT_SIZE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+import com.trackswiftly.utils.dtos.IdSet;
+import com.trackswiftly.utils.dtos.ResourcePermission;
+import com.trackswiftly.utils.dtos.TokenInfo;
+import com.trackswiftly.utils.enums.Resource;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Writes compiled ACLs into an immutable, versioned snapshot file that
+ * {@link AclSnapshotReader}s in other processes map and query in place.
+ * <p>
+ * The file is written next to its target, forced to disk and moved over it
+ * atomically, so readers either see the previous complete snapshot or the new
+ * one, even after a crash right after the move. Readers
+ * that already mapped the previous file keep using it until they refresh.
+ */
+@Log4j2
+public final class AclSnapshotWriter {
+
+
+    /** Private constructor to prevent instantiation. */
+    private AclSnapshotWriter() {}
+
+
+
+    /**
+     * Writes a snapshot and atomically replaces the target file.
+     *
+     * @param target  the snapshot file
+     * @param version the snapshot version; readers only switch to higher versions
+     * @param acls    the compiled ACLs by key (e.g. tenant and role, or token subject)
+     * @throws IOException if the file cannot be written or moved
+     */
+    public static void write(Path target, long version, Map<String, TokenInfo> acls) throws IOException {
+        ByteBuffer buffer = encode(version, acls);
+        Path dir = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            buffer.flip();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                // Without this the rename can reach the disk before the data.
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.info("Wrote ACL snapshot version {} with {} entries to {}", version, acls.size(), target);
+    }
+
+
+
+    /**
+     * Encodes a snapshot into a heap buffer; its position is the encoded length.
+     *
+     * @param version the snapshot version
+     * @param acls    the compiled ACLs by key
+     * @return the encoded snapshot
+     */
+    static ByteBuffer encode(long version, Map<String, TokenInfo> acls) {
+        Resource[] resources = Resource.values();
+
+        byte[][] keys = new byte[acls.size()][];
+        TokenInfo[] values = new TokenInfo[acls.size()];
+        long[] hashes = new long[acls.size()];
+        Integer[] order = new Integer[acls.size()];
+        int n = 0;
+        for (Map.Entry<String, TokenInfo> entry : acls.entrySet()) {
+            keys[n] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            values[n] = entry.getValue();
+            hashes[n] = AclSnapshotFormat.hash(keys[n]);
+            order[n] = n;
+            n++;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> hashes[i]));
+
+        Output out = new Output(HEADER_SIZE + n * INDEX_ENTRY_SIZE + 1024);
+        out.putInt(MAGIC).putInt(FORMAT).putLong(version).putInt(n).putInt(resources.length).putLong(System.currentTimeMillis());
+        int indexStart = out.position();
+        out.skip(n * INDEX_ENTRY_SIZE);
+
+        for (int i = 0; i < n; i++) {
+            int entry = order[i];
+            int entryOffset = out.position();
+            out.buffer.putLong(indexStart + i * INDEX_ENTRY_SIZE, hashes[entry]);
+            out.buffer.putInt(indexStart + i * INDEX_ENTRY_SIZE + 8, entryOffset);
+            writeEntry(out, keys[entry], values[entry], resources);
+        }
+        return out.buffer;
+    }
+
+
+    private static void writeEntry(Output out, byte[] key, TokenInfo acl, Resource[] resources) {
+        out.putInt(key.length).put(key).pad(4);
+        int slots = out.position();
+        out.skip(resources.length * RESOURCE_SLOT_SIZE);
+
+        for (Resource resource : resources) {
+            ResourcePermission permission = acl.permission(resource);
+            if (permission == null) {
+                continue;
+            }
+            int slot = slots + resource.ordinal() * RESOURCE_SLOT_SIZE;
+            IdSet ids = permission.ids();
+            out.buffer.putInt(slot, permission.methodMask());
+
+            long[] numeric = ids.numericIds();
+            out.pad(8);
+            out.buffer.putInt(slot + 4, numeric.length);
+            out.buffer.putInt(slot + 8, out.position());
+            for (long id : numeric) {
+                out.putLong(id);
+            }
+
+            byte[][] strings = Arrays.stream(ids.otherIds())
+                .map(id -> id.getBytes(StandardCharsets.UTF_8))
+                .sorted(AclSnapshotFormat::compare)
+                .toArray(byte[][]::new);
+            int table = out.position();
+            out.buffer.putInt(slot + 12, strings.length);
+            out.buffer.putInt(slot + 16, table);
+            out.skip(strings.length * 4);
+            for (int s = 0; s < strings.length; s++) {
+                out.buffer.putInt(table + s * 4, out.position());
+                out.putInt(strings[s].length).put(strings[s]);
+            }
+        }
+    }
+
+
+
+    /**
+     * Growable heap buffer with absolute patching through {@link #buffer}.
+     */
+    private static final class Output {
+
+        ByteBuffer buffer;
+
+
+        Output(int capacity) {
+            buffer = ByteBuffer.allocate(capacity);
+        }
+
+
+        int position() {
+            return buffer.position();
+        }
+
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+
+
+        Output putInt(int value) {
+            ensure(4);
+            buffer.putInt(value);
+            return this;
+        }
+
+
+        Output putLong(long value) {
+            ensure(8);
+            buffer.putLong(value);
+            return this;
+        }
+
+
+        Output put(byte[] bytes) {
+            ensure(bytes.length);
+            buffer.put(bytes);
+            return this;
+        }
+
+
+        Output skip(int bytes) {
+            ensure(bytes);
+            buffer.position(buffer.position() + bytes);
+            return this;
+        }
+
+
+        Output pad(int alignment) {
+            return skip(AclSnapshotFormat.align(buffer.position(), alignment) - buffer.position());
+        }
+    }
+}
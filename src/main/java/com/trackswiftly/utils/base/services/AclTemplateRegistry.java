@@ -0,0 +1,166 @@
+package com.trackswiftly.utils.base.services;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+import com.trackswiftly.utils.dtos.TokenInfo;
+import com.trackswiftly.utils.dtos.UserAcl;
+import com.trackswiftly.utils.enums.TrackSwiftlyRolesEnum;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Registry of canonical, interned ACL templates per {@link TrackSwiftlyRolesEnum},
+ * with optional per-tenant overrides.
+ * <p>
+ * Every user ACL built through this registry references one shared template
+ * instance per role (or tenant override) and only stores its own delta, so
+ * cached ACLs for thousands of users with the same role cost roughly one
+ * template plus their assigned IDs. Equal tokens are interned, so identical
+ * templates registered twice, or users whose ACL cannot be expressed as a
+ * delta but are identical to each other, still share one instance. Interned
+ * tokens are held weakly: a divergent user ACL is dropped from the registry
+ * once no cached ACL references it anymore.
+ * <p>
+ * Thread-safe.
+ */
+@Log4j2
+public class AclTemplateRegistry {
+
+
+    private final Map<TrackSwiftlyRolesEnum, TokenInfo> roleTemplates = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<TrackSwiftlyRolesEnum, TokenInfo>> tenantTemplates = new ConcurrentHashMap<>();
+
+    private final Map<TokenInfo, WeakReference<TokenInfo>> interned = new WeakHashMap<>();
+
+
+
+    /**
+     * Returns the canonical instance equal to the given token.
+     *
+     * @param tokenInfo the token
+     * @return the shared instance
+     */
+    public TokenInfo intern(TokenInfo tokenInfo) {
+        synchronized (interned) {
+            WeakReference<TokenInfo> reference = interned.get(tokenInfo);
+            TokenInfo existing = reference == null ? null : reference.get();
+            if (existing != null) {
+                return existing;
+            }
+            interned.put(tokenInfo, new WeakReference<>(tokenInfo));
+            return tokenInfo;
+        }
+    }
+
+
+
+    /**
+     * Registers the default template of a role.
+     *
+     * @param role     the role
+     * @param template the template ACL
+     */
+    public void register(TrackSwiftlyRolesEnum role, TokenInfo template) {
+        TokenInfo canonical = intern(template);
+        roleTemplates.put(role, canonical);
+        log.debug("Registered ACL template for role {}", role);
+    }
+
+
+    /**
+     * Registers a tenant-specific override of a role template.
+     *
+     * @param tenantId the tenant ID
+     * @param role     the role
+     * @param template the template ACL
+     */
+    public void register(String tenantId, TrackSwiftlyRolesEnum role, TokenInfo template) {
+        TokenInfo canonical = intern(template);
+        tenantTemplates.computeIfAbsent(tenantId, key -> new ConcurrentHashMap<>()).put(role, canonical);
+        log.debug("Registered ACL template override for role {} in tenant {}", role, tenantId);
+    }
+
+
+    /**
+     * Removes all template overrides of a tenant.
+     *
+     * @param tenantId the tenant ID
+     */
+    public void clearTenant(String tenantId) {
+        tenantTemplates.remove(tenantId);
+    }
+
+
+
+    /**
+     * Returns the template that applies to a role in a tenant: the tenant override
+     * if there is one, otherwise the role default.
+     *
+     * @param tenantId the tenant ID, or {@code null} for the role default
+     * @param role     the role
+     * @return the template, or {@link TokenInfo#EMPTY} if none is registered
+     */
+    public TokenInfo template(String tenantId, TrackSwiftlyRolesEnum role) {
+        if (tenantId != null) {
+            Map<TrackSwiftlyRolesEnum, TokenInfo> overrides = tenantTemplates.get(tenantId);
+            if (overrides != null) {
+                TokenInfo override = overrides.get(role);
+                if (override != null) {
+                    return override;
+                }
+            }
+        }
+        TokenInfo template = roleTemplates.get(role);
+        return template == null ? TokenInfo.EMPTY : template;
+    }
+
+
+    /**
+     * Returns the template that applies to a role in the tenant of the current {@link TenantContext}.
+     *
+     * @param role the role
+     * @return the template, or {@link TokenInfo#EMPTY} if none is registered
+     */
+    public TokenInfo template(TrackSwiftlyRolesEnum role) {
+        return template(TenantContext.getTenantId(), role);
+    }
+
+
+
+    /**
+     * Starts building a user ACL on the template of a role in a tenant.
+     *
+     * @param tenantId the tenant ID
+     * @param role     the role
+     * @return a builder for the user's delta
+     */
+    public UserAcl.Builder forUser(String tenantId, TrackSwiftlyRolesEnum role) {
+        return UserAcl.builder(template(tenantId, role));
+    }
+
+
+    /**
+     * Compacts a user's full ACL into the role template plus a delta. If the ACL revokes
+     * something the template grants, the full ACL is interned and used as its own template.
+     *
+     * @param tenantId the tenant ID
+     * @param role     the user's role
+     * @param full     the user's full ACL
+     * @return the compact user ACL
+     */
+    public UserAcl compact(String tenantId, TrackSwiftlyRolesEnum role, TokenInfo full) {
+        UserAcl derived = UserAcl.derive(template(tenantId, role), full);
+        if (derived != null) {
+            return derived;
+        }
+        log.debug("ACL of a {} user in tenant {} diverges from its template, interning it as is", role, tenantId);
+        return UserAcl.of(intern(full));
+    }
+}
@@ -0,0 +1,144 @@
+package com.trackswiftly.utils.base.services;
+
+
+
+/**
+ * Additive-increase / multiplicative-decrease controller of a batch size.
+ * <p>
+ * After each measured batch, the size grows by {@link BatchSizeOptions#getIncreaseStep()}
+ * if the batch was full and finished within {@link BatchSizeOptions#getLatencyTarget()},
+ * and shrinks by {@link BatchSizeOptions#getDecreaseFactor()} if it took longer or
+ * failed, always staying within the configured bounds. The size therefore
+ * settles just below the largest batch the database absorbs within the target,
+ * and follows it as load and row widths change. Throughput is tracked as an
+ * exponentially weighted moving average.
+ * <p>
+ * Instances are thread-safe; each controls one stream of batches, for example
+ * the inserts of one entity type for one tenant.
+ */
+public class AdaptiveBatchSizer {
+
+
+    private static final double THROUGHPUT_WEIGHT = 0.2;
+
+
+    private final BatchSizeOptions options;
+
+    private final long latencyTargetNanos;
+
+    private int batchSize;
+
+    private double rowsPerSecond;
+
+    private long lastLatencyNanos;
+
+    private long batches;
+
+    private long failures;
+
+
+
+    /**
+     * Snapshot of a sizer's state.
+     *
+     * @param batchSize        the current batch size
+     * @param rowsPerSecond    the moving average of the throughput
+     * @param lastLatencyNanos the duration of the last measured batch
+     * @param batches          the number of measured batches
+     * @param failures         the number of failed batches
+     */
+    public record Metrics(int batchSize, double rowsPerSecond, long lastLatencyNanos, long batches, long failures) {}
+
+
+
+    /**
+     * Creates a sizer with default options.
+     */
+    public AdaptiveBatchSizer() {
+        this(BatchSizeOptions.defaults());
+    }
+
+
+    /**
+     * Creates a sizer.
+     *
+     * @param options the bounds and tuning steps
+     * @throws IllegalArgumentException if the bounds or the decrease factor are invalid
+     */
+    public AdaptiveBatchSizer(BatchSizeOptions options) {
+        validate(options);
+        this.options = options;
+        this.latencyTargetNanos = options.getLatencyTarget().toNanos();
+        this.batchSize = clamp(options.getInitialSize());
+    }
+
+
+
+    /**
+     * Returns the size of the next batch.
+     *
+     * @return the batch size
+     */
+    public synchronized int batchSize() {
+        return batchSize;
+    }
+
+
+    /**
+     * Records a successful batch and adapts the batch size.
+     *
+     * @param rows         the number of rows in the batch
+     * @param elapsedNanos the duration of the batch
+     */
+    public synchronized void record(int rows, long elapsedNanos) {
+        batches++;
+        lastLatencyNanos = elapsedNanos;
+        double sample = rows * 1e9 / Math.max(1L, elapsedNanos);
+        rowsPerSecond = batches == 1 ? sample : rowsPerSecond + THROUGHPUT_WEIGHT * (sample - rowsPerSecond);
+
+        if (elapsedNanos > latencyTargetNanos) {
+            decrease();
+        } else if (rows >= batchSize) {
+            batchSize = clamp(batchSize + options.getIncreaseStep());
+        }
+    }
+
+
+    /**
+     * Records a failed batch and shrinks the batch size.
+     */
+    public synchronized void recordFailure() {
+        failures++;
+        decrease();
+    }
+
+
+    /**
+     * Returns the current state.
+     *
+     * @return the metrics
+     */
+    public synchronized Metrics metrics() {
+        return new Metrics(batchSize, rowsPerSecond, lastLatencyNanos, batches, failures);
+    }
+
+
+    static void validate(BatchSizeOptions options) {
+        if (options.getMinSize() < 1 || options.getMaxSize() < options.getMinSize()) {
+            throw new IllegalArgumentException("Invalid batch size bounds [" + options.getMinSize() + ", " + options.getMaxSize() + "]");
+        }
+        if (options.getDecreaseFactor() <= 0 || options.getDecreaseFactor() >= 1) {
+            throw new IllegalArgumentException("Decrease factor must be in (0, 1): " + options.getDecreaseFactor());
+        }
+    }
+
+
+    private void decrease() {
+        batchSize = clamp((int) (batchSize * options.getDecreaseFactor()));
+    }
+
+
+    private int clamp(int size) {
+        return Math.max(options.getMinSize(), Math.min(options.getMaxSize(), size));
+    }
+}
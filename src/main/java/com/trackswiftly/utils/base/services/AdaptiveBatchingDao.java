@@ -0,0 +1,174 @@
+package com.trackswiftly.utils.base.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+import com.trackswiftly.utils.dtos.Projection;
+import com.trackswiftly.utils.interfaces.BaseDao;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Decorator of a {@link BaseDao} that splits {@code insertInBatch} calls into
+ * batches sized by an {@link AdaptiveBatchSizer}.
+ * <p>
+ * Each batch is timed and fed back to the sizer of the caller's
+ * {@link TenantContext} tenant, so every tenant of the decorated entity type
+ * converges on its own batch size. Other operations go straight to the
+ * delegate. Wrap one DAO per entity type.
+ *
+ * @param <T> the type of the entity
+ * @param <I> the type of the entity's identifier
+ */
+@Log4j2
+public class AdaptiveBatchingDao<T, I> implements BaseDao<T, I> {
+
+
+    private static final String NO_TENANT = "";
+
+
+    private final BaseDao<T, I> delegate;
+
+    private final String entityType;
+
+    private final BatchSizeOptions options;
+
+    private final Map<String, AdaptiveBatchSizer> sizers = new ConcurrentHashMap<>();
+
+
+
+    /**
+     * Creates a decorator with default sizing options.
+     *
+     * @param delegate   the decorated DAO
+     * @param entityType the name of the entity type, used in logs
+     */
+    public AdaptiveBatchingDao(BaseDao<T, I> delegate, String entityType) {
+        this(delegate, entityType, BatchSizeOptions.defaults());
+    }
+
+
+    /**
+     * Creates a decorator.
+     *
+     * @param delegate   the decorated DAO
+     * @param entityType the name of the entity type, used in logs
+     * @param options    the sizing options of every tenant
+     * @throws IllegalArgumentException if the bounds or the decrease factor are invalid
+     */
+    public AdaptiveBatchingDao(BaseDao<T, I> delegate, String entityType, BatchSizeOptions options) {
+        this.delegate = delegate;
+        this.entityType = entityType;
+        this.options = options;
+        AdaptiveBatchSizer.validate(options);
+    }
+
+
+
+    /**
+     * Inserts entities in adaptively sized batches. Batches inserted before a
+     * failing one stay inserted.
+     *
+     * @param entities the list of entities to insert
+     * @return the list of inserted entities
+     */
+    @Override
+    public List<T> insertInBatch(List<T> entities) {
+        AdaptiveBatchSizer sizer = sizer();
+        List<T> inserted = new ArrayList<>(entities.size());
+        int from = 0;
+        while (from < entities.size()) {
+            int size = Math.min(sizer.batchSize(), entities.size() - from);
+            long start = System.nanoTime();
+            try {
+                inserted.addAll(delegate.insertInBatch(entities.subList(from, from + size)));
+            } catch (RuntimeException e) {
+                sizer.recordFailure();
+                log.warn("Insert batch of {} {} entities failed after {} of {}; batch size is now {}",
+                    size, entityType, from, entities.size(), sizer.batchSize());
+                throw e;
+            }
+            sizer.record(size, System.nanoTime() - start);
+            from += size;
+        }
+        return inserted;
+    }
+
+
+    /**
+     * Returns the batch sizing state of the caller's tenant.
+     *
+     * @return the metrics
+     */
+    public AdaptiveBatchSizer.Metrics metrics() {
+        return sizer().metrics();
+    }
+
+
+    /**
+     * Returns the batch sizing state of every tenant that inserted, keyed by
+     * tenant ID ({@code ""} for no tenant).
+     *
+     * @return the metrics by tenant
+     */
+    public Map<String, AdaptiveBatchSizer.Metrics> metricsByTenant() {
+        Map<String, AdaptiveBatchSizer.Metrics> metrics = new TreeMap<>();
+        sizers.forEach((tenant, sizer) -> metrics.put(tenant, sizer.metrics()));
+        return metrics;
+    }
+
+
+    private AdaptiveBatchSizer sizer() {
+        String tenantId = TenantContext.getTenantId();
+        return sizers.computeIfAbsent(tenantId == null ? NO_TENANT : tenantId, key -> new AdaptiveBatchSizer(options));
+    }
+
+
+
+    @Override
+    public int deleteByIds(List<I> ids) {
+        return delegate.deleteByIds(ids);
+    }
+
+
+    @Override
+    public List<T> findByIds(List<I> ids) {
+        return delegate.findByIds(ids);
+    }
+
+
+    @Override
+    public <P> List<P> findByIds(List<I> ids, Projection<P> projection) {
+        return delegate.findByIds(ids, projection);
+    }
+
+
+    @Override
+    public List<T> findWithPagination(int page, int pageSize) {
+        return delegate.findWithPagination(page, pageSize);
+    }
+
+
+    @Override
+    public <P> List<P> findWithPagination(int page, int pageSize, Projection<P> projection) {
+        return delegate.findWithPagination(page, pageSize, projection);
+    }
+
+
+    @Override
+    public Long count() {
+        return delegate.count();
+    }
+
+
+    @Override
+    public int updateInBatch(List<I> ids, T entity) {
+        return delegate.updateInBatch(ids, entity);
+    }
+}
@@ -0,0 +1,157 @@
+package com.trackswiftly.utils.base.services;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+import com.trackswiftly.utils.dtos.OperationResult;
+import com.trackswiftly.utils.dtos.PageDTO;
+import com.trackswiftly.utils.interfaces.TrackSwiftlyAsyncServiceInterface;
+import com.trackswiftly.utils.interfaces.TrackSwiftlyServiceInterface;
+
+
+
+/**
+ * Adapter running a blocking {@link TrackSwiftlyServiceInterface} (typically a
+ * {@link TrackSwiftlyServiceAbstract}, with its validation and listener
+ * steps) on an executor.
+ * <p>
+ * The caller's {@link TenantContext} tenant and scope are captured when a
+ * method is called and set on the worker thread for the duration of the task,
+ * then restored, so pooled threads never leak a tenant or scope between tasks.
+ * <p>
+ * The default executor is a shared, bounded pool of daemon threads, suited to
+ * tasks that mostly block on the database: at most
+ * {@value #DEFAULT_QUEUE_CAPACITY} tasks wait for one of
+ * {@code max(8, 4 * availableProcessors)} threads, which are reclaimed when
+ * idle. When both are exhausted the calling thread runs the task itself, which
+ * slows producers down instead of piling up threads or queued work. Pass a
+ * dedicated executor sized for the connection pool in production.
+ *
+ * @param <T> the type of the entity identifier
+ * @param <I> the input DTO request type
+ * @param <O> the output DTO response type
+ */
+public class AsyncTrackSwiftlyService<T, I, O> implements TrackSwiftlyAsyncServiceInterface<T, I, O> {
+
+
+    /** Maximum number of tasks waiting for a thread of the default executor. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static final int DEFAULT_THREADS = Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static final ExecutorService DEFAULT_EXECUTOR = newDefaultExecutor();
+
+
+    private final TrackSwiftlyServiceInterface<T, I, O> delegate;
+
+    private final Executor executor;
+
+
+
+    /**
+     * Creates an adapter on the default executor.
+     *
+     * @param delegate the blocking service
+     */
+    public AsyncTrackSwiftlyService(TrackSwiftlyServiceInterface<T, I, O> delegate) {
+        this(delegate, DEFAULT_EXECUTOR);
+    }
+
+
+    /**
+     * Creates an adapter on the given executor.
+     *
+     * @param delegate the blocking service
+     * @param executor the executor running the calls
+     */
+    public AsyncTrackSwiftlyService(TrackSwiftlyServiceInterface<T, I, O> delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+
+
+    private static ExecutorService newDefaultExecutor() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            DEFAULT_THREADS, DEFAULT_THREADS, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(DEFAULT_QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "trackswiftly-async-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+
+    /**
+     * Returns the shared bounded pool of daemon threads used when no executor is given.
+     *
+     * @return the default executor for blocking service calls
+     */
+    static Executor defaultExecutor() {
+        return DEFAULT_EXECUTOR;
+    }
+
+
+
+    @Override
+    public CompletableFuture<List<O>> createEntities(List<I> requests) {
+        return supply(() -> delegate.createEntities(requests));
+    }
+
+
+    @Override
+    public CompletableFuture<OperationResult> deleteEntities(List<T> ids) {
+        return supply(() -> delegate.deleteEntities(ids));
+    }
+
+
+    @Override
+    public CompletableFuture<List<O>> findEntities(List<T> ids) {
+        return supply(() -> delegate.findEntities(ids));
+    }
+
+
+    @Override
+    public CompletableFuture<PageDTO<O>> pageEntities(int page, int pageSize) {
+        return supply(() -> delegate.pageEntities(page, pageSize));
+    }
+
+
+    @Override
+    public CompletableFuture<OperationResult> updateEntities(List<T> ids, I request) {
+        return supply(() -> delegate.updateEntities(ids, request));
+    }
+
+
+    @Override
+    public CompletableFuture<List<O>> search(String keyword) {
+        return supply(() -> delegate.search(keyword));
+    }
+
+
+
+    /**
+     * Runs a task on the executor under the caller's tenant and scope.
+     *
+     * @param task the task
+     * @param <R>  the result type
+     * @return the future result
+     */
+    private <R> CompletableFuture<R> supply(Supplier<R> task) {
+        return CompletableFuture.supplyAsync(TenantContext.wrap(task), executor);
+    }
+}
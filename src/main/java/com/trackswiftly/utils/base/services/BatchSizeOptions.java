@@ -0,0 +1,51 @@
+package com.trackswiftly.utils.base.services;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.Getter;
+
+
+
+/**
+ * Options for {@link AdaptiveBatchSizer}.
+ */
+@Getter
+@Builder
+public class BatchSizeOptions {
+
+
+    /** Batch size used before any batch was measured. */
+    @Builder.Default
+    private final int initialSize = 200;
+
+    /** Smallest batch size the sizer shrinks to. */
+    @Builder.Default
+    private final int minSize = 10;
+
+    /** Largest batch size the sizer grows to. */
+    @Builder.Default
+    private final int maxSize = 5000;
+
+    /** Rows added to the batch size after a full batch finished within the latency target. */
+    @Builder.Default
+    private final int increaseStep = 50;
+
+    /** Factor applied to the batch size after a batch exceeded the latency target or failed. */
+    @Builder.Default
+    private final double decreaseFactor = 0.5;
+
+    /** Longest acceptable duration of one batch; bounds lock hold times and result sizes. */
+    @Builder.Default
+    private final Duration latencyTarget = Duration.ofMillis(250);
+
+
+    /**
+     * Returns the default options.
+     *
+     * @return default options
+     */
+    public static BatchSizeOptions defaults() {
+        return builder().build();
+    }
+}
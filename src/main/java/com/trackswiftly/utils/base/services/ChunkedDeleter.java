@@ -0,0 +1,286 @@
+package com.trackswiftly.utils.base.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+import com.trackswiftly.utils.dtos.ItemErrors;
+import com.trackswiftly.utils.dtos.OperationResult;
+import com.trackswiftly.utils.dtos.OperationStats;
+import com.trackswiftly.utils.exception.ChunksFailedException;
+import com.trackswiftly.utils.interfaces.BaseDao;
+import com.trackswiftly.utils.interfaces.SoftDeleteDao;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Delete pipeline over a {@link BaseDao} for large ID lists.
+ * <p>
+ * IDs are split into chunks of at most {@link DeleteOptions#getChunkSize()},
+ * which keeps every statement below database IN-list limits and every
+ * transaction short, and the chunks are deleted by at most
+ * {@link DeleteOptions#getParallelism()} workers, the calling thread being one
+ * of them. Workers run under the caller's {@link TenantContext} tenant and scope. The
+ * affected counts are summed into one {@link OperationResult}. The caller only
+ * waits for helpers that already started; a helper still queued when the chunks
+ * run out is skipped, so a delete issued from a thread of the helpers' executor
+ * (e.g. through {@link AsyncTrackSwiftlyService}) cannot wait on tasks queued
+ * behind itself.
+ * <p>
+ * The chunk run by the calling thread joins the caller's transaction, if any;
+ * chunks run by helper threads do not, and each of them commits on its own
+ * (e.g. in a {@code REQUIRES_NEW}-style DAO method). A rollback of the caller's
+ * transaction therefore only undoes the caller's chunk. Use a parallelism of 1
+ * when the whole delete must be atomic.
+ * <p>
+ * With a {@link SoftDeleteDao}, {@link #softDelete(List)} only tombstones the
+ * entities, which is fast and touches no foreign keys, and a background task
+ * started by {@link #startPurging()} physically deletes tombstones in bounded
+ * batches.
+ *
+ * @param <T> the type of the entity
+ * @param <I> the type of the entity's identifier
+ */
+@Log4j2
+public class ChunkedDeleter<T, I> implements AutoCloseable {
+
+
+    private final BaseDao<T, I> dao;
+
+    private final DeleteOptions options;
+
+    private ScheduledExecutorService purger;
+
+
+
+    /**
+     * Creates a deleter with default options.
+     *
+     * @param dao the DAO
+     */
+    public ChunkedDeleter(BaseDao<T, I> dao) {
+        this(dao, DeleteOptions.defaults());
+    }
+
+
+    /**
+     * Creates a deleter.
+     *
+     * @param dao     the DAO
+     * @param options chunking, parallelism and purge options
+     */
+    public ChunkedDeleter(BaseDao<T, I> dao, DeleteOptions options) {
+        this.dao = dao;
+        this.options = options;
+    }
+
+
+
+    /**
+     * Physically deletes entities, chunk by chunk.
+     *
+     * @param ids the IDs to delete
+     * @return the total number of deleted entities
+     * @throws ChunksFailedException if some chunks failed; the other chunks stay deleted
+     */
+    public OperationResult delete(List<I> ids) {
+        long start = System.nanoTime();
+        int deleted = runChunked(ids, dao::deleteByIds);
+        return result("delete", ids, deleted, start, "Deleted " + deleted + " of " + ids.size() + " entities.");
+    }
+
+
+    /**
+     * Tombstones entities, chunk by chunk; they are physically deleted by the background purge.
+     *
+     * @param ids the IDs to delete
+     * @return the total number of tombstoned entities
+     * @throws UnsupportedOperationException if the DAO is not a {@link SoftDeleteDao}
+     * @throws ChunksFailedException if some chunks failed; the other chunks stay tombstoned
+     */
+    public OperationResult softDelete(List<I> ids) {
+        SoftDeleteDao<T, I> softDeleteDao = softDeleteDao();
+        long start = System.nanoTime();
+        int marked = runChunked(ids, softDeleteDao::markDeletedByIds);
+        return result("softDelete", ids, marked, start, "Marked " + marked + " of " + ids.size() + " entities as deleted.");
+    }
+
+
+    private OperationResult result(String operation, List<I> ids, int affected, long start, String message) {
+        int chunkSize = Math.max(1, options.getChunkSize());
+        OperationStats stats = new OperationStats(operation, ids.size(), affected, 0L, System.nanoTime() - start,
+            (ids.size() + chunkSize - 1) / chunkSize, 0);
+        return new OperationResult(affected, message, ItemErrors.none(), stats);
+    }
+
+
+
+    /**
+     * Physically deletes one batch of tombstoned entities.
+     *
+     * @return the number of purged entities
+     * @throws UnsupportedOperationException if the DAO is not a {@link SoftDeleteDao}
+     */
+    public int purgeNow() {
+        List<I> tombstones = softDeleteDao().findDeletedIds(options.getPurgeBatchSize());
+        if (tombstones.isEmpty()) {
+            return 0;
+        }
+        int purged = runChunked(tombstones, dao::deleteByIds);
+        log.debug("Purged {} tombstoned entities", purged);
+        return purged;
+    }
+
+
+    /**
+     * Starts purging tombstones in the background every {@link DeleteOptions#getPurgeInterval()},
+     * under the tenant and scope of the calling thread.
+     *
+     * @throws UnsupportedOperationException if the DAO is not a {@link SoftDeleteDao}
+     */
+    public synchronized void startPurging() {
+        softDeleteDao();
+        if (purger != null) {
+            return;
+        }
+        Runnable purge = TenantContext.wrap(this::purgeQuietly);
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tombstone-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1L, options.getPurgeInterval().toMillis());
+        purger.scheduleWithFixedDelay(purge, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+
+    /**
+     * Stops the background purge, if started.
+     */
+    @Override
+    public synchronized void close() {
+        if (purger != null) {
+            purger.shutdown();
+            purger = null;
+        }
+    }
+
+
+    private void purgeQuietly() {
+        try {
+            purgeNow();
+        } catch (RuntimeException e) {
+            log.error("Failed to purge tombstoned entities", e);
+        }
+    }
+
+
+
+    private int runChunked(List<I> ids, ToIntFunction<List<I>> operation) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int chunkSize = Math.max(1, options.getChunkSize());
+        List<List<I>> chunks = new ArrayList<>((ids.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + chunkSize)));
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger affected = new AtomicInteger();
+        Queue<List<I>> succeeded = new ConcurrentLinkedQueue<>();
+        Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+        Runnable worker = () -> {
+            for (int chunk = next.getAndIncrement(); chunk < chunks.size(); chunk = next.getAndIncrement()) {
+                try {
+                    affected.addAndGet(operation.applyAsInt(chunks.get(chunk)));
+                    succeeded.add(chunks.get(chunk));
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                }
+            }
+        };
+
+        Runnable wrapped = TenantContext.wrap(worker);
+        int helpers = Math.min(options.getParallelism(), chunks.size()) - 1;
+        List<Helper> submitted = new ArrayList<>(helpers);
+        for (int i = 0; i < helpers; i++) {
+            Helper helper = new Helper(wrapped);
+            submitted.add(helper);
+            options.getExecutor().execute(helper);
+        }
+        worker.run();
+        for (Helper helper : submitted) {
+            helper.awaitIfStarted();
+        }
+
+        if (!failures.isEmpty()) {
+            List<I> processed = new ArrayList<>();
+            succeeded.forEach(processed::addAll);
+            ChunksFailedException error = new ChunksFailedException(
+                failures.size() + " of " + chunks.size() + " chunks failed; " + affected.get() + " entities were processed",
+                processed, affected.get());
+            failures.forEach(error::addSuppressed);
+            throw error;
+        }
+        return affected.get();
+    }
+
+
+    /**
+     * Chunk worker on the executor. Whoever claims it first decides: the helper
+     * thread runs the worker, or the caller cancels it once no chunk is left.
+     */
+    private static final class Helper implements Runnable {
+
+        private final Runnable worker;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+
+        Helper(Runnable worker) {
+            this.worker = worker;
+        }
+
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                worker.run();
+                done.complete(null);
+            } catch (RuntimeException | Error e) {
+                done.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+
+        void awaitIfStarted() {
+            if (!claimed.compareAndSet(false, true)) {
+                done.join();
+            }
+        }
+    }
+
+
+    private SoftDeleteDao<T, I> softDeleteDao() {
+        if (!(dao instanceof SoftDeleteDao)) {
+            throw new UnsupportedOperationException("Soft delete requires a SoftDeleteDao");
+        }
+        return (SoftDeleteDao<T, I>) dao;
+    }
+}
@@ -0,0 +1,189 @@
+package com.trackswiftly.utils.base.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.trackswiftly.utils.base.scope.ScopePrincipal;
+import com.trackswiftly.utils.base.utils.SingleFlight;
+import com.trackswiftly.utils.base.utils.TenantContext;
+import com.trackswiftly.utils.dtos.OperationResult;
+import com.trackswiftly.utils.dtos.PageDTO;
+import com.trackswiftly.utils.dtos.Projection;
+import com.trackswiftly.utils.interfaces.TrackSwiftlyServiceInterface;
+
+
+
+/**
+ * Decorator of a {@link TrackSwiftlyServiceInterface} that coalesces identical
+ * concurrent reads.
+ * <p>
+ * {@code findEntities}, {@code pageEntities} and {@code search} calls are keyed
+ * by the {@link TenantContext} tenant and scope, the method and its arguments,
+ * so callers who may see different rows never share a result; identical
+ * calls share one execution through a {@link SingleFlight}, plus an optional
+ * short sharing window after it completes. Writes go straight to the delegate
+ * and stop the sharing of the tenant's completed reads, so a client never reads
+ * back older data than it just wrote.
+ * <p>
+ * Since one result is handed to several callers, returned lists are
+ * unmodifiable, and each caller gets its own {@link PageDTO} around an
+ * unmodifiable content list.
+ *
+ * @param <T> the type of the entity identifier
+ * @param <I> the input DTO request type
+ * @param <O> the output DTO response type
+ */
+public class CoalescingTrackSwiftlyService<T, I, O> implements TrackSwiftlyServiceInterface<T, I, O> {
+
+
+    private final TrackSwiftlyServiceInterface<T, I, O> delegate;
+
+    private final Function<List<T>, Object> idsKey;
+
+    private final SingleFlight<ReadKey, Object> reads;
+
+
+
+    /**
+     * Key of a coalesced read.
+     *
+     * @param tenantId  the tenant, or {@code null}
+     * @param scope     the caller's scope, or {@code null}
+     * @param method    the read method
+     * @param arguments the key of the arguments
+     */
+    private record ReadKey(String tenantId, ScopePrincipal scope, String method, Object arguments) {}
+
+
+
+    /**
+     * Creates a decorator sharing in-flight reads only, keyed by the exact ID lists.
+     *
+     * @param delegate the decorated service
+     */
+    public CoalescingTrackSwiftlyService(TrackSwiftlyServiceInterface<T, I, O> delegate) {
+        this(delegate, Duration.ZERO, List::copyOf);
+    }
+
+
+    /**
+     * Creates a decorator.
+     *
+     * @param delegate    the decorated service
+     * @param shareWindow how long a completed read keeps being shared
+     * @param idsKey      maps the IDs of {@code findEntities} to a key; calls whose keys are equal
+     *                    share one execution, so it must only merge lists with the same result
+     */
+    public CoalescingTrackSwiftlyService(TrackSwiftlyServiceInterface<T, I, O> delegate, Duration shareWindow,
+                                         Function<List<T>, Object> idsKey) {
+        this.delegate = delegate;
+        this.idsKey = idsKey;
+        this.reads = new SingleFlight<>(shareWindow);
+    }
+
+
+
+    @Override
+    public List<O> findEntities(List<T> ids) {
+        return readList("findEntities", idsKey.apply(ids), () -> delegate.findEntities(ids));
+    }
+
+
+    @Override
+    public PageDTO<O> pageEntities(int page, int pageSize) {
+        return readPage("pageEntities", List.of(page, pageSize), () -> delegate.pageEntities(page, pageSize));
+    }
+
+
+    @Override
+    public <P> List<P> findEntities(List<T> ids, Projection<P> projection) {
+        return readList("findEntities", List.of(idsKey.apply(ids), projection), () -> delegate.findEntities(ids, projection));
+    }
+
+
+    @Override
+    public <P> PageDTO<P> pageEntities(int page, int pageSize, Projection<P> projection) {
+        return readPage("pageEntities", List.of(page, pageSize, projection), () -> delegate.pageEntities(page, pageSize, projection));
+    }
+
+
+    @Override
+    public List<O> search(String keyword) {
+        return readList("search", keyword, () -> delegate.search(keyword));
+    }
+
+
+
+    @Override
+    public List<O> createEntities(List<I> requests) {
+        try {
+            return delegate.createEntities(requests);
+        } finally {
+            forgetTenantReads();
+        }
+    }
+
+
+    @Override
+    public OperationResult updateEntities(List<T> ids, I request) {
+        try {
+            return delegate.updateEntities(ids, request);
+        } finally {
+            forgetTenantReads();
+        }
+    }
+
+
+    @Override
+    public OperationResult deleteEntities(List<T> ids) {
+        try {
+            return delegate.deleteEntities(ids);
+        } finally {
+            forgetTenantReads();
+        }
+    }
+
+
+
+    private <R> List<R> readList(String method, Object arguments, Supplier<List<R>> loader) {
+        return read(method, arguments, () -> readOnly(loader.get()));
+    }
+
+
+    private <R> PageDTO<R> readPage(String method, Object arguments, Supplier<PageDTO<R>> loader) {
+        PageDTO<R> shared = read(method, arguments, () -> {
+            PageDTO<R> page = loader.get();
+            return page == null ? null : withContent(page, readOnly(page.getContent()));
+        });
+        // PageDTO has setters, so every caller gets its own around the shared content.
+        return shared == null ? null : withContent(shared, shared.getContent());
+    }
+
+
+    private static <R> List<R> readOnly(List<R> list) {
+        return list == null ? null : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+
+    private static <R> PageDTO<R> withContent(PageDTO<R> page, List<R> content) {
+        return new PageDTO<>(content, page.getPage(), page.getSize(), page.getTotalElements(), page.getTotalPages());
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private <R> R read(String method, Object arguments, Supplier<R> loader) {
+        ReadKey key = new ReadKey(TenantContext.getTenantId(), TenantContext.getScope(), method, arguments);
+        return (R) reads.execute(key, (Supplier<Object>) loader);
+    }
+
+
+    private void forgetTenantReads() {
+        String tenantId = TenantContext.getTenantId();
+        reads.forget(key -> Objects.equals(key.tenantId(), tenantId));
+    }
+}
@@ -1,5 +1,8 @@
 package com.trackswiftly.utils.base.services;
 
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -8,6 +11,14 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.trackswiftly.utils.base.utils.MethodMask;
+import com.trackswiftly.utils.dtos.AclDiff;
+import com.trackswiftly.utils.dtos.AclDiff.ResourceChange;
+import com.trackswiftly.utils.dtos.AclPrefilter;
+import com.trackswiftly.utils.dtos.IdFilter;
+import com.trackswiftly.utils.dtos.IdSet;
+import com.trackswiftly.utils.dtos.ResourcePermission;
+import com.trackswiftly.utils.dtos.TokenInfo;
 import com.trackswiftly.utils.enums.HttpMethod;
 import com.trackswiftly.utils.enums.Resource;
 
@@ -49,8 +60,9 @@ public class CompressedAclService {
             addMapping(METHOD_MAP, REVERSE_METHOD_MAP, method.name(), methodIndex++);
         }
         
-        // Special case for MQTT "subscribe" method which isn't an HTTP method
-        addMapping(METHOD_MAP, REVERSE_METHOD_MAP, "subscribe", methodIndex);
+        // Special case for MQTT "subscribe" and "publish" methods which aren't HTTP methods
+        addMapping(METHOD_MAP, REVERSE_METHOD_MAP, MethodMask.SUBSCRIBE, methodIndex++);
+        addMapping(METHOD_MAP, REVERSE_METHOD_MAP, MethodMask.PUBLISH, methodIndex);
     }
 
 
@@ -165,6 +177,54 @@ public class CompressedAclService {
 
 
 
+    /**
+     * Compresses a compiled {@link TokenInfo} into the same compact string format
+     * as {@link #compressAcl(Map)}, reading resource ordinals and method bits directly.
+     *
+     * @param tokenInfo the compiled token ACL
+     * @return a compressed string representation of the ACL
+     */
+    public static String compressAcl(TokenInfo tokenInfo) {
+
+        StringBuilder compressed = new StringBuilder();
+
+        for (Resource resource : Resource.values()) {
+            ResourcePermission permission = tokenInfo.permission(resource);
+            if (permission == null || permission.methodMask() == MethodMask.NONE) {
+                continue;
+            }
+            compressed.append(resource.ordinal() + 1).append(":");
+            appendMethodIds(compressed, permission.methodMask());
+            compressed.append(";");
+        }
+
+        log.debug("Compressed ACL: {}", compressed);
+
+        return compressed.toString();
+    }
+
+
+    /**
+     * Appends the comma-separated method IDs of a method mask.
+     *
+     * @param target the builder to append to
+     * @param mask   the method mask
+     */
+    static void appendMethodIds(StringBuilder target, int mask) {
+        boolean first = true;
+        for (int bit = 0; bit <= MethodMask.PUBLISH_BIT; bit++) {
+            if ((mask & (1 << bit)) != 0) {
+                if (!first) {
+                    target.append(",");
+                }
+                target.append(bit + 1);
+                first = false;
+            }
+        }
+    }
+
+
+
     /**
      * Processes a single compressed resource entry into a resource-method map.
      *
@@ -247,5 +307,245 @@ public class CompressedAclService {
         
         return acl;
     }
-    
+
+
+
+    /**
+     * Compresses an {@link AclDiff} into a compact string.
+     * <p>
+     * Entries are separated by {@code ;} and use the same resource and method IDs as
+     * {@link #compressAcl(TokenInfo)}:
+     * <ul>
+     *   <li>{@code -resourceId} for a revoked resource,</li>
+     *   <li>{@code +resourceId:methodIds:ids} for a newly granted resource,</li>
+     *   <li>{@code resourceId:addedMethodIds:removedMethodIds:addedIds:removedIds} for a modified one.</li>
+     * </ul>
+     * Numeric IDs are written in ascending order as base-36 deltas; other IDs are
+     * prefixed with {@code ~} and URL-encoded.
+     *
+     * @param diff the diff to compress
+     * @return a compressed string representation of the diff
+     */
+    public static String compressDiff(AclDiff diff) {
+
+        StringBuilder compressed = new StringBuilder();
+
+        for (Resource resource : Resource.values()) {
+            ResourceChange change = diff.change(resource);
+            if (change == null) {
+                continue;
+            }
+            int resourceId = resource.ordinal() + 1;
+            switch (change.type()) {
+                case REVOKED:
+                    compressed.append('-').append(resourceId);
+                    break;
+                case GRANTED:
+                    compressed.append('+').append(resourceId).append(':');
+                    appendMethodIds(compressed, change.addedMethods());
+                    compressed.append(':');
+                    appendIds(compressed, change.addedIds());
+                    break;
+                default:
+                    compressed.append(resourceId).append(':');
+                    appendMethodIds(compressed, change.addedMethods());
+                    compressed.append(':');
+                    appendMethodIds(compressed, change.removedMethods());
+                    compressed.append(':');
+                    appendIds(compressed, change.addedIds());
+                    compressed.append(':');
+                    appendIds(compressed, change.removedIds());
+            }
+            compressed.append(';');
+        }
+
+        log.debug("Compressed ACL diff: {}", compressed);
+
+        return compressed.toString();
+    }
+
+
+
+    /**
+     * Decompresses a string produced by {@link #compressDiff(AclDiff)}.
+     *
+     * @param compressedDiff the compressed diff
+     * @return the decoded diff
+     * @throws IllegalArgumentException if the string is malformed
+     */
+    public static AclDiff decompressDiff(String compressedDiff) {
+
+        log.debug("Decompressing ACL diff: {}", compressedDiff);
+
+        AclDiff.Builder builder = AclDiff.builder();
+
+        if (compressedDiff == null || compressedDiff.isEmpty()) {
+            return builder.build();
+        }
+
+        Resource[] resources = Resource.values();
+
+        for (String entry : compressedDiff.split(";")) {
+            if (entry.isEmpty()) {
+                continue;
+            }
+            try {
+                if (entry.charAt(0) == '-') {
+                    builder.revoke(resources[Integer.parseInt(entry.substring(1)) - 1]);
+                    continue;
+                }
+                boolean granted = entry.charAt(0) == '+';
+                String[] parts = (granted ? entry.substring(1) : entry).split(":", -1);
+                Resource resource = resources[Integer.parseInt(parts[0]) - 1];
+                if (granted && parts.length == 3) {
+                    builder.grant(resource, new ResourcePermission(parseMethodMask(parts[1]), parseIds(parts[2])));
+                } else if (!granted && parts.length == 5) {
+                    builder.modify(resource, parseMethodMask(parts[1]), parseMethodMask(parts[2]), parseIds(parts[3]), parseIds(parts[4]));
+                } else {
+                    throw new IllegalArgumentException("Malformed ACL diff entry: " + entry);
+                }
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Malformed ACL diff entry: " + entry, e);
+            }
+        }
+
+        return builder.build();
+    }
+
+
+
+    /**
+     * Compresses an {@link AclPrefilter} into a compact string that can travel in
+     * the token next to {@link #compressAcl(TokenInfo)} output.
+     * <p>
+     * Entries are {@code resourceId:methodIds:filter;}, where {@code filter} is the
+     * URL-safe Base64 {@link IdFilter} of the resource, or empty when no IDs are enforced.
+     *
+     * @param prefilter the prefilter to compress
+     * @return a compressed string representation of the prefilter
+     */
+    public static String compressPrefilter(AclPrefilter prefilter) {
+
+        StringBuilder compressed = new StringBuilder();
+
+        for (Resource resource : Resource.values()) {
+            int mask = prefilter.methodMask(resource);
+            if (mask == MethodMask.NONE) {
+                continue;
+            }
+            compressed.append(resource.ordinal() + 1).append(":");
+            appendMethodIds(compressed, mask);
+            compressed.append(":");
+            IdFilter filter = prefilter.filter(resource);
+            if (filter != null) {
+                compressed.append(filter.toBase64());
+            }
+            compressed.append(";");
+        }
+
+        return compressed.toString();
+    }
+
+
+    /**
+     * Decompresses a string produced by {@link #compressPrefilter(AclPrefilter)}.
+     *
+     * @param compressedPrefilter the compressed prefilter
+     * @return the decoded prefilter
+     * @throws IllegalArgumentException if the string is malformed
+     */
+    public static AclPrefilter decompressPrefilter(String compressedPrefilter) {
+
+        AclPrefilter.Builder builder = AclPrefilter.builder();
+
+        if (compressedPrefilter == null || compressedPrefilter.isEmpty()) {
+            return builder.build();
+        }
+
+        Resource[] resources = Resource.values();
+
+        for (String entry : compressedPrefilter.split(";")) {
+            if (entry.isEmpty()) {
+                continue;
+            }
+            String[] parts = entry.split(":", -1);
+            try {
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Malformed ACL prefilter entry: " + entry);
+                }
+                builder.grant(resources[Integer.parseInt(parts[0]) - 1], parseMethodMask(parts[1]),
+                    parts[2].isEmpty() ? null : IdFilter.fromBase64(parts[2]));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Malformed ACL prefilter entry: " + entry, e);
+            }
+        }
+
+        return builder.build();
+    }
+
+
+
+    /**
+     * Appends IDs as comma-separated base-36 deltas (numeric) and {@code ~}-prefixed URL-encoded strings.
+     *
+     * @param target the builder to append to
+     * @param ids    the IDs
+     */
+    private static void appendIds(StringBuilder target, IdSet ids) {
+        boolean first = true;
+        long previous = 0;
+        for (long id : ids.numericIds()) {
+            if (!first) {
+                target.append(',');
+            }
+            target.append(Long.toString(first ? id : id - previous, 36));
+            previous = id;
+            first = false;
+        }
+        for (String id : ids.otherIds()) {
+            if (!first) {
+                target.append(',');
+            }
+            target.append('~').append(URLEncoder.encode(id, StandardCharsets.UTF_8));
+            first = false;
+        }
+    }
+
+
+    private static IdSet parseIds(String field) {
+        if (field.isEmpty()) {
+            return IdSet.EMPTY;
+        }
+        IdSet.Builder ids = IdSet.builder();
+        boolean first = true;
+        long previous = 0;
+        for (String token : field.split(",")) {
+            if (token.startsWith("~")) {
+                ids.add(URLDecoder.decode(token.substring(1), StandardCharsets.UTF_8));
+                continue;
+            }
+            long value = Long.parseLong(token, 36);
+            previous = first ? value : previous + value;
+            ids.add(previous);
+            first = false;
+        }
+        return ids.build();
+    }
+
+
+    private static int parseMethodMask(String field) {
+        int mask = MethodMask.NONE;
+        if (field.isEmpty()) {
+            return mask;
+        }
+        for (String methodId : field.split(",")) {
+            int bit = Integer.parseInt(methodId) - 1;
+            if (bit < 0 || bit > MethodMask.PUBLISH_BIT) {
+                throw new IllegalArgumentException("Unknown method ID in ACL diff: " + methodId);
+            }
+            mask |= 1 << bit;
+        }
+        return mask;
+    }
+
 }
@@ -0,0 +1,48 @@
+package com.trackswiftly.utils.base.services;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import lombok.Builder;
+import lombok.Getter;
+
+
+
+/**
+ * Options for {@link ChunkedDeleter}.
+ */
+@Getter
+@Builder
+public class DeleteOptions {
+
+
+    /** Maximum number of IDs per {@code deleteByIds} call; stays below common IN-list and bind-parameter limits. */
+    @Builder.Default
+    private final int chunkSize = 500;
+
+    /** Maximum number of chunks deleted concurrently, including the calling thread. */
+    @Builder.Default
+    private final int parallelism = 4;
+
+    /** Executor running the additional chunk workers; may be the pool the delete itself runs on. */
+    @Builder.Default
+    private final Executor executor = AsyncTrackSwiftlyService.defaultExecutor();
+
+    /** Delay between background purges of tombstoned entities. */
+    @Builder.Default
+    private final Duration purgeInterval = Duration.ofSeconds(30);
+
+    /** Maximum number of tombstones purged per background run. */
+    @Builder.Default
+    private final int purgeBatchSize = 1000;
+
+
+    /**
+     * Returns the default options.
+     *
+     * @return default options
+     */
+    public static DeleteOptions defaults() {
+        return builder().build();
+    }
+}
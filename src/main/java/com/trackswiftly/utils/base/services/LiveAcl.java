@@ -0,0 +1,165 @@
+package com.trackswiftly.utils.base.services;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.trackswiftly.utils.dtos.AclDiff;
+import com.trackswiftly.utils.dtos.ResourcePermission;
+import com.trackswiftly.utils.dtos.TokenInfo;
+import com.trackswiftly.utils.enums.Resource;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Versioned, copy-on-write ACL held by a long-lived session (MQTT connection,
+ * WebSocket, ...).
+ * <p>
+ * Readers always see a consistent immutable {@link Snapshot} without locking.
+ * Permission changes are applied as {@link AclDiff}s: only the changed
+ * resources are rebuilt and the new snapshot is published atomically with an
+ * incremented version.
+ */
+@Log4j2
+public class LiveAcl {
+
+
+    /**
+     * Immutable ACL version.
+     *
+     * @param version   monotonically increasing version number
+     * @param tokenInfo the ACL at this version
+     */
+    public record Snapshot(long version, TokenInfo tokenInfo) {}
+
+
+    private final AtomicReference<Snapshot> current;
+
+
+
+    /**
+     * Creates a live ACL starting at version {@code 0}.
+     *
+     * @param initial the initial ACL
+     */
+    public LiveAcl(TokenInfo initial) {
+        this(initial, 0L);
+    }
+
+
+    /**
+     * Creates a live ACL starting at the given version.
+     *
+     * @param initial the initial ACL
+     * @param version the initial version
+     */
+    public LiveAcl(TokenInfo initial, long version) {
+        this.current = new AtomicReference<>(new Snapshot(version, initial));
+    }
+
+
+
+    /**
+     * Returns the current snapshot.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+
+    /**
+     * Returns the current version.
+     *
+     * @return the current version
+     */
+    public long version() {
+        return current.get().version();
+    }
+
+
+
+    /**
+     * Checks a request against the current snapshot.
+     *
+     * @param uri     the request URI (a {@link Resource} path)
+     * @param method  the method name
+     * @param itemIds the IDs being accessed
+     * @return {@code true} if access is allowed
+     */
+    public boolean hasAccess(String uri, String method, List<String> itemIds) {
+        Resource resource = Resource.fromPath(uri);
+        if (resource == null) {
+            return false;
+        }
+        ResourcePermission permission = current.get().tokenInfo().permission(resource);
+        return permission != null && permission.allows(method, itemIds);
+    }
+
+
+
+    /**
+     * Applies a diff on top of whatever snapshot is current.
+     *
+     * @param diff the diff to apply
+     * @return the new snapshot
+     */
+    public Snapshot apply(AclDiff diff) {
+        while (true) {
+            Snapshot base = current.get();
+            Snapshot next = new Snapshot(base.version() + 1, diff.applyTo(base.tokenInfo()));
+            if (current.compareAndSet(base, next)) {
+                log.debug("ACL patched to version {}", next.version());
+                return next;
+            }
+        }
+    }
+
+
+    /**
+     * Applies a diff only if the current version is the expected one, so that
+     * out-of-order or duplicated updates are rejected.
+     *
+     * @param diff            the diff to apply
+     * @param expectedVersion the version the diff was computed against
+     * @return {@code true} if applied, {@code false} if the version did not match
+     */
+    public boolean apply(AclDiff diff, long expectedVersion) {
+        Snapshot base = current.get();
+        if (base.version() != expectedVersion) {
+            log.warn("Rejected ACL diff for version {}, current version is {}", expectedVersion, base.version());
+            return false;
+        }
+        return current.compareAndSet(base, new Snapshot(expectedVersion + 1, diff.applyTo(base.tokenInfo())));
+    }
+
+
+    /**
+     * Applies a diff received in the compressed form of {@link CompressedAclService#compressDiff(AclDiff)}.
+     *
+     * @param compressedDiff the compressed diff
+     * @return the new snapshot
+     */
+    public Snapshot apply(String compressedDiff) {
+        return apply(CompressedAclService.decompressDiff(compressedDiff));
+    }
+
+
+    /**
+     * Replaces the whole ACL, e.g. after a full re-authentication.
+     *
+     * @param tokenInfo the new ACL
+     * @return the new snapshot
+     */
+    public Snapshot replace(TokenInfo tokenInfo) {
+        Snapshot base;
+        Snapshot next;
+        do {
+            base = current.get();
+            next = new Snapshot(base.version() + 1, tokenInfo);
+        } while (!current.compareAndSet(base, next));
+        return next;
+    }
+}
@@ -0,0 +1,186 @@
+package com.trackswiftly.utils.base.services;
+
+import com.trackswiftly.utils.base.utils.MethodMask;
+import com.trackswiftly.utils.base.utils.SimpleJsonPullParser;
+import com.trackswiftly.utils.dtos.IdSet;
+import com.trackswiftly.utils.dtos.TokenInfo;
+import com.trackswiftly.utils.enums.Resource;
+import com.trackswiftly.utils.interfaces.JsonPullParser;
+import com.trackswiftly.utils.interfaces.JsonPullParser.Token;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Single-pass parser from an ACL claim in JSON to a compiled {@link TokenInfo}.
+ * <p>
+ * The claim is read token by token through a {@link JsonPullParser}; resource
+ * paths and methods are validated against {@link Resource} and
+ * {@code HttpMethod} as they are read, and IDs go straight into primitive
+ * buffers. No intermediate maps or lists are created, which matters for
+ * tokens carrying large ID lists.
+ * <p>
+ * Expected shape:
+ * <pre>{@code {"gw/devices": {"methods": ["GET"], "ids": ["1", 2]}, ...}}</pre>
+ * Unknown fields inside a resource entry are skipped.
+ */
+@Log4j2
+public class StreamingAclParser {
+
+
+    /** Private constructor to prevent instantiation. */
+    private StreamingAclParser() {}
+
+
+
+    /**
+     * Parses an ACL claim given as JSON text.
+     *
+     * @param json the ACL claim JSON object
+     * @return the compiled token ACL
+     * @throws IllegalArgumentException if the JSON or the ACL content is invalid
+     */
+    public static TokenInfo parse(CharSequence json) {
+        return parse(new SimpleJsonPullParser(json));
+    }
+
+
+    /**
+     * Parses the ACL claim object that starts at the next token of the parser.
+     *
+     * @param parser the pull parser, positioned before the claim's {@code START_OBJECT}
+     * @return the compiled token ACL
+     * @throws IllegalArgumentException if the JSON or the ACL content is invalid
+     */
+    public static TokenInfo parse(JsonPullParser parser) {
+        expect(parser.next(), Token.START_OBJECT);
+        return parseAclObject(parser);
+    }
+
+
+
+    /**
+     * Finds a top-level claim in a full token payload and parses it as an ACL,
+     * skipping every other claim without materializing it.
+     *
+     * @param parser    the pull parser, positioned before the payload's {@code START_OBJECT}
+     * @param claimName the name of the ACL claim
+     * @return the compiled token ACL, or {@link TokenInfo#EMPTY} if the claim is absent
+     * @throws IllegalArgumentException if the JSON or the ACL content is invalid
+     */
+    public static TokenInfo parseClaim(JsonPullParser parser, String claimName) {
+        expect(parser.next(), Token.START_OBJECT);
+        Token token;
+        while ((token = parser.next()) == Token.FIELD_NAME) {
+            String name = parser.text();
+            Token value = parser.next();
+            if (name.equals(claimName)) {
+                expect(value, Token.START_OBJECT);
+                return parseAclObject(parser);
+            }
+            parser.skipValue(value);
+        }
+        expect(token, Token.END_OBJECT);
+        log.debug("ACL claim '{}' not found in token payload", claimName);
+        return TokenInfo.EMPTY;
+    }
+
+
+
+    /**
+     * Parses the resource entries of an ACL object whose {@code START_OBJECT} was consumed.
+     *
+     * @param parser the pull parser
+     * @return the compiled token ACL
+     */
+    private static TokenInfo parseAclObject(JsonPullParser parser) {
+        TokenInfo.Builder builder = TokenInfo.builder();
+        Token token;
+        while ((token = parser.next()) == Token.FIELD_NAME) {
+            String path = parser.text();
+            Resource resource = Resource.fromPath(path);
+            if (resource == null) {
+                throw new IllegalArgumentException("Invalid resource path: " + path);
+            }
+            expect(parser.next(), Token.START_OBJECT);
+            parseResourceEntry(parser, resource, builder);
+        }
+        expect(token, Token.END_OBJECT);
+        return builder.build();
+    }
+
+
+    /**
+     * Parses the {@code methods} and {@code ids} of a single resource entry.
+     * A {@code null} list is treated as a missing one, as in {@link TokenInfo#from}.
+     *
+     * @param parser   the pull parser, inside the entry object
+     * @param resource the resource being parsed
+     * @param builder  the token builder to emit into
+     */
+    private static void parseResourceEntry(JsonPullParser parser, Resource resource, TokenInfo.Builder builder) {
+        int methodMask = MethodMask.NONE;
+        IdSet ids = IdSet.EMPTY;
+        Token token;
+        while ((token = parser.next()) == Token.FIELD_NAME) {
+            String field = parser.text();
+            Token value = parser.next();
+            if (value == Token.VALUE_NULL && (TokenInfo.METHODS.equals(field) || TokenInfo.IDS.equals(field))) {
+                // Like TokenInfo.from: a null list grants nothing, same as a missing one.
+                continue;
+            }
+            if (TokenInfo.METHODS.equals(field)) {
+                expect(value, Token.START_ARRAY);
+                methodMask = parseMethods(parser);
+            } else if (TokenInfo.IDS.equals(field)) {
+                expect(value, Token.START_ARRAY);
+                ids = parseIds(parser);
+            } else {
+                parser.skipValue(value);
+            }
+        }
+        expect(token, Token.END_OBJECT);
+        builder.grant(resource, methodMask, ids);
+    }
+
+
+    private static int parseMethods(JsonPullParser parser) {
+        int mask = MethodMask.NONE;
+        Token token;
+        while ((token = parser.next()) != Token.END_ARRAY) {
+            if (token != Token.VALUE_STRING) {
+                throw new IllegalArgumentException("HTTP method must be a string");
+            }
+            int bit = MethodMask.bitIndex(parser.text());
+            if (bit < 0) {
+                throw new IllegalArgumentException("Invalid HTTP method: " + parser.text());
+            }
+            mask |= 1 << bit;
+        }
+        return mask;
+    }
+
+
+    private static IdSet parseIds(JsonPullParser parser) {
+        IdSet.Builder ids = IdSet.builder();
+        Token token;
+        while ((token = parser.next()) != Token.END_ARRAY) {
+            if (token == Token.VALUE_NUMBER && parser.isIntegral()) {
+                ids.add(parser.longValue());
+            } else if (token == Token.VALUE_STRING || token == Token.VALUE_NUMBER) {
+                ids.add(parser.text());
+            } else {
+                throw new IllegalArgumentException("ACL ids must be strings or numbers, found " + token);
+            }
+        }
+        return ids.build();
+    }
+
+
+    private static void expect(Token actual, Token expected) {
+        if (actual != expected) {
+            throw new IllegalArgumentException("Malformed ACL claim: expected " + expected + " but found " + actual);
+        }
+    }
+}
@@ -1,8 +1,21 @@
 package com.trackswiftly.utils.base.services;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+import com.trackswiftly.utils.dtos.ItemErrors;
 import com.trackswiftly.utils.dtos.OperationResult;
+import com.trackswiftly.utils.dtos.OperationStats;
+import com.trackswiftly.utils.dtos.PageDTO;
+import com.trackswiftly.utils.dtos.Projection;
+import com.trackswiftly.utils.exception.ChunksFailedException;
+import com.trackswiftly.utils.exception.ItemRejectedException;
+import com.trackswiftly.utils.exception.UnableToProccessIteamException;
+import com.trackswiftly.utils.interfaces.BaseDao;
+import com.trackswiftly.utils.interfaces.EntityChangeListener;
+import com.trackswiftly.utils.interfaces.OperationMetricsSink;
 import com.trackswiftly.utils.interfaces.TrackSwiftlyServiceInterface;
 
 import lombok.extern.log4j.Log4j2;
@@ -13,6 +26,29 @@ import lombok.extern.log4j.Log4j2;
  * Abstract base service providing template methods for creating and updating entities.
  *
  * <p>Subclasses must implement validation and actual business logic.
+ * Registered {@link EntityChangeListener}s are notified after successful
+ * creates and updates; subclasses call {@link #notifyDeleted(List)} from
+ * their {@code deleteEntities} implementation. The data is already persisted
+ * when listeners run, so a failing listener is logged and does not fail the
+ * operation.
+ *
+ * <p>{@link #createValidEntities(List)} and {@link #updateValidEntities(List, Object)}
+ * process partially invalid batches: rejected items are reported by index in
+ * the {@link ItemErrors} of the returned {@link OperationResult} and the
+ * others are still processed.
+ *
+ * <p>Bulk operations are timed per phase (validation, then persistence) and
+ * reported as {@link OperationStats} to the {@link OperationMetricsSink} set
+ * with {@link #setMetricsSink}, a no-op by default. The partial-failure and
+ * chunked operations also return them on their {@link OperationResult};
+ * {@link #createEntities} and {@link #updateEntities} only build them when a
+ * sink is set. A failing sink is logged and does not fail the operation.
+ * {@code perform*} implementations report how many chunks and retries they
+ * needed with {@link #countChunks(int)} and {@link #countRetries(int)}.
+ *
+ * <p>Projected reads go straight to the DAO returned by {@link #projectionDao()},
+ * so only the projected attributes are selected and paths are resolved against
+ * the entity; without one, they project the output DTOs in memory.
  *
  * @param <T> the type representing entity identifiers
  * @param <I> the type representing input requests
@@ -22,6 +58,14 @@ import lombok.extern.log4j.Log4j2;
 public abstract class TrackSwiftlyServiceAbstract<T, I, O> implements TrackSwiftlyServiceInterface<T, I, O> {
 
 
+    private final List<EntityChangeListener<T, O>> changeListeners = new CopyOnWriteArrayList<>();
+
+    private final ThreadLocal<int[]> counters = new ThreadLocal<>();
+
+    private volatile OperationMetricsSink metricsSink = OperationMetricsSink.NOOP;
+
+
+
     /**
      * Performs the actual creation of entities after validation.
      *
@@ -59,6 +103,94 @@ public abstract class TrackSwiftlyServiceAbstract<T, I, O> implements TrackSwift
     protected abstract void validateUpdate(List<T> ids, I request);
 
 
+    /**
+     * Validates creation requests item by item, rejecting invalid ones into
+     * {@code errors} instead of throwing.
+     *
+     * <p>The default runs {@link #validateCreate(List)} on the whole batch and,
+     * only if it throws, bisects it: each failing half is split again until the
+     * requests that fail alone are found and rejected. A batch with {@code b}
+     * bad requests out of {@code n} thus costs about {@code 2b log(n/b)} extra
+     * validator calls instead of {@code n}. If no request fails alone, the batch
+     * is invalid as a whole (e.g. duplicates within it) and the batch exception
+     * is rethrown. Subclasses that can check every request in one pass (e.g. one
+     * query for all keys) override it to call {@link ItemErrors#reject(int, String)}
+     * directly.
+     *
+     * @param requests the list of input requests to validate
+     * @param errors collects the indexes and codes of the rejected requests
+     * @throws UnableToProccessIteamException if the batch fails but no request fails alone
+     */
+    protected void validateCreateItems(List<I> requests, ItemErrors errors) {
+        try {
+            validateCreate(requests);
+        } catch (UnableToProccessIteamException e) {
+            log.debug("Create batch of {} failed validation, bisecting it", requests.size());
+            rejectFailing(requests, this::validateCreate, errors, e);
+        }
+    }
+
+
+    /**
+     * Validates an update identifier by identifier, rejecting invalid ones into
+     * {@code errors} instead of throwing.
+     *
+     * <p>The default runs {@link #validateUpdate(List, Object)} on all identifiers
+     * and, only if it throws, bisects them like {@link #validateCreateItems}. If
+     * no identifier fails alone, the exception of the whole update is rethrown.
+     * Subclasses override it to call {@link ItemErrors#reject(int, String)} directly.
+     *
+     * @param ids the list of entity identifiers to validate
+     * @param request the update request data to validate
+     * @param errors collects the indexes and codes of the rejected identifiers
+     * @throws UnableToProccessIteamException if the update fails but no identifier fails alone
+     */
+    protected void validateUpdateItems(List<T> ids, I request, ItemErrors errors) {
+        try {
+            validateUpdate(ids, request);
+        } catch (UnableToProccessIteamException e) {
+            log.debug("Update of {} entities failed validation, bisecting the identifiers", ids.size());
+            rejectFailing(ids, subset -> validateUpdate(subset, request), errors, e);
+        }
+    }
+
+
+    private static <X> void rejectFailing(List<X> items, Consumer<List<X>> validator, ItemErrors errors,
+                                          UnableToProccessIteamException batchError) {
+        int rejectedBefore = errors.size();
+        bisect(items, 0, validator, errors);
+        if (errors.size() == rejectedBefore) {
+            throw batchError;
+        }
+    }
+
+
+    /**
+     * Validates both halves of a failed range and recurses into the failing ones.
+     */
+    private static <X> void bisect(List<X> items, int offset, Consumer<List<X>> validator, ItemErrors errors) {
+        int middle = items.size() / 2;
+        validateRange(items.subList(0, middle), offset, validator, errors);
+        validateRange(items.subList(middle, items.size()), offset + middle, validator, errors);
+    }
+
+
+    private static <X> void validateRange(List<X> items, int offset, Consumer<List<X>> validator, ItemErrors errors) {
+        if (items.isEmpty()) {
+            return;
+        }
+        try {
+            validator.accept(items);
+        } catch (UnableToProccessIteamException e) {
+            if (items.size() == 1) {
+                errors.reject(offset, e);
+            } else {
+                bisect(items, offset, validator, errors);
+            }
+        }
+    }
+
+
     /**
      * Template method that performs validation and delegates creation logic.
      *
@@ -66,8 +198,17 @@ public abstract class TrackSwiftlyServiceAbstract<T, I, O> implements TrackSwift
      * @return the list of created entities or results
      */
     public final List<O> createEntities(List<I> requests) {
+        long start = System.nanoTime();
         validateCreate(     requests    );
-        return performCreateEntities(requests);
+        long validated = System.nanoTime();
+        int[] counts = new int[2];
+        List<O> created = counted(counts, () -> performCreateEntities(requests));
+        long performed = System.nanoTime();
+        notifyCreated(created);
+        if (metricsSink != OperationMetricsSink.NOOP) {
+            stats("create", requests.size(), created.size(), start, validated, performed, counts);
+        }
+        return created;
     }
 
 
@@ -79,7 +220,313 @@ public abstract class TrackSwiftlyServiceAbstract<T, I, O> implements TrackSwift
      * @return the result of the update operation
      */
     public final OperationResult updateEntities(List<T> ids, I request) {
+        long start = System.nanoTime();
         validateUpdate( ids, request);
-        return performUpdateEntities(ids, request);
+        long validated = System.nanoTime();
+        int[] counts = new int[2];
+        OperationResult result = counted(counts, () -> performUpdateEntities(ids, request));
+        long performed = System.nanoTime();
+        notifyUpdated(ids);
+        if (metricsSink == OperationMetricsSink.NOOP) {
+            return result;
+        }
+        return result.withStats(stats("update", ids.size(), result.affectedRecords(), start, validated, performed, counts));
+    }
+
+
+    /**
+     * Template method that creates the valid requests of a batch and reports
+     * the invalid ones instead of failing the whole batch.
+     *
+     * <p>Validators should reject items with {@link ItemErrors#reject(int, String)}
+     * or throw the stackless {@link ItemRejectedException}, so that bad rows cost
+     * no stack trace.
+     *
+     * @param requests the list of input requests to create entities from
+     * @return the number of created entities, with the indexes and codes of the rejected requests
+     * @throws UnableToProccessIteamException if the batch is invalid as a whole
+     */
+    public final OperationResult createValidEntities(List<I> requests) {
+        long start = System.nanoTime();
+        ItemErrors errors = new ItemErrors();
+        validateCreateItems(requests, errors);
+        List<I> accepted = errors.accepted(requests);
+        long validated = System.nanoTime();
+        int[] counts = new int[2];
+        List<O> created = accepted.isEmpty() ? List.of() : counted(counts, () -> performCreateEntities(accepted));
+        long performed = System.nanoTime();
+        if (!created.isEmpty()) {
+            notifyCreated(created);
+        }
+        return new OperationResult(created.size(),
+            "Created " + created.size() + " of " + requests.size() + " entities; " + errors.rejectedCount() + " rejected.", errors,
+            stats("create", requests.size(), created.size(), start, validated, performed, counts));
+    }
+
+
+    /**
+     * Template method that updates the valid identifiers and reports the
+     * invalid ones instead of failing the whole update.
+     *
+     * @param ids the list of entity identifiers to update
+     * @param request the update request data
+     * @return the result of the update, with the indexes and codes of the rejected identifiers
+     * @throws UnableToProccessIteamException if the update is invalid as a whole
+     */
+    public final OperationResult updateValidEntities(List<T> ids, I request) {
+        long start = System.nanoTime();
+        ItemErrors errors = new ItemErrors();
+        validateUpdateItems(ids, request, errors);
+        List<T> accepted = errors.accepted(ids);
+        long validated = System.nanoTime();
+        int[] counts = new int[2];
+        if (accepted.isEmpty()) {
+            return new OperationResult(0, "Updated 0 of " + ids.size() + " entities; " + errors.rejectedCount() + " rejected.", errors,
+                stats("update", ids.size(), 0, start, validated, validated, counts));
+        }
+        OperationResult result = counted(counts, () -> performUpdateEntities(accepted, request));
+        long performed = System.nanoTime();
+        notifyUpdated(accepted);
+        return new OperationResult(result.affectedRecords(), result.message(), errors,
+            stats("update", ids.size(), result.affectedRecords(), start, validated, performed, counts));
+    }
+
+
+    /**
+     * Registers a listener notified after entities of this service change.
+     *
+     * @param listener the listener to add
+     */
+    public void addChangeListener(EntityChangeListener<T, O> listener) {
+        changeListeners.add(listener);
+    }
+
+
+    /**
+     * Unregisters a previously added listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeChangeListener(EntityChangeListener<T, O> listener) {
+        changeListeners.remove(listener);
+    }
+
+
+    /**
+     * Sets the sink receiving the statistics of every bulk operation.
+     *
+     * @param metricsSink the sink, or {@code null} to discard statistics
+     */
+    public void setMetricsSink(OperationMetricsSink metricsSink) {
+        this.metricsSink = metricsSink == null ? OperationMetricsSink.NOOP : metricsSink;
+    }
+
+
+    /**
+     * Returns the DAO that projected reads are pushed down to. Projection
+     * attributes are then entity paths, read by
+     * {@link BaseDao#findByIds(List, Projection)} and
+     * {@link BaseDao#findWithPagination(int, int, Projection)}.
+     *
+     * <p>The default returns {@code null}: projected reads then load the output
+     * DTOs and project them in memory, so attributes are output DTO paths.
+     *
+     * @return the DAO of this service's entities, or {@code null}
+     */
+    protected BaseDao<?, T> projectionDao() {
+        return null;
+    }
+
+
+    @Override
+    public <P> List<P> findEntities(List<T> ids, Projection<P> projection) {
+        BaseDao<?, T> dao = projectionDao();
+        if (dao == null) {
+            return TrackSwiftlyServiceInterface.super.findEntities(ids, projection);
+        }
+        return dao.findByIds(ids, projection);
+    }
+
+
+    @Override
+    public <P> PageDTO<P> pageEntities(int page, int pageSize, Projection<P> projection) {
+        BaseDao<?, T> dao = projectionDao();
+        if (dao == null) {
+            return TrackSwiftlyServiceInterface.super.pageEntities(page, pageSize, projection);
+        }
+        List<P> content = dao.findWithPagination(page, pageSize, projection);
+        long total = dao.count();
+        return PageDTO.<P>builder()
+            .content(content)
+            .page(page)
+            .size(pageSize)
+            .totalElements(total)
+            .totalPages(pageSize == 0 ? 0 : (int) ((total + pageSize - 1) / pageSize))
+            .build();
+    }
+
+
+    /**
+     * Returns the entity type this service reports statistics under; defaults
+     * to the simple name of the service class.
+     *
+     * @return the entity type
+     */
+    protected String entityType() {
+        return getClass().getSimpleName();
+    }
+
+
+    /**
+     * Adds chunks to the statistics of the running bulk operation. Called from
+     * {@code perform*} implementations on the calling thread; ignored elsewhere.
+     *
+     * @param chunks the number of chunks or batches executed
+     */
+    protected void countChunks(int chunks) {
+        int[] counts = counters.get();
+        if (counts != null) {
+            counts[0] += chunks;
+        }
+    }
+
+
+    /**
+     * Adds retries to the statistics of the running bulk operation. Called from
+     * {@code perform*} implementations on the calling thread; ignored elsewhere.
+     *
+     * @param retries the number of retried chunks or statements
+     */
+    protected void countRetries(int retries) {
+        int[] counts = counters.get();
+        if (counts != null) {
+            counts[1] += retries;
+        }
+    }
+
+
+    private <R> R counted(int[] counts, Supplier<R> perform) {
+        int[] previous = counters.get();
+        counters.set(counts);
+        try {
+            return perform.get();
+        } finally {
+            if (previous == null) {
+                counters.remove();
+            } else {
+                counters.set(previous);
+            }
+        }
+    }
+
+
+    private OperationStats stats(String operation, int items, int affected, long start, long validated, long performed, int[] counts) {
+        OperationStats stats = new OperationStats(operation, items, affected, validated - start, performed - validated, counts[0], counts[1]);
+        record(stats);
+        return stats;
+    }
+
+
+    private void record(OperationStats stats) {
+        OperationMetricsSink sink = metricsSink;
+        if (sink == OperationMetricsSink.NOOP) {
+            return;
+        }
+        try {
+            sink.record(entityType(), stats);
+        } catch (RuntimeException e) {
+            log.error("Metrics sink {} failed to record {} statistics", sink, stats.operation(), e);
+        }
+    }
+
+
+    /**
+     * Notifies listeners that entities were deleted. Subclasses call this from
+     * {@code deleteEntities} once the deletion succeeded.
+     *
+     * @param ids the identifiers of the deleted entities
+     */
+    protected void notifyDeleted(List<T> ids) {
+        for (EntityChangeListener<T, O> listener : changeListeners) {
+            try {
+                listener.onDeleted(ids);
+            } catch (RuntimeException e) {
+                log.error("Change listener {} failed after deleting {} entities", listener, ids.size(), e);
+            }
+        }
+    }
+
+
+    private void notifyCreated(List<O> created) {
+        for (EntityChangeListener<T, O> listener : changeListeners) {
+            try {
+                listener.onCreated(created);
+            } catch (RuntimeException e) {
+                log.error("Change listener {} failed after creating {} entities", listener, created.size(), e);
+            }
+        }
+    }
+
+
+    private void notifyUpdated(List<T> ids) {
+        for (EntityChangeListener<T, O> listener : changeListeners) {
+            try {
+                listener.onUpdated(ids);
+            } catch (RuntimeException e) {
+                log.error("Change listener {} failed after updating {} entities", listener, ids.size(), e);
+            }
+        }
+    }
+
+
+
+    /**
+     * Deletes entities through a {@link ChunkedDeleter} and notifies listeners.
+     * Subclasses can implement {@code deleteEntities} with it for large ID lists.
+     * If some chunks fail, listeners are notified of the entities of the chunks
+     * that succeeded before the exception is rethrown.
+     *
+     * @param deleter the chunked deleter over this service's DAO
+     * @param ids     the identifiers of the entities to delete
+     * @return the aggregated result
+     * @throws ChunksFailedException if some chunks failed
+     */
+    protected OperationResult deleteInChunks(ChunkedDeleter<?, T> deleter, List<T> ids) {
+        OperationResult result = notifyingPartialFailure(() -> deleter.delete(ids));
+        notifyDeleted(ids);
+        record(result.stats());
+        return result;
+    }
+
+
+    /**
+     * Tombstones entities through a {@link ChunkedDeleter} and notifies listeners;
+     * the rows are purged later in the background. If some chunks fail, listeners
+     * are notified of the entities of the chunks that succeeded before the
+     * exception is rethrown.
+     *
+     * @param deleter the chunked deleter over this service's soft-delete DAO
+     * @param ids     the identifiers of the entities to delete
+     * @return the aggregated result
+     * @throws ChunksFailedException if some chunks failed
+     */
+    protected OperationResult softDeleteInChunks(ChunkedDeleter<?, T> deleter, List<T> ids) {
+        OperationResult result = notifyingPartialFailure(() -> deleter.softDelete(ids));
+        notifyDeleted(ids);
+        record(result.stats());
+        return result;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private OperationResult notifyingPartialFailure(Supplier<OperationResult> chunkedDelete) {
+        try {
+            return chunkedDelete.get();
+        } catch (ChunksFailedException e) {
+            if (!e.getProcessedIds().isEmpty()) {
+                notifyDeleted((List<T>) e.getProcessedIds());
+            }
+            throw e;
+        }
     }
 }
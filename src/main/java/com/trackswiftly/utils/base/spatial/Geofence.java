@@ -0,0 +1,118 @@
+package com.trackswiftly.utils.base.spatial;
+
+
+
+/**
+ * A geofence polygon of the {@code GEOFENCES} resource.
+ * <p>
+ * Vertices are given in order (the closing edge back to the first vertex is
+ * implicit). Polygons crossing the antimeridian and polygons with holes are not
+ * supported.
+ *
+ * @param id   the geofence ID
+ * @param lats the vertex latitudes, in degrees
+ * @param lons the vertex longitudes, in degrees
+ */
+public record Geofence(
+    long id,
+    double[] lats,
+    double[] lons
+) {
+
+
+    /**
+     * Canonical constructor, validating the vertices.
+     *
+     * @param id   the geofence ID
+     * @param lats the vertex latitudes
+     * @param lons the vertex longitudes
+     * @throws IllegalArgumentException if there are fewer than 3 vertices or the arrays differ in length
+     */
+    public Geofence {
+        if (lats.length != lons.length || lats.length < 3) {
+            throw new IllegalArgumentException("Geofence " + id + " needs at least 3 vertices with matching coordinates");
+        }
+        lats = lats.clone();
+        lons = lons.clone();
+    }
+
+
+    /**
+     * Returns the smallest latitude.
+     *
+     * @return the minimum latitude
+     */
+    public double minLat() {
+        double min = Double.POSITIVE_INFINITY;
+        for (double lat : lats) {
+            min = Math.min(min, lat);
+        }
+        return min;
+    }
+
+
+    /**
+     * Returns the largest latitude.
+     *
+     * @return the maximum latitude
+     */
+    public double maxLat() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double lat : lats) {
+            max = Math.max(max, lat);
+        }
+        return max;
+    }
+
+
+    /**
+     * Returns the smallest longitude.
+     *
+     * @return the minimum longitude
+     */
+    public double minLon() {
+        double min = Double.POSITIVE_INFINITY;
+        for (double lon : lons) {
+            min = Math.min(min, lon);
+        }
+        return min;
+    }
+
+
+    /**
+     * Returns the largest longitude.
+     *
+     * @return the maximum longitude
+     */
+    public double maxLon() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double lon : lons) {
+            max = Math.max(max, lon);
+        }
+        return max;
+    }
+
+
+    /**
+     * Checks whether a position is inside the polygon (even-odd ray casting).
+     *
+     * @param lat the latitude
+     * @param lon the longitude
+     * @return {@code true} if inside
+     */
+    public boolean contains(double lat, double lon) {
+        boolean inside = false;
+        int n = lats.length;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double yi = lats[i];
+            double yj = lats[j];
+            if ((yi > lat) != (yj > lat)) {
+                double crossLon = lons[i] + (lat - yi) * (lons[j] - lons[i]) / (yj - yi);
+                if (lon < crossLon) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+}
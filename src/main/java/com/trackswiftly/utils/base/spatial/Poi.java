@@ -0,0 +1,26 @@
+package com.trackswiftly.utils.base.spatial;
+
+
+
+/**
+ * A point of interest of the {@code POIS} resource.
+ *
+ * @param id  the POI ID
+ * @param lat the latitude, in degrees
+ * @param lon the longitude, in degrees
+ */
+public record Poi(
+    long id,
+    double lat,
+    double lon
+) {
+
+
+    /**
+     * A POI together with its distance from a query position.
+     *
+     * @param poi    the POI
+     * @param meters the approximate distance in meters
+     */
+    public record Distance(Poi poi, double meters) {}
+}
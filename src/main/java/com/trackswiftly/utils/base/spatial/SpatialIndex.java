@@ -0,0 +1,356 @@
+package com.trackswiftly.utils.base.spatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.IntStream;
+
+import lombok.extern.log4j.Log4j2;
+
+
+
+/**
+ * Spatial index over the geofences and POIs of one tenant.
+ * <p>
+ * Geofence bounding boxes and POI points are bulk-loaded into STR-packed
+ * R-trees held in an immutable snapshot, so lookups never lock. Changes are
+ * absorbed incrementally: upserted geofences and POIs go to a small overlay
+ * that is scanned linearly, replaced or removed ones are masked out of the
+ * tree, and the trees are only rebuilt once the overlay grows past a fraction
+ * of the indexed data.
+ * <p>
+ * Distances use an equirectangular approximation, accurate enough to rank POIs
+ * at city and regional scale.
+ */
+@Log4j2
+public class SpatialIndex {
+
+
+    /** Minimum overlay size before a rebuild is considered. */
+    private static final int MIN_REBUILD_OVERLAY = 32;
+
+    /** Batches smaller than this are evaluated on the calling thread. */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    /**
+     * Pool evaluating large position batches. Dedicated, so batch lookups never
+     * occupy the common pool used by parallel streams and {@code CompletableFuture},
+     * and bounded to half the processors.
+     */
+    private static final ForkJoinPool BATCH_POOL = new ForkJoinPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() / 2), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("spatial-batch-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+
+    private final Map<Long, Geofence> geofences = new HashMap<>();
+
+    private final Map<Long, Poi> pois = new HashMap<>();
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of(), List.of());
+
+
+
+    /**
+     * Immutable view used by readers: trees over indexed items, plus an overlay of
+     * items changed since the last rebuild.
+     */
+    private static final class Snapshot {
+
+        final Geofence[] indexedGeofences;
+        final StrTree geofenceTree;
+        final Poi[] indexedPois;
+        final StrTree poiTree;
+        final long[] staleGeofenceIds;
+        final long[] stalePoiIds;
+        final Geofence[] pendingGeofences;
+        final Poi[] pendingPois;
+
+
+        Snapshot(Geofence[] indexedGeofences, StrTree geofenceTree, Poi[] indexedPois, StrTree poiTree,
+                 long[] staleGeofenceIds, long[] stalePoiIds, Geofence[] pendingGeofences, Poi[] pendingPois) {
+            this.indexedGeofences = indexedGeofences;
+            this.geofenceTree = geofenceTree;
+            this.indexedPois = indexedPois;
+            this.poiTree = poiTree;
+            this.staleGeofenceIds = staleGeofenceIds;
+            this.stalePoiIds = stalePoiIds;
+            this.pendingGeofences = pendingGeofences;
+            this.pendingPois = pendingPois;
+        }
+
+
+        static Snapshot build(Collection<Geofence> geofences, Collection<Poi> pois) {
+            Geofence[] fences = geofences.toArray(new Geofence[0]);
+            double[] minX = new double[fences.length];
+            double[] minY = new double[fences.length];
+            double[] maxX = new double[fences.length];
+            double[] maxY = new double[fences.length];
+            for (int i = 0; i < fences.length; i++) {
+                minX[i] = fences[i].minLon();
+                minY[i] = fences[i].minLat();
+                maxX[i] = fences[i].maxLon();
+                maxY[i] = fences[i].maxLat();
+            }
+            Poi[] points = pois.toArray(new Poi[0]);
+            double[] xs = new double[points.length];
+            double[] ys = new double[points.length];
+            for (int i = 0; i < points.length; i++) {
+                xs[i] = points[i].lon();
+                ys[i] = points[i].lat();
+            }
+            return new Snapshot(fences, new StrTree(minX, minY, maxX, maxY), points, new StrTree(xs, ys, xs, ys),
+                new long[0], new long[0], new Geofence[0], new Poi[0]);
+        }
+
+
+        int overlaySize() {
+            return staleGeofenceIds.length + stalePoiIds.length + pendingGeofences.length + pendingPois.length;
+        }
+
+
+        int indexedSize() {
+            return indexedGeofences.length + indexedPois.length;
+        }
+    }
+
+
+
+    /**
+     * Adds or replaces geofences.
+     *
+     * @param changed the geofences to upsert
+     */
+    public synchronized void upsertGeofences(Collection<Geofence> changed) {
+        Snapshot current = snapshot;
+        long[] stale = current.staleGeofenceIds;
+        List<Geofence> pending = new ArrayList<>(Arrays.asList(current.pendingGeofences));
+        for (Geofence geofence : changed) {
+            geofences.put(geofence.id(), geofence);
+            stale = withId(stale, geofence.id());
+            pending.removeIf(p -> p.id() == geofence.id());
+            pending.add(geofence);
+        }
+        publish(new Snapshot(current.indexedGeofences, current.geofenceTree, current.indexedPois, current.poiTree,
+            stale, current.stalePoiIds, pending.toArray(new Geofence[0]), current.pendingPois));
+    }
+
+
+    /**
+     * Removes geofences.
+     *
+     * @param ids the geofence IDs to remove
+     */
+    public synchronized void removeGeofences(Collection<Long> ids) {
+        Snapshot current = snapshot;
+        long[] stale = current.staleGeofenceIds;
+        List<Geofence> pending = new ArrayList<>(Arrays.asList(current.pendingGeofences));
+        for (long id : ids) {
+            geofences.remove(id);
+            stale = withId(stale, id);
+            pending.removeIf(p -> p.id() == id);
+        }
+        publish(new Snapshot(current.indexedGeofences, current.geofenceTree, current.indexedPois, current.poiTree,
+            stale, current.stalePoiIds, pending.toArray(new Geofence[0]), current.pendingPois));
+    }
+
+
+    /**
+     * Adds or replaces POIs.
+     *
+     * @param changed the POIs to upsert
+     */
+    public synchronized void upsertPois(Collection<Poi> changed) {
+        Snapshot current = snapshot;
+        long[] stale = current.stalePoiIds;
+        List<Poi> pending = new ArrayList<>(Arrays.asList(current.pendingPois));
+        for (Poi poi : changed) {
+            pois.put(poi.id(), poi);
+            stale = withId(stale, poi.id());
+            pending.removeIf(p -> p.id() == poi.id());
+            pending.add(poi);
+        }
+        publish(new Snapshot(current.indexedGeofences, current.geofenceTree, current.indexedPois, current.poiTree,
+            current.staleGeofenceIds, stale, current.pendingGeofences, pending.toArray(new Poi[0])));
+    }
+
+
+    /**
+     * Removes POIs.
+     *
+     * @param ids the POI IDs to remove
+     */
+    public synchronized void removePois(Collection<Long> ids) {
+        Snapshot current = snapshot;
+        long[] stale = current.stalePoiIds;
+        List<Poi> pending = new ArrayList<>(Arrays.asList(current.pendingPois));
+        for (long id : ids) {
+            pois.remove(id);
+            stale = withId(stale, id);
+            pending.removeIf(p -> p.id() == id);
+        }
+        publish(new Snapshot(current.indexedGeofences, current.geofenceTree, current.indexedPois, current.poiTree,
+            current.staleGeofenceIds, stale, current.pendingGeofences, pending.toArray(new Poi[0])));
+    }
+
+
+    /**
+     * Rebuilds the trees from all current geofences and POIs, clearing the overlay.
+     */
+    public synchronized void rebuild() {
+        snapshot = Snapshot.build(geofences.values(), pois.values());
+        log.debug("Rebuilt spatial index with {} geofences and {} POIs", geofences.size(), pois.size());
+    }
+
+
+    private void publish(Snapshot next) {
+        if (next.overlaySize() > Math.max(MIN_REBUILD_OVERLAY, next.indexedSize() / 10)) {
+            rebuild();
+        } else {
+            snapshot = next;
+        }
+    }
+
+
+    private static long[] withId(long[] sortedIds, long id) {
+        int index = Arrays.binarySearch(sortedIds, id);
+        if (index >= 0) {
+            return sortedIds;
+        }
+        int insert = -index - 1;
+        long[] result = new long[sortedIds.length + 1];
+        System.arraycopy(sortedIds, 0, result, 0, insert);
+        result[insert] = id;
+        System.arraycopy(sortedIds, insert, result, insert + 1, sortedIds.length - insert);
+        return result;
+    }
+
+
+
+    /**
+     * Returns the IDs of the geofences containing a position.
+     *
+     * @param lat the latitude
+     * @param lon the longitude
+     * @return the containing geofence IDs, in no particular order
+     */
+    public long[] geofencesContaining(double lat, double lon) {
+        return geofencesContaining(snapshot, lat, lon);
+    }
+
+
+    /**
+     * Evaluates a batch of positions against the geofences, in parallel on a
+     * dedicated pool for large batches. All positions see the same snapshot.
+     *
+     * @param lats the latitudes
+     * @param lons the longitudes
+     * @return for each position, the IDs of the geofences containing it
+     */
+    public long[][] geofencesContaining(double[] lats, double[] lons) {
+        if (lats.length != lons.length) {
+            throw new IllegalArgumentException("Latitude and longitude arrays differ in length");
+        }
+        Snapshot current = snapshot;
+        long[][] result = new long[lats.length][];
+        if (lats.length < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < lats.length; i++) {
+                result[i] = geofencesContaining(current, lats[i], lons[i]);
+            }
+            return result;
+        }
+        // A parallel stream started from inside a pool task runs on that pool.
+        BATCH_POOL.submit(() -> IntStream.range(0, lats.length).parallel()
+            .forEach(i -> result[i] = geofencesContaining(current, lats[i], lons[i]))).join();
+        return result;
+    }
+
+
+    private static long[] geofencesContaining(Snapshot current, double lat, double lon) {
+        LongBuffer found = new LongBuffer();
+        current.geofenceTree.search(lat, lon, item -> {
+            Geofence geofence = current.indexedGeofences[item];
+            if (Arrays.binarySearch(current.staleGeofenceIds, geofence.id()) < 0 && geofence.contains(lat, lon)) {
+                found.add(geofence.id());
+            }
+        });
+        for (Geofence geofence : current.pendingGeofences) {
+            if (geofence.contains(lat, lon)) {
+                found.add(geofence.id());
+            }
+        }
+        return found.toArray();
+    }
+
+
+    /**
+     * Growable buffer of geofence IDs for a single lookup.
+     */
+    private static final class LongBuffer {
+
+        private long[] values = new long[4];
+        private int size;
+
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+
+
+    /**
+     * Finds the POIs closest to a position.
+     *
+     * @param lat the latitude
+     * @param lon the longitude
+     * @param k   the maximum number of POIs
+     * @return up to {@code k} POIs, closest first
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public List<Poi.Distance> nearestPois(double lat, double lon, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Invalid number of POIs: " + k);
+        }
+        if (k == 0) {
+            return new ArrayList<>();
+        }
+        Snapshot current = snapshot;
+        int wanted = k + current.stalePoiIds.length;
+        int[] items = new int[Math.min(wanted, current.indexedPois.length)];
+        double[] meters = new double[items.length];
+        int found = current.poiTree.nearest(lat, lon, items.length, items, meters);
+
+        List<Poi.Distance> result = new ArrayList<>(k + current.pendingPois.length);
+        for (int i = 0; i < found; i++) {
+            Poi poi = current.indexedPois[items[i]];
+            if (Arrays.binarySearch(current.stalePoiIds, poi.id()) < 0) {
+                result.add(new Poi.Distance(poi, meters[i]));
+            }
+        }
+        double lonScale = Math.cos(Math.toRadians(lat));
+        for (Poi poi : current.pendingPois) {
+            double dy = poi.lat() - lat;
+            double dx = (poi.lon() - lon) * lonScale;
+            result.add(new Poi.Distance(poi, Math.sqrt(dx * dx + dy * dy) * StrTree.METERS_PER_DEGREE));
+        }
+        result.sort((a, b) -> Double.compare(a.meters(), b.meters()));
+        return result.size() > k ? new ArrayList<>(result.subList(0, k)) : result;
+    }
+}
@@ -0,0 +1,280 @@
+package com.trackswiftly.utils.base.spatial;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntConsumer;
+
+
+
+/**
+ * Static R-tree over item bounding boxes, bulk-loaded with Sort-Tile-Recursive packing.
+ * <p>
+ * Boxes are kept in flat {@code double[]} arrays: indexes below the item count
+ * are items, the others are nodes whose children are listed in
+ * {@link #children}. Coordinates are {@code x = longitude}, {@code y = latitude}.
+ * Immutable once built, so it can be queried from any number of threads.
+ */
+final class StrTree {
+
+
+    /** Maximum number of children per node. */
+    static final int NODE_CAPACITY = 16;
+
+    /** Approximate meters per degree of latitude. */
+    static final double METERS_PER_DEGREE = 111_320d;
+
+
+    private final int itemCount;
+
+    private double[] minX;
+
+    private double[] minY;
+
+    private double[] maxX;
+
+    private double[] maxY;
+
+    private int boxCount;
+
+    private int[] childStart = new int[0];
+
+    private int[] childEnd = new int[0];
+
+    private int[] children = new int[0];
+
+    private int childCount;
+
+    private final int root;
+
+
+
+    /**
+     * Bulk-loads a tree over item boxes.
+     *
+     * @param minX item minimum longitudes
+     * @param minY item minimum latitudes
+     * @param maxX item maximum longitudes
+     * @param maxY item maximum latitudes
+     */
+    StrTree(double[] minX, double[] minY, double[] maxX, double[] maxY) {
+        this.itemCount = minX.length;
+        int capacity = itemCount + itemCount / (NODE_CAPACITY - 1) + 2;
+        this.minX = Arrays.copyOf(minX, capacity);
+        this.minY = Arrays.copyOf(minY, capacity);
+        this.maxX = Arrays.copyOf(maxX, capacity);
+        this.maxY = Arrays.copyOf(maxY, capacity);
+        this.boxCount = itemCount;
+
+        int[] level = new int[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            level[i] = i;
+        }
+        while (level.length > 1) {
+            level = pack(level);
+        }
+        this.root = level.length == 0 ? -1 : level[0];
+    }
+
+
+
+    private int[] pack(int[] entries) {
+        int nodeCount = (entries.length + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceCount = (int) Math.ceil(Math.sqrt(nodeCount));
+        int sliceSize = sliceCount * NODE_CAPACITY;
+
+        Integer[] sorted = new Integer[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            sorted[i] = entries[i];
+        }
+        Arrays.sort(sorted, Comparator.comparingDouble(e -> minX[e] + maxX[e]));
+        for (int from = 0; from < sorted.length; from += sliceSize) {
+            Arrays.sort(sorted, from, Math.min(sorted.length, from + sliceSize), Comparator.comparingDouble(e -> minY[e] + maxY[e]));
+        }
+
+        int[] parents = new int[nodeCount];
+        int parentCount = 0;
+        for (int from = 0; from < sorted.length; from += NODE_CAPACITY) {
+            int to = Math.min(sorted.length, from + NODE_CAPACITY);
+            parents[parentCount++] = newNode(sorted, from, to);
+        }
+        return Arrays.copyOf(parents, parentCount);
+    }
+
+
+    private int newNode(Integer[] sorted, int from, int to) {
+        if (boxCount == minX.length) {
+            int grown = boxCount * 2;
+            minX = Arrays.copyOf(minX, grown);
+            minY = Arrays.copyOf(minY, grown);
+            maxX = Arrays.copyOf(maxX, grown);
+            maxY = Arrays.copyOf(maxY, grown);
+        }
+        int node = boxCount++;
+        int slot = node - itemCount;
+        if (slot >= childStart.length) {
+            childStart = Arrays.copyOf(childStart, Math.max(4, slot * 2));
+            childEnd = Arrays.copyOf(childEnd, childStart.length);
+        }
+        if (childCount + (to - from) > children.length) {
+            children = Arrays.copyOf(children, Math.max(childCount + (to - from), children.length * 2));
+        }
+        double nMinX = Double.POSITIVE_INFINITY;
+        double nMinY = Double.POSITIVE_INFINITY;
+        double nMaxX = Double.NEGATIVE_INFINITY;
+        double nMaxY = Double.NEGATIVE_INFINITY;
+        childStart[slot] = childCount;
+        for (int i = from; i < to; i++) {
+            int child = sorted[i];
+            children[childCount++] = child;
+            nMinX = Math.min(nMinX, minX[child]);
+            nMinY = Math.min(nMinY, minY[child]);
+            nMaxX = Math.max(nMaxX, maxX[child]);
+            nMaxY = Math.max(nMaxY, maxY[child]);
+        }
+        childEnd[slot] = childCount;
+        minX[node] = nMinX;
+        minY[node] = nMinY;
+        maxX[node] = nMaxX;
+        maxY[node] = nMaxY;
+        return node;
+    }
+
+
+
+    /**
+     * Visits every item whose box contains the point.
+     *
+     * @param lat     the latitude
+     * @param lon     the longitude
+     * @param visitor receives item indexes
+     */
+    void search(double lat, double lon, IntConsumer visitor) {
+        if (root < 0) {
+            return;
+        }
+        int[] stack = new int[32];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int box = stack[--top];
+            if (lon < minX[box] || lon > maxX[box] || lat < minY[box] || lat > maxY[box]) {
+                continue;
+            }
+            if (box < itemCount) {
+                visitor.accept(box);
+                continue;
+            }
+            int slot = box - itemCount;
+            for (int c = childStart[slot]; c < childEnd[slot]; c++) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+                stack[top++] = children[c];
+            }
+        }
+    }
+
+
+
+    /**
+     * Finds the items closest to a point, best-first.
+     *
+     * @param lat       the latitude
+     * @param lon       the longitude
+     * @param k         the maximum number of items
+     * @param outItems  receives item indexes, closest first
+     * @param outMeters receives the approximate distances in meters
+     * @return the number of items found
+     */
+    int nearest(double lat, double lon, int k, int[] outItems, double[] outMeters) {
+        if (root < 0 || k <= 0) {
+            return 0;
+        }
+        double lonScale = Math.cos(Math.toRadians(lat));
+        int[] heapBox = new int[64];
+        double[] heapDist = new double[64];
+        int size = 0;
+        heapBox[size] = root;
+        heapDist[size++] = distance(root, lat, lon, lonScale);
+        int found = 0;
+        while (size > 0 && found < k) {
+            int box = heapBox[0];
+            double dist = heapDist[0];
+            size--;
+            heapBox[0] = heapBox[size];
+            heapDist[0] = heapDist[size];
+            siftDown(heapBox, heapDist, size);
+
+            if (box < itemCount) {
+                outItems[found] = box;
+                outMeters[found++] = dist;
+                continue;
+            }
+            int slot = box - itemCount;
+            for (int c = childStart[slot]; c < childEnd[slot]; c++) {
+                if (size == heapBox.length) {
+                    heapBox = Arrays.copyOf(heapBox, size * 2);
+                    heapDist = Arrays.copyOf(heapDist, size * 2);
+                }
+                int child = children[c];
+                heapBox[size] = child;
+                heapDist[size] = distance(child, lat, lon, lonScale);
+                siftUp(heapBox, heapDist, size++);
+            }
+        }
+        return found;
+    }
+
+
+    /**
+     * Equirectangular distance in meters from a point to the closest point of a box.
+     */
+    private double distance(int box, double lat, double lon, double lonScale) {
+        double dy = Math.max(0d, Math.max(minY[box] - lat, lat - maxY[box]));
+        double dx = Math.max(0d, Math.max(minX[box] - lon, lon - maxX[box])) * lonScale;
+        return Math.sqrt(dx * dx + dy * dy) * METERS_PER_DEGREE;
+    }
+
+
+    private static void siftUp(int[] boxes, double[] dists, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (dists[parent] <= dists[index]) {
+                return;
+            }
+            swap(boxes, dists, parent, index);
+            index = parent;
+        }
+    }
+
+
+    private static void siftDown(int[] boxes, double[] dists, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && dists[left] < dists[smallest]) {
+                smallest = left;
+            }
+            if (right < size && dists[right] < dists[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(boxes, dists, smallest, index);
+            index = smallest;
+        }
+    }
+
+
+    private static void swap(int[] boxes, double[] dists, int a, int b) {
+        int box = boxes[a];
+        boxes[a] = boxes[b];
+        boxes[b] = box;
+        double dist = dists[a];
+        dists[a] = dists[b];
+        dists[b] = dist;
+    }
+}
@@ -0,0 +1,80 @@
+package com.trackswiftly.utils.base.spatial;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+
+
+
+/**
+ * Per-tenant {@link SpatialIndex}es, selected through {@link TenantContext}.
+ */
+public class TenantSpatialIndex {
+
+
+    /** Key used when no tenant is set in the {@link TenantContext}. */
+    static final String NO_TENANT = "";
+
+
+    private final Map<String, SpatialIndex> indexes = new ConcurrentHashMap<>();
+
+
+
+    /**
+     * Returns the index of the current tenant, creating it if needed.
+     *
+     * @return the current tenant's index
+     */
+    public SpatialIndex current() {
+        return forTenant(TenantContext.getTenantId());
+    }
+
+
+    /**
+     * Returns the index of a tenant, creating it if needed.
+     *
+     * @param tenantId the tenant ID, or {@code null} when running without tenant
+     * @return the tenant's index
+     */
+    public SpatialIndex forTenant(String tenantId) {
+        return indexes.computeIfAbsent(tenantId == null ? NO_TENANT : tenantId, key -> new SpatialIndex());
+    }
+
+
+    /**
+     * Drops the index of a tenant, e.g. on offboarding.
+     *
+     * @param tenantId the tenant ID
+     */
+    public void dropTenant(String tenantId) {
+        indexes.remove(tenantId == null ? NO_TENANT : tenantId);
+    }
+
+
+
+    /**
+     * Returns the IDs of the current tenant's geofences containing a position.
+     *
+     * @param lat the latitude
+     * @param lon the longitude
+     * @return the containing geofence IDs, in no particular order
+     */
+    public long[] geofencesContaining(double lat, double lon) {
+        return current().geofencesContaining(lat, lon);
+    }
+
+
+    /**
+     * Finds the current tenant's POIs closest to a position.
+     *
+     * @param lat the latitude
+     * @param lon the longitude
+     * @param k   the maximum number of POIs
+     * @return up to {@code k} POIs, closest first
+     */
+    public List<Poi.Distance> nearestPois(double lat, double lon, int k) {
+        return current().nearestPois(lat, lon, k);
+    }
+}
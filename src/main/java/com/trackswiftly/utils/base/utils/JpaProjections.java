@@ -0,0 +1,124 @@
+package com.trackswiftly.utils.base.utils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.trackswiftly.utils.dtos.Projection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+
+
+
+/**
+ * Runs {@link Projection}s as JPA tuple queries, so that only the projected
+ * columns are read and no entity is instantiated or managed.
+ * <p>
+ * DAO implementations use it to override the projection-aware reads of
+ * {@link com.trackswiftly.utils.interfaces.BaseDao}. Multi-step attribute paths
+ * ({@code "vehicle.plate"}) are read through left joins, so like
+ * {@link Projection#from(Object)} a {@code null} association yields a
+ * {@code null} value instead of dropping the row. The generated JPQL is
+ * cached per entity, projection and query shape.
+ */
+public final class JpaProjections {
+
+
+    /** Private constructor to prevent instantiation. */
+    private JpaProjections() {}
+
+
+    private static final String ALIAS = "e";
+
+    private static final Map<QueryKey, String> QUERIES = new ConcurrentHashMap<>();
+
+
+
+    private record QueryKey(Class<?> entityClass, Projection<?> projection, String shape, String attribute) {}
+
+
+
+    /**
+     * Selects the projection of the entities with the given IDs.
+     *
+     * @param <P>         the DTO type
+     * @param em          the entity manager
+     * @param entityClass the entity class
+     * @param idAttribute the name of the identifier attribute, e.g. {@code "id"}
+     * @param ids         the IDs
+     * @param projection  the projection
+     * @return the projected DTOs, in database order
+     */
+    public static <P> List<P> findByIds(EntityManager em, Class<?> entityClass, String idAttribute,
+                                        Collection<?> ids, Projection<P> projection) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String jpql = QUERIES.computeIfAbsent(new QueryKey(entityClass, projection, "ids", idAttribute), key ->
+            select(em, key) + " where " + ALIAS + "." + key.attribute() + " in :ids");
+        List<Tuple> rows = em.createQuery(jpql, Tuple.class)
+            .setParameter("ids", ids)
+            .getResultList();
+        return projection.mapAll(rows);
+    }
+
+
+    /**
+     * Selects one page of the projection, ordered by the given attribute.
+     *
+     * @param <P>         the DTO type
+     * @param em          the entity manager
+     * @param entityClass the entity class
+     * @param orderBy     the attribute giving a stable order, usually the identifier
+     * @param page        the page number (0-based)
+     * @param pageSize    the number of entities per page
+     * @param projection  the projection
+     * @return the projected DTOs of the page
+     * @throws IllegalArgumentException if the page is negative or the page size is not positive
+     */
+    public static <P> List<P> findWithPagination(EntityManager em, Class<?> entityClass, String orderBy,
+                                                 int page, int pageSize, Projection<P> projection) {
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page " + page + " of size " + pageSize);
+        }
+        String jpql = QUERIES.computeIfAbsent(new QueryKey(entityClass, projection, "page", orderBy), key ->
+            select(em, key) + " order by " + ALIAS + "." + key.attribute());
+        List<Tuple> rows = em.createQuery(jpql, Tuple.class)
+            .setFirstResult(Math.multiplyExact(page, pageSize))
+            .setMaxResults(pageSize)
+            .getResultList();
+        return projection.mapAll(rows);
+    }
+
+
+    private static String select(EntityManager em, QueryKey key) {
+        String entityName = em.getMetamodel().entity(key.entityClass()).getName();
+        StringBuilder select = new StringBuilder();
+        StringBuilder joins = new StringBuilder();
+        Map<String, String> joinAliases = new HashMap<>();
+        for (String attribute : key.projection().attributes()) {
+            // A dotted path is an implicit inner join; join every association step explicitly instead.
+            String owner = ALIAS;
+            int start = 0;
+            for (int dot = attribute.indexOf('.'); dot >= 0; dot = attribute.indexOf('.', start)) {
+                String ownerAlias = owner;
+                String path = attribute.substring(0, dot);
+                String step = attribute.substring(start, dot);
+                owner = joinAliases.computeIfAbsent(path, k -> {
+                    String joinAlias = ALIAS + "_" + joinAliases.size();
+                    joins.append(" left join ").append(ownerAlias).append('.').append(step).append(' ').append(joinAlias);
+                    return joinAlias;
+                });
+                start = dot + 1;
+            }
+            if (select.length() > 0) {
+                select.append(", ");
+            }
+            select.append(owner).append('.').append(attribute, start, attribute.length());
+        }
+        return "select " + select + " from " + entityName + " " + ALIAS + joins;
+    }
+}
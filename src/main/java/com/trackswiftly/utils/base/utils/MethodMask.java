@@ -0,0 +1,158 @@
+package com.trackswiftly.utils.base.utils;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.trackswiftly.utils.enums.HttpMethod;
+
+
+
+/**
+ * Utility class for encoding ACL method names as bits of an {@code int} mask.
+ * <p>
+ * Each {@link HttpMethod} occupies the bit at its ordinal; the MQTT
+ * {@code "subscribe"} and {@code "publish"} methods occupy the two bits right
+ * after the last HTTP method.
+ * This is the same ordering used by {@code CompressedAclService}, so bit
+ * {@code n} always corresponds to compressed method ID {@code n + 1}.
+ */
+public final class MethodMask {
+
+
+    /** Private constructor to prevent instantiation. */
+    private MethodMask() {}
+
+
+    /** The MQTT subscribe method name, as it appears in ACL claims. */
+    public static final String SUBSCRIBE = "subscribe";
+
+    /** The MQTT publish method name, as it appears in ACL claims. */
+    public static final String PUBLISH = "publish";
+
+    private static final HttpMethod[] HTTP_METHODS = HttpMethod.values();
+
+    /** Bit index of the MQTT {@code "subscribe"} method. */
+    public static final int SUBSCRIBE_BIT = HTTP_METHODS.length;
+
+    /** Bit index of the MQTT {@code "publish"} method, the highest known bit. */
+    public static final int PUBLISH_BIT = SUBSCRIBE_BIT + 1;
+
+    /** Mask with no method allowed. */
+    public static final int NONE = 0;
+
+    /** Mask with every known method allowed. */
+    public static final int ALL = (1 << (PUBLISH_BIT + 1)) - 1;
+
+
+
+    /**
+     * Returns the bit index of the given method name.
+     * HTTP methods are matched case-insensitively, as {@code TokenInfo} always did.
+     *
+     * @param method the method name
+     * @return the bit index, or {@code -1} if the method is unknown
+     */
+    public static int bitIndex(String method) {
+        if (method == null) {
+            return -1;
+        }
+        if (SUBSCRIBE.equals(method)) {
+            return SUBSCRIBE_BIT;
+        }
+        if (PUBLISH.equals(method)) {
+            return PUBLISH_BIT;
+        }
+        for (HttpMethod httpMethod : HTTP_METHODS) {
+            if (httpMethod.name().equalsIgnoreCase(method)) {
+                return httpMethod.ordinal();
+            }
+        }
+        return -1;
+    }
+
+
+    /**
+     * Returns the single-bit mask of the given method name.
+     *
+     * @param method the method name
+     * @return the mask, or {@link #NONE} if the method is unknown
+     */
+    public static int of(String method) {
+        int bit = bitIndex(method);
+        return bit < 0 ? NONE : 1 << bit;
+    }
+
+
+    /**
+     * Returns the single-bit mask of the given HTTP method.
+     *
+     * @param method the HTTP method
+     * @return the mask
+     */
+    public static int of(HttpMethod method) {
+        return 1 << method.ordinal();
+    }
+
+
+
+    /**
+     * Builds a mask from a collection of method names.
+     *
+     * @param methods the method names
+     * @return the combined mask
+     * @throws IllegalArgumentException if a method is not a string or is unknown
+     */
+    public static int parse(Collection<?> methods) {
+        int mask = NONE;
+        for (Object method : methods) {
+            if (!(method instanceof String)) {
+                throw new IllegalArgumentException("HTTP method must be a string");
+            }
+            int bit = bitIndex((String) method);
+            if (bit < 0) {
+                throw new IllegalArgumentException("Invalid HTTP method: " + method);
+            }
+            mask |= 1 << bit;
+        }
+        return mask;
+    }
+
+
+
+    /**
+     * Checks whether the mask contains the given method.
+     *
+     * @param mask   the method mask
+     * @param method the method name
+     * @return {@code true} if the method is part of the mask
+     */
+    public static boolean contains(int mask, String method) {
+        int bit = of(method);
+        return bit != NONE && (mask & bit) != 0;
+    }
+
+
+
+    /**
+     * Decodes a mask back into method names, in bit order.
+     *
+     * @param mask the method mask
+     * @return the set of method names
+     */
+    public static Set<String> toNames(int mask) {
+        Set<String> names = new LinkedHashSet<>();
+        for (HttpMethod httpMethod : HTTP_METHODS) {
+            if ((mask & (1 << httpMethod.ordinal())) != 0) {
+                names.add(httpMethod.name());
+            }
+        }
+        if ((mask & (1 << SUBSCRIBE_BIT)) != 0) {
+            names.add(SUBSCRIBE);
+        }
+        if ((mask & (1 << PUBLISH_BIT)) != 0) {
+            names.add(PUBLISH);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,292 @@
+package com.trackswiftly.utils.base.utils;
+
+import com.trackswiftly.utils.interfaces.JsonPullParser;
+
+
+
+/**
+ * Dependency-free {@link JsonPullParser} over an in-memory JSON document.
+ * <p>
+ * Numbers are decoded straight from the input, so integral values read through
+ * {@link #longValue()} never allocate. Not thread-safe.
+ */
+public final class SimpleJsonPullParser implements JsonPullParser {
+
+
+    private static final int MAX_DEPTH = 256;
+
+    private final CharSequence input;
+
+    private int pos;
+
+    /** Container stack: {@code true} for objects, {@code false} for arrays. */
+    private final boolean[] objectStack = new boolean[MAX_DEPTH];
+
+    private int depth;
+
+    private boolean expectName;
+
+    /** Whether a value just ended inside a container, so a ',' or the container end must follow. */
+    private boolean expectSeparator;
+
+    private Token current;
+
+    private int textStart;
+
+    private int textEnd;
+
+    private String decodedText;
+
+    private boolean integral;
+
+    private long longValue;
+
+
+
+    /**
+     * Creates a parser over the given JSON document.
+     *
+     * @param input the JSON text
+     */
+    public SimpleJsonPullParser(CharSequence input) {
+        this.input = input;
+    }
+
+
+
+    @Override
+    public Token next() {
+        decodedText = null;
+        integral = false;
+        skipSeparators();
+        if (pos >= input.length()) {
+            current = Token.END_OF_INPUT;
+            return current;
+        }
+        char c = input.charAt(pos);
+        switch (c) {
+            case '{':
+                pos++;
+                push(true);
+                current = Token.START_OBJECT;
+                break;
+            case '[':
+                pos++;
+                push(false);
+                current = Token.START_ARRAY;
+                break;
+            case '}':
+            case ']':
+                pos++;
+                pop(c == '}');
+                current = c == '}' ? Token.END_OBJECT : Token.END_ARRAY;
+                break;
+            case '"':
+                readString();
+                current = expectName ? Token.FIELD_NAME : Token.VALUE_STRING;
+                if (expectName) {
+                    expectName = false;
+                    expectColon();
+                }
+                break;
+            case 't':
+            case 'f':
+                readLiteral(c == 't' ? "true" : "false");
+                current = Token.VALUE_BOOLEAN;
+                break;
+            case 'n':
+                readLiteral("null");
+                current = Token.VALUE_NULL;
+                break;
+            default:
+                readNumber();
+                current = Token.VALUE_NUMBER;
+        }
+        expectSeparator = depth > 0 && current != Token.START_OBJECT && current != Token.START_ARRAY
+            && current != Token.FIELD_NAME;
+        return current;
+    }
+
+
+    @Override
+    public String text() {
+        if (decodedText == null) {
+            decodedText = input.subSequence(textStart, textEnd).toString();
+        }
+        return decodedText;
+    }
+
+
+    @Override
+    public boolean isIntegral() {
+        return current == Token.VALUE_NUMBER && integral;
+    }
+
+
+    @Override
+    public long longValue() {
+        if (!isIntegral()) {
+            throw new IllegalStateException("Current token is not an integral number: " + current);
+        }
+        return longValue;
+    }
+
+
+
+    private void push(boolean object) {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalArgumentException("JSON nesting too deep at position " + pos);
+        }
+        objectStack[depth++] = object;
+        expectName = object;
+    }
+
+
+    private void pop(boolean object) {
+        if (depth == 0 || objectStack[depth - 1] != object) {
+            throw new IllegalArgumentException("Unbalanced JSON at position " + (pos - 1));
+        }
+        depth--;
+        expectName = false;
+    }
+
+
+    private void skipSeparators() {
+        boolean afterComma = false;
+        while (pos < input.length()) {
+            char c = input.charAt(pos);
+            if (c == ',') {
+                if (!expectSeparator) {
+                    throw new IllegalArgumentException("Unexpected ',' at position " + pos);
+                }
+                expectSeparator = false;
+                afterComma = true;
+                expectName = objectStack[depth - 1];
+            } else if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                boolean closing = c == '}' || c == ']';
+                if (expectSeparator && !closing) {
+                    throw new IllegalArgumentException("Expected ',' at position " + pos);
+                }
+                if (afterComma && closing) {
+                    throw new IllegalArgumentException("Trailing ',' before position " + pos);
+                }
+                return;
+            }
+            pos++;
+        }
+    }
+
+
+    private void expectColon() {
+        while (pos < input.length()) {
+            char c = input.charAt(pos++);
+            if (c == ':') {
+                return;
+            }
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                break;
+            }
+        }
+        throw new IllegalArgumentException("Expected ':' at position " + (pos - 1));
+    }
+
+
+
+    private void readString() {
+        int start = ++pos;
+        StringBuilder escaped = null;
+        while (pos < input.length()) {
+            char c = input.charAt(pos);
+            if (c == '"') {
+                if (escaped == null) {
+                    textStart = start;
+                    textEnd = pos;
+                } else {
+                    decodedText = escaped.toString();
+                }
+                pos++;
+                return;
+            }
+            if (c == '\\') {
+                if (escaped == null) {
+                    escaped = new StringBuilder().append(input, start, pos);
+                }
+                escaped.append(readEscape());
+                continue;
+            }
+            if (escaped != null) {
+                escaped.append(c);
+            }
+            pos++;
+        }
+        throw new IllegalArgumentException("Unterminated JSON string at position " + (start - 1));
+    }
+
+
+    private char readEscape() {
+        if (pos + 1 >= input.length()) {
+            throw new IllegalArgumentException("Invalid JSON escape at position " + pos);
+        }
+        char c = input.charAt(pos + 1);
+        pos += 2;
+        switch (c) {
+            case 'n': return '\n';
+            case 't': return '\t';
+            case 'r': return '\r';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'u':
+                if (pos + 4 > input.length()) {
+                    throw new IllegalArgumentException("Invalid JSON unicode escape at position " + pos);
+                }
+                char decoded = (char) Integer.parseInt(input.subSequence(pos, pos + 4).toString(), 16);
+                pos += 4;
+                return decoded;
+            default:
+                return c;
+        }
+    }
+
+
+    private void readLiteral(String literal) {
+        int end = pos + literal.length();
+        if (end > input.length() || !literal.contentEquals(input.subSequence(pos, end))) {
+            throw new IllegalArgumentException("Unexpected JSON token at position " + pos);
+        }
+        textStart = pos;
+        textEnd = end;
+        pos = end;
+    }
+
+
+    private void readNumber() {
+        int start = pos;
+        boolean negative = input.charAt(pos) == '-';
+        if (negative) {
+            pos++;
+        }
+        long value = 0;
+        boolean overflow = false;
+        int digits = 0;
+        while (pos < input.length() && input.charAt(pos) >= '0' && input.charAt(pos) <= '9') {
+            int digit = input.charAt(pos++) - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                overflow = true;
+            }
+            value = value * 10 - digit;
+            digits++;
+        }
+        boolean fraction = false;
+        while (pos < input.length() && "+-.eE0123456789".indexOf(input.charAt(pos)) >= 0) {
+            fraction = true;
+            pos++;
+        }
+        if (digits == 0) {
+            throw new IllegalArgumentException("Unexpected JSON token at position " + start);
+        }
+        textStart = start;
+        textEnd = pos;
+        integral = !fraction && !overflow && (negative || value != Long.MIN_VALUE);
+        longValue = negative ? value : -value;
+    }
+}
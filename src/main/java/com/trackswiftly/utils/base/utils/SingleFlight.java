@@ -0,0 +1,164 @@
+package com.trackswiftly.utils.base.utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+
+
+/**
+ * Coalesces concurrent calls with the same key into a single execution.
+ * <p>
+ * The first caller for a key runs the loader on its own thread; callers that
+ * arrive while it runs wait for and share its result. A successful result may
+ * also be shared for a short window after completion, which absorbs bursts of
+ * identical requests without turning into a long-lived cache. Failures are
+ * shared with the waiting callers only, never kept.
+ * <p>
+ * Thread-safe.
+ *
+ * @param <K> the key type; must implement {@code equals}/{@code hashCode}
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+
+
+    /** Number of calls between sweeps of expired results. */
+    private static final int SWEEP_INTERVAL = 1024;
+
+
+    private final long shareWindowNanos;
+
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+
+
+    /**
+     * One execution and its result.
+     */
+    private static final class Flight<V> {
+
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        volatile long expiresAt;
+
+
+        boolean isExpired(long now) {
+            return result.isDone() && now - expiresAt >= 0;
+        }
+    }
+
+
+
+    /**
+     * Creates a single-flight group.
+     *
+     * @param shareWindow how long a completed result keeps being shared; {@link Duration#ZERO} to share in-flight calls only
+     */
+    public SingleFlight(Duration shareWindow) {
+        this.shareWindowNanos = shareWindow.toNanos();
+    }
+
+
+
+    /**
+     * Returns the result of the in-flight or recently completed call for the key,
+     * or runs the loader if there is none.
+     *
+     * @param key    the call key
+     * @param loader computes the result
+     * @return the shared result
+     * @throws RuntimeException the exception thrown by the loader, for every caller of the flight
+     */
+    public V execute(K key, Supplier<V> loader) {
+        if (calls.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            sweep();
+        }
+        while (true) {
+            Flight<V> existing = flights.get(key);
+            if (existing != null) {
+                if (!existing.isExpired(System.nanoTime())) {
+                    return await(existing);
+                }
+                flights.remove(key, existing);
+                continue;
+            }
+            Flight<V> flight = new Flight<>();
+            if (flights.putIfAbsent(key, flight) != null) {
+                continue;
+            }
+            return run(key, flight, loader);
+        }
+    }
+
+
+    private V run(K key, Flight<V> flight, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        flight.expiresAt = System.nanoTime() + shareWindowNanos;
+        flight.result.complete(value);
+        if (shareWindowNanos <= 0) {
+            flights.remove(key, flight);
+        }
+        return value;
+    }
+
+
+    private static <V> V await(Flight<V> flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+
+
+    /**
+     * Stops sharing the results of calls whose key matches, e.g. after a write made them stale.
+     * <p>
+     * In-flight calls are forgotten too, since they may have read the data before the
+     * write: callers already waiting still get their result, but later callers start a
+     * new execution instead of joining it.
+     *
+     * @param keys selects the keys to forget
+     */
+    public void forget(Predicate<? super K> keys) {
+        flights.keySet().removeIf(keys);
+    }
+
+
+    /**
+     * Returns the number of in-flight or shared calls.
+     *
+     * @return the number of tracked keys
+     */
+    public int size() {
+        return flights.size();
+    }
+
+
+    private void sweep() {
+        long now = System.nanoTime();
+        flights.values().removeIf(flight -> flight.isExpired(now));
+    }
+}
@@ -1,5 +1,9 @@
 package com.trackswiftly.utils.base.utils;
 
+import java.util.function.Supplier;
+
+import com.trackswiftly.utils.base.scope.ScopePrincipal;
+
 import lombok.extern.log4j.Log4j2;
 
 
@@ -9,6 +13,12 @@ import lombok.extern.log4j.Log4j2;
  * <p>
  * Stores the current tenant ID using {@link InheritableThreadLocal} so that
  * it can be accessed throughout the thread lifecycle, including child threads.
+ * Alongside the tenant it can hold the caller's {@link ScopePrincipal}, its
+ * position in the tenant's department hierarchy. The scope is a plain
+ * {@link ThreadLocal}: pooled threads must never run a task with the scope of
+ * whichever request created them, so code handing work to another thread
+ * passes both values explicitly with {@link #wrap(Supplier)} or
+ * {@link #wrap(Runnable)}.
  */
 @Log4j2
 public final class TenantContext {
@@ -19,6 +29,8 @@ public final class TenantContext {
 
 
     private static InheritableThreadLocal<String> currentTenant = new InheritableThreadLocal<>();
+
+    private static ThreadLocal<ScopePrincipal> currentScope = new ThreadLocal<>();
     
     /**
      * Sets the current tenant ID in the thread-local context.
@@ -42,9 +54,85 @@ public final class TenantContext {
 
 
     /**
-     * Clears the tenant ID from the thread-local context.
+     * Sets the caller's scope in the thread-local context.
+     *
+     * @param scope the caller's position in the department hierarchy
+     */
+    public static void setScope(ScopePrincipal scope) {
+        currentScope.set(scope);
+    }
+
+
+    /**
+     * Retrieves the caller's scope from the thread-local context.
+     *
+     * @return the current scope, or {@code null} if not set
+     */
+    public static ScopePrincipal getScope() {
+        return currentScope.get();
+    }
+
+
+    /**
+     * Clears the tenant ID and the scope from the thread-local context.
      */
     public static void clear(){
         currentTenant.remove();
+        currentScope.remove();
+    }
+
+
+
+    /**
+     * Captures the current tenant and scope, to run a task under them on another thread.
+     * The worker's own tenant and scope are restored after the task.
+     *
+     * @param <R>  the result type
+     * @param task the task
+     * @return the task bound to the caller's tenant and scope
+     */
+    public static <R> Supplier<R> wrap(Supplier<R> task) {
+        String tenantId = currentTenant.get();
+        ScopePrincipal scope = currentScope.get();
+        return () -> {
+            String previousTenant = currentTenant.get();
+            ScopePrincipal previousScope = currentScope.get();
+            set(tenantId, scope);
+            try {
+                return task.get();
+            } finally {
+                set(previousTenant, previousScope);
+            }
+        };
+    }
+
+
+    /**
+     * Captures the current tenant and scope, to run a task under them on another thread.
+     * The worker's own tenant and scope are restored after the task.
+     *
+     * @param task the task
+     * @return the task bound to the caller's tenant and scope
+     */
+    public static Runnable wrap(Runnable task) {
+        Supplier<Void> bound = wrap(() -> {
+            task.run();
+            return null;
+        });
+        return bound::get;
+    }
+
+
+    private static void set(String tenantId, ScopePrincipal scope) {
+        if (tenantId == null) {
+            currentTenant.remove();
+        } else {
+            currentTenant.set(tenantId);
+        }
+        if (scope == null) {
+            currentScope.remove();
+        } else {
+            currentScope.set(scope);
+        }
     }
 }
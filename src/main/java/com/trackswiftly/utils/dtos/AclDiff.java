@@ -0,0 +1,305 @@
+package com.trackswiftly.utils.dtos;
+
+import java.util.Arrays;
+
+import com.trackswiftly.utils.base.utils.MethodMask;
+import com.trackswiftly.utils.enums.Resource;
+
+
+
+/**
+ * Immutable, incremental difference between two {@link TokenInfo} ACLs.
+ * <p>
+ * Only changed resources are recorded, each with the methods and IDs added
+ * or removed. Applying a diff rebuilds only the changed
+ * {@link ResourcePermission}s; every other permission is shared with the base
+ * token, so updating a long-lived session costs in proportion to the change.
+ */
+public final class AclDiff {
+
+
+    private static final Resource[] RESOURCES = Resource.values();
+
+    /** The diff that changes nothing. */
+    public static final AclDiff EMPTY = new AclDiff(new ResourceChange[RESOURCES.length]);
+
+
+    private final ResourceChange[] changes;
+
+
+
+    private AclDiff(ResourceChange[] changes) {
+        this.changes = changes;
+    }
+
+
+
+    /**
+     * Kinds of change that can happen to a single resource.
+     */
+    public enum ChangeType {
+
+        /**
+         * The resource was not granted before and is granted now, or its
+         * permission is replaced as a whole, e.g. when widened to all IDs.
+         */
+        GRANTED,
+
+        /** The resource was granted before and is not granted now. */
+        REVOKED,
+
+        /** The resource stays granted with different methods or IDs. */
+        MODIFIED
+    }
+
+
+
+    /**
+     * Change applied to a single resource. For {@link ChangeType#GRANTED} the
+     * added methods and IDs form the whole new permission; for
+     * {@link ChangeType#REVOKED} all other fields are empty.
+     *
+     * @param type           the kind of change
+     * @param addedMethods   the method bits added
+     * @param removedMethods the method bits removed
+     * @param addedIds       the IDs added
+     * @param removedIds     the IDs removed
+     */
+    public record ResourceChange(
+        ChangeType type,
+        int addedMethods,
+        int removedMethods,
+        IdSet addedIds,
+        IdSet removedIds
+    ) {
+
+
+        /**
+         * Canonical constructor; {@code null} ID sets are treated as empty.
+         *
+         * @param type           the kind of change
+         * @param addedMethods   the method bits added
+         * @param removedMethods the method bits removed
+         * @param addedIds       the IDs added
+         * @param removedIds     the IDs removed
+         */
+        public ResourceChange {
+            addedIds = addedIds == null ? IdSet.EMPTY : addedIds;
+            removedIds = removedIds == null ? IdSet.EMPTY : removedIds;
+        }
+
+
+        /**
+         * Applies this change to a resource permission.
+         * <p>
+         * An empty ID set means "all IDs", so a modification that removes the
+         * last IDs of a restricted permission without adding any revokes the
+         * resource instead of widening it.
+         *
+         * @param base the current permission, or {@code null} if not granted
+         * @return the new permission, or {@code null} if the resource ends up revoked
+         */
+        public ResourcePermission applyTo(ResourcePermission base) {
+            switch (type) {
+                case REVOKED:
+                    return null;
+                case GRANTED:
+                    return new ResourcePermission(addedMethods, addedIds);
+                default:
+                    ResourcePermission current = base == null ? new ResourcePermission(MethodMask.NONE, IdSet.EMPTY) : base;
+                    IdSet ids = current.ids().minus(removedIds).union(addedIds);
+                    if (ids.isEmpty() && !current.ids().isEmpty()) {
+                        return null;
+                    }
+                    return new ResourcePermission((current.methodMask() & ~removedMethods) | addedMethods, ids);
+            }
+        }
+    }
+
+
+
+    /**
+     * Computes the diff that turns {@code from} into {@code to}.
+     *
+     * @param from the current ACL
+     * @param to   the target ACL
+     * @return the diff, or {@link #EMPTY} if both are equal
+     */
+    public static AclDiff between(TokenInfo from, TokenInfo to) {
+        Builder builder = builder();
+        for (Resource resource : RESOURCES) {
+            ResourcePermission before = from.permission(resource);
+            ResourcePermission after = to.permission(resource);
+            if (before == after || (before != null && before.equals(after))) {
+                continue;
+            }
+            if (after == null) {
+                builder.revoke(resource);
+            } else if (before == null || (after.ids().isEmpty() && !before.ids().isEmpty())) {
+                // widening to all IDs cannot be expressed as removed IDs
+                builder.grant(resource, after);
+            } else {
+                builder.modify(resource,
+                    after.methodMask() & ~before.methodMask(),
+                    before.methodMask() & ~after.methodMask(),
+                    after.ids().minus(before.ids()),
+                    before.ids().minus(after.ids()));
+            }
+        }
+        return builder.build();
+    }
+
+
+    /**
+     * Creates a builder, typically used to express a permission change directly
+     * instead of diffing two full ACLs.
+     *
+     * @return an empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+
+    /**
+     * Applies this diff to a token, sharing every unchanged permission.
+     *
+     * @param base the token to patch
+     * @return the patched token
+     */
+    public TokenInfo applyTo(TokenInfo base) {
+        if (isEmpty()) {
+            return base;
+        }
+        TokenInfo.Builder builder = base.toBuilder();
+        for (Resource resource : RESOURCES) {
+            ResourceChange change = changes[resource.ordinal()];
+            if (change != null) {
+                builder.grant(resource, change.applyTo(base.permission(resource)));
+            }
+        }
+        return builder.build();
+    }
+
+
+    /**
+     * Returns the change recorded for a resource.
+     *
+     * @param resource the resource
+     * @return the change, or {@code null} if the resource is unchanged
+     */
+    public ResourceChange change(Resource resource) {
+        return changes[resource.ordinal()];
+    }
+
+
+    /**
+     * Returns whether the diff changes nothing.
+     *
+     * @return {@code true} if empty
+     */
+    public boolean isEmpty() {
+        for (ResourceChange change : changes) {
+            if (change != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof AclDiff && Arrays.equals(changes, ((AclDiff) o).changes));
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(changes);
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("AclDiff{");
+        for (Resource resource : RESOURCES) {
+            ResourceChange change = changes[resource.ordinal()];
+            if (change != null) {
+                text.append(resource.getPath()).append('=').append(change).append(", ");
+            }
+        }
+        return text.append('}').toString();
+    }
+
+
+
+    /**
+     * Builder for {@link AclDiff}. Not thread-safe; the built instance is.
+     */
+    public static final class Builder {
+
+        private final ResourceChange[] changes = new ResourceChange[RESOURCES.length];
+
+
+        private Builder() {}
+
+
+        /**
+         * Records that a resource is granted with the given permission, replacing any previous change.
+         *
+         * @param resource   the resource
+         * @param permission the full new permission
+         * @return this builder
+         */
+        public Builder grant(Resource resource, ResourcePermission permission) {
+            changes[resource.ordinal()] = new ResourceChange(ChangeType.GRANTED, permission.methodMask(), MethodMask.NONE, permission.ids(), IdSet.EMPTY);
+            return this;
+        }
+
+
+        /**
+         * Records that a resource is revoked, replacing any previous change.
+         *
+         * @param resource the resource
+         * @return this builder
+         */
+        public Builder revoke(Resource resource) {
+            changes[resource.ordinal()] = new ResourceChange(ChangeType.REVOKED, MethodMask.NONE, MethodMask.NONE, IdSet.EMPTY, IdSet.EMPTY);
+            return this;
+        }
+
+
+        /**
+         * Records an in-place modification of a resource, replacing any previous change.
+         *
+         * @param resource       the resource
+         * @param addedMethods   the method bits added
+         * @param removedMethods the method bits removed
+         * @param addedIds       the IDs added
+         * @param removedIds     the IDs removed
+         * @return this builder
+         */
+        public Builder modify(Resource resource, int addedMethods, int removedMethods, IdSet addedIds, IdSet removedIds) {
+            changes[resource.ordinal()] = new ResourceChange(ChangeType.MODIFIED, addedMethods, removedMethods, addedIds, removedIds);
+            return this;
+        }
+
+
+        /**
+         * Builds the immutable diff.
+         *
+         * @return the diff
+         */
+        public AclDiff build() {
+            for (ResourceChange change : changes) {
+                if (change != null) {
+                    return new AclDiff(changes.clone());
+                }
+            }
+            return EMPTY;
+        }
+    }
+}
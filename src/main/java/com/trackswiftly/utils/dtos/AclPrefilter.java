@@ -0,0 +1,171 @@
+package com.trackswiftly.utils.dtos;
+
+import java.util.Collection;
+
+import com.trackswiftly.utils.base.utils.MethodMask;
+import com.trackswiftly.utils.enums.Resource;
+
+
+
+/**
+ * Compact, lossy summary of a {@link TokenInfo} used to deny requests before
+ * the exact ACL is consulted.
+ * <p>
+ * Keeps each resource's method mask exactly and replaces its ID set with an
+ * {@link IdFilter}. {@link #mightAllow} returning {@code false} is a definite
+ * deny; {@code true} means the exact ACL has to confirm, unless
+ * {@link #enforcesIds} says no IDs are enforced for the resource. It is small
+ * enough to keep hot for every token, or to embed in the token itself through
+ * {@code CompressedAclService#compressPrefilter}, while the full ID lists stay
+ * in a remote store.
+ */
+public final class AclPrefilter {
+
+
+    private static final Resource[] RESOURCES = Resource.values();
+
+
+    private final int[] methodMasks;
+
+    private final IdFilter[] filters;
+
+
+
+    private AclPrefilter(int[] methodMasks, IdFilter[] filters) {
+        this.methodMasks = methodMasks;
+        this.filters = filters;
+    }
+
+
+
+    /**
+     * Builds the prefilter of a token with {@value IdFilter#DEFAULT_BITS_PER_ID} bits per ID.
+     *
+     * @param tokenInfo the token ACL
+     * @return the prefilter
+     */
+    public static AclPrefilter from(TokenInfo tokenInfo) {
+        return from(tokenInfo, IdFilter.DEFAULT_BITS_PER_ID);
+    }
+
+
+    /**
+     * Builds the prefilter of a token.
+     *
+     * @param tokenInfo the token ACL
+     * @param bitsPerId the number of filter bits per ID
+     * @return the prefilter
+     */
+    public static AclPrefilter from(TokenInfo tokenInfo, int bitsPerId) {
+        Builder builder = builder();
+        for (Resource resource : RESOURCES) {
+            ResourcePermission permission = tokenInfo.permission(resource);
+            if (permission != null) {
+                builder.grant(resource, permission.methodMask(),
+                    permission.ids().isEmpty() ? null : IdFilter.of(permission.ids(), bitsPerId));
+            }
+        }
+        return builder.build();
+    }
+
+
+    /**
+     * Creates a new builder, e.g. to rebuild a decoded prefilter.
+     *
+     * @return an empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+
+    /**
+     * Returns the methods granted on a resource.
+     *
+     * @param resource the resource
+     * @return the method mask, {@link MethodMask#NONE} if the resource is not granted
+     */
+    public int methodMask(Resource resource) {
+        return methodMasks[resource.ordinal()];
+    }
+
+
+    /**
+     * Returns the ID filter of a resource.
+     *
+     * @param resource the resource
+     * @return the filter, or {@code null} if no IDs are enforced
+     */
+    public IdFilter filter(Resource resource) {
+        return filters[resource.ordinal()];
+    }
+
+
+    /**
+     * Checks whether the resource restricts access to specific IDs.
+     *
+     * @param resource the resource
+     * @return {@code true} if possible hits must be confirmed against the exact IDs
+     */
+    public boolean enforcesIds(Resource resource) {
+        return filters[resource.ordinal()] != null;
+    }
+
+
+    /**
+     * Checks whether a request may be allowed by the exact ACL.
+     *
+     * @param resource the resource
+     * @param method   the method name
+     * @param itemIds  the IDs being accessed
+     * @return {@code false} if the request is definitely denied
+     */
+    public boolean mightAllow(Resource resource, String method, Collection<String> itemIds) {
+        if (!MethodMask.contains(methodMasks[resource.ordinal()], method)) {
+            return false;
+        }
+        IdFilter filter = filters[resource.ordinal()];
+        return filter == null || filter.mightContainAll(itemIds);
+    }
+
+
+
+    /**
+     * Builder of {@link AclPrefilter}.
+     */
+    public static final class Builder {
+
+        private final int[] methodMasks = new int[RESOURCES.length];
+
+        private final IdFilter[] filters = new IdFilter[RESOURCES.length];
+
+
+        private Builder() {}
+
+
+        /**
+         * Sets the methods and ID filter of a resource.
+         *
+         * @param resource   the resource
+         * @param methodMask the granted methods
+         * @param filter     the ID filter, or {@code null} if no IDs are enforced
+         * @return this builder
+         */
+        public Builder grant(Resource resource, int methodMask, IdFilter filter) {
+            methodMasks[resource.ordinal()] = methodMask;
+            filters[resource.ordinal()] = filter;
+            return this;
+        }
+
+
+        /**
+         * Builds the prefilter.
+         *
+         * @return the immutable prefilter
+         */
+        public AclPrefilter build() {
+            return new AclPrefilter(methodMasks.clone(), filters.clone());
+        }
+    }
+}
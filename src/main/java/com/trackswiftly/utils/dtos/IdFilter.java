@@ -0,0 +1,209 @@
+package com.trackswiftly.utils.dtos;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+import java.util.Collection;
+
+
+
+/**
+ * Immutable Bloom filter over the IDs of an {@link IdSet}.
+ * <p>
+ * {@link #mightContain(String)} never returns {@code false} for an ID of the
+ * source set, so a negative answer is a definite deny; a positive answer must
+ * be confirmed against the exact set. IDs are canonicalized the same way as in
+ * {@link IdSet}: {@code "42"} and {@code 42L} are the same ID.
+ * <p>
+ * With the default {@value #DEFAULT_BITS_PER_ID} bits per ID, about 1% of
+ * absent IDs are reported as possible members.
+ */
+public final class IdFilter {
+
+
+    /** Default number of filter bits per ID. */
+    public static final int DEFAULT_BITS_PER_ID = 10;
+
+    private static final long STRING_SEED = 0x9E3779B97F4A7C15L;
+
+
+    private final long[] words;
+
+    private final int hashCount;
+
+
+
+    private IdFilter(long[] words, int hashCount) {
+        this.words = words;
+        this.hashCount = hashCount;
+    }
+
+
+
+    /**
+     * Builds a filter over an ID set with {@value #DEFAULT_BITS_PER_ID} bits per ID.
+     *
+     * @param ids the IDs
+     * @return the filter
+     */
+    public static IdFilter of(IdSet ids) {
+        return of(ids, DEFAULT_BITS_PER_ID);
+    }
+
+
+    /**
+     * Builds a filter over an ID set.
+     *
+     * @param ids       the IDs
+     * @param bitsPerId the number of filter bits per ID; more bits mean fewer false positives
+     * @return the filter
+     * @throws IllegalArgumentException if {@code bitsPerId} is not positive
+     */
+    public static IdFilter of(IdSet ids, int bitsPerId) {
+        if (bitsPerId <= 0) {
+            throw new IllegalArgumentException("Bits per ID must be positive: " + bitsPerId);
+        }
+        long bits = Math.max(64L, (long) ids.size() * bitsPerId);
+        int hashCount = Math.max(1, (int) Math.round(bitsPerId * Math.log(2)));
+        IdFilter filter = new IdFilter(new long[(int) ((bits + 63) / 64)], hashCount);
+        for (long id : ids.numericIds()) {
+            filter.set(hash(id));
+        }
+        for (String id : ids.otherIds()) {
+            filter.set(hash(id));
+        }
+        return filter;
+    }
+
+
+
+    /**
+     * Checks whether a numeric ID may be in the source set.
+     *
+     * @param id the ID
+     * @return {@code false} if the ID is definitely absent
+     */
+    public boolean mightContain(long id) {
+        return test(hash(id));
+    }
+
+
+    /**
+     * Checks whether an ID may be in the source set.
+     *
+     * @param id the ID
+     * @return {@code false} if the ID is definitely absent
+     */
+    public boolean mightContain(String id) {
+        if (id == null) {
+            return false;
+        }
+        return test(IdSet.isCanonicalLong(id) ? hash(Long.parseLong(id)) : hash(id));
+    }
+
+
+    /**
+     * Checks whether every given ID may be in the source set.
+     *
+     * @param ids the IDs
+     * @return {@code false} if at least one ID is definitely absent
+     */
+    public boolean mightContainAll(Collection<String> ids) {
+        for (String id : ids) {
+            if (!mightContain(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns the size of the filter in bits.
+     *
+     * @return the bit count
+     */
+    public long bitSize() {
+        return (long) words.length * 64;
+    }
+
+
+
+    private void set(long hash) {
+        long bits = bitSize();
+        long h2 = (hash >>> 32) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * h2, bits);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+
+    private boolean test(long hash) {
+        long bits = bitSize();
+        long h2 = (hash >>> 32) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * h2, bits);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private static long hash(long id) {
+        long h = id * 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 31;
+        h *= 0x94D049BB133111EBL;
+        return h ^ (h >>> 29);
+    }
+
+
+    private static long hash(String id) {
+        long h = STRING_SEED;
+        for (int i = 0; i < id.length(); i++) {
+            h = (h ^ id.charAt(i)) * 0x100000001B3L;
+        }
+        return hash(h);
+    }
+
+
+
+    /**
+     * Serializes the filter as URL-safe Base64, suitable for token claims and
+     * {@code CompressedAclService} output.
+     *
+     * @return the encoded filter
+     */
+    public String toBase64() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + words.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte) hashCount);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+
+    /**
+     * Parses a filter written by {@link #toBase64()}.
+     *
+     * @param encoded the encoded filter
+     * @return the filter
+     * @throws IllegalArgumentException if the value is not a valid encoded filter
+     */
+    public static IdFilter fromBase64(String encoded) {
+        byte[] bytes = Base64.getUrlDecoder().decode(encoded);
+        if (bytes.length < 9 || (bytes.length - 1) % 8 != 0 || bytes[0] <= 0) {
+            throw new IllegalArgumentException("Invalid ID filter encoding");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int hashCount = buffer.get();
+        long[] words = new long[(bytes.length - 1) / 8];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = buffer.getLong();
+        }
+        return new IdFilter(words, hashCount);
+    }
+}
@@ -0,0 +1,476 @@
+package com.trackswiftly.utils.dtos;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+
+
+/**
+ * Immutable, compact set of item IDs used by ACL permissions.
+ * <p>
+ * IDs that are canonical decimal longs are stored in a sorted {@code long[]};
+ * any other ID is stored in a sorted {@code String[]}. Lookups use binary
+ * search, so no boxing or hashing happens on the access-check path.
+ */
+public final class IdSet {
+
+
+    /** The empty ID set, meaning no specific IDs are enforced. */
+    public static final IdSet EMPTY = new IdSet(new long[0], new String[0]);
+
+
+    private final long[] numericIds;
+
+    private final String[] otherIds;
+
+
+
+    private IdSet(long[] numericIds, String[] otherIds) {
+        this.numericIds = numericIds;
+        this.otherIds = otherIds;
+    }
+
+
+
+    /**
+     * Builds an ID set from raw token values. Non-string values (e.g. JSON numbers)
+     * are converted with {@link String#valueOf(Object)}.
+     *
+     * @param ids the raw IDs
+     * @return the ID set
+     */
+    public static IdSet of(Collection<?> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return EMPTY;
+        }
+        long[] numeric = new long[ids.size()];
+        String[] other = new String[ids.size()];
+        int numericCount = 0;
+        int otherCount = 0;
+        for (Object id : ids) {
+            String value = String.valueOf(id);
+            if (isCanonicalLong(value)) {
+                numeric[numericCount++] = Long.parseLong(value);
+            } else {
+                other[otherCount++] = value;
+            }
+        }
+        return fromArrays(numeric, numericCount, other, otherCount);
+    }
+
+
+    /**
+     * Builds an ID set from numeric IDs.
+     *
+     * @param ids the numeric IDs, in any order
+     * @return the ID set
+     */
+    public static IdSet ofLongs(long... ids) {
+        return fromArrays(ids.clone(), ids.length, new String[0], 0);
+    }
+
+
+
+    /**
+     * Creates a builder that accumulates IDs without boxing.
+     *
+     * @return an empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+
+    /**
+     * Builds an ID set from unsorted arrays, taking ownership of them.
+     *
+     * @param numeric      numeric IDs
+     * @param numericCount number of valid entries in {@code numeric}
+     * @param other        non-numeric IDs
+     * @param otherCount   number of valid entries in {@code other}
+     * @return the ID set
+     */
+    static IdSet fromArrays(long[] numeric, int numericCount, String[] other, int otherCount) {
+        if (numericCount == 0 && otherCount == 0) {
+            return EMPTY;
+        }
+        Arrays.sort(numeric, 0, numericCount);
+        Arrays.sort(other, 0, otherCount);
+        return new IdSet(
+            Arrays.copyOf(numeric, dedupe(numeric, numericCount)),
+            Arrays.copyOf(other, dedupe(other, otherCount))
+        );
+    }
+
+
+
+    private static int dedupe(long[] sorted, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int write = 1;
+        for (int read = 1; read < length; read++) {
+            if (sorted[read] != sorted[write - 1]) {
+                sorted[write++] = sorted[read];
+            }
+        }
+        return write;
+    }
+
+
+    private static int dedupe(String[] sorted, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int write = 1;
+        for (int read = 1; read < length; read++) {
+            if (!sorted[read].equals(sorted[write - 1])) {
+                sorted[write++] = sorted[read];
+            }
+        }
+        return write;
+    }
+
+
+
+    /**
+     * Checks whether the string is a decimal long in canonical form
+     * (no sign other than a leading minus, no leading zeros), so that
+     * {@code Long.toString(Long.parseLong(s))} gives back {@code s}.
+     *
+     * @param value the string to check
+     * @return {@code true} if the value round-trips through {@code long}
+     */
+    public static boolean isCanonicalLong(String value) {
+        int length = value.length();
+        int start = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+        int digits = length - start;
+        if (digits == 0 || digits > 19) {
+            return false;
+        }
+        if (value.charAt(start) == '0' && (digits > 1 || start == 1)) {
+            return false;
+        }
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        if (digits < 19) {
+            return true;
+        }
+        try {
+            Long.parseLong(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+
+
+    /**
+     * Returns whether the set is empty, i.e. no specific IDs are enforced.
+     *
+     * @return {@code true} if empty
+     */
+    public boolean isEmpty() {
+        return numericIds.length == 0 && otherIds.length == 0;
+    }
+
+
+    /**
+     * Returns the number of IDs in the set.
+     *
+     * @return the size
+     */
+    public int size() {
+        return numericIds.length + otherIds.length;
+    }
+
+
+    /**
+     * Checks whether the set contains the given numeric ID.
+     *
+     * @param id the ID
+     * @return {@code true} if present
+     */
+    public boolean contains(long id) {
+        return Arrays.binarySearch(numericIds, id) >= 0;
+    }
+
+
+    /**
+     * Checks whether the set contains the given ID.
+     *
+     * @param id the ID
+     * @return {@code true} if present
+     */
+    public boolean contains(String id) {
+        if (id == null) {
+            return false;
+        }
+        if (isCanonicalLong(id)) {
+            return contains(Long.parseLong(id));
+        }
+        return Arrays.binarySearch(otherIds, id) >= 0;
+    }
+
+
+    /**
+     * Checks whether the set contains every given ID.
+     *
+     * @param ids the IDs to check
+     * @return {@code true} if all IDs are present
+     */
+    public boolean containsAll(Collection<String> ids) {
+        for (String id : ids) {
+            if (!contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+    /**
+     * Returns the IDs present in this set or in the other one.
+     * Cost is dominated by copying this set's arrays, plus a binary search per ID of {@code other}.
+     *
+     * @param other the IDs to add
+     * @return the union, or {@code this} if {@code other} is empty
+     */
+    public IdSet union(IdSet other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        return new IdSet(union(numericIds, other.numericIds), union(otherIds, other.otherIds));
+    }
+
+
+    /**
+     * Returns the IDs of this set that are not in the other one.
+     *
+     * @param other the IDs to remove
+     * @return the difference, or {@code this} if either set is empty
+     */
+    public IdSet minus(IdSet other) {
+        if (other.isEmpty() || isEmpty()) {
+            return this;
+        }
+        IdSet result = new IdSet(minus(numericIds, other.numericIds), minus(otherIds, other.otherIds));
+        return result.isEmpty() ? EMPTY : result;
+    }
+
+
+
+    private static long[] union(long[] base, long[] added) {
+        long[] result = new long[base.length + added.length];
+        int from = 0;
+        int size = 0;
+        for (long id : added) {
+            int index = Arrays.binarySearch(base, from, base.length, id);
+            int end = index >= 0 ? index : -index - 1;
+            System.arraycopy(base, from, result, size, end - from);
+            size += end - from;
+            from = end;
+            if (index < 0) {
+                result[size++] = id;
+            }
+        }
+        System.arraycopy(base, from, result, size, base.length - from);
+        size += base.length - from;
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+
+    private static String[] union(String[] base, String[] added) {
+        String[] result = new String[base.length + added.length];
+        int from = 0;
+        int size = 0;
+        for (String id : added) {
+            int index = Arrays.binarySearch(base, from, base.length, id);
+            int end = index >= 0 ? index : -index - 1;
+            System.arraycopy(base, from, result, size, end - from);
+            size += end - from;
+            from = end;
+            if (index < 0) {
+                result[size++] = id;
+            }
+        }
+        System.arraycopy(base, from, result, size, base.length - from);
+        size += base.length - from;
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+
+    private static long[] minus(long[] base, long[] removed) {
+        long[] result = new long[base.length];
+        int from = 0;
+        int size = 0;
+        for (long id : removed) {
+            int index = Arrays.binarySearch(base, from, base.length, id);
+            if (index >= 0) {
+                System.arraycopy(base, from, result, size, index - from);
+                size += index - from;
+                from = index + 1;
+            }
+        }
+        if (from == 0) {
+            return base;
+        }
+        System.arraycopy(base, from, result, size, base.length - from);
+        size += base.length - from;
+        return Arrays.copyOf(result, size);
+    }
+
+
+    private static String[] minus(String[] base, String[] removed) {
+        String[] result = new String[base.length];
+        int from = 0;
+        int size = 0;
+        for (String id : removed) {
+            int index = Arrays.binarySearch(base, from, base.length, id);
+            if (index >= 0) {
+                System.arraycopy(base, from, result, size, index - from);
+                size += index - from;
+                from = index + 1;
+            }
+        }
+        if (from == 0) {
+            return base;
+        }
+        System.arraycopy(base, from, result, size, base.length - from);
+        size += base.length - from;
+        return Arrays.copyOf(result, size);
+    }
+
+
+
+    /**
+     * Returns a copy of the sorted numeric IDs.
+     *
+     * @return the numeric IDs in ascending order
+     */
+    public long[] numericIds() {
+        return numericIds.clone();
+    }
+
+
+    /**
+     * Returns a copy of the sorted non-numeric IDs.
+     *
+     * @return the non-numeric IDs in ascending order
+     */
+    public String[] otherIds() {
+        return otherIds.clone();
+    }
+
+
+    /**
+     * Converts the set to the legacy string-set representation.
+     *
+     * @return a mutable set with every ID as a string
+     */
+    public Set<String> toStringSet() {
+        Set<String> result = new HashSet<>(size() * 2);
+        for (long id : numericIds) {
+            result.add(Long.toString(id));
+        }
+        result.addAll(Arrays.asList(otherIds));
+        return result;
+    }
+
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdSet)) {
+            return false;
+        }
+        IdSet other = (IdSet) o;
+        return Arrays.equals(numericIds, other.numericIds) && Arrays.equals(otherIds, other.otherIds);
+    }
+
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(numericIds) + Arrays.hashCode(otherIds);
+    }
+
+
+    @Override
+    public String toString() {
+        return "IdSet" + toStringSet();
+    }
+
+
+
+    /**
+     * Accumulates IDs in growable primitive buffers. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private long[] numeric = new long[16];
+        private int numericCount;
+        private String[] other = new String[0];
+        private int otherCount;
+
+
+        private Builder() {}
+
+
+        /**
+         * Adds a numeric ID.
+         *
+         * @param id the ID
+         * @return this builder
+         */
+        public Builder add(long id) {
+            if (numericCount == numeric.length) {
+                numeric = Arrays.copyOf(numeric, numericCount * 2);
+            }
+            numeric[numericCount++] = id;
+            return this;
+        }
+
+
+        /**
+         * Adds an ID, storing it as a number when it is a canonical long.
+         *
+         * @param id the ID
+         * @return this builder
+         */
+        public Builder add(String id) {
+            if (isCanonicalLong(id)) {
+                return add(Long.parseLong(id));
+            }
+            if (otherCount == other.length) {
+                other = Arrays.copyOf(other, Math.max(8, otherCount * 2));
+            }
+            other[otherCount++] = id;
+            return this;
+        }
+
+
+        /**
+         * Builds the immutable ID set. The builder must not be reused afterwards.
+         *
+         * @return the ID set
+         */
+        public IdSet build() {
+            return fromArrays(numeric, numericCount, other, otherCount);
+        }
+    }
+}
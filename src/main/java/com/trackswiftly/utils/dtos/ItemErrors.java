@@ -0,0 +1,284 @@
+package com.trackswiftly.utils.dtos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+import com.trackswiftly.utils.exception.ItemRejectedException;
+import com.trackswiftly.utils.exception.UnableToProccessIteamException;
+
+
+
+/**
+ * Item-indexed errors of a batch operation: which items of the request were
+ * rejected, and why.
+ * <p>
+ * Validators fill it with {@link #reject(int, String)} while walking a batch,
+ * without throwing, and it is then returned inside an {@link OperationResult}.
+ * Errors are stored in two parallel growable arrays, so collecting thousands
+ * of them allocates almost nothing per item. It is not thread-safe and must
+ * not be modified once returned.
+ * <p>
+ * Bean-style serializers such as Jackson see it through its getters, as
+ * {@code {"empty", "rejectedCount", "failedIndexes", "codes"}}, where the two
+ * arrays are parallel.
+ */
+public final class ItemErrors {
+
+
+    private static final ItemErrors NONE = new ItemErrors(0);
+
+    private static final String UNKNOWN_CODE = "rejected";
+
+
+    private int[] indexes;
+
+    private String[] codes;
+
+    private int size;
+
+    private final BitSet rejected = new BitSet();
+
+
+
+    /**
+     * Creates an empty collector.
+     */
+    public ItemErrors() {
+        this(16);
+    }
+
+
+    private ItemErrors(int capacity) {
+        this.indexes = new int[capacity];
+        this.codes = new String[capacity];
+    }
+
+
+
+    /**
+     * Returns the shared empty, read-only instance.
+     *
+     * @return the empty errors
+     */
+    public static ItemErrors none() {
+        return NONE;
+    }
+
+
+
+    /**
+     * Rejects an item. An item rejected twice keeps both codes.
+     *
+     * @param index the index of the item in the request
+     * @param code  the machine-readable reason
+     * @throws UnsupportedOperationException on {@link #none()}
+     * @throws IllegalArgumentException if the index is negative
+     */
+    public void reject(int index, String code) {
+        if (this == NONE) {
+            throw new UnsupportedOperationException("The empty item errors are read-only");
+        }
+        if (index < 0) {
+            throw new IllegalArgumentException("Invalid item index: " + index);
+        }
+        if (size == indexes.length) {
+            int capacity = Math.max(16, size * 2);
+            indexes = Arrays.copyOf(indexes, capacity);
+            codes = Arrays.copyOf(codes, capacity);
+        }
+        indexes[size] = index;
+        codes[size] = code;
+        size++;
+        rejected.set(index);
+    }
+
+
+    /**
+     * Rejects an item with the code of an exception: the code of an
+     * {@link ItemRejectedException}, otherwise its message.
+     *
+     * @param index the index of the item in the request
+     * @param error the rejection
+     */
+    public void reject(int index, UnableToProccessIteamException error) {
+        String code = error instanceof ItemRejectedException rejection ? rejection.getCode() : error.getMessage();
+        reject(index, code != null ? code : UNKNOWN_CODE);
+    }
+
+
+
+    /**
+     * Returns whether no item was rejected.
+     *
+     * @return {@code true} if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /**
+     * Returns the number of errors.
+     *
+     * @return the error count
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns the number of distinct rejected items.
+     *
+     * @return the rejected item count
+     */
+    public int rejectedCount() {
+        return rejected.cardinality();
+    }
+
+
+    /**
+     * Returns whether an item was rejected.
+     *
+     * @param index the index of the item in the request
+     * @return {@code true} if rejected
+     */
+    public boolean isRejected(int index) {
+        return index >= 0 && rejected.get(index);
+    }
+
+
+    /**
+     * Returns the item index of an error.
+     *
+     * @param error the error position, in rejection order
+     * @return the item index
+     */
+    public int index(int error) {
+        return indexes[checkError(error)];
+    }
+
+
+    /**
+     * Returns the code of an error.
+     *
+     * @param error the error position, in rejection order
+     * @return the code
+     */
+    public String code(int error) {
+        return codes[checkError(error)];
+    }
+
+
+    /**
+     * Returns the item indexes of all errors, in rejection order.
+     *
+     * @return a copy of the failed indexes
+     */
+    public int[] failedIndexes() {
+        return Arrays.copyOf(indexes, size);
+    }
+
+
+    /**
+     * Returns the codes of all errors, in rejection order.
+     *
+     * @return a copy of the codes
+     */
+    public String[] codes() {
+        return Arrays.copyOf(codes, size);
+    }
+
+
+
+    /**
+     * Returns the number of distinct rejected items, as a bean property.
+     *
+     * @return the rejected item count
+     */
+    public int getRejectedCount() {
+        return rejectedCount();
+    }
+
+
+    /**
+     * Returns the item indexes of all errors, in rejection order, as a bean property.
+     *
+     * @return a copy of the failed indexes
+     */
+    public int[] getFailedIndexes() {
+        return failedIndexes();
+    }
+
+
+    /**
+     * Returns the codes of all errors, in rejection order, as a bean property.
+     *
+     * @return a copy of the codes
+     */
+    public String[] getCodes() {
+        return codes();
+    }
+
+
+
+    /**
+     * Returns the items that were not rejected, in order.
+     *
+     * @param <X>   the type of the items
+     * @param items the items of the request the indexes refer to
+     * @return the accepted items; {@code items} itself if none was rejected
+     */
+    public <X> List<X> accepted(List<X> items) {
+        if (size == 0) {
+            return items;
+        }
+        List<X> accepted = new ArrayList<>(Math.max(0, items.size() - rejectedCount()));
+        for (int i = 0; i < items.size(); i++) {
+            if (!rejected.get(i)) {
+                accepted.add(items.get(i));
+            }
+        }
+        return accepted;
+    }
+
+
+    private int checkError(int error) {
+        if (error < 0 || error >= size) {
+            throw new IndexOutOfBoundsException("Error " + error + " of " + size);
+        }
+        return error;
+    }
+
+
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ItemErrors errors
+            && Arrays.equals(indexes, 0, size, errors.indexes, 0, errors.size)
+            && Arrays.equals(codes, 0, size, errors.codes, 0, errors.size);
+    }
+
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * (31 * hash + indexes[i]) + Objects.hashCode(codes[i]);
+        }
+        return hash;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("ItemErrors[");
+        for (int i = 0; i < size; i++) {
+            text.append(i == 0 ? "" : ", ").append(indexes[i]).append('=').append(codes[i]);
+        }
+        return text.append(']').toString();
+    }
+}
@@ -7,14 +7,54 @@ package com.trackswiftly.utils.dtos;
  * 
  * @param affectedRecords the number of records affected by the operation
  * @param message a message describing the outcome of the operation
+ * @param errors the items of the request that were rejected, never {@code null}
+ * @param stats the timings and counters of the operation, never {@code null}
  */
 
 public record OperationResult(
     int affectedRecords,
-    String message
+    String message,
+    ItemErrors errors,
+    OperationStats stats
 ) {
 
 
+    /**
+     * Normalizes missing errors and statistics to {@link ItemErrors#none()} and {@link OperationStats#none()}.
+     */
+    public OperationResult {
+        if (errors == null) {
+            errors = ItemErrors.none();
+        }
+        if (stats == null) {
+            stats = OperationStats.none();
+        }
+    }
+
+
+    /**
+     * Creates an {@code OperationResult} without statistics.
+     *
+     * @param affectedRecords the number of records affected
+     * @param message a message describing the outcome of the operation
+     * @param errors the items of the request that were rejected
+     */
+    public OperationResult(int affectedRecords, String message, ItemErrors errors) {
+        this(affectedRecords, message, errors, OperationStats.none());
+    }
+
+
+    /**
+     * Creates an {@code OperationResult} without item errors.
+     *
+     * @param affectedRecords the number of records affected
+     * @param message a message describing the outcome of the operation
+     */
+    public OperationResult(int affectedRecords, String message) {
+        this(affectedRecords, message, ItemErrors.none());
+    }
+
+
     /**
      * Creates an {@code OperationResult} with a default success message.
      *
@@ -36,4 +76,37 @@ public record OperationResult(
         return new OperationResult(affectedRecords, message);
     }
 
-}
\ No newline at end of file
+    /**
+     * Creates an {@code OperationResult} of a partially successful batch.
+     *
+     * @param affectedRecords the number of records affected
+     * @param message the custom message describing the result
+     * @param errors the rejected items of the request
+     * @return an {@code OperationResult} instance with the provided errors
+     */
+    public static OperationResult of(int affectedRecords, String message, ItemErrors errors) {
+        return new OperationResult(affectedRecords, message, errors);
+    }
+
+
+    /**
+     * Returns a copy of this result with the given statistics.
+     *
+     * @param stats the timings and counters of the operation
+     * @return the instrumented result
+     */
+    public OperationResult withStats(OperationStats stats) {
+        return new OperationResult(affectedRecords, message, errors, stats);
+    }
+
+
+    /**
+     * Returns whether some items of the request were rejected.
+     *
+     * @return {@code true} if there are item errors
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.trackswiftly.utils.dtos;
+
+
+
+/**
+ * Instrumentation of one bulk operation.
+ *
+ * @param operation       the operation, e.g. {@code "create"}, {@code "update"} or {@code "delete"}
+ * @param items           the number of items in the request
+ * @param affectedRecords the number of records affected
+ * @param validationNanos the time spent validating the request
+ * @param performNanos    the time spent persisting it
+ * @param chunks          the number of chunks or batches it was split into
+ * @param retries         the number of retried chunks or statements
+ */
+public record OperationStats(
+    String operation,
+    int items,
+    int affectedRecords,
+    long validationNanos,
+    long performNanos,
+    int chunks,
+    int retries
+) {
+
+
+    private static final OperationStats NONE = new OperationStats("", 0, 0, 0L, 0L, 0, 0);
+
+
+
+    /**
+     * Returns the empty statistics of results that were not instrumented.
+     *
+     * @return the empty statistics
+     */
+    public static OperationStats none() {
+        return NONE;
+    }
+
+
+    /**
+     * Returns the total time spent validating and persisting.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long totalNanos() {
+        return validationNanos + performNanos;
+    }
+
+
+    /**
+     * Returns the affected records per second of persistence time.
+     *
+     * @return the throughput, {@code 0} if nothing was persisted
+     */
+    public double rowsPerSecond() {
+        return performNanos <= 0 ? 0d : affectedRecords * 1e9 / performNanos;
+    }
+}
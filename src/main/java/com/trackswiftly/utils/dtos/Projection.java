@@ -0,0 +1,346 @@
+package com.trackswiftly.utils.dtos;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.persistence.Tuple;
+
+
+
+/**
+ * Compiled description of a read projection: the entity attributes to select
+ * and the constructor of the DTO built from them.
+ * <p>
+ * Projections are compiled once per DTO type and attribute list and cached,
+ * so {@code of} can be called on every request. Attributes are JPQL paths
+ * relative to the entity ({@code "name"}, {@code "vehicle.plate"}) and are
+ * passed to the constructor in order. A DAO selects them with
+ * {@link #selectClause(String)} or {@link #constructorExpression(String)} and
+ * maps tuple rows with {@link #map(Object[])}; {@link #from(Object)} reads the
+ * same attributes from an already loaded entity or DTO through its accessors.
+ *
+ * @param <P> the type of the projected DTO
+ */
+public final class Projection<P> {
+
+
+    private static final Map<Key, Projection<?>> CACHE = new ConcurrentHashMap<>();
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+
+    private final Class<P> type;
+
+    private final List<String> attributes;
+
+    private final MethodHandle constructor;
+
+    private final Map<Class<?>, MethodHandle[][]> readers = new ConcurrentHashMap<>();
+
+
+
+    private record Key(Class<?> type, List<String> attributes) {}
+
+
+
+    private Projection(Class<P> type, List<String> attributes, MethodHandle constructor) {
+        this.type = type;
+        this.attributes = attributes;
+        this.constructor = constructor;
+    }
+
+
+
+    /**
+     * Returns the projection onto a record, selecting one attribute per record
+     * component, by component name, through the canonical constructor.
+     *
+     * @param <P>  the record type
+     * @param type the record class
+     * @return the cached projection
+     */
+    public static <P extends Record> Projection<P> of(Class<P> type) {
+        String[] names = Arrays.stream(type.getRecordComponents()).map(RecordComponent::getName).toArray(String[]::new);
+        return of(type, names);
+    }
+
+
+    /**
+     * Returns the projection selecting the given attributes into the constructor
+     * of {@code type} that takes exactly that many parameters.
+     *
+     * @param <P>        the DTO type
+     * @param type       the DTO class
+     * @param attributes the entity attribute paths, in constructor parameter order
+     * @return the cached projection
+     * @throws IllegalArgumentException if there are no attributes, or no single matching constructor
+     */
+    @SuppressWarnings("unchecked")
+    public static <P> Projection<P> of(Class<P> type, String... attributes) {
+        Key key = new Key(type, List.of(attributes));
+        Projection<?> cached = CACHE.get(key);
+        if (cached == null) {
+            cached = CACHE.computeIfAbsent(key, k -> compile(type, k.attributes()));
+        }
+        return (Projection<P>) cached;
+    }
+
+
+    private static <P> Projection<P> compile(Class<P> type, List<String> attributes) {
+        if (attributes.isEmpty()) {
+            throw new IllegalArgumentException("A projection needs at least one attribute");
+        }
+        Constructor<?> match = null;
+        for (Constructor<?> candidate : type.getDeclaredConstructors()) {
+            if (candidate.getParameterCount() != attributes.size()) {
+                continue;
+            }
+            if (match != null) {
+                throw new IllegalArgumentException(
+                    "Ambiguous projection: " + type.getName() + " has several constructors with " + attributes.size() + " parameters");
+            }
+            match = candidate;
+        }
+        if (match == null) {
+            throw new IllegalArgumentException(
+                "Invalid projection: " + type.getName() + " has no constructor with " + attributes.size() + " parameters");
+        }
+        try {
+            match.trySetAccessible();
+            MethodHandle handle = LOOKUP.unreflectConstructor(match)
+                .asType(MethodType.genericMethodType(attributes.size()))
+                .asSpreader(Object[].class, attributes.size());
+            return new Projection<>(type, attributes, handle);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Inaccessible projection constructor of " + type.getName(), e);
+        }
+    }
+
+
+
+    /**
+     * Returns the projected DTO class.
+     *
+     * @return the DTO class
+     */
+    public Class<P> type() {
+        return type;
+    }
+
+
+    /**
+     * Returns the selected attribute paths, in constructor parameter order.
+     *
+     * @return the attribute paths
+     */
+    public List<String> attributes() {
+        return attributes;
+    }
+
+
+    /**
+     * Returns the JPQL select list of the attributes, e.g. {@code e.id, e.name}.
+     * Dotted paths in it are implicit inner joins, which drop rows whose
+     * association is {@code null}; {@code JpaProjections} left-joins them instead.
+     *
+     * @param alias the entity alias of the query
+     * @return the select list
+     */
+    public String selectClause(String alias) {
+        StringBuilder clause = new StringBuilder();
+        for (String attribute : attributes) {
+            if (clause.length() > 0) {
+                clause.append(", ");
+            }
+            clause.append(alias).append('.').append(attribute);
+        }
+        return clause.toString();
+    }
+
+
+    /**
+     * Returns the JPQL constructor expression of the projection, e.g.
+     * {@code new com.acme.DeviceSummary(e.id, e.name)}. Only top-level public DTO
+     * classes with public constructors are portable across providers.
+     *
+     * @param alias the entity alias of the query
+     * @return the constructor expression
+     */
+    public String constructorExpression(String alias) {
+        return "new " + type.getName() + "(" + selectClause(alias) + ")";
+    }
+
+
+
+    /**
+     * Builds a DTO from one selected row.
+     *
+     * @param row the attribute values, in {@link #attributes()} order
+     * @return the DTO
+     * @throws IllegalArgumentException if the row does not fit the constructor
+     */
+    @SuppressWarnings("unchecked")
+    public P map(Object[] row) {
+        if (row.length != attributes.size()) {
+            throw new IllegalArgumentException("Expected " + attributes.size() + " values, got " + row.length);
+        }
+        try {
+            return (P) constructor.invokeExact(row);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to build " + type.getName(), e);
+        }
+    }
+
+
+    /**
+     * Builds a DTO from a JPA tuple.
+     *
+     * @param tuple the tuple, selecting the attributes in order
+     * @return the DTO
+     */
+    public P map(Tuple tuple) {
+        return map(tuple.toArray());
+    }
+
+
+    /**
+     * Builds a DTO from every tuple of a query result.
+     *
+     * @param tuples the tuples
+     * @return the DTOs, in the same order
+     */
+    public List<P> mapAll(List<Tuple> tuples) {
+        List<P> result = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            result.add(map(tuple.toArray()));
+        }
+        return result;
+    }
+
+
+
+    /**
+     * Builds a DTO from an already loaded object, reading each attribute path
+     * through record accessors, getters or fields. Accessors are resolved once
+     * per source class. A {@code null} along a path yields {@code null}.
+     *
+     * @param source the entity or DTO to read from
+     * @return the DTO, or {@code null} if the source is {@code null}
+     * @throws IllegalArgumentException if an attribute cannot be read from the source class
+     */
+    public P from(Object source) {
+        if (source == null) {
+            return null;
+        }
+        MethodHandle[][] paths = readers.computeIfAbsent(source.getClass(), this::resolveReaders);
+        Object[] row = new Object[paths.length];
+        try {
+            for (int i = 0; i < paths.length; i++) {
+                Object value = source;
+                for (MethodHandle step : paths[i]) {
+                    if (value == null) {
+                        break;
+                    }
+                    value = step.invoke(value);
+                }
+                row[i] = value;
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to read projection attributes from " + source.getClass().getName(), e);
+        }
+        return map(row);
+    }
+
+
+    /**
+     * Builds a DTO from each loaded object.
+     *
+     * @param sources the entities or DTOs to read from
+     * @return the DTOs, in the same order
+     */
+    public List<P> fromAll(List<?> sources) {
+        List<P> result = new ArrayList<>(sources.size());
+        for (Object source : sources) {
+            result.add(from(source));
+        }
+        return result;
+    }
+
+
+
+    private MethodHandle[][] resolveReaders(Class<?> sourceClass) {
+        MethodHandle[][] paths = new MethodHandle[attributes.size()][];
+        for (int i = 0; i < paths.length; i++) {
+            String[] steps = attributes.get(i).split("\\.");
+            paths[i] = new MethodHandle[steps.length];
+            Class<?> current = sourceClass;
+            for (int s = 0; s < steps.length; s++) {
+                paths[i][s] = reader(current, steps[s]);
+                current = paths[i][s].type().returnType();
+            }
+            for (int s = 0; s < steps.length; s++) {
+                paths[i][s] = paths[i][s].asType(MethodType.methodType(Object.class, Object.class));
+            }
+        }
+        return paths;
+    }
+
+
+    private static MethodHandle reader(Class<?> owner, String name) {
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        try {
+            for (String candidate : new String[] { name, "get" + capitalized, "is" + capitalized }) {
+                Method method = findMethod(owner, candidate);
+                if (method != null) {
+                    method.trySetAccessible();
+                    return LOOKUP.unreflect(method);
+                }
+            }
+            for (Class<?> c = owner; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (field.getName().equals(name) && !Modifier.isStatic(field.getModifiers())) {
+                        field.trySetAccessible();
+                        return LOOKUP.unreflectGetter(field);
+                    }
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot read attribute '" + name + "' of " + owner.getName(), e);
+        }
+        throw new IllegalArgumentException("No attribute '" + name + "' on " + owner.getName());
+    }
+
+
+    private static Method findMethod(Class<?> owner, String name) {
+        for (Class<?> c = owner; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (method.getName().equals(name) && method.getParameterCount() == 0
+                        && method.getReturnType() != void.class && !Modifier.isStatic(method.getModifiers())) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+
+    @Override
+    public String toString() {
+        return "Projection[" + type.getSimpleName() + attributes + "]";
+    }
+}
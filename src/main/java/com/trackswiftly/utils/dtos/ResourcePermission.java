@@ -0,0 +1,54 @@
+package com.trackswiftly.utils.dtos;
+
+import java.util.Collection;
+
+import com.trackswiftly.utils.base.utils.MethodMask;
+
+
+
+/**
+ * Compiled permission of a single resource: the allowed methods as a bit mask
+ * (see {@link MethodMask}) and the allowed item IDs.
+ *
+ * @param methodMask the allowed methods
+ * @param ids        the allowed item IDs; empty means no specific IDs are enforced
+ */
+public record ResourcePermission(
+    int methodMask,
+    IdSet ids
+) {
+
+
+    /**
+     * Canonical constructor; a {@code null} ID set is treated as empty.
+     *
+     * @param methodMask the allowed methods
+     * @param ids        the allowed item IDs
+     */
+    public ResourcePermission {
+        ids = ids == null ? IdSet.EMPTY : ids;
+    }
+
+
+    /**
+     * Checks whether the given method is allowed.
+     *
+     * @param method the method name
+     * @return {@code true} if allowed
+     */
+    public boolean allowsMethod(String method) {
+        return MethodMask.contains(methodMask, method);
+    }
+
+
+    /**
+     * Checks whether a request with the given method and item IDs is allowed.
+     *
+     * @param method  the method name
+     * @param itemIds the IDs being accessed
+     * @return {@code true} if allowed
+     */
+    public boolean allows(String method, Collection<String> itemIds) {
+        return allowsMethod(method) && (ids.isEmpty() || ids.containsAll(itemIds));
+    }
+}
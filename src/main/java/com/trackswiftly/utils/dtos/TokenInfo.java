@@ -1,9 +1,14 @@
 package com.trackswiftly.utils.dtos;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import com.trackswiftly.utils.base.utils.MethodMask;
 import com.trackswiftly.utils.enums.HttpMethod;
 import com.trackswiftly.utils.enums.Resource;
 
@@ -12,106 +17,245 @@ import com.trackswiftly.utils.enums.Resource;
 
 
 /**
- * Specialized {@link HashMap} for holding token information with validation.
+ * Immutable, compiled view of the ACL claims carried by a token.
  * <p>
- * Validates keys as resource paths and values for valid HTTP methods when inserting entries.
+ * Built once from the parsed JWT claims, validating resource paths and
+ * {@link HttpMethod} names on the way in. Permissions are stored in an array
+ * indexed by {@link Resource#ordinal()}, methods as bit masks and IDs as an
+ * {@link IdSet}, so instances are safe to share across threads, can be cached,
+ * and are checked by {@code ACLManager} without any further conversion.
  */
-public class TokenInfo extends HashMap<String, Object>{
+public final class TokenInfo {
 
 
+    /** Key representing allowed methods in a raw ACL claim entry. */
+    public static final String METHODS = "methods";
 
-    /**
-     * Constructs an empty {@code TokenInfo} map.
-     */
-    public TokenInfo() {
-        super();
+    /** Key representing allowed item IDs in a raw ACL claim entry. */
+    public static final String IDS = "ids";
+
+    private static final Resource[] RESOURCES = Resource.values();
+
+    /** Token granting nothing. */
+    public static final TokenInfo EMPTY = new TokenInfo(new ResourcePermission[RESOURCES.length]);
+
+
+    private final ResourcePermission[] permissions;
+
+
+
+    private TokenInfo(ResourcePermission[] permissions) {
+        this.permissions = permissions;
     }
 
 
 
     /**
-     * Associates the specified value with the specified key in this map after validation.
+     * Builds a {@code TokenInfo} from parsed token claims.
+     * <p>
+     * Each key must be a valid {@link Resource} path and each value a map with
+     * optional {@code "methods"} and {@code "ids"} lists.
      *
-     * @param key   the resource path key
-     * @param value the value associated with the resource path
-     * @return the previous value associated with the key, or {@code null} if none
-     * @throws IllegalArgumentException if the key or value is invalid
+     * @param claims the raw ACL claims
+     * @return the compiled token information
+     * @throws IllegalArgumentException if a resource path, entry or method is invalid
      */
-    @Override
-    public Object put(String key, Object value) {
-        validateKeyValue(key, value);
-        return super.put(key, value);
+    public static TokenInfo from(Map<String, ?> claims) {
+        Builder builder = builder();
+        for (Map.Entry<String, ?> entry : claims.entrySet()) {
+            Resource resource = validatePath(entry.getKey());
+            if (!(entry.getValue() instanceof Map)) {
+                throw new IllegalArgumentException("Invalid ACL entry for resource path: " + entry.getKey());
+            }
+            Map<?, ?> valueMap = (Map<?, ?>) entry.getValue();
+            builder.grant(resource, MethodMask.parse(asList(valueMap.get(METHODS))), IdSet.of(asList(valueMap.get(IDS))));
+        }
+        return builder.build();
     }
 
 
+    /**
+     * Creates a new builder.
+     *
+     * @return an empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
 
 
     /**
-     * Validates the key and value according to resource and HTTP method rules.
+     * Creates a builder pre-filled with this token's permissions, so that
+     * derived tokens share every unchanged {@link ResourcePermission}.
      *
-     * @param key   the resource path
-     * @param value the value associated with the key
-     * @throws IllegalArgumentException if validation fails
+     * @return a builder initialized from this token
      */
-    private void validateKeyValue(String key, Object value) {
-        validatePath(key);
-        validateHttpMethods(value);
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        System.arraycopy(permissions, 0, builder.permissions, 0, permissions.length);
+        return builder;
     }
 
 
+
     /**
      * Validates that the given key is a valid resource path.
      *
      * @param key the resource path to validate
+     * @return the matching resource
      * @throws IllegalArgumentException if the key is not a valid resource path
      */
-    private void validatePath(String key) {
-        if (!Resource.isValidPath(key)) {
+    private static Resource validatePath(String key) {
+        Resource resource = Resource.fromPath(key);
+        if (resource == null) {
             throw new IllegalArgumentException("Invalid resource path: " + key);
         }
+        return resource;
+    }
+
+
+    private static Collection<?> asList(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        if (!(value instanceof Collection)) {
+            throw new IllegalArgumentException("ACL methods and ids must be lists");
+        }
+        return (Collection<?>) value;
     }
 
 
 
     /**
-     * Validates that the HTTP methods in the value are valid {@link HttpMethod} entries.
-     * If the value is not a {@link Map} or contains no "methods" key, validation is skipped.
+     * Returns the permission granted for the given resource.
      *
-     * @param value the value to validate
-     * @throws IllegalArgumentException if any method is invalid
+     * @param resource the resource
+     * @return the permission, or {@code null} if the resource is not granted
      */
-    private void validateHttpMethods(Object value) {
-        if (!(value instanceof Map)) {
-            return;
-        }
-        Map<?, ?> valueMap = (Map<?, ?>) value;
-        if (!valueMap.containsKey("methods")) {
-            return;
-        }
-        List<?> methods = (List<?>) valueMap.get("methods");
-        for (Object method : methods) {
-            validateSingleMethod(method);
+    public ResourcePermission permission(Resource resource) {
+        return permissions[resource.ordinal()];
+    }
+
+
+    /**
+     * Returns the resources granted by this token.
+     *
+     * @return a new set of granted resources
+     */
+    public Set<Resource> resources() {
+        Set<Resource> resources = EnumSet.noneOf(Resource.class);
+        for (Resource resource : RESOURCES) {
+            if (permissions[resource.ordinal()] != null) {
+                resources.add(resource);
+            }
         }
+        return resources;
     }
 
-    
 
     /**
-     * Validates a single HTTP method string.
+     * Returns whether the token grants no resource at all.
      *
-     * @param method the method to validate
-     * @throws IllegalArgumentException if the method is not a valid {@link HttpMethod}
+     * @return {@code true} if empty
      */
-    private void validateSingleMethod(Object method) {
-        if (!(method instanceof String)) {
-            throw new IllegalArgumentException("HTTP method must be a string");
+    public boolean isEmpty() {
+        for (ResourcePermission permission : permissions) {
+            if (permission != null) {
+                return false;
+            }
         }
-        String methodName = ((String) method).toUpperCase();
-        try {
-            HttpMethod.valueOf(methodName);
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid HTTP method: " + method);
+        return true;
+    }
+
+
+
+    /**
+     * Converts the token to the legacy ACL table used by {@code CompressedAclService}
+     * and the map-based {@code ACLManager} methods.
+     *
+     * @return a mutable ACL table (resource path -> methods &amp; ids)
+     */
+    public Map<String, Map<String, Set<String>>> toAclTable() {
+        Map<String, Map<String, Set<String>>> table = new HashMap<>();
+        for (Resource resource : RESOURCES) {
+            ResourcePermission permission = permissions[resource.ordinal()];
+            if (permission != null) {
+                Map<String, Set<String>> entry = new HashMap<>();
+                entry.put(METHODS, MethodMask.toNames(permission.methodMask()));
+                entry.put(IDS, permission.ids().toStringSet());
+                table.put(resource.getPath(), entry);
+            }
         }
+        return table;
     }
 
-}
\ No newline at end of file
+
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof TokenInfo && Arrays.equals(permissions, ((TokenInfo) o).permissions));
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(permissions);
+    }
+
+
+    @Override
+    public String toString() {
+        return "TokenInfo" + toAclTable();
+    }
+
+
+
+    /**
+     * Builder for {@link TokenInfo}. Not thread-safe; the built instance is.
+     */
+    public static final class Builder {
+
+        private final ResourcePermission[] permissions = new ResourcePermission[RESOURCES.length];
+
+
+        private Builder() {}
+
+
+        /**
+         * Grants a resource, replacing any previous grant for it.
+         *
+         * @param resource   the resource
+         * @param methodMask the allowed methods
+         * @param ids        the allowed item IDs
+         * @return this builder
+         */
+        public Builder grant(Resource resource, int methodMask, IdSet ids) {
+            permissions[resource.ordinal()] = new ResourcePermission(methodMask, ids);
+            return this;
+        }
+
+
+        /**
+         * Grants a resource with an already compiled permission.
+         *
+         * @param resource   the resource
+         * @param permission the permission, or {@code null} to revoke the resource
+         * @return this builder
+         */
+        public Builder grant(Resource resource, ResourcePermission permission) {
+            permissions[resource.ordinal()] = permission;
+            return this;
+        }
+
+
+        /**
+         * Builds the immutable token information.
+         *
+         * @return the token information
+         */
+        public TokenInfo build() {
+            return new TokenInfo(permissions.clone());
+        }
+    }
+}
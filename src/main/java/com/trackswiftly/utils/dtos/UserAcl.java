@@ -0,0 +1,283 @@
+package com.trackswiftly.utils.dtos;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.trackswiftly.utils.base.utils.MethodMask;
+import com.trackswiftly.utils.enums.Resource;
+
+
+
+/**
+ * A user's ACL expressed as a shared role template plus a small per-user delta.
+ * <p>
+ * The template is an interned {@link TokenInfo} shared by every user with the
+ * same role (and tenant override); the delta only holds what is specific to the
+ * user, such as assigned vehicle IDs. For each resource:
+ * <ul>
+ *   <li>allowed methods are the template's methods plus the delta's;</li>
+ *   <li>if the template enforces IDs, allowed IDs are the template's plus the delta's;</li>
+ *   <li>if the template enforces no IDs, delta IDs <em>scope</em> the resource to those IDs,
+ *       which is how "drivers only see their assigned vehicles" is expressed.</li>
+ * </ul>
+ * Checks consult the template first and only touch the delta when needed.
+ */
+public final class UserAcl {
+
+
+    private static final Resource[] RESOURCES = Resource.values();
+
+    private static final ResourcePermission[] NO_DELTA = new ResourcePermission[RESOURCES.length];
+
+
+    private final TokenInfo template;
+
+    private final ResourcePermission[] delta;
+
+
+
+    private UserAcl(TokenInfo template, ResourcePermission[] delta) {
+        this.template = template;
+        this.delta = delta;
+    }
+
+
+
+    /**
+     * Creates a user ACL that is exactly the template.
+     *
+     * @param template the shared template
+     * @return the user ACL
+     */
+    public static UserAcl of(TokenInfo template) {
+        return new UserAcl(template, NO_DELTA);
+    }
+
+
+    /**
+     * Creates a builder over the given template.
+     *
+     * @param template the shared template
+     * @return a builder with an empty delta
+     */
+    public static Builder builder(TokenInfo template) {
+        return new Builder(template);
+    }
+
+
+
+    /**
+     * Expresses a full user ACL as the given template plus a delta.
+     *
+     * @param template the shared template
+     * @param full     the user's full ACL
+     * @return the user ACL, or {@code null} if {@code full} revokes something the template
+     *         grants and therefore cannot be expressed as an additive delta
+     */
+    public static UserAcl derive(TokenInfo template, TokenInfo full) {
+        Builder builder = builder(template);
+        for (Resource resource : RESOURCES) {
+            ResourcePermission base = template.permission(resource);
+            ResourcePermission target = full.permission(resource);
+            if (base == null) {
+                if (target != null) {
+                    builder.add(resource, target.methodMask(), target.ids());
+                }
+                continue;
+            }
+            if (target == null || (base.methodMask() & ~target.methodMask()) != 0) {
+                return null;
+            }
+            IdSet extraIds;
+            if (base.ids().isEmpty()) {
+                extraIds = target.ids();
+            } else if (target.ids().isEmpty() || !base.ids().minus(target.ids()).isEmpty()) {
+                return null;
+            } else {
+                extraIds = target.ids().minus(base.ids());
+            }
+            builder.add(resource, target.methodMask() & ~base.methodMask(), extraIds);
+        }
+        return builder.build();
+    }
+
+
+
+    /**
+     * Returns the shared template.
+     *
+     * @return the template
+     */
+    public TokenInfo template() {
+        return template;
+    }
+
+
+    /**
+     * Returns the per-user delta of a resource.
+     *
+     * @param resource the resource
+     * @return the delta, or {@code null} if the user has none for this resource
+     */
+    public ResourcePermission delta(Resource resource) {
+        return delta[resource.ordinal()];
+    }
+
+
+    /**
+     * Returns whether the user has no delta at all.
+     *
+     * @return {@code true} if the user ACL is exactly the template
+     */
+    public boolean hasNoDelta() {
+        return delta == NO_DELTA;
+    }
+
+
+
+    /**
+     * Checks whether a request with the given method and item IDs is allowed on a resource.
+     *
+     * @param resource the resource
+     * @param method   the method name
+     * @param itemIds  the IDs being accessed
+     * @return {@code true} if allowed
+     */
+    public boolean allows(Resource resource, String method, Collection<String> itemIds) {
+        ResourcePermission base = template.permission(resource);
+        ResourcePermission extra = delta[resource.ordinal()];
+        if (base == null && extra == null) {
+            return false;
+        }
+        int methods = (base == null ? MethodMask.NONE : base.methodMask()) | (extra == null ? MethodMask.NONE : extra.methodMask());
+        if (!MethodMask.contains(methods, method)) {
+            return false;
+        }
+        IdSet baseIds = base == null ? IdSet.EMPTY : base.ids();
+        IdSet extraIds = extra == null ? IdSet.EMPTY : extra.ids();
+        if (extraIds.isEmpty()) {
+            return baseIds.isEmpty() || baseIds.containsAll(itemIds);
+        }
+        for (String id : itemIds) {
+            if (!baseIds.contains(id) && !extraIds.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+    /**
+     * Materializes the effective ACL as a standalone token.
+     *
+     * @return the effective token information
+     */
+    public TokenInfo toTokenInfo() {
+        if (hasNoDelta()) {
+            return template;
+        }
+        TokenInfo.Builder builder = template.toBuilder();
+        for (Resource resource : RESOURCES) {
+            ResourcePermission extra = delta[resource.ordinal()];
+            if (extra == null) {
+                continue;
+            }
+            ResourcePermission base = template.permission(resource);
+            if (base == null) {
+                builder.grant(resource, extra);
+            } else {
+                builder.grant(resource, base.methodMask() | extra.methodMask(), base.ids().union(extra.ids()));
+            }
+        }
+        return builder.build();
+    }
+
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UserAcl)) {
+            return false;
+        }
+        UserAcl other = (UserAcl) o;
+        return template.equals(other.template) && Arrays.equals(delta, other.delta);
+    }
+
+
+    @Override
+    public int hashCode() {
+        return 31 * template.hashCode() + Arrays.hashCode(delta);
+    }
+
+
+
+    /**
+     * Builder for {@link UserAcl}. Not thread-safe; the built instance is.
+     */
+    public static final class Builder {
+
+        private final TokenInfo template;
+
+        private final ResourcePermission[] delta = new ResourcePermission[RESOURCES.length];
+
+
+        private Builder(TokenInfo template) {
+            this.template = template;
+        }
+
+
+        /**
+         * Adds methods and IDs for a resource on top of the template, merging with any previous delta.
+         *
+         * @param resource   the resource
+         * @param methodMask the extra methods
+         * @param ids        the extra (or scoping) IDs
+         * @return this builder
+         */
+        public Builder add(Resource resource, int methodMask, IdSet ids) {
+            ResourcePermission previous = delta[resource.ordinal()];
+            if (previous != null) {
+                methodMask |= previous.methodMask();
+                ids = previous.ids().union(ids == null ? IdSet.EMPTY : ids);
+            }
+            delta[resource.ordinal()] = new ResourcePermission(methodMask, ids);
+            return this;
+        }
+
+
+        /**
+         * Adds IDs for a resource, e.g. the vehicles assigned to a driver.
+         *
+         * @param resource the resource
+         * @param ids      the IDs
+         * @return this builder
+         */
+        public Builder addIds(Resource resource, IdSet ids) {
+            return add(resource, MethodMask.NONE, ids);
+        }
+
+
+        /**
+         * Builds the user ACL. Resources whose delta adds nothing are dropped, and a user
+         * without any delta shares the same empty delta as every other such user.
+         *
+         * @return the user ACL
+         */
+        public UserAcl build() {
+            boolean any = false;
+            for (int i = 0; i < delta.length; i++) {
+                ResourcePermission extra = delta[i];
+                if (extra != null && extra.methodMask() == MethodMask.NONE && extra.ids().isEmpty()
+                        && template.permission(RESOURCES[i]) != null) {
+                    delta[i] = null;
+                }
+                any |= delta[i] != null;
+            }
+            return new UserAcl(template, any ? delta.clone() : NO_DELTA);
+        }
+    }
+}
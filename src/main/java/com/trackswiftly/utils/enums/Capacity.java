@@ -1,6 +1,12 @@
 package com.trackswiftly.utils.enums;
 
+import java.util.Arrays;
+
+import com.trackswiftly.utils.base.capacity.CapacityDimensions;
+import com.trackswiftly.utils.base.capacity.CustomCapacityConverter;
+
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,7 +19,8 @@ import lombok.NoArgsConstructor;
  * Represents the physical capacity constraints of a vehicle or container.
  *
  * <p>This embeddable entity can be used in JPA entities to define
- * weight, volume, and item count limits.
+ * weight, volume, and item count limits, plus any {@link CapacityType#CUSTOM}
+ * dimensions declared in {@link CapacityDimensions}.
  */
 @Embeddable
 @Data
@@ -43,4 +50,202 @@ public class Capacity {
      */
     private Integer maxPallets;
 
+    /**
+     * Values of custom dimensions, indexed by {@link CapacityDimensions} index;
+     * {@code NaN} (or an index past the end) means unset.
+     */
+    @Convert(converter = CustomCapacityConverter.class)
+    @Column(name = "custom_capacities")
+    private double[] custom;
+
+
+
+    /**
+     * Creates a capacity with built-in dimensions only.
+     *
+     * @param maxWeightKg the maximum weight in kilograms
+     * @param maxVolumeM3 the maximum volume in cubic meters
+     * @param maxBoxes    the maximum number of boxes
+     * @param maxPallets  the maximum number of pallets
+     */
+    public Capacity(Double maxWeightKg, Double maxVolumeM3, Integer maxBoxes, Integer maxPallets) {
+        this(maxWeightKg, maxVolumeM3, maxBoxes, maxPallets, null);
+    }
+
+
+
+    /**
+     * Returns the value of a custom dimension.
+     *
+     * @param index the dimension index in {@link CapacityDimensions}
+     * @return the value, or {@code NaN} if unset
+     */
+    public double getCustom(int index) {
+        return custom == null || index < 0 || index >= custom.length ? Double.NaN : custom[index];
+    }
+
+
+    /**
+     * Returns the value of a custom dimension declared in the global {@link CapacityDimensions}.
+     *
+     * @param name the dimension name
+     * @return the value, or {@code NaN} if unset or undeclared
+     */
+    public double getCustom(String name) {
+        return getCustom(CapacityDimensions.global().indexOf(name));
+    }
+
+
+    /**
+     * Sets the value of a custom dimension declared in the global {@link CapacityDimensions}.
+     * Dimensions are declared once at startup, never as a side effect of this setter.
+     *
+     * @param name  the dimension name
+     * @param value the value, or {@code NaN} to unset it
+     * @throws IllegalArgumentException if the dimension is not declared
+     */
+    public void setCustom(String name, double value) {
+        int index = CapacityDimensions.global().indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Undeclared custom capacity dimension: " + name
+                + "; register it with CapacityDimensions.global() at startup");
+        }
+        if (custom == null || index >= custom.length) {
+            int previous = custom == null ? 0 : custom.length;
+            custom = custom == null ? new double[index + 1] : Arrays.copyOf(custom, index + 1);
+            Arrays.fill(custom, previous, custom.length, Double.NaN);
+        }
+        custom[index] = value;
+    }
+
+
+
+    /**
+     * Returns the value of a built-in dimension.
+     *
+     * @param type the dimension
+     * @return the value, or {@code null} if not set
+     * @throws IllegalArgumentException for {@link CapacityType#CUSTOM}, which has no built-in field
+     */
+    public Double getValue(CapacityType type) {
+        switch (type) {
+            case WEIGHT:
+                return maxWeightKg;
+            case VOLUME:
+                return maxVolumeM3;
+            case BOX_COUNT:
+                return maxBoxes == null ? null : maxBoxes.doubleValue();
+            case PALLETS:
+                return maxPallets == null ? null : maxPallets.doubleValue();
+            default:
+                throw new IllegalArgumentException("No built-in field for capacity type " + type);
+        }
+    }
+
+
+    /**
+     * Checks whether a load, expressed as a {@code Capacity}, fits within this capacity.
+     * Unset limits are treated as unlimited and unset load values as zero.
+     *
+     * @param load the load to check
+     * @return {@code true} if every built-in dimension of the load fits
+     */
+    public boolean fits(Capacity load) {
+        return fits(maxWeightKg, load.maxWeightKg)
+            && fits(maxVolumeM3, load.maxVolumeM3)
+            && fits(maxBoxes == null ? null : maxBoxes.doubleValue(), load.maxBoxes == null ? null : load.maxBoxes.doubleValue())
+            && fits(maxPallets == null ? null : maxPallets.doubleValue(), load.maxPallets == null ? null : load.maxPallets.doubleValue())
+            && fitsCustom(load.custom);
+    }
+
+
+    private boolean fitsCustom(double[] loadCustom) {
+        if (loadCustom == null) {
+            return true;
+        }
+        for (int i = 0; i < loadCustom.length; i++) {
+            double limit = getCustom(i);
+            if (!Double.isNaN(limit) && !Double.isNaN(loadCustom[i]) && loadCustom[i] > limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private static boolean fits(Double limit, Double value) {
+        return limit == null || value == null || value <= limit;
+    }
+
+
+    /**
+     * Returns the sum of this capacity and another, dimension by dimension.
+     * A dimension is unset in the result only if it is unset in both operands.
+     *
+     * @param other the capacity to add
+     * @return a new capacity
+     */
+    public Capacity plus(Capacity other) {
+        return new Capacity(
+            combine(maxWeightKg, other.maxWeightKg, 1),
+            combine(maxVolumeM3, other.maxVolumeM3, 1),
+            combine(maxBoxes, other.maxBoxes, 1),
+            combine(maxPallets, other.maxPallets, 1),
+            combine(custom, other.custom, 1, false)
+        );
+    }
+
+
+    /**
+     * Returns this capacity minus another, dimension by dimension, e.g. the
+     * capacity left after loading. Unset dimensions of this capacity stay unset.
+     *
+     * @param other the capacity to subtract
+     * @return a new capacity
+     */
+    public Capacity minus(Capacity other) {
+        return new Capacity(
+            maxWeightKg == null ? null : combine(maxWeightKg, other.maxWeightKg, -1),
+            maxVolumeM3 == null ? null : combine(maxVolumeM3, other.maxVolumeM3, -1),
+            maxBoxes == null ? null : combine(maxBoxes, other.maxBoxes, -1),
+            maxPallets == null ? null : combine(maxPallets, other.maxPallets, -1),
+            combine(custom, other.custom, -1, true)
+        );
+    }
+
+
+    private static Double combine(Double left, Double right, int sign) {
+        if (left == null && right == null) {
+            return null;
+        }
+        return (left == null ? 0d : left) + sign * (right == null ? 0d : right);
+    }
+
+
+    private static double[] combine(double[] left, double[] right, int sign, boolean keepUnsetLeft) {
+        if (left == null && right == null) {
+            return null;
+        }
+        int length = Math.max(left == null ? 0 : left.length, right == null ? 0 : right.length);
+        double[] result = new double[length];
+        for (int i = 0; i < length; i++) {
+            double l = left == null || i >= left.length ? Double.NaN : left[i];
+            double r = right == null || i >= right.length ? Double.NaN : right[i];
+            if (Double.isNaN(l) && (keepUnsetLeft || Double.isNaN(r))) {
+                result[i] = Double.NaN;
+            } else {
+                result[i] = (Double.isNaN(l) ? 0d : l) + sign * (Double.isNaN(r) ? 0d : r);
+            }
+        }
+        return result;
+    }
+
+
+    private static Integer combine(Integer left, Integer right, int sign) {
+        if (left == null && right == null) {
+            return null;
+        }
+        return (left == null ? 0 : left) + sign * (right == null ? 0 : right);
+    }
+
 }
@@ -1,5 +1,7 @@
 package com.trackswiftly.utils.enums;
 
+import java.util.HashMap;
+import java.util.Map;
 
 
 
@@ -27,6 +29,14 @@ public enum Resource {
 
     private final String path;
 
+    private static final Map<String, Resource> BY_PATH = new HashMap<>();
+
+    static {
+        for (Resource resource : values()) {
+            BY_PATH.put(resource.path, resource);
+        }
+    }
+
 
     /**
      * Constructs a {@code Resource} with the specified path.
@@ -54,11 +64,17 @@ public enum Resource {
      * @return {@code true} if the path matches a defined resource; {@code false} otherwise
      */
     public static boolean isValidPath(String path) {
-        for (Resource resource : values()) {
-            if (resource.getPath().equals(path)) {
-                return true;
-            }
-        }
-        return false;
+        return BY_PATH.containsKey(path);
+    }
+
+
+    /**
+     * Returns the resource associated with the given path.
+     *
+     * @param path the resource path
+     * @return the matching resource, or {@code null} if the path is not defined
+     */
+    public static Resource fromPath(String path) {
+        return path == null ? null : BY_PATH.get(path);
     }
 }
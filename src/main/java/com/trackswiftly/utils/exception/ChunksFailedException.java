@@ -0,0 +1,45 @@
+package com.trackswiftly.utils.exception;
+
+import java.util.List;
+
+import lombok.Getter;
+
+
+
+/**
+ * Exception thrown when some chunks of a chunked operation failed while others
+ * succeeded.
+ * <p>
+ * The succeeded chunks are not rolled back, so callers use
+ * {@link #getProcessedIds()} to notify listeners or caches about the entities
+ * that were actually changed. The failures of the individual chunks are
+ * attached as suppressed exceptions.
+ */
+@Getter
+public class ChunksFailedException extends UnableToProccessIteamException {
+
+
+    private static final long serialVersionUID = 1L;
+
+
+    /** IDs of the chunks that succeeded; not serialized. */
+    private final transient List<?> processedIds;
+
+    /** Number of entities affected by the succeeded chunks. */
+    private final int affected;
+
+
+
+    /**
+     * Constructs a new exception.
+     *
+     * @param message      the detail message explaining the failure
+     * @param processedIds the IDs of the chunks that succeeded
+     * @param affected     the number of entities affected by the succeeded chunks
+     */
+    public ChunksFailedException(String message, List<?> processedIds, int affected) {
+        super(message);
+        this.processedIds = List.copyOf(processedIds);
+        this.affected = affected;
+    }
+}
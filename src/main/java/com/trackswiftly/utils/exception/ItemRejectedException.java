@@ -0,0 +1,57 @@
+package com.trackswiftly.utils.exception;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Getter;
+
+
+
+/**
+ * Stackless exception rejecting one item of a batch with an error code.
+ * <p>
+ * It captures no stack trace and records no suppressed exceptions, so throwing
+ * it per bad row of a large import costs about as much as a return. Instances
+ * are immutable; {@link #of(String)} returns a shared, preallocated instance
+ * per code for validators that reject many items for the same reason.
+ * {@link com.trackswiftly.utils.base.services.TrackSwiftlyServiceAbstract}
+ * collects them into {@link com.trackswiftly.utils.dtos.ItemErrors}.
+ */
+@Getter
+public class ItemRejectedException extends UnableToProccessIteamException {
+
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Map<String, ItemRejectedException> SHARED = new ConcurrentHashMap<>();
+
+
+    /** Machine-readable reason of the rejection. */
+    private final String code;
+
+
+
+    /**
+     * Constructs a new rejection.
+     *
+     * @param code the machine-readable reason of the rejection
+     * @param message the detail message explaining the rejection
+     */
+    public ItemRejectedException(String code, String message) {
+        super(message, false);
+        this.code = code;
+    }
+
+
+
+    /**
+     * Returns the shared rejection for a code, whose message is the code.
+     *
+     * @param code the machine-readable reason of the rejection
+     * @return the shared instance
+     */
+    public static ItemRejectedException of(String code) {
+        ItemRejectedException shared = SHARED.get(code);
+        return shared != null ? shared : SHARED.computeIfAbsent(code, key -> new ItemRejectedException(key, key));
+    }
+}
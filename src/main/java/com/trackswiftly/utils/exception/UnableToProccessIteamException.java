@@ -13,6 +13,9 @@ import lombok.Setter;
 public class UnableToProccessIteamException extends RuntimeException{
     
 
+    private static final long serialVersionUID = 1L;
+
+
     /**
      * Constructs a new exception with the specified detail message.
      *
@@ -21,5 +24,16 @@ public class UnableToProccessIteamException extends RuntimeException{
     public UnableToProccessIteamException(String message) {
         super(message);
     }
+
+
+    /**
+     * Constructs a new exception that optionally skips capturing its stack trace.
+     *
+     * @param message the detail message explaining the cause
+     * @param writableStackTrace whether the stack trace is captured and suppressed exceptions are recorded
+     */
+    protected UnableToProccessIteamException(String message, boolean writableStackTrace) {
+        super(message, null, writableStackTrace, writableStackTrace);
+    }
     
 }
@@ -2,6 +2,8 @@ package com.trackswiftly.utils.interfaces;
 
 import java.util.List;
 
+import com.trackswiftly.utils.dtos.Projection;
+
 /**
  * Base generic DAO interface for performing standard CRUD operations.
  *
@@ -45,6 +47,42 @@ public interface BaseDao <T, I>{
      * @return the paginated list of entities
      */
     List<T> findWithPagination(int page, int pageSize);
+
+
+    /**
+     * Finds entities by their IDs and returns only the projected attributes.
+     * <p>
+     * The default loads the full entities and projects them in memory; JPA
+     * implementations override it with
+     * {@link com.trackswiftly.utils.base.utils.JpaProjections#findByIds} so that
+     * only the projected columns are selected.
+     *
+     * @param <P> the type of the projected DTO
+     * @param ids the list of entity IDs to find
+     * @param projection the attributes to read and the DTO to build from them
+     * @return the list of projected DTOs
+     */
+    default <P> List<P> findByIds(List<I> ids, Projection<P> projection) {
+        return projection.fromAll(findByIds(ids));
+    }
+
+
+    /**
+     * Retrieves a page of entities and returns only the projected attributes.
+     * <p>
+     * The default loads the full entities and projects them in memory; JPA
+     * implementations override it with
+     * {@link com.trackswiftly.utils.base.utils.JpaProjections#findWithPagination}.
+     *
+     * @param <P> the type of the projected DTO
+     * @param page the page number (0-based)
+     * @param pageSize the number of entities per page
+     * @param projection the attributes to read and the DTO to build from them
+     * @return the paginated list of projected DTOs
+     */
+    default <P> List<P> findWithPagination(int page, int pageSize, Projection<P> projection) {
+        return projection.fromAll(findWithPagination(page, pageSize));
+    }
     
     
     /**
@@ -0,0 +1,40 @@
+package com.trackswiftly.utils.interfaces;
+
+import java.util.List;
+
+/**
+ * Listener notified by {@code TrackSwiftlyServiceAbstract} after entities change,
+ * used to keep derived structures (search indexes, caches, ...) up to date.
+ * <p>
+ * Listeners run on the calling thread after the operation succeeded and should
+ * not throw; every method defaults to a no-op.
+ *
+ * @param <T> the type of the entity identifier
+ * @param <O> the output DTO response type
+ */
+public interface EntityChangeListener <T , O>{
+
+
+    /**
+     * Called after entities have been created.
+     *
+     * @param created the output DTOs of the created entities
+     */
+    default void onCreated(List<O> created) {}
+
+
+    /**
+     * Called after entities have been updated.
+     *
+     * @param ids the identifiers of the updated entities
+     */
+    default void onUpdated(List<T> ids) {}
+
+
+    /**
+     * Called after entities have been deleted.
+     *
+     * @param ids the identifiers of the deleted entities
+     */
+    default void onDeleted(List<T> ids) {}
+}
@@ -0,0 +1,109 @@
+package com.trackswiftly.utils.interfaces;
+
+
+
+/**
+ * Minimal pull-parser abstraction over a JSON document.
+ * <p>
+ * Kept deliberately small so that it can be backed by the built-in
+ * {@code SimpleJsonPullParser} or adapted in a few lines to any streaming
+ * JSON library (e.g. Jackson's {@code JsonParser}) without this library
+ * depending on it.
+ */
+public interface JsonPullParser {
+
+
+    /**
+     * Tokens produced by a {@link JsonPullParser}.
+     */
+    enum Token {
+
+        /** Start of an object ({@code {}). */
+        START_OBJECT,
+
+        /** End of an object ({@code }}). */
+        END_OBJECT,
+
+        /** Start of an array ({@code [}). */
+        START_ARRAY,
+
+        /** End of an array ({@code ]}). */
+        END_ARRAY,
+
+        /** An object field name; its text is available through {@link JsonPullParser#text()}. */
+        FIELD_NAME,
+
+        /** A string value. */
+        VALUE_STRING,
+
+        /** A number value. */
+        VALUE_NUMBER,
+
+        /** A {@code true} or {@code false} value. */
+        VALUE_BOOLEAN,
+
+        /** A {@code null} value. */
+        VALUE_NULL,
+
+        /** No more input. */
+        END_OF_INPUT
+    }
+
+
+
+    /**
+     * Advances to the next token.
+     *
+     * @return the next token, or {@link Token#END_OF_INPUT} when the input is exhausted
+     * @throws IllegalArgumentException if the input is not valid JSON
+     */
+    Token next();
+
+
+    /**
+     * Returns the text of the current field name, string, number or boolean token.
+     *
+     * @return the current token text
+     */
+    String text();
+
+
+    /**
+     * Returns whether the current {@link Token#VALUE_NUMBER} is an integer that fits in a {@code long}.
+     *
+     * @return {@code true} if {@link #longValue()} can be used
+     */
+    boolean isIntegral();
+
+
+    /**
+     * Returns the value of the current integral {@link Token#VALUE_NUMBER} without allocating.
+     *
+     * @return the number value
+     * @throws IllegalStateException if the current token is not an integral number
+     */
+    long longValue();
+
+
+    /**
+     * Skips the value that starts with the given token, including all nested content.
+     *
+     * @param token the token that starts the value (already consumed)
+     */
+    default void skipValue(Token token) {
+        if (token != Token.START_OBJECT && token != Token.START_ARRAY) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            Token nested = next();
+            if (nested == Token.START_OBJECT || nested == Token.START_ARRAY) {
+                depth++;
+            } else if (nested == Token.END_OBJECT || nested == Token.END_ARRAY) {
+                depth--;
+            } else if (nested == Token.END_OF_INPUT) {
+                throw new IllegalArgumentException("Unexpected end of JSON input");
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.trackswiftly.utils.interfaces;
+
+import com.trackswiftly.utils.dtos.OperationStats;
+
+/**
+ * Receives the {@link OperationStats} of every bulk operation of a
+ * {@code TrackSwiftlyServiceAbstract}, e.g. to export them as timers and
+ * counters tagged by entity type.
+ * <p>
+ * The sink runs on the calling thread after the operation succeeded and should
+ * not block or throw. {@link #NOOP} is the default.
+ */
+@FunctionalInterface
+public interface OperationMetricsSink {
+
+
+    /** Sink discarding all statistics. */
+    OperationMetricsSink NOOP = (entityType, stats) -> {};
+
+
+    /**
+     * Called after a bulk operation succeeded.
+     *
+     * @param entityType the entity type of the service
+     * @param stats      the statistics of the operation
+     */
+    void record(String entityType, OperationStats stats);
+}
@@ -0,0 +1,30 @@
+package com.trackswiftly.utils.interfaces;
+
+import java.util.List;
+
+/**
+ * {@link BaseDao} whose entities can be tombstoned first and physically deleted later.
+ *
+ * @param <T> the type of the entity
+ * @param <I> the type of the entity's identifier
+ */
+public interface SoftDeleteDao <T, I> extends BaseDao<T, I> {
+
+    /**
+     * Marks entities as deleted without removing their rows, e.g. by setting a
+     * {@code deleted_at} column. Tombstoned entities must no longer be returned by reads.
+     *
+     * @param ids the list of entity IDs to tombstone
+     * @return the number of entities tombstoned
+     */
+    int markDeletedByIds(List<I> ids);
+
+
+    /**
+     * Finds IDs of tombstoned entities that are waiting to be purged.
+     *
+     * @param limit the maximum number of IDs to return
+     * @return the tombstoned IDs, at most {@code limit}
+     */
+    List<I> findDeletedIds(int limit);
+}
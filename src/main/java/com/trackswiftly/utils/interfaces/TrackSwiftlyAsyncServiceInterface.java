@@ -0,0 +1,81 @@
+package com.trackswiftly.utils.interfaces;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.trackswiftly.utils.dtos.OperationResult;
+import com.trackswiftly.utils.dtos.PageDTO;
+
+/**
+ * Asynchronous companion of {@link TrackSwiftlyServiceInterface}: the same
+ * operations, returning {@link CompletableFuture}s so that callers can fan
+ * out to several services and wait for the slowest one only.
+ *
+ * @param <T> the type of the entity identifier (e.g., Long)
+ * @param <I> the input DTO request type
+ * @param <O> the output DTO response type
+ */
+public interface TrackSwiftlyAsyncServiceInterface <T , I , O>{
+
+
+    /**
+     * Creates entities based on the given list of input requests.
+     *
+     * @param requests the list of input DTOs for creation
+     * @return a future of the output DTOs representing created entities
+     */
+    public CompletableFuture<List<O>> createEntities(List<I> requests);
+
+
+
+    /**
+     * Deletes entities with the given identifiers.
+     *
+     * @param ids the list of entity IDs to delete
+     * @return a future of the {@link OperationResult} of the delete operation
+     */
+    public CompletableFuture<OperationResult> deleteEntities(List<T> ids);
+
+
+
+    /**
+     * Finds entities by their identifiers.
+     *
+     * @param ids the list of entity IDs to find
+     * @return a future of the output DTOs representing found entities
+     */
+    public CompletableFuture<List<O>> findEntities(List<T> ids);
+
+
+
+    /**
+     * Retrieves a paginated list of entities.
+     *
+     * @param page the page number (0-based)
+     * @param pageSize the size of each page
+     * @return a future of the {@link PageDTO} with the entities and pagination metadata
+     */
+    public CompletableFuture<PageDTO<O>> pageEntities(int page, int pageSize);
+
+
+
+    /**
+     * Updates entities with the given IDs using the provided request data.
+     *
+     * @param ids the list of entity IDs to update
+     * @param request the update request DTO
+     * @return a future of the {@link OperationResult} of the update operation
+     */
+    public CompletableFuture<OperationResult> updateEntities(List<T> ids, I request);
+
+
+
+    /**
+     * Searches entities matching the given keyword.
+     *
+     * @param keyword the search keyword
+     * @return a future of the output DTOs matching the search criteria
+     */
+    public CompletableFuture<List<O>> search(String keyword);
+
+}
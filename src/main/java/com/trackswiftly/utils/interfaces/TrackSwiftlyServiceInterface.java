@@ -4,6 +4,7 @@ import java.util.List;
 
 import com.trackswiftly.utils.dtos.OperationResult;
 import com.trackswiftly.utils.dtos.PageDTO;
+import com.trackswiftly.utils.dtos.Projection;
 
 /**
  * Generic service interface for CRUD and search operations on entities.
@@ -57,6 +58,47 @@ public interface TrackSwiftlyServiceInterface <T , I , O>{
 
 
 
+    /**
+     * Finds entities by their identifiers and returns only the projected attributes.
+     * <p>
+     * The default projects the output DTOs of {@link #findEntities(List)} in
+     * memory; services override it to push the projection down to
+     * {@link BaseDao#findByIds(List, Projection)}, as
+     * {@code TrackSwiftlyServiceAbstract} does when it has a projection DAO.
+     *
+     * @param <P> the type of the projected DTO
+     * @param ids the list of entity IDs to find
+     * @param projection the attributes to read and the DTO to build from them
+     * @return a list of projected DTOs
+     */
+    public default <P> List<P> findEntities(List<T> ids, Projection<P> projection) {
+        return projection.fromAll(findEntities(ids));
+    }
+
+
+
+    /**
+     * Retrieves a paginated list of entities with only the projected attributes.
+     * <p>
+     * The default projects the content of {@link #pageEntities(int, int)} in
+     * memory; services override it to push the projection down to
+     * {@link BaseDao#findWithPagination(int, int, Projection)}, as
+     * {@code TrackSwiftlyServiceAbstract} does when it has a projection DAO.
+     *
+     * @param <P> the type of the projected DTO
+     * @param page the page number (0-based)
+     * @param pageSize the size of each page
+     * @param projection the attributes to read and the DTO to build from them
+     * @return a {@link PageDTO} containing the projected DTOs and pagination metadata
+     */
+    public default <P> PageDTO<P> pageEntities(int page, int pageSize, Projection<P> projection) {
+        PageDTO<O> full = pageEntities(page, pageSize);
+        return new PageDTO<>(projection.fromAll(full.getContent()), full.getPage(), full.getSize(),
+            full.getTotalElements(), full.getTotalPages());
+    }
+
+
+
     /**
      * Updates entities with the given IDs using the provided request data.
      *
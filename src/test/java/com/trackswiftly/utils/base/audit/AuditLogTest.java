@@ -0,0 +1,77 @@
+package com.trackswiftly.utils.base.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.trackswiftly.utils.enums.Resource;
+
+/**
+ * Unit tests for writing, rotating and reading back the audit log.
+ */
+public class AuditLogTest {
+
+    private static final String ODD_TENANT = "acme\\north\nline\rend";
+
+    @TempDir
+    Path dir;
+
+
+    @Test
+    public void decisionsSurviveRotationAndTenantEscaping() throws IOException {
+        try (AuditLog log = new AuditLog(dir, 64, 4, 100)) {
+            for (int i = 0; i < 10; i++) {
+                String tenant = i % 3 == 0 ? null : i % 3 == 1 ? "t1" : ODD_TENANT;
+                assertTrue(log.record(tenant, Resource.DEVICES, "GET", i % 2 == 0, List.of(String.valueOf(i))));
+            }
+        }
+
+        assertEquals(3, AuditLog.segments(dir).size());
+        assertEquals(3, Files.readAllLines(dir.resolve(AuditLog.TENANTS_FILE), StandardCharsets.UTF_8).size());
+
+        List<AccessDecision> decisions = new AuditLogReader(dir).query(0, Long.MAX_VALUE, decision -> true);
+        assertEquals(10, decisions.size());
+        for (int i = 0; i < 10; i++) {
+            AccessDecision decision = decisions.get(i);
+            assertEquals(i % 3 == 0 ? null : i % 3 == 1 ? "t1" : ODD_TENANT, decision.tenantId(), "record " + i);
+            assertEquals(Resource.DEVICES, decision.resource());
+            assertEquals("GET", decision.method());
+            assertEquals(i % 2 == 0, decision.allowed());
+            assertEquals(AuditLog.idHash(List.of(String.valueOf(i))), decision.idHash());
+        }
+    }
+
+
+    @Test
+    public void reopenedLogReusesEscapedTenantsAndEnforcesRetention() throws IOException {
+        try (AuditLog log = new AuditLog(dir, 64, 4, 2)) {
+            log.record(ODD_TENANT, Resource.POIS, "DELETE", false, List.of());
+        }
+        try (AuditLog log = new AuditLog(dir, 64, 4, 2)) {
+            for (int i = 0; i < 8; i++) {
+                log.record(ODD_TENANT, Resource.POIS, "subscribe", true, List.of("x"));
+            }
+            log.record(null, null, "unknown", true, null);
+        }
+
+        assertEquals(2, Files.readAllLines(dir.resolve(AuditLog.TENANTS_FILE), StandardCharsets.UTF_8).size());
+        List<AccessDecision> decisions = new AuditLogReader(dir).query(0, Long.MAX_VALUE, decision -> true);
+        assertEquals(5, decisions.size());
+        assertTrue(decisions.subList(0, 4).stream().allMatch(d -> ODD_TENANT.equals(d.tenantId()) && "subscribe".equals(d.method())));
+        AccessDecision last = decisions.get(4);
+        assertNull(last.tenantId());
+        assertNull(last.resource());
+        assertNull(last.method());
+        assertEquals(0L, last.idHash());
+        assertTrue(new AuditLogReader(dir).query(0, 1, decision -> true).isEmpty());
+    }
+}
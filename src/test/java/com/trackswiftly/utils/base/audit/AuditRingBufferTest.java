@@ -0,0 +1,96 @@
+package com.trackswiftly.utils.base.audit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the multi-producer audit ring.
+ */
+public class AuditRingBufferTest {
+
+    private static final int PRODUCERS = 4;
+
+    private static final int RECORDS_PER_PRODUCER = 50_000;
+
+
+    @Test
+    public void concurrentOffersAreDrainedOnceInProducerOrder() throws InterruptedException {
+        AuditRingBuffer ring = new AuditRingBuffer(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+        int[] accepted = new int[PRODUCERS];
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < RECORDS_PER_PRODUCER; i++) {
+                    if (ring.offer(producer, i, producer * 31L + i)) {
+                        accepted[producer]++;
+                    }
+                }
+                finished.incrementAndGet();
+            });
+            thread.start();
+            producers.add(thread);
+        }
+
+        int[] received = new int[PRODUCERS];
+        long[] lastSequence = {-1, -1, -1, -1};
+        boolean[] ordered = {true};
+        AuditRingBuffer.Sink sink = (producer, sequence, check) -> {
+            int p = (int) producer;
+            ordered[0] &= sequence > lastSequence[p] && check == producer * 31L + sequence;
+            lastSequence[p] = sequence;
+            received[p]++;
+        };
+        start.countDown();
+        while (finished.get() < PRODUCERS) {
+            ring.drain(sink, 256);
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        while (ring.drain(sink, 256) > 0) {
+            // Drain what was published after the last producer finished.
+        }
+
+        assertTrue(ordered[0], "records out of order or torn");
+        assertArrayEquals(accepted, received);
+        int total = 0;
+        for (int count : received) {
+            total += count;
+        }
+        assertEquals(PRODUCERS * RECORDS_PER_PRODUCER, total + ring.dropped());
+    }
+
+
+    @Test
+    public void fullRingDropsInsteadOfOverwriting() {
+        AuditRingBuffer ring = new AuditRingBuffer(3);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i, 0, 0));
+        }
+        assertFalse(ring.offer(4, 0, 0));
+        assertEquals(1, ring.dropped());
+
+        List<Long> drained = new ArrayList<>();
+        assertEquals(4, ring.drain((first, second, third) -> drained.add(first), 10));
+        assertEquals(List.of(0L, 1L, 2L, 3L), drained);
+        assertTrue(ring.offer(5, 0, 0));
+    }
+}
@@ -0,0 +1,49 @@
+package com.trackswiftly.utils.base.capacity;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.trackswiftly.utils.enums.Capacity;
+
+/**
+ * Unit tests for the load assignment solver.
+ */
+public class LoadAssignmentSolverTest {
+
+
+    @Test
+    public void solverAndFittingVehiclesAgreeOnOverloadedUnusedDimensions() {
+        CapacityTable fleet = new CapacityTable();
+        int row = fleet.put(7L, new Capacity(100d, 10d, null, null));
+        fleet.addLoad(row, fleet.loadVector(new Capacity(90d, 0d, null, null)));
+        fleet.put(7L, new Capacity(50d, 10d, null, null));
+        double[] volumeOnly = fleet.loadVector(new Capacity(0d, 2d, null, null));
+
+        SolverOptions options = SolverOptions.builder().timeBudget(Duration.ofMillis(20)).parallelism(1).build();
+        LoadAssignment assignment = new LoadAssignmentSolver().solve(fleet, new double[][] { volumeOnly }, options);
+
+        assertArrayEquals(new long[] { 7L }, fleet.fittingVehicleIds(volumeOnly));
+        assertEquals(1, assignment.assignedCount());
+        assertEquals(7L, assignment.vehicleIds()[0]);
+    }
+
+
+    @Test
+    public void solverAndFittingVehiclesAgreeOnOverloadedUsedDimensions() {
+        CapacityTable fleet = new CapacityTable();
+        int row = fleet.put(7L, new Capacity(100d, 10d, null, null));
+        fleet.addLoad(row, fleet.loadVector(new Capacity(90d, 0d, null, null)));
+        fleet.put(7L, new Capacity(50d, 10d, null, null));
+        double[] heavy = fleet.loadVector(new Capacity(1d, 2d, null, null));
+
+        LoadAssignment assignment = new LoadAssignmentSolver().solve(fleet, new double[][] { heavy },
+            SolverOptions.builder().improve(false).build());
+
+        assertArrayEquals(new long[0], fleet.fittingVehicleIds(heavy));
+        assertEquals(0, assignment.assignedCount());
+    }
+}
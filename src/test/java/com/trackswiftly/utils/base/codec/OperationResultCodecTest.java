@@ -0,0 +1,58 @@
+package com.trackswiftly.utils.base.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.trackswiftly.utils.dtos.ItemErrors;
+import com.trackswiftly.utils.dtos.OperationResult;
+import com.trackswiftly.utils.dtos.OperationStats;
+import com.trackswiftly.utils.dtos.PageDTO;
+
+/**
+ * Unit tests for the operation result codec.
+ */
+public class OperationResultCodecTest {
+
+    @Test
+    public void resultWithErrorsAndStatsRoundTrips() {
+        ItemErrors errors = new ItemErrors();
+        errors.reject(3, "DUPLICATE");
+        errors.reject(70_000, "TOO_LONG");
+        OperationResult result = new OperationResult(-2, "Créé 5 de 7", errors,
+            new OperationStats("create", 7, 5, 1_234_567L, 89_000_000_000L, 2, 1));
+
+        assertEquals(result, OperationResultCodec.decode(OperationResultCodec.toBytes(result)));
+    }
+
+
+    @Test
+    public void minimalResultRoundTrips() {
+        OperationResult result = new OperationResult(0, null);
+
+        OperationResult decoded = OperationResultCodec.decode(OperationResultCodec.toBytes(result));
+
+        assertEquals(result, decoded);
+        assertEquals(OperationStats.none(), decoded.stats());
+        assertEquals(0, decoded.errors().size());
+    }
+
+
+    @Test
+    public void resultsFollowPagesInOneInput() {
+        PageCodec<Long> pages = new PageCodec<>(ElementCodec.LONG);
+        CodecOutput out = new CodecOutput();
+        OperationResult result = new OperationResult(4, "ok");
+        pages.encode(new PageDTO<>(List.of(-1L, 2L), 0, 2, 2, 1), out);
+        OperationResultCodec.encode(result, out);
+        CodecInput in = new CodecInput(out.toByteArray());
+
+        pages.decode(in);
+
+        assertEquals(result, OperationResultCodec.decode(in));
+        assertThrows(IllegalArgumentException.class, () -> OperationResultCodec.decode(new byte[] { 'P', 1 }));
+    }
+}
@@ -0,0 +1,115 @@
+package com.trackswiftly.utils.base.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.trackswiftly.utils.dtos.PageDTO;
+
+/**
+ * Unit tests for the page codec and its lazily decoded content.
+ */
+public class PageCodecTest {
+
+    private static final PageCodec<String> CODEC = new PageCodec<>(ElementCodec.STRING);
+
+
+    private static PageDTO<String> page(List<String> content, int page) {
+        return new PageDTO<>(content, page, 20, 123_456_789_012L, 6_173);
+    }
+
+
+    @Test
+    public void pageWithNullElementsRoundTrips() {
+        PageDTO<String> original = page(Arrays.asList("a", null, "", "üñí", null), 3);
+
+        PageDTO<String> decoded = CODEC.decode(CODEC.toBytes(original));
+
+        assertEquals(original, decoded);
+        assertEquals(original.getContent(), new ArrayList<>(decoded.getContent()));
+    }
+
+
+    @Test
+    public void emptyContentAndNegativeMetadataRoundTrip() {
+        assertEquals(page(List.of(), -1), CODEC.decode(CODEC.toBytes(page(List.of(), -1))));
+        assertEquals(page(List.of(), 0), CODEC.decode(CODEC.toBytes(page(null, 0))));
+
+        PageDTO<String> negative = new PageDTO<>(List.of("x"), Integer.MIN_VALUE, -5, -1L, -7);
+        assertEquals(negative, CODEC.decode(CODEC.toBytes(negative)));
+    }
+
+
+    @Test
+    public void elementsAreDecodedOnAccessAndListIsReadOnly() {
+        List<String> content = CODEC.decode(CODEC.toBytes(page(List.of("a", "b", "c"), 0))).getContent();
+
+        assertEquals("c", content.get(2));
+        assertEquals("a", content.get(0));
+        assertEquals("c", content.get(2));
+        assertThrows(UnsupportedOperationException.class, () -> content.set(0, "z"));
+        assertThrows(IndexOutOfBoundsException.class, () -> content.get(3));
+    }
+
+
+    @Test
+    public void decodedPageSerializesAsPlainList() throws IOException, ClassNotFoundException {
+        PageDTO<String> decoded = CODEC.decode(CODEC.toBytes(page(Arrays.asList("a", null, "c"), 1)));
+        decoded.getContent().get(0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(decoded);
+        }
+        Object copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = in.readObject();
+        }
+
+        PageDTO<?> page = assertInstanceOf(PageDTO.class, copy);
+        assertInstanceOf(ArrayList.class, page.getContent());
+        assertEquals(decoded, page);
+    }
+
+
+    @Test
+    public void bufferAtNonZeroPositionIsDecodedFromItsPosition() {
+        byte[] encoded = CODEC.toBytes(page(List.of("first", "second"), 2));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length + 7);
+        buffer.put(new byte[] { 'P', 1, 9, 9, 9, 9, 9 }).put(encoded).flip().position(7);
+
+        PageDTO<String> decoded = CODEC.decode(buffer);
+
+        assertEquals(7, buffer.position());
+        assertEquals(List.of("first", "second"), new ArrayList<>(decoded.getContent()));
+        assertEquals(2, decoded.getPage());
+    }
+
+
+    @Test
+    public void consecutivePagesDecodeFromOneInput() {
+        CodecOutput out = new CodecOutput();
+        CODEC.encode(page(List.of("a"), 0), out);
+        CODEC.encode(page(List.of("b", "c"), 1), out);
+        CodecInput in = new CodecInput(out.toByteArray());
+
+        PageDTO<String> first = CODEC.decode(in);
+        PageDTO<String> second = CODEC.decode(in);
+
+        assertEquals(List.of("b", "c"), new ArrayList<>(second.getContent()));
+        assertEquals(List.of("a"), new ArrayList<>(first.getContent()));
+        assertThrows(IllegalArgumentException.class, () -> CODEC.decode(new byte[] { 'R', 1 }));
+    }
+}
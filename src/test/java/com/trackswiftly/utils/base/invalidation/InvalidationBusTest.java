@@ -0,0 +1,73 @@
+package com.trackswiftly.utils.base.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for batching and sending invalidations.
+ */
+public class InvalidationBusTest {
+
+    /** Transport whose sends block until released, recording every batch. */
+    private static final class BlockingTransport implements InvalidationTransport {
+
+        final BlockingQueue<List<InvalidationEvent>> sent = new LinkedBlockingQueue<>();
+        final CountDownLatch release = new CountDownLatch(1);
+
+
+        @Override
+        public void send(List<InvalidationEvent> batch) {
+            sent.add(batch);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+
+        @Override
+        public void subscribe(Consumer<List<InvalidationEvent>> receiver) {}
+    }
+
+
+    @Test
+    public void fullBatchWakesFlusherWithoutBlockingPublisher() throws InterruptedException {
+        BlockingTransport transport = new BlockingTransport();
+        try (InvalidationBus bus = new InvalidationBus("n1", transport, Duration.ofHours(1), 2)) {
+            bus.publish("t1", "devices", List.of(1L, 2L));
+
+            List<InvalidationEvent> first = transport.sent.poll(5, TimeUnit.SECONDS);
+            assertEquals(List.of("1", "2"), first.get(0).ids().stream().sorted().toList());
+
+            // The flusher is stuck in the transport; publishing a full batch must still return.
+            long start = System.nanoTime();
+            bus.publish("t1", "devices", List.of(3L, 4L));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+            transport.release.countDown();
+            List<InvalidationEvent> second = transport.sent.poll(5, TimeUnit.SECONDS);
+            assertEquals(List.of("3", "4"), second.get(0).ids().stream().sorted().toList());
+            assertEquals(first.get(0).version() + 1, second.get(0).version());
+        }
+    }
+
+
+    @Test
+    public void nonPositiveBatchSizeIsRejected() {
+        BlockingTransport transport = new BlockingTransport();
+
+        assertThrows(IllegalArgumentException.class, () -> new InvalidationBus("n1", transport, Duration.ofSeconds(1), 0));
+    }
+}
@@ -0,0 +1,148 @@
+package com.trackswiftly.utils.base.mqtt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.trackswiftly.utils.base.services.LiveAcl;
+import com.trackswiftly.utils.base.utils.MethodMask;
+import com.trackswiftly.utils.dtos.IdSet;
+import com.trackswiftly.utils.dtos.TokenInfo;
+import com.trackswiftly.utils.enums.Resource;
+
+/**
+ * Unit tests for MQTT topic rules and the authorizer built on them.
+ */
+public class TopicTrieTest {
+
+    private static final TopicTrie RULES = TopicTrie.builder()
+        .allow("devices/{id}/telemetry", MethodMask.PUBLISH)
+        .allow("devices/{id}/#", MethodMask.SUBSCRIBE)
+        .allow("fleet/+/status", MethodMask.PUBLISH, MethodMask.SUBSCRIBE)
+        .allow("public/#", MethodMask.SUBSCRIBE)
+        .build();
+
+    private static final TopicTrie OPEN_RULES = TopicTrie.builder()
+        .allow("#", MethodMask.PUBLISH, MethodMask.SUBSCRIBE)
+        .allow("+/status", MethodMask.SUBSCRIBE)
+        .allow("$SYS/broker/uptime", MethodMask.SUBSCRIBE)
+        .build();
+
+    private static final IdSet DEVICE_7 = IdSet.of(List.of("7"));
+
+
+    @ParameterizedTest
+    @CsvSource({
+        "devices/7/telemetry,       true",
+        "devices/8/telemetry,       false",
+        "devices/7/telemetry/extra, false",
+        "devices/7,                 false",
+        "fleet/truck-1/status,      true",
+        "fleet/status,              false",
+        "fleet/truck-1/gps/status,  false",
+        "public/news,               false",
+        "devices/+/telemetry,       false",
+        "'',                        false",
+    })
+    public void publishHonoursWildcardsAndIdPlaceholder(String topic, boolean allowed) {
+        assertEquals(allowed, RULES.canPublish(topic, MethodMask.ALL, DEVICE_7), topic);
+    }
+
+
+    @ParameterizedTest
+    @CsvSource({
+        "devices/7/#,               true",
+        "devices/7/telemetry,       true",
+        "devices/7,                 true",
+        "devices/7/+/raw,           true",
+        "devices/8/#,               false",
+        "devices/+/telemetry,       false",
+        "devices/#,                 false",
+        "fleet/+/status,            true",
+        "fleet/truck-1/status,      true",
+        "fleet/#,                   false",
+        "fleet/+/+,                 false",
+        "public,                    true",
+        "public/#,                  true",
+        "public/a/b/c,              true",
+        "'#',                       false",
+        "public/#/more,             false",
+        "public/a+,                 false",
+    })
+    public void subscribeHonoursWildcardsAndIdPlaceholder(String filter, boolean allowed) {
+        assertEquals(allowed, RULES.canSubscribe(filter, MethodMask.ALL, DEVICE_7), filter);
+    }
+
+
+    @ParameterizedTest
+    @CsvSource({
+        "devices/8/telemetry, true,  true",
+        "devices/+/telemetry, false, true",
+        "devices/#,           false, false",
+    })
+    public void idPlaceholderActsAsSingleLevelWithoutIds(String topicOrFilter, boolean publish, boolean subscribe) {
+        if (TopicTrie.isValidTopic(topicOrFilter)) {
+            assertEquals(publish, RULES.canPublish(topicOrFilter, MethodMask.ALL, IdSet.EMPTY), topicOrFilter);
+        }
+        assertEquals(subscribe, RULES.canSubscribe(topicOrFilter, MethodMask.ALL, IdSet.EMPTY), topicOrFilter);
+    }
+
+
+    @ParameterizedTest
+    @CsvSource({
+        "$SYS/broker/uptime,  false, true",
+        "$SYS/broker/load,    false, false",
+        "$SYS/#,              false, false",
+        "$share/status,       false, false",
+        "truck/status,        true,  true",
+        "a/b/c,               true,  true",
+    })
+    public void wildcardsAtFirstLevelSkipDollarTopics(String topicOrFilter, boolean publish, boolean subscribe) {
+        if (TopicTrie.isValidTopic(topicOrFilter)) {
+            assertEquals(publish, OPEN_RULES.canPublish(topicOrFilter, MethodMask.ALL, IdSet.EMPTY), topicOrFilter);
+        }
+        assertEquals(subscribe, OPEN_RULES.canSubscribe(topicOrFilter, MethodMask.ALL, IdSet.EMPTY), topicOrFilter);
+    }
+
+
+    @Test
+    public void methodMaskLimitsRules() {
+        int subscribeOnly = MethodMask.of(MethodMask.SUBSCRIBE);
+
+        assertFalse(RULES.canPublish("fleet/truck-1/status", subscribeOnly, DEVICE_7));
+        assertTrue(RULES.canSubscribe("fleet/truck-1/status", subscribeOnly, DEVICE_7));
+        assertFalse(RULES.canSubscribe("fleet/truck-1/status", MethodMask.NONE, DEVICE_7));
+    }
+
+
+    @Test
+    public void authorizerFollowsSessionLifecycleAndAclChanges() {
+        MqttAuthorizer authorizer = new MqttAuthorizer(RULES);
+        LiveAcl acl = new LiveAcl(TokenInfo.builder().grant(Resource.MQTT, MethodMask.ALL, DEVICE_7).build());
+        authorizer.connect("c1", acl);
+
+        assertTrue(authorizer.canPublish("c1", "devices/7/telemetry"));
+        assertTrue(authorizer.canSubscribe("c1", "devices/7/#"));
+        assertFalse(authorizer.canPublish("c2", "devices/7/telemetry"));
+
+        acl.replace(TokenInfo.builder().grant(Resource.MQTT, MethodMask.ALL, IdSet.of(List.of("8"))).build());
+        assertFalse(authorizer.canPublish("c1", "devices/7/telemetry"));
+        assertFalse(authorizer.canSubscribe("c1", "devices/7/#"));
+        assertTrue(authorizer.canSubscribe("c1", "devices/8/#"));
+
+        acl.replace(TokenInfo.EMPTY);
+        assertFalse(authorizer.canSubscribe("c1", "fleet/+/status"));
+
+        authorizer.disconnect("c1");
+        assertNull(authorizer.session("c1"));
+        assertEquals(0, authorizer.connectionCount());
+        assertFalse(authorizer.canSubscribe("c1", "public/#"));
+    }
+}
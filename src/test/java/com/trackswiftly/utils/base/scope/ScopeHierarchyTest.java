@@ -0,0 +1,92 @@
+package com.trackswiftly.utils.base.scope;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for scope checks and the query filters derived from them.
+ */
+public class ScopeHierarchyTest {
+
+    private static final ScopeHierarchy HIERARCHY = ScopeHierarchy.builder("t1")
+        .department("ops", null)
+        .department("ops-north", "ops")
+        .department("sales", null)
+        .user("manager", "ops")
+        .user("driver", "ops-north")
+        .user("seller", "sales")
+        .user("owner", null)
+        .build();
+
+    private static final ScopePrincipal MANAGER = new ScopePrincipal("t1", "ops", "manager", ScopeLevel.DEPARTMENT);
+
+
+    private record Row(String department, String user) {}
+
+
+    @Test
+    public void rowWithoutDepartmentIsScopedByItsUser() {
+        ScopeFilter filter = HIERARCHY.filter(MANAGER);
+        Predicate<Row> predicate = filter.toPredicate(Row::department, Row::user);
+
+        assertTrue(HIERARCHY.isWithinScope(MANAGER, null, "driver"));
+        assertTrue(predicate.test(new Row(null, "driver")));
+        assertFalse(HIERARCHY.isWithinScope(MANAGER, null, "seller"));
+        assertFalse(predicate.test(new Row(null, "seller")));
+        assertEquals(
+            "(e.dept in :scopeDepartments or (e.dept is null and u.department in :scopeDepartments))",
+            filter.jpql("e", "dept", "user", "u.department"));
+    }
+
+
+    @Test
+    public void departmentFiltersAreCached() {
+        ScopeFilter filter = HIERARCHY.filter(MANAGER);
+
+        assertSame(filter, HIERARCHY.filter(new ScopePrincipal("t1", "ops", "driver", ScopeLevel.DEPARTMENT)));
+        assertEquals(List.of("ops", "ops-north"), List.copyOf(filter.departmentIds()));
+        assertEquals("e.user = :scopeUser",
+            HIERARCHY.filter(new ScopePrincipal("t1", null, "driver", ScopeLevel.USER)).jpql("e", "dept", "user", "u.department"));
+    }
+
+
+    @Test
+    public void predicateAgreesWithScopeCheckForEveryRow() {
+        List<String> departments = Arrays.asList(null, "ops", "ops-north", "sales", "unknown");
+        List<String> users = Arrays.asList(null, "manager", "driver", "seller", "owner", "stranger");
+        List<ScopePrincipal> principals = List.of(
+            MANAGER,
+            new ScopePrincipal("t1", "ops-north", "driver", ScopeLevel.DEPARTMENT),
+            new ScopePrincipal("t1", "unknown", "x", ScopeLevel.DEPARTMENT),
+            new ScopePrincipal("t1", null, "driver", ScopeLevel.USER),
+            new ScopePrincipal("t1", null, "owner", ScopeLevel.TENANT),
+            new ScopePrincipal("t2", "ops", "manager", ScopeLevel.TENANT));
+
+        for (ScopePrincipal principal : principals) {
+            Predicate<Row> predicate = HIERARCHY.filter(principal).toPredicate(Row::department, Row::user);
+            for (String department : departments) {
+                for (String user : users) {
+                    assertEquals(HIERARCHY.isWithinScope(principal, department, user), predicate.test(new Row(department, user)),
+                        principal + " on " + department + "/" + user);
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void emptyDepartmentScopeDeniesEverything() {
+        ScopeFilter filter = HIERARCHY.filter(new ScopePrincipal("t1", "unknown", "x", ScopeLevel.DEPARTMENT));
+
+        assertEquals("1 = 0", filter.jpql("e", "dept", "user", "u.department"));
+        assertEquals("1 = 0", HIERARCHY.filter(new ScopePrincipal("t2", "ops", "manager", ScopeLevel.TENANT)).jpql("e", "dept", "user", "u.department"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.trackswiftly.utils.base.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+
+/**
+ * Unit tests for prefix/trigram matching, ranking, compaction and re-indexing.
+ */
+public class SearchIndexTest {
+
+    private record Doc(long id, String name, String plate) {}
+
+
+    private static SearchIndex<Long, Doc> index(Doc... docs) {
+        SearchIndex<Long, Doc> index = new SearchIndex<>(Doc::id,
+            List.of(SearchField.of("name", Doc::name), new SearchField<>("plate", Doc::plate, 0.25f)));
+        index.indexAll(List.of(docs));
+        return index;
+    }
+
+
+    private static List<Long> ids(List<Doc> docs) {
+        return docs.stream().map(Doc::id).toList();
+    }
+
+
+    @AfterEach
+    public void clearTenant() {
+        TenantContext.clear();
+    }
+
+
+    @Test
+    public void shortQueriesMatchWordPrefixesOnly() {
+        SearchIndex<Long, Doc> index = index(new Doc(1, "Truck North", null), new Doc(2, "Atrium van", null));
+
+        assertEquals(List.of(1L), ids(index.search("t", 10)));
+        assertEquals(List.of(1L), ids(index.search("tr", 10)));
+        assertEquals(List.of(2L), ids(index.search("v", 10)));
+        assertEquals(List.of(), ids(index.search("x", 10)));
+    }
+
+
+    @Test
+    public void longerQueriesMatchSubstringsAndEveryWord() {
+        SearchIndex<Long, Doc> index = index(new Doc(1, "Truck North", null), new Doc(2, "Atrium van", null));
+
+        assertEquals(List.of(1L), ids(index.search("ruck", 10)));
+        assertEquals(List.of(2L), ids(index.search("tri", 10)));
+        assertEquals(List.of(1L), ids(index.search("truck nor", 10)));
+        assertEquals(List.of(), ids(index.search("truck van", 10)));
+        assertEquals(List.of(), ids(index.search("trucks", 10)));
+    }
+
+
+    @Test
+    public void accentsAndCaseAreIgnored() {
+        SearchIndex<Long, Doc> index = index(new Doc(1, "São Paulo Depot", null));
+
+        assertEquals(List.of(1L), ids(index.search("SAO pau", 10)));
+    }
+
+
+    @Test
+    public void matchesRankByKindAndFieldWeightThenIndexOrder() {
+        SearchIndex<Long, Doc> index = index(
+            new Doc(1, "Escargot", null),
+            new Doc(2, "Cargo", null),
+            new Doc(3, "Other", "car 12"),
+            new Doc(4, "Scar", null));
+
+        assertEquals(List.of(2L, 1L, 4L, 3L), ids(index.search("car", 10)));
+        assertEquals(List.of(2L, 1L), ids(index.search("car", 2)));
+        assertEquals(4, index.page("car", 1, 3).getTotalElements());
+        assertEquals(List.of(3L), ids(index.page("car", 1, 3).getContent()));
+    }
+
+
+    @Test
+    public void repeatedUpdatesCompactAndKeepOnlyTheLatestText() {
+        SearchIndex<Long, Doc> index = index(new Doc(1, "Alpha", null), new Doc(2, "Beta", null));
+        for (int round = 0; round < 500; round++) {
+            index.index(new Doc(1, "Gamma " + round, null));
+        }
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(), ids(index.search("alpha", 10)));
+        assertEquals(List.of(1L), ids(index.search("gamma 499", 10)));
+        assertEquals(List.of(2L), ids(index.search("beta", 10)));
+
+        index.removeAll(List.of(1L));
+        assertEquals(List.of(), ids(index.search("gamma", 10)));
+        assertEquals(1, index.size());
+    }
+
+
+    @Test
+    public void tenantIndexReindexesUpdatedDocumentsOfTheCurrentTenant() {
+        Map<Long, Doc> store = new HashMap<>();
+        TenantSearchIndex<Long, Doc> tenants = new TenantSearchIndex<>(Doc::id, List.of(SearchField.of("name", Doc::name)),
+            ids -> {
+                List<Doc> loaded = new ArrayList<>();
+                ids.forEach(id -> loaded.add(store.get(id)));
+                return loaded;
+            });
+
+        TenantContext.setTenantId("t1");
+        store.put(1L, new Doc(1, "Old name", null));
+        tenants.onCreated(List.of(store.get(1L)));
+        store.put(1L, new Doc(1, "New name", null));
+        tenants.onUpdated(List.of(1L));
+
+        assertEquals(List.of(), ids(tenants.search("old", 10)));
+        assertEquals(List.of(1L), ids(tenants.search("new", 10)));
+
+        TenantContext.setTenantId("t2");
+        assertEquals(List.of(), ids(tenants.search("new", 10)));
+
+        TenantContext.setTenantId("t1");
+        tenants.onDeleted(List.of(1L));
+        assertEquals(List.of(), ids(tenants.search("new", 10)));
+    }
+}
@@ -0,0 +1,76 @@
+package com.trackswiftly.utils.base.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.trackswiftly.utils.base.utils.MethodMask;
+import com.trackswiftly.utils.dtos.IdSet;
+import com.trackswiftly.utils.dtos.TokenInfo;
+import com.trackswiftly.utils.enums.Resource;
+
+/**
+ * Unit tests for reading memory-mapped ACL snapshots.
+ */
+public class AclSnapshotReaderTest {
+
+    private static final Map<String, TokenInfo> ACLS = Map.of(
+        "t1:driver", TokenInfo.builder()
+            .grant(Resource.DEVICES, MethodMask.of("GET"), IdSet.of(List.of("1", "5", "a-b")))
+            .build(),
+        "t1:admin", TokenInfo.builder()
+            .grant(Resource.POIS, MethodMask.ALL, IdSet.EMPTY)
+            .build());
+
+    @TempDir
+    Path dir;
+
+
+    @Test
+    public void writtenSnapshotIsReadBack() throws IOException {
+        Path file = dir.resolve("acl.snapshot");
+        AclSnapshotWriter.write(file, 3, ACLS);
+
+        AclSnapshotReader reader = new AclSnapshotReader(file);
+
+        assertEquals(3, reader.version());
+        assertEquals(2, reader.size());
+        assertEquals(ACLS.get("t1:driver"), reader.tokenInfo("t1:driver"));
+        assertTrue(reader.hasAccess("t1:driver", "gw/devices", "GET", List.of("5", "a-b")));
+        assertFalse(reader.hasAccess("t1:driver", "gw/devices", "GET", List.of("6")));
+        assertTrue(reader.hasAccess("t1:admin", "gw/pois", "DELETE", List.of("6")));
+        assertFalse(reader.contains("t1:nobody"));
+    }
+
+
+    @Test
+    public void truncatedSnapshotIsRejectedAndRefreshKeepsCurrentVersion() throws IOException {
+        Path file = dir.resolve("acl.snapshot");
+        AclSnapshotWriter.write(file, 1, ACLS);
+        AclSnapshotReader reader = new AclSnapshotReader(file);
+
+        AclSnapshotWriter.write(file, 2, ACLS);
+        byte[] next = Files.readAllBytes(file);
+        for (int length = 0; length < next.length; length += 4) {
+            Path truncated = dir.resolve("truncated-" + length);
+            Files.write(truncated, Arrays.copyOf(next, length));
+            assertThrows(IllegalArgumentException.class, () -> new AclSnapshotReader(truncated), "length " + length);
+        }
+
+        Files.write(file, Arrays.copyOf(next, next.length / 2));
+        assertThrows(IllegalArgumentException.class, reader::refresh);
+        assertEquals(1, reader.version());
+        assertEquals(ACLS.get("t1:driver"), reader.tokenInfo("t1:driver"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.trackswiftly.utils.base.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.trackswiftly.utils.dtos.OperationResult;
+import com.trackswiftly.utils.dtos.PageDTO;
+import com.trackswiftly.utils.interfaces.BaseDao;
+
+/**
+ * Unit tests for chunked deletes.
+ */
+public class ChunkedDeleterTest {
+
+    /** DAO whose deletes take a little while, so that concurrent deletes overlap. */
+    private static final class SlowDao implements BaseDao<Object, Long> {
+
+        final AtomicInteger deleted = new AtomicInteger();
+
+
+        @Override
+        public List<Object> insertInBatch(List<Object> entities) {
+            return entities;
+        }
+
+
+        @Override
+        public int deleteByIds(List<Long> ids) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            deleted.addAndGet(ids.size());
+            return ids.size();
+        }
+
+
+        @Override
+        public List<Object> findByIds(List<Long> ids) {
+            return List.of();
+        }
+
+
+        @Override
+        public List<Object> findWithPagination(int page, int pageSize) {
+            return List.of();
+        }
+
+
+        @Override
+        public Long count() {
+            return 0L;
+        }
+
+
+        @Override
+        public int updateInBatch(List<Long> ids, Object entity) {
+            return 0;
+        }
+    }
+
+
+    /** Service deleting through {@link TrackSwiftlyServiceAbstract#deleteInChunks}. */
+    private static final class DeletingService extends TrackSwiftlyServiceAbstract<Long, String, String> {
+
+        final ChunkedDeleter<Object, Long> deleter;
+
+
+        DeletingService(ChunkedDeleter<Object, Long> deleter) {
+            this.deleter = deleter;
+        }
+
+
+        @Override
+        public OperationResult deleteEntities(List<Long> ids) {
+            return deleteInChunks(deleter, ids);
+        }
+
+
+        @Override
+        protected List<String> performCreateEntities(List<String> requests) {
+            return requests;
+        }
+
+
+        @Override
+        protected OperationResult performUpdateEntities(List<Long> ids, String request) {
+            return new OperationResult(0, "");
+        }
+
+
+        @Override
+        protected void validateCreate(List<String> requests) {}
+
+
+        @Override
+        protected void validateUpdate(List<Long> ids, String request) {}
+
+
+        @Override
+        public List<String> findEntities(List<Long> ids) {
+            return List.of();
+        }
+
+
+        @Override
+        public PageDTO<String> pageEntities(int page, int pageSize) {
+            return new PageDTO<>(List.of(), page, pageSize, 0, 0);
+        }
+
+
+        @Override
+        public List<String> search(String keyword) {
+            return List.of();
+        }
+    }
+
+
+    @Test
+    public void deletesFromEveryThreadOfTheHelperPoolComplete() throws Exception {
+        SlowDao dao = new SlowDao();
+        DeleteOptions options = DeleteOptions.builder().chunkSize(1).parallelism(4).build();
+        AsyncTrackSwiftlyService<Long, String, String> async =
+            new AsyncTrackSwiftlyService<>(new DeletingService(new ChunkedDeleter<>(dao, options)));
+
+        // More concurrent deletes than pool threads, each queueing helpers on the same pool.
+        int deletes = Math.max(8, 4 * Runtime.getRuntime().availableProcessors()) + 4;
+        List<CompletableFuture<OperationResult>> results = new ArrayList<>();
+        for (int i = 0; i < deletes; i++) {
+            results.add(async.deleteEntities(LongStream.range(0, 8).boxed().toList()));
+        }
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+        for (CompletableFuture<OperationResult> result : results) {
+            assertEquals(8, result.get().affectedRecords());
+        }
+        assertEquals(deletes * 8, dao.deleted.get());
+    }
+}
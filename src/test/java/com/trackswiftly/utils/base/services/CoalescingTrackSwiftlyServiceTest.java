@@ -0,0 +1,107 @@
+package com.trackswiftly.utils.base.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.trackswiftly.utils.dtos.OperationResult;
+import com.trackswiftly.utils.dtos.PageDTO;
+import com.trackswiftly.utils.interfaces.TrackSwiftlyServiceInterface;
+
+/**
+ * Unit tests for sharing reads between callers.
+ */
+public class CoalescingTrackSwiftlyServiceTest {
+
+    /** Delegate returning fresh mutable results and counting reads. */
+    private static final class CountingService implements TrackSwiftlyServiceInterface<Long, String, String> {
+
+        final AtomicInteger reads = new AtomicInteger();
+
+
+        @Override
+        public List<String> createEntities(List<String> requests) {
+            return new ArrayList<>(requests);
+        }
+
+
+        @Override
+        public OperationResult deleteEntities(List<Long> ids) {
+            return null;
+        }
+
+
+        @Override
+        public List<String> findEntities(List<Long> ids) {
+            reads.incrementAndGet();
+            List<String> found = new ArrayList<>();
+            ids.forEach(id -> found.add("v" + id));
+            return found;
+        }
+
+
+        @Override
+        public PageDTO<String> pageEntities(int page, int pageSize) {
+            reads.incrementAndGet();
+            return new PageDTO<>(new ArrayList<>(List.of("a", "b")), page, pageSize, 2, 1);
+        }
+
+
+        @Override
+        public OperationResult updateEntities(List<Long> ids, String request) {
+            return null;
+        }
+
+
+        @Override
+        public List<String> search(String keyword) {
+            reads.incrementAndGet();
+            return new ArrayList<>(List.of(keyword));
+        }
+    }
+
+
+    @Test
+    public void sharedResultsCannotBeModifiedByOneCaller() {
+        CountingService delegate = new CountingService();
+        CoalescingTrackSwiftlyService<Long, String, String> service =
+            new CoalescingTrackSwiftlyService<>(delegate, Duration.ofMinutes(1), List::copyOf);
+
+        List<String> first = service.findEntities(List.of(1L, 2L));
+        assertThrows(UnsupportedOperationException.class, () -> first.add("v3"));
+        assertEquals(List.of("v1", "v2"), service.findEntities(List.of(1L, 2L)));
+
+        PageDTO<String> page = service.pageEntities(0, 10);
+        page.setTotalElements(99);
+        assertThrows(UnsupportedOperationException.class, () -> page.getContent().clear());
+        PageDTO<String> again = service.pageEntities(0, 10);
+        assertNotSame(page, again);
+        assertSame(page.getContent(), again.getContent());
+        assertEquals(2, again.getTotalElements());
+
+        assertEquals(2, delegate.reads.get());
+    }
+
+
+    @Test
+    public void writeStopsSharingCompletedReads() {
+        CountingService delegate = new CountingService();
+        CoalescingTrackSwiftlyService<Long, String, String> service =
+            new CoalescingTrackSwiftlyService<>(delegate, Duration.ofMinutes(1), List::copyOf);
+
+        service.search("truck");
+        service.search("truck");
+        service.createEntities(List.of("x"));
+        service.search("truck");
+
+        assertEquals(2, delegate.reads.get());
+    }
+}
@@ -0,0 +1,98 @@
+package com.trackswiftly.utils.base.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.trackswiftly.utils.dtos.AclDiff;
+import com.trackswiftly.utils.dtos.IdSet;
+import com.trackswiftly.utils.dtos.TokenInfo;
+import com.trackswiftly.utils.enums.Resource;
+
+/**
+ * Unit tests for ACL diff compression.
+ */
+public class CompressedAclServiceTest {
+
+    private static final TokenInfo BEFORE = StreamingAclParser.parse(
+        "{\"gw/devices\": {\"methods\": [\"GET\", \"POST\"], \"ids\": [1, 5, 9, \"a,b;c\"]},"
+        + " \"mqtt\": {\"methods\": [\"subscribe\"]}, \"gw/pois\": {\"methods\": [\"GET\"]}}");
+
+    private static final TokenInfo AFTER = StreamingAclParser.parse(
+        "{\"gw/devices\": {\"methods\": [\"GET\", \"DELETE\"], \"ids\": [1, 9, 100000, \"a,b;c\", \"zz\"]},"
+        + " \"gw/geofences\": {\"methods\": [\"GET\"], \"ids\": [4]}, \"gw/pois\": {\"methods\": [\"GET\"]}}");
+
+
+    @Test
+    public void diffRoundTripsThroughCompressedForm() {
+        AclDiff diff = AclDiff.between(BEFORE, AFTER);
+
+        AclDiff decoded = CompressedAclService.decompressDiff(CompressedAclService.compressDiff(diff));
+
+        assertEquals(diff, decoded);
+        assertEquals(AFTER, decoded.applyTo(BEFORE));
+    }
+
+
+    @Test
+    public void applyingDiffSharesUnchangedPermissions() {
+        TokenInfo patched = AclDiff.between(BEFORE, AFTER).applyTo(BEFORE);
+
+        assertSame(BEFORE.permission(Resource.POIS), patched.permission(Resource.POIS));
+    }
+
+
+    @Test
+    public void removingLastRestrictedIdRevokesResource() {
+        TokenInfo restricted = StreamingAclParser.parse("{\"gw/devices\": {\"methods\": [\"GET\"], \"ids\": [7]}}");
+        AclDiff diff = AclDiff.builder().modify(Resource.DEVICES, 0, 0, IdSet.EMPTY, IdSet.ofLongs(7)).build();
+
+        assertNull(diff.applyTo(restricted).permission(Resource.DEVICES));
+    }
+
+
+    @Test
+    public void concurrentNarrowingsNeverWidenAccess() {
+        TokenInfo base = StreamingAclParser.parse("{\"gw/devices\": {\"methods\": [\"GET\"], \"ids\": [1, 2]}}");
+        AclDiff onlyOne = AclDiff.between(base, StreamingAclParser.parse("{\"gw/devices\": {\"methods\": [\"GET\"], \"ids\": [1]}}"));
+        AclDiff onlyTwo = AclDiff.between(base, StreamingAclParser.parse("{\"gw/devices\": {\"methods\": [\"GET\"], \"ids\": [2]}}"));
+
+        LiveAcl acl = new LiveAcl(base);
+        acl.apply(onlyOne);
+        acl.apply(onlyTwo);
+
+        assertFalse(acl.hasAccess("gw/devices", "GET", List.of("3")));
+        assertNull(acl.snapshot().tokenInfo().permission(Resource.DEVICES));
+    }
+
+
+    @Test
+    public void wideningToAllIdsRoundTrips() {
+        TokenInfo restricted = StreamingAclParser.parse("{\"gw/devices\": {\"methods\": [\"GET\"], \"ids\": [7]}}");
+        TokenInfo unrestricted = StreamingAclParser.parse("{\"gw/devices\": {\"methods\": [\"GET\"]}}");
+        AclDiff diff = CompressedAclService.decompressDiff(CompressedAclService.compressDiff(AclDiff.between(restricted, unrestricted)));
+
+        assertEquals(unrestricted, diff.applyTo(restricted));
+    }
+
+
+    @Test
+    public void nullListsParseLikeTheMapParser() {
+        TokenInfo streamed = StreamingAclParser.parse("{\"gw/devices\": {\"methods\": null, \"ids\": null}, \"gw/pois\": {\"methods\": [\"GET\"], \"ids\": null}}");
+        Map<String, Object> devices = new HashMap<>();
+        devices.put("methods", null);
+        devices.put("ids", null);
+        Map<String, Object> pois = new HashMap<>();
+        pois.put("methods", List.of("GET"));
+        pois.put("ids", null);
+
+        assertEquals(TokenInfo.from(Map.of("gw/devices", devices, "gw/pois", pois)), streamed);
+    }
+}
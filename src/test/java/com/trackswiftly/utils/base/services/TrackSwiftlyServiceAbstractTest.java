@@ -0,0 +1,254 @@
+package com.trackswiftly.utils.base.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.trackswiftly.utils.dtos.OperationResult;
+import com.trackswiftly.utils.dtos.OperationStats;
+import com.trackswiftly.utils.dtos.PageDTO;
+import com.trackswiftly.utils.dtos.Projection;
+import com.trackswiftly.utils.exception.ItemRejectedException;
+import com.trackswiftly.utils.exception.UnableToProccessIteamException;
+import com.trackswiftly.utils.interfaces.BaseDao;
+
+/**
+ * Unit tests for the template methods of the base service.
+ */
+public class TrackSwiftlyServiceAbstractTest {
+
+    /** Entity with an association, as loaded by the DAO. */
+    public record Vehicle(String plate) {}
+
+    public record Device(Long id, String name, Vehicle vehicle) {}
+
+    /** Output DTO, flattened: it has no {@code vehicle} attribute. */
+    public record DeviceView(Long id, String name, String plate) {}
+
+    public record Plate(Long id, String plate) {}
+
+
+    /** In-memory DAO counting full and projected reads. */
+    private static final class DeviceDao implements BaseDao<Device, Long> {
+
+        final List<Device> rows = List.of(
+            new Device(1L, "one", new Vehicle("AB-1")),
+            new Device(2L, "two", null),
+            new Device(3L, "three", new Vehicle("CD-3")));
+        final List<String> calls = new ArrayList<>();
+
+
+        @Override
+        public List<Device> insertInBatch(List<Device> entities) {
+            return entities;
+        }
+
+
+        @Override
+        public int deleteByIds(List<Long> ids) {
+            return 0;
+        }
+
+
+        @Override
+        public List<Device> findByIds(List<Long> ids) {
+            calls.add("findByIds");
+            return rows.stream().filter(row -> ids.contains(row.id())).toList();
+        }
+
+
+        @Override
+        public <P> List<P> findByIds(List<Long> ids, Projection<P> projection) {
+            calls.add("findByIds(projection)");
+            return projection.fromAll(rows.stream().filter(row -> ids.contains(row.id())).toList());
+        }
+
+
+        @Override
+        public List<Device> findWithPagination(int page, int pageSize) {
+            calls.add("findWithPagination");
+            return rows.subList(page * pageSize, Math.min(rows.size(), (page + 1) * pageSize));
+        }
+
+
+        @Override
+        public <P> List<P> findWithPagination(int page, int pageSize, Projection<P> projection) {
+            calls.add("findWithPagination(projection)");
+            return projection.fromAll(rows.subList(page * pageSize, Math.min(rows.size(), (page + 1) * pageSize)));
+        }
+
+
+        @Override
+        public Long count() {
+            return (long) rows.size();
+        }
+
+
+        @Override
+        public int updateInBatch(List<Long> ids, Device entity) {
+            return 0;
+        }
+    }
+
+
+    /** Service over the in-memory DAO, optionally pushing projections down to it. */
+    private static class DeviceService extends TrackSwiftlyServiceAbstract<Long, String, DeviceView> {
+
+        final DeviceDao dao = new DeviceDao();
+        final boolean pushDown;
+        Consumer<List<String>> createRules = requests -> {};
+        int createValidations;
+
+
+        DeviceService(boolean pushDown) {
+            this.pushDown = pushDown;
+        }
+
+
+        @Override
+        protected BaseDao<?, Long> projectionDao() {
+            return pushDown ? dao : null;
+        }
+
+
+        private static DeviceView view(Device device) {
+            return new DeviceView(device.id(), device.name(), device.vehicle() == null ? null : device.vehicle().plate());
+        }
+
+
+        @Override
+        public List<DeviceView> findEntities(List<Long> ids) {
+            return dao.findByIds(ids).stream().map(DeviceService::view).toList();
+        }
+
+
+        @Override
+        public PageDTO<DeviceView> pageEntities(int page, int pageSize) {
+            List<DeviceView> content = dao.findWithPagination(page, pageSize).stream().map(DeviceService::view).toList();
+            return new PageDTO<>(content, page, pageSize, dao.count(), (int) ((dao.count() + pageSize - 1) / pageSize));
+        }
+
+
+        @Override
+        public List<DeviceView> search(String keyword) {
+            return List.of();
+        }
+
+
+        @Override
+        public OperationResult deleteEntities(List<Long> ids) {
+            return new OperationResult(0, "");
+        }
+
+
+        @Override
+        protected List<DeviceView> performCreateEntities(List<String> requests) {
+            return requests.stream().map(name -> new DeviceView(null, name, null)).toList();
+        }
+
+
+        @Override
+        protected OperationResult performUpdateEntities(List<Long> ids, String request) {
+            return new OperationResult(ids.size(), "");
+        }
+
+
+        @Override
+        protected void validateCreate(List<String> requests) {
+            createValidations++;
+            createRules.accept(requests);
+        }
+
+
+        @Override
+        protected void validateUpdate(List<Long> ids, String request) {}
+    }
+
+
+    @Test
+    public void projectedReadsArePushedDownToTheDao() {
+        DeviceService service = new DeviceService(true);
+        Projection<Plate> projection = Projection.of(Plate.class, "id", "vehicle.plate");
+
+        assertEquals(List.of(new Plate(1L, "AB-1"), new Plate(2L, null)), service.findEntities(List.of(1L, 2L), projection));
+        PageDTO<Plate> page = service.pageEntities(1, 2, projection);
+
+        assertEquals(List.of(new Plate(3L, "CD-3")), page.getContent());
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertEquals(List.of("findByIds(projection)", "findWithPagination(projection)"), service.dao.calls);
+    }
+
+
+    @Test
+    public void projectedReadsWithoutDaoProjectOutputDtos() {
+        DeviceService service = new DeviceService(false);
+
+        assertEquals(List.of(new Plate(3L, "CD-3")), service.findEntities(List.of(3L), Projection.of(Plate.class, "id", "plate")));
+        assertEquals(List.of("findByIds"), service.dao.calls);
+    }
+
+
+    @Test
+    public void invalidRequestsAreFoundByBisection() {
+        DeviceService service = new DeviceService(false);
+        service.createRules = requests -> {
+            if (requests.stream().anyMatch(name -> name.startsWith("bad"))) {
+                throw ItemRejectedException.of("INVALID_NAME");
+            }
+        };
+        List<String> requests = IntStream.range(0, 1000).mapToObj(i -> i == 17 || i == 640 ? "bad-" + i : "ok-" + i).toList();
+
+        OperationResult result = service.createValidEntities(requests);
+
+        assertEquals(998, result.affectedRecords());
+        assertArrayEquals(new int[] { 17, 640 }, result.errors().failedIndexes());
+        assertTrue(service.createValidations < 50, service.createValidations + " validations");
+    }
+
+
+    @Test
+    public void batchErrorIsRethrownWhenNoRequestFailsAlone() {
+        DeviceService service = new DeviceService(false);
+        service.createRules = requests -> {
+            if (new HashSet<>(requests).size() < requests.size()) {
+                throw new UnableToProccessIteamException("Duplicate names");
+            }
+        };
+
+        assertThrows(UnableToProccessIteamException.class, () -> service.createValidEntities(List.of("a", "b", "c", "a")));
+    }
+
+
+    @Test
+    public void failingMetricsSinkDoesNotFailOperations() {
+        DeviceService service = new DeviceService(false);
+        List<String> recorded = new ArrayList<>();
+        service.setMetricsSink((entityType, stats) -> {
+            recorded.add(stats.operation());
+            throw new IllegalStateException("metrics backend down");
+        });
+
+        assertEquals(2, service.updateEntities(List.of(1L, 2L), "x").stats().items());
+        assertEquals(1, service.createEntities(List.of("a")).size());
+        assertEquals(List.of("update", "create"), recorded);
+    }
+
+
+    @Test
+    public void noopSinkSkipsStatisticsOfPlainOperations() {
+        DeviceService service = new DeviceService(false);
+
+        assertEquals(OperationStats.none(), service.updateEntities(List.of(1L, 2L), "x").stats());
+        assertEquals(2, service.updateValidEntities(List.of(1L, 2L), "x").stats().items());
+    }
+}
@@ -0,0 +1,67 @@
+package com.trackswiftly.utils.base.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.trackswiftly.utils.dtos.Projection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+
+/**
+ * Unit tests for the JPQL generated for projections.
+ */
+public class JpaProjectionsTest {
+
+    private static final class Device {}
+
+    public record DeviceSummary(Long id, String plate, String model, String driver) {}
+
+
+    @SuppressWarnings("unchecked")
+    private static <X> X stub(Class<X> type, InvocationHandler handler) {
+        return (X) Proxy.newProxyInstance(JpaProjectionsTest.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+
+    /** Entity manager recording the JPQL of every query and returning no rows. */
+    private static EntityManager recordingEntityManager(List<String> queries) {
+        EntityType<?> entityType = stub(EntityType.class, (proxy, method, args) -> "Device");
+        Metamodel metamodel = stub(Metamodel.class, (proxy, method, args) -> entityType);
+        TypedQuery<?> query = stub(TypedQuery.class, (proxy, method, args) ->
+            method.getName().equals("getResultList") ? List.of() : proxy);
+        return stub(EntityManager.class, (proxy, method, args) -> {
+            if (method.getName().equals("getMetamodel")) {
+                return metamodel;
+            }
+            if (method.getName().equals("createQuery")) {
+                queries.add((String) args[0]);
+                return query;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+
+    @Test
+    public void associationPathsAreLeftJoinedOnce() {
+        List<String> queries = new ArrayList<>();
+        EntityManager em = recordingEntityManager(queries);
+        Projection<DeviceSummary> projection = Projection.of(DeviceSummary.class, "id", "vehicle.plate", "vehicle.model.name", "driver.name");
+
+        JpaProjections.findByIds(em, Device.class, "id", List.of(1L), projection);
+        JpaProjections.findWithPagination(em, Device.class, "id", 0, 20, projection);
+
+        String from = "select e.id, e_0.plate, e_1.name, e_2.name from Device e"
+            + " left join e.vehicle e_0 left join e_0.model e_1 left join e.driver e_2";
+        assertEquals(List.of(from + " where e.id in :ids", from + " order by e.id"), queries);
+    }
+}
@@ -0,0 +1,146 @@
+package com.trackswiftly.utils.base.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for coalescing calls by key.
+ */
+public class SingleFlightTest {
+
+    /** Loader that blocks until released, counting its executions. */
+    private static final class GatedLoader implements Supplier<String> {
+
+        final AtomicInteger executions = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RuntimeException failure;
+
+
+        GatedLoader(RuntimeException failure) {
+            this.failure = failure;
+        }
+
+
+        @Override
+        public String get() {
+            int execution = executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return "result-" + execution;
+        }
+    }
+
+
+    /** Waits until a caller blocks on the in-flight call; joiners have no other observable state. */
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+
+    private static CompletableFuture<String> callInThread(SingleFlight<String, String> flights, Supplier<String> loader, Thread[] thread) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        thread[0] = new Thread(() -> {
+            try {
+                result.complete(flights.execute("k", loader));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        thread[0].start();
+        return result;
+    }
+
+
+    @Test
+    public void failureIsSharedWithWaitersButNotKept() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofMinutes(1));
+        IllegalStateException failure = new IllegalStateException("backend down");
+        GatedLoader loader = new GatedLoader(failure);
+        Thread[] first = new Thread[1];
+        Thread[] second = new Thread[1];
+
+        CompletableFuture<String> leader = callInThread(flights, loader, first);
+        loader.started.await();
+        CompletableFuture<String> waiter = callInThread(flights, loader, second);
+        awaitWaiting(second[0]);
+        loader.release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, leader::get).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, waiter::get).getCause());
+        assertEquals(1, loader.executions.get());
+        assertEquals(0, flights.size());
+        assertEquals("ok", flights.execute("k", () -> "ok"));
+    }
+
+
+    @Test
+    public void forgetDuringFlightLetsWaitersFinishButStartsNewExecution() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofMinutes(1));
+        GatedLoader loader = new GatedLoader(null);
+        Thread[] first = new Thread[1];
+        Thread[] second = new Thread[1];
+
+        CompletableFuture<String> leader = callInThread(flights, loader, first);
+        loader.started.await();
+        CompletableFuture<String> waiter = callInThread(flights, loader, second);
+        awaitWaiting(second[0]);
+
+        flights.forget(key -> true);
+        assertEquals("fresh", flights.execute("k", () -> "fresh"));
+        loader.release.countDown();
+
+        assertEquals("result-1", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("result-1", waiter.get(5, TimeUnit.SECONDS));
+        assertEquals("fresh", flights.execute("k", () -> "not shared"));
+    }
+
+
+    @Test
+    public void completedResultIsSharedOnlyWithinWindow() throws InterruptedException {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofMillis(50));
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<String> loader = () -> "result-" + executions.incrementAndGet();
+
+        assertEquals("result-1", flights.execute("k", loader));
+        assertEquals("result-1", flights.execute("k", loader));
+        assertEquals("result-2", flights.execute("other", () -> "result-" + executions.incrementAndGet()));
+
+        Thread.sleep(100);
+        assertEquals("result-3", flights.execute("k", loader));
+        assertTrue(flights.size() <= 2);
+    }
+
+
+    @Test
+    public void zeroWindowSharesInFlightCallsOnly() {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ZERO);
+        AtomicInteger executions = new AtomicInteger();
+
+        flights.execute("k", () -> "result-" + executions.incrementAndGet());
+        assertEquals("result-2", flights.execute("k", () -> "result-" + executions.incrementAndGet()));
+        assertEquals(0, flights.size());
+    }
+}